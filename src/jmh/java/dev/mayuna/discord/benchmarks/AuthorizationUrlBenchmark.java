@@ -0,0 +1,42 @@
+package dev.mayuna.discord.benchmarks;
+
+import dev.mayuna.discord.oauth.DiscordApplication;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link dev.mayuna.discord.oauth.DiscordOAuthAuthorizationUrlFactory#createAuthorizationUrl(DiscordApplication, String, String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthorizationUrlBenchmark {
+
+    private DiscordApplication application;
+
+    @Setup
+    public void setup() {
+        application = new DiscordApplication.Builder()
+                .withClientId("1234567890123456789")
+                .withClientSecret("O5X1hCXYc9ZHQ9xQkfv8jnYJ0qgyPJ3H")
+                .withRedirectUrl("https://example.com/discord/callback")
+                .withScopes("identify", "guilds", "email")
+                .build();
+    }
+
+    @Benchmark
+    public String withoutState() {
+        return application.createAuthorizationUrl();
+    }
+
+    @Benchmark
+    public String withState() {
+        return application.createAuthorizationUrl("3f0c8a4e-6f9b-4cd7-9a0b-5d1b8f6c2e11");
+    }
+
+    @Benchmark
+    public String withStateAndPrompt() {
+        return application.createAuthorizationUrl("3f0c8a4e-6f9b-4cd7-9a0b-5d1b8f6c2e11", "consent");
+    }
+}
@@ -0,0 +1,100 @@
+package dev.mayuna.discord.benchmarks;
+
+import dev.mayuna.discord.api.DiscordApi;
+import dev.mayuna.discord.api.entities.DiscordUser;
+import dev.mayuna.discord.http.DiscordHttpClientConfig;
+import dev.mayuna.discord.oauth.DiscordApplication;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import dev.mayuna.discord.testing.DiscordStandInServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to complete the given number of concurrent logins (code exchange followed by user fetch, both with blocking
+ * {@code send()}) against an in-process stand-in server, when the logins run on a fixed pool of platform threads (and the HTTP client on its default
+ * executor) or when both run on virtual threads.<br>Needs Java 21. With 10k concurrent logins, the limit of open files may need to be raised.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ConcurrentLoginBenchmark {
+
+    public enum ThreadMode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadMode threadMode;
+
+    @Param({"1000", "10000"})
+    public int concurrentLogins;
+
+    @Param({"200"})
+    public int platformThreads;
+
+    private DiscordStandInServer server;
+    private ExecutorService executorService;
+    private DiscordOAuth discordOAuth;
+    private DiscordApi discordApi;
+
+    @Setup
+    public void setup() throws Exception {
+        server = DiscordStandInServer.permissive(16);
+        server.start();
+
+        executorService = threadMode == ThreadMode.VIRTUAL ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(platformThreads);
+
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withApiUrl(server.getUrl())
+                .withClientId("1234567890123456789")
+                .withClientSecret("O5X1hCXYc9ZHQ9xQkfv8jnYJ0qgyPJ3H")
+                .withRedirectUrl("https://example.com/discord/callback")
+                .withScopes("identify", "guilds")
+                // Platform pool must not be shared with the HTTP client, all its threads are blocked in send()
+                .withHttpClientConfig(new DiscordHttpClientConfig.Builder()
+                                              .withExecutor(threadMode == ThreadMode.VIRTUAL ? executorService : null)
+                                              .build())
+                .build();
+
+        discordOAuth = new DiscordOAuth(application);
+        discordApi = new DiscordApi(application.getApiUrl(), application.getHttpClient());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+        server.stop();
+    }
+
+    @Benchmark
+    public int logins() throws Exception {
+        List<Future<DiscordUser>> futures = new ArrayList<>(concurrentLogins);
+
+        for (int i = 0; i < concurrentLogins; i++) {
+            futures.add(executorService.submit(() -> {
+                DiscordAccessToken token = discordOAuth.fetchAccessToken("NhhvTDYsFcdgNLnnLijcl7Ku7bEEeee").send();
+                return discordApi.fetchUser(token.getAccessToken()).send();
+            }));
+        }
+
+        int completed = 0;
+
+        for (Future<DiscordUser> future : futures) {
+            if (future.get().getId() != null) {
+                completed++;
+            }
+        }
+
+        return completed;
+    }
+}
@@ -0,0 +1,49 @@
+package dev.mayuna.discord.benchmarks;
+
+import com.google.gson.Gson;
+import dev.mayuna.discord.api.entities.DiscordUser;
+import dev.mayuna.discord.http.DiscordGson;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import dev.mayuna.discord.testing.DiscordStandInServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares deserialization of {@link DiscordAccessToken} and {@link DiscordUser} responses by Gson's reflective adapters and by the streaming type
+ * adapters registered on {@link DiscordGson#INSTANCE}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeserializationBenchmark {
+
+    private Gson reflectiveGson;
+    private Gson gson;
+
+    @Setup
+    public void setup() {
+        reflectiveGson = new Gson();
+        gson = DiscordGson.INSTANCE;
+    }
+
+    @Benchmark
+    public DiscordAccessToken accessTokenReflective() {
+        return reflectiveGson.fromJson(DiscordStandInServer.ACCESS_TOKEN_RESPONSE, DiscordAccessToken.class);
+    }
+
+    @Benchmark
+    public DiscordAccessToken accessTokenAdapter() {
+        return gson.fromJson(DiscordStandInServer.ACCESS_TOKEN_RESPONSE, DiscordAccessToken.class);
+    }
+
+    @Benchmark
+    public DiscordUser userReflective() {
+        return reflectiveGson.fromJson(DiscordStandInServer.USER_RESPONSE, DiscordUser.class);
+    }
+
+    @Benchmark
+    public DiscordUser userAdapter() {
+        return gson.fromJson(DiscordStandInServer.USER_RESPONSE, DiscordUser.class);
+    }
+}
@@ -0,0 +1,45 @@
+package dev.mayuna.discord.benchmarks;
+
+import dev.mayuna.discord.oauth.DiscordApplication;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of building {@link DiscordOAuth}'s requests, without sending them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiscordOAuthRequestBenchmark {
+
+    private DiscordOAuth discordOAuth;
+
+    @Setup
+    public void setup() {
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withClientId("1234567890123456789")
+                .withClientSecret("O5X1hCXYc9ZHQ9xQkfv8jnYJ0qgyPJ3H")
+                .withRedirectUrl("https://example.com/discord/callback")
+                .withScopes("identify", "guilds", "email")
+                .build();
+
+        discordOAuth = new DiscordOAuth(application);
+    }
+
+    @Benchmark
+    public Object fetchAccessToken() {
+        return discordOAuth.fetchAccessToken("NhhvTDYsFcdgNLnnLijcl7Ku7bEEeee");
+    }
+
+    @Benchmark
+    public Object refreshAccessToken() {
+        return discordOAuth.refreshAccessToken("D43f5y0ahjqew82jZ4NViEr2YafMKhue");
+    }
+
+    @Benchmark
+    public Object revokeTokens() {
+        return discordOAuth.revokeTokens("6qrZcUqja7812RVdnEKjpzOL4CvHBFG");
+    }
+}
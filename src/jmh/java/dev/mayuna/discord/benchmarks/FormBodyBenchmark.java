@@ -0,0 +1,52 @@
+package dev.mayuna.discord.benchmarks;
+
+import dev.mayuna.discord.utils.FormBodyTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building the token exchange body by string concatenation (as it was done before) with {@link FormBodyTemplate}. Run with the {@code gc}
+ * profiler to see the allocations per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FormBodyBenchmark {
+
+    private static final String CLIENT_ID = "1234567890123456789";
+    private static final String CLIENT_SECRET = "O5X1hCXYc9ZHQ9xQkfv8jnYJ0qgyPJ3H";
+    private static final String REDIRECT_URL = "https://example.com/discord/callback";
+    private static final String CODE = "NhhvTDYsFcdgNLnnLijcl7Ku7bEEeee";
+
+    private FormBodyTemplate template;
+
+    @Setup
+    public void setup() {
+        template = new FormBodyTemplate(new String[]{
+                "client_id", CLIENT_ID,
+                "client_secret", CLIENT_SECRET,
+                "grant_type", "authorization_code",
+                "redirect_uri", REDIRECT_URL
+        }, "code");
+    }
+
+    @Benchmark
+    public HttpRequest.BodyPublisher stringConcatenation() {
+        String body = "";
+
+        body += "client_id=" + CLIENT_ID;
+        body += "&client_secret=" + CLIENT_SECRET;
+        body += "&grant_type=authorization_code";
+        body += "&code=" + CODE;
+        body += "&redirect_uri=" + REDIRECT_URL;
+
+        return HttpRequest.BodyPublishers.ofString(body);
+    }
+
+    @Benchmark
+    public HttpRequest.BodyPublisher template() {
+        return template.createBodyPublisher(CODE);
+    }
+}
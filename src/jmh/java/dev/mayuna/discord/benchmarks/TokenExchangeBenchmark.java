@@ -0,0 +1,54 @@
+package dev.mayuna.discord.benchmarks;
+
+import dev.mayuna.discord.oauth.DiscordApplication;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import dev.mayuna.discord.testing.DiscordStandInServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole code exchange against an in-process stand-in of the {@code /oauth2/token} endpoint, e.g., request building, HTTP round trip
+ * over loopback and response parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(4)
+public class TokenExchangeBenchmark {
+
+    private DiscordStandInServer server;
+    private DiscordOAuth discordOAuth;
+
+    @Setup
+    public void setup() throws Exception {
+        server = DiscordStandInServer.permissive(4);
+        server.start();
+
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withApiUrl(server.getUrl())
+                .withClientId("1234567890123456789")
+                .withClientSecret("O5X1hCXYc9ZHQ9xQkfv8jnYJ0qgyPJ3H")
+                .withRedirectUrl("https://example.com/discord/callback")
+                .withScopes("identify", "guilds")
+                .build();
+
+        discordOAuth = new DiscordOAuth(application);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public DiscordAccessToken exchangeCode() throws Exception {
+        return discordOAuth.fetchAccessToken("NhhvTDYsFcdgNLnnLijcl7Ku7bEEeee").send();
+    }
+
+    @Benchmark
+    public DiscordAccessToken exchangeCodeAsync() {
+        return discordOAuth.fetchAccessToken("NhhvTDYsFcdgNLnnLijcl7Ku7bEEeee").sendAsync().join();
+    }
+}
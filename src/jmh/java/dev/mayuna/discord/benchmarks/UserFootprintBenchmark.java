@@ -0,0 +1,84 @@
+package dev.mayuna.discord.benchmarks;
+
+import dev.mayuna.discord.api.entities.CompactDiscordUser;
+import dev.mayuna.discord.api.entities.DiscordUser;
+import dev.mayuna.discord.http.DiscordGson;
+import dev.mayuna.discord.testing.DiscordStandInServer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the retained heap per cached {@link DiscordUser} and {@link CompactDiscordUser}, reported as the {@code bytesPerUser} secondary result.
+ * The heap is measured after a full GC before and after filling a cache of {@link #USERS} users deserialized from
+ * {@link DiscordStandInServer#USER_RESPONSE}, so run it with a fixed heap and a single-threaded collector, e.g.,
+ * {@code -Xmx1g -XX:+UseSerialGC}, for stable numbers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class UserFootprintBenchmark {
+
+    private static final int USERS = 100_000;
+
+    private Object[] cache;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        cache = new Object[USERS];
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        cache = null;
+    }
+
+    @Benchmark
+    public void discordUser(Footprint footprint, Blackhole blackhole) {
+        long before = usedHeap();
+
+        for (int i = 0; i < USERS; i++) {
+            cache[i] = DiscordGson.INSTANCE.fromJson(DiscordStandInServer.USER_RESPONSE, DiscordUser.class);
+        }
+
+        footprint.bytesPerUser = (usedHeap() - before) / USERS;
+        blackhole.consume(cache);
+    }
+
+    @Benchmark
+    public void compactDiscordUser(Footprint footprint, Blackhole blackhole) {
+        long before = usedHeap();
+
+        for (int i = 0; i < USERS; i++) {
+            cache[i] = DiscordGson.INSTANCE.fromJson(DiscordStandInServer.USER_RESPONSE, DiscordUser.class).toCompact();
+        }
+
+        footprint.bytesPerUser = (usedHeap() - before) / USERS;
+        blackhole.consume(cache);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long bytesPerUser;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerUser = 0;
+        }
+    }
+}
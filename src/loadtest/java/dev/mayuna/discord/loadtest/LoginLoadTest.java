@@ -0,0 +1,274 @@
+package dev.mayuna.discord.loadtest;
+
+import dev.mayuna.discord.api.DiscordApiResponse;
+import dev.mayuna.discord.http.DiscordHttpClientConfig;
+import dev.mayuna.discord.http.metrics.DiscordHistogramMetricsListener;
+import dev.mayuna.discord.http.metrics.DiscordRequestMetrics;
+import dev.mayuna.discord.http.metrics.DiscordRequestMetricsListener;
+import dev.mayuna.discord.http.metrics.LatencyHistogram;
+import dev.mayuna.discord.oauth.DiscordApplication;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import dev.mayuna.discord.oauth.login.DiscordLoginPipeline;
+import dev.mayuna.discord.testing.DiscordStandInServer;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator driving whole login flows through {@link DiscordLoginPipeline} and {@link DiscordOAuth} against {@link DiscordStandInServer}.<br>Each flow
+ * exchanges a code created for a distinct user, fetches the user, refreshes the tokens and revokes them, all asynchronously. The given number of flows runs concurrently, each
+ * flow starts when another one completes, until the given number of flows completes, so runs are reproducible and need no network. Reported are
+ * throughput, latency percentiles of the flows and of each endpoint, and allocation rate of the client, e.g., of all threads except the stand-in
+ * server's. Allocation is counted only for platform threads alive at the end of the run, so allocations of threads that exited during the run are
+ * missing and the rate is a lower bound. Allocations of virtual threads are counted on their carrier threads.
+ * <p>
+ * Arguments, all optional: {@code --concurrency=64 --flows=20000 --warmup-flows=2000 --server-threads=<processors> --virtual-threads=false}.
+ * Run by {@code ./gradlew loadtest -Pargs="--concurrency=256"}.
+ */
+public final class LoginLoadTest {
+
+    private static final String CLIENT_ID = "1234567890123456789";
+    private static final String CLIENT_SECRET = "O5X1hCXYc9ZHQ9xQkfv8jnYJ0qgyPJ3H";
+    private static final String REDIRECT_URL = "https://example.com/discord/callback";
+
+    private final int concurrency;
+    private final int flows;
+    private final int warmupFlows;
+    private final int serverThreads;
+    private final boolean virtualThreads;
+
+    private final LatencyHistogram flowLatencies = new LatencyHistogram();
+    private final LongAdder failedFlows = new LongAdder();
+    private final RecordingMetricsListener metricsListener = new RecordingMetricsListener();
+    private final AtomicLong userIds = new AtomicLong(80351110224678912L);
+
+    private LoginLoadTest(Map<String, String> arguments) {
+        this.concurrency = Integer.parseInt(arguments.getOrDefault("concurrency", "64"));
+        this.flows = Integer.parseInt(arguments.getOrDefault("flows", "20000"));
+        this.warmupFlows = Integer.parseInt(arguments.getOrDefault("warmup-flows", "2000"));
+        this.serverThreads = Integer.parseInt(arguments.getOrDefault("server-threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        this.virtualThreads = Boolean.parseBoolean(arguments.getOrDefault("virtual-threads", "false"));
+
+        if (concurrency <= 0 || flows <= 0 || warmupFlows < 0 || serverThreads <= 0) {
+            throw new IllegalArgumentException("Concurrency, flows and server threads must be positive, warmup flows must not be negative.");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> arguments = new TreeMap<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Arguments must be in format --name=value, got: " + arg);
+            }
+
+            arguments.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        new LoginLoadTest(arguments).run();
+    }
+
+    private void run() throws Exception {
+        DiscordStandInServer server = new DiscordStandInServer.Builder()
+                .withThreads(serverThreads)
+                .withClientId(CLIENT_ID)
+                .withClientSecret(CLIENT_SECRET)
+                .withRedirectUrl(REDIRECT_URL)
+                .build();
+        server.start();
+
+        try {
+            DiscordApplication application = new DiscordApplication.Builder()
+                    .withApiUrl(server.getUrl())
+                    .withClientId(CLIENT_ID)
+                    .withClientSecret(CLIENT_SECRET)
+                    .withRedirectUrl(REDIRECT_URL)
+                    .withScopes("identify", "guilds")
+                    .withHttpClientConfig(new DiscordHttpClientConfig.Builder()
+                                                  .withVirtualThreads(virtualThreads)
+                                                  .withMetricsListener(metricsListener)
+                                                  .build())
+                    .build();
+
+            DiscordOAuth discordOAuth = new DiscordOAuth(application);
+            DiscordLoginPipeline pipeline = new DiscordLoginPipeline(discordOAuth);
+
+            System.out.printf("Java %s, %d processors, concurrency %d, %d flows after %d warmup flows, %s threads%n", System.getProperty("java.version"),
+                              Runtime.getRuntime().availableProcessors(), concurrency, flows, warmupFlows, virtualThreads ? "virtual" : "platform");
+
+            runFlows(server, pipeline, warmupFlows);
+
+            flowLatencies.reset();
+            failedFlows.reset();
+            metricsListener.recording = true;
+
+            long allocatedBytesBefore = getClientAllocatedBytes();
+            long gcCountBefore = getGcCount();
+            long gcTimeBefore = getGcTimeMillis();
+            long startNanos = System.nanoTime();
+
+            runFlows(server, pipeline, flows);
+
+            long elapsedNanos = System.nanoTime() - startNanos;
+            long allocatedBytes = getClientAllocatedBytes() - allocatedBytesBefore;
+            metricsListener.recording = false;
+
+            report(elapsedNanos, allocatedBytes, getGcCount() - gcCountBefore, getGcTimeMillis() - gcTimeBefore, server.getRejectedRequestCount());
+        } finally {
+            server.stop();
+        }
+    }
+
+    private void runFlows(DiscordStandInServer server, DiscordLoginPipeline pipeline, int flows) throws InterruptedException {
+        Semaphore runningFlows = new Semaphore(concurrency);
+        CountDownLatch completed = new CountDownLatch(flows);
+
+        for (int i = 0; i < flows; i++) {
+            // Closed loop, next flow starts when another one completes. Started from here, so synchronously failing flows do not nest
+            if (!runningFlows.tryAcquire(10, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Flow did not complete in 10 minutes.");
+            }
+
+            runFlow(server, pipeline).whenComplete((token, throwable) -> {
+                completed.countDown();
+                runningFlows.release();
+            });
+        }
+
+        if (!completed.await(10, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Flows did not complete in 10 minutes.");
+        }
+    }
+
+    private CompletableFuture<DiscordAccessToken> runFlow(DiscordStandInServer server, DiscordLoginPipeline pipeline) {
+        String code = server.createCode(userIds.getAndIncrement());
+        long startNanos = System.nanoTime();
+
+        CompletableFuture<DiscordAccessToken> flow;
+
+        try {
+            DiscordOAuth discordOAuth = pipeline.getDiscordOAuth();
+
+            flow = pipeline.login(code)
+                           .thenCompose(login -> discordOAuth.refreshAccessToken(login.getToken().getRefreshToken()).sendAsync())
+                           .thenCompose(token -> discordOAuth.revokeTokens(checked(token).getAccessToken()).sendAsync().thenApply(response -> checked(response, token)));
+        } catch (Throwable throwable) {
+            flow = CompletableFuture.failedFuture(throwable);
+        }
+
+        return flow.whenComplete((token, throwable) -> {
+            if (throwable != null) {
+                failedFlows.increment();
+            } else {
+                flowLatencies.record(System.nanoTime() - startNanos);
+            }
+        });
+    }
+
+    private static DiscordAccessToken checked(DiscordAccessToken token) {
+        if (!token.isSuccessful() || token.getAccessToken() == null) {
+            throw new IllegalStateException("Token request failed: " + describe(token));
+        }
+
+        return token;
+    }
+
+    private static DiscordAccessToken checked(DiscordApiResponse revocationResponse, DiscordAccessToken token) {
+        if (!revocationResponse.isSuccessful()) {
+            throw new IllegalStateException("Revocation failed: " + describe(revocationResponse));
+        }
+
+        return token;
+    }
+
+    private static String describe(DiscordApiResponse response) {
+        return response.getError() != null ? response.getError() : "status code " + response.getStatusCode();
+    }
+
+    private void report(long elapsedNanos, long allocatedBytes, long gcCount, long gcTimeMillis, long rejectedRequests) {
+        double elapsedSeconds = elapsedNanos / 1e9;
+        long completedFlows = flowLatencies.getCount();
+
+        System.out.println();
+        System.out.printf("Flows:        %d completed, %d failed, %d requests rejected by the stand-in%n", completedFlows, failedFlows.sum(), rejectedRequests);
+        System.out.printf("Throughput:   %.0f flows/s, %.0f requests/s%n", completedFlows / elapsedSeconds, completedFlows * 4 / elapsedSeconds);
+        System.out.printf("Allocation:   %.1f MB/s, %.1f kB per flow (live client platform threads only, a lower bound)%n", allocatedBytes / elapsedSeconds / 1e6,
+                          completedFlows == 0 ? 0.0 : allocatedBytes / 1e3 / completedFlows);
+        System.out.printf("GC:           %d collections, %d ms%n", gcCount, gcTimeMillis);
+        System.out.println();
+        System.out.printf("%-36s %10s %10s %10s %10s %10s%n", "Latency (ms)", "count", "p50", "p99", "p999", "max");
+        printLatencies("flow", flowLatencies);
+
+        metricsListener.delegate.getAllEndpointMetrics().forEach((endpoint, metrics) -> {
+            printLatencies(endpoint + " (queue)", metrics.getQueueTimeHistogram());
+            printLatencies(endpoint + " (network)", metrics.getNetworkTimeHistogram());
+        });
+    }
+
+    private static void printLatencies(String name, LatencyHistogram histogram) {
+        System.out.printf("%-36s %10d %10.3f %10.3f %10.3f %10.3f%n", name, histogram.getCount(), histogram.getValueAtPercentile(50) / 1e6,
+                          histogram.getValueAtPercentile(99) / 1e6, histogram.getValueAtPercentile(99.9) / 1e6, histogram.getMax() / 1e6);
+    }
+
+    private static long getClientAllocatedBytes() {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] threadIds = threadMXBean.getAllThreadIds();
+        ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(threadIds);
+        long[] allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadIds);
+        long clientAllocatedBytes = 0;
+
+        for (int i = 0; i < threadIds.length; i++) {
+            if (threadInfos[i] != null && allocatedBytes[i] > 0 && !threadInfos[i].getThreadName().startsWith(DiscordStandInServer.THREAD_NAME_PREFIX)) {
+                clientAllocatedBytes += allocatedBytes[i];
+            }
+        }
+
+        return clientAllocatedBytes;
+    }
+
+    private static long getGcCount() {
+        long count = 0;
+
+        for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, garbageCollector.getCollectionCount());
+        }
+
+        return count;
+    }
+
+    private static long getGcTimeMillis() {
+        long time = 0;
+
+        for (GarbageCollectorMXBean garbageCollector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, garbageCollector.getCollectionTime());
+        }
+
+        return time;
+    }
+
+    /**
+     * Records the requests' metrics only after the warmup.
+     */
+    private static final class RecordingMetricsListener implements DiscordRequestMetricsListener {
+
+        private final DiscordHistogramMetricsListener delegate = new DiscordHistogramMetricsListener();
+        private volatile boolean recording;
+
+        @Override
+        public void onRequestCompleted(DiscordRequestMetrics metrics) {
+            if (recording) {
+                delegate.onRequestCompleted(metrics);
+            }
+        }
+    }
+}
@@ -1,27 +1,55 @@
 package dev.mayuna.discord.api;
 
+import dev.mayuna.discord.api.entities.DiscordGuild;
+import dev.mayuna.discord.api.entities.DiscordGuildMembership;
+import dev.mayuna.discord.api.entities.DiscordGuildPage;
 import dev.mayuna.discord.api.entities.DiscordUser;
-import dev.mayuna.simpleapi.ApiRequest;
+import dev.mayuna.discord.http.DiscordApiRequest;
+import dev.mayuna.discord.http.DiscordHttpClient;
 import dev.mayuna.simpleapi.RequestHeader;
 import dev.mayuna.simpleapi.RequestMethod;
 import dev.mayuna.simpleapi.WrappedApi;
 import lombok.Getter;
 import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Getter
 public class DiscordApi implements WrappedApi {
 
     public static final String DEFAULT_API_URL = "https://discord.com/api/v10";
+    public static final int DEFAULT_BULK_FETCH_CONCURRENCY = 16;
+    public static final int MAX_GUILD_PAGE_SIZE = 200;
+    public static final String USER_AGENT = "Java-Discord-OAuth2 (dev.mayuna, 1.0)";
 
     private final String apiUrl;
+    private final DiscordHttpClient httpClient;
 
     /**
      * Creates a new DiscordApi instance.
      *
+     * @param apiUrl     The API URL.
+     * @param httpClient Nonnull HTTP client which will send the requests. May be shared with {@link dev.mayuna.discord.oauth.DiscordOAuth}, so both
+     *                   share the rate limits.
+     */
+    public DiscordApi(@NonNull String apiUrl, @NonNull DiscordHttpClient httpClient) {
+        this.apiUrl = apiUrl;
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Creates a new DiscordApi instance with its own {@link DiscordHttpClient}.
+     *
      * @param apiUrl The API URL.
      */
     public DiscordApi(@NonNull String apiUrl) {
-        this.apiUrl = apiUrl;
+        this(apiUrl, new DiscordHttpClient());
     }
 
     /**
@@ -38,8 +66,9 @@ public class DiscordApi implements WrappedApi {
 
     @Override
     public RequestHeader[] getDefaultRequestHeaders() {
+        // Requests are sent by DiscordHttpClient, which sets the User-Agent itself. Fresh array, so callers cannot change other callers' headers
         return new RequestHeader[]{
-                RequestHeader.of("User-Agent", "Java-Discord-OAuth2 (dev.mayuna, 1.0)")
+                RequestHeader.of("User-Agent", USER_AGENT)
         };
     }
 
@@ -52,11 +81,135 @@ public class DiscordApi implements WrappedApi {
      *
      * @return The API request.
      */
-    public ApiRequest<DiscordUser> fetchUser(@NonNull String accessToken) {
-        return ApiRequest.builder(this, DiscordUser.class)
-                         .withEndpoint("/users/@me")
-                         .withRequestMethod(RequestMethod.GET)
-                         .withRequestHeader(RequestHeader.of("Authorization", "Bearer " + accessToken))
-                         .build();
+    public DiscordApiRequest<DiscordUser> fetchUser(@NonNull String accessToken) {
+        return DiscordApiRequest.builder(httpClient, apiUrl, DiscordUser.class)
+                                .withEndpoint("/users/@me")
+                                .withRequestMethod(RequestMethod.GET)
+                                .withRequestHeader("Authorization", "Bearer " + accessToken)
+                                // Rate limited per user, hash is only used to tell users apart
+                                .withRateLimitKey("GET /users/@me " + Integer.toHexString(accessToken.hashCode()))
+                                .withRetryable(true)
+                                .build();
+    }
+
+    /**
+     * Fetches users for many access tokens, e.g., when synchronizing stored users' profiles. At most {@code maxConcurrency} requests are in flight
+     * at once, and requests over the rate limit are queued by the {@link DiscordHttpClient}. Tokens are pulled lazily from the iterable, and results
+     * are passed to the listener as they complete without being kept, so neither grows with the number of tokens.
+     *
+     * @param accessTokens   Nonnull access tokens of the users.
+     * @param maxConcurrency Maximum number of requests in flight, must be positive.
+     * @param listener       Nonnull listener receiving the results.
+     *
+     * @return Future, which is completed once all users were fetched.
+     */
+    public CompletableFuture<Void> fetchUsers(@NonNull Iterable<String> accessTokens, int maxConcurrency, @NonNull DiscordUserFetchListener listener) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive.");
+        }
+
+        return new DiscordBulkUserFetch(this, accessTokens.iterator(), maxConcurrency, listener).start();
+    }
+
+    /**
+     * Fetches users for many access tokens with max concurrency of {@link #DEFAULT_BULK_FETCH_CONCURRENCY}. See
+     * {@link #fetchUsers(Iterable, int, DiscordUserFetchListener)}.
+     *
+     * @param accessTokens Nonnull access tokens of the users.
+     * @param listener     Nonnull listener receiving the results.
+     *
+     * @return Future, which is completed once all users were fetched.
+     */
+    public CompletableFuture<Void> fetchUsers(@NonNull Iterable<String> accessTokens, @NonNull DiscordUserFetchListener listener) {
+        return fetchUsers(accessTokens, DEFAULT_BULK_FETCH_CONCURRENCY, listener);
+    }
+
+    /**
+     * Fetches a single page of the guilds the user is member of, in ascending order of the guild IDs.<br>Endpoint: {@code /users/@me/guilds} (<a
+     * href="https://discord.com/developers/docs/resources/user#get-current-user-guilds">Discord's documentation</a>).<br>Required scope:
+     * {@code guilds}
+     *
+     * @param accessToken Access token of the user.
+     * @param before      Nullable guild ID, only guilds with lower IDs are returned.
+     * @param after       Nullable guild ID, only guilds with higher IDs are returned.
+     * @param limit       Maximum number of guilds, from 1 to {@link #MAX_GUILD_PAGE_SIZE}.
+     *
+     * @return The API request.
+     */
+    public DiscordApiRequest<DiscordGuildPage> fetchGuilds(@NonNull String accessToken, @Nullable Long before, @Nullable Long after, int limit) {
+        if (limit <= 0 || limit > MAX_GUILD_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_GUILD_PAGE_SIZE + ".");
+        }
+
+        DiscordApiRequest.Builder<DiscordGuildPage> builder = DiscordApiRequest.builder(httpClient, apiUrl, DiscordGuildPage.class)
+                                                                               .withEndpoint("/users/@me/guilds")
+                                                                               .withRequestMethod(RequestMethod.GET)
+                                                                               .withRequestHeader("Authorization", "Bearer " + accessToken)
+                                                                               // Rate limited per user, hash is only used to tell users apart
+                                                                               .withRateLimitKey("GET /users/@me/guilds " + Integer.toHexString(accessToken.hashCode()))
+                                                                               .withRetryable(true);
+
+        if (before != null) {
+            builder.withQueryParameter("before", Long.toString(before));
+        }
+
+        if (after != null) {
+            builder.withQueryParameter("after", Long.toString(after));
+        }
+
+        return builder.withQueryParameter("limit", Integer.toString(limit)).build();
+    }
+
+    /**
+     * Iterates all guilds the user is member of, in ascending order of the guild IDs. Pages are fetched lazily by {@link DiscordApiRequest#send()},
+     * when the previous page was consumed, so only a single page is kept in memory. See {@link #fetchGuilds(String, Long, Long, int)}.
+     *
+     * @param accessToken Nonnull access token of the user.
+     * @param pageSize    Number of guilds per page, from 1 to {@link #MAX_GUILD_PAGE_SIZE}.
+     *
+     * @return The iterator. Its methods throw {@link DiscordApiException} when Discord returns an error and rethrow exceptions of the requests.
+     */
+    public Iterator<DiscordGuild> iterateGuilds(@NonNull String accessToken, int pageSize) {
+        if (pageSize <= 0 || pageSize > MAX_GUILD_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_GUILD_PAGE_SIZE + ".");
+        }
+
+        return new DiscordGuildIterator(this, accessToken, pageSize);
+    }
+
+    /**
+     * Iterates all guilds the user is member of with page size of {@link #MAX_GUILD_PAGE_SIZE}. See {@link #iterateGuilds(String, int)}.
+     *
+     * @param accessToken Nonnull access token of the user.
+     *
+     * @return The iterator.
+     */
+    public Iterator<DiscordGuild> iterateGuilds(@NonNull String accessToken) {
+        return iterateGuilds(accessToken, MAX_GUILD_PAGE_SIZE);
+    }
+
+    /**
+     * Streams all guilds the user is member of with page size of {@link #MAX_GUILD_PAGE_SIZE}. The stream is sequential and lazy, like
+     * {@link #iterateGuilds(String, int)}, so short-circuiting operations, e.g., {@link Stream#anyMatch}, stop fetching the pages.
+     *
+     * @param accessToken Nonnull access token of the user.
+     *
+     * @return The stream.
+     */
+    public Stream<DiscordGuild> streamGuilds(@NonNull String accessToken) {
+        int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterateGuilds(accessToken), characteristics), false);
+    }
+
+    /**
+     * Fetches IDs of all guilds the user is member of into a compact {@link DiscordGuildMembership}, for checking the membership on every request.
+     * Pages are fetched one after another without blocking, only the guild IDs are kept.
+     *
+     * @param accessToken Nonnull access token of the user.
+     *
+     * @return Future of the membership. Completes exceptionally with {@link DiscordApiException} when Discord returns an error.
+     */
+    public CompletableFuture<DiscordGuildMembership> fetchGuildMembership(@NonNull String accessToken) {
+        return new DiscordGuildMembershipFetch(this, accessToken, MAX_GUILD_PAGE_SIZE).start();
     }
 }
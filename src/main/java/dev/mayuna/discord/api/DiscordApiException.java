@@ -0,0 +1,25 @@
+package dev.mayuna.discord.api;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Thrown when Discord returned an error where a result is needed to continue, e.g., while paging through the user's guilds.
+ */
+@Getter
+public class DiscordApiException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final DiscordApiResponse errorResponse;
+
+    /**
+     * Creates a new DiscordApiException instance.
+     *
+     * @param errorResponse Nonnull response with the error field or an error status code.
+     */
+    public DiscordApiException(@NonNull DiscordApiResponse errorResponse) {
+        super("Discord returned " + (errorResponse.getError() != null ? "error " + errorResponse.getError() : "status code " + errorResponse.getStatusCode()) + ".");
+        this.errorResponse = errorResponse;
+    }
+}
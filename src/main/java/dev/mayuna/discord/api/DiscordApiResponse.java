@@ -1,14 +1,123 @@
 package dev.mayuna.discord.api;
 
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.utils.JsonReaders;
 import dev.mayuna.simpleapi.GsonApiResponse;
 import lombok.Getter;
 
+import java.io.IOException;
+
 @Getter
 public class DiscordApiResponse extends GsonApiResponse<DiscordOAuth> {
 
     protected String error;
     protected @SerializedName("error_description") String errorDescription;
 
+    /**
+     * Gets the HTTP status code of the response, e.g., to tell Discord's {@code 5xx} and {@code 429} responses, which carry no error field, from
+     * successful ones.
+     *
+     * @return The status code, or 0 if the response was not received by {@link dev.mayuna.discord.http.DiscordHttpClient}.
+     */
+    protected transient int statusCode;
+
+    /**
+     * Sets the HTTP status code of the response. Used by {@link dev.mayuna.discord.http.DiscordHttpClient}.
+     *
+     * @param statusCode Status code.
+     */
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Determines if the response is successful, i.e., Discord returned neither the error field nor an error status code. Discord's {@code 429} and
+     * {@code 5xx} responses have no error field, so checking only {@link #getError()} is not enough.
+     *
+     * @return True if successful, false otherwise. Responses, which were not received by {@link dev.mayuna.discord.http.DiscordHttpClient}, have no
+     * status code, so only their error field is checked.
+     */
+    public boolean isSuccessful() {
+        return error == null && (statusCode == 0 || statusCode / 100 == 2);
+    }
+
+    /**
+     * Reads the error fields. Used by the type adapters of subclasses.
+     *
+     * @param response Response to read into.
+     * @param name     Name of the field.
+     * @param reader   JSON reader positioned at the field's value.
+     *
+     * @return True if the field was an error field and was read, false otherwise.
+     *
+     * @throws IOException If the value could not be read.
+     */
+    protected static boolean readErrorField(DiscordApiResponse response, String name, JsonReader reader) throws IOException {
+        switch (name) {
+            case "error":
+                response.error = JsonReaders.nextStringOrNull(reader);
+                return true;
+            case "error_description":
+                response.errorDescription = JsonReaders.nextStringOrNull(reader);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Writes the error fields. Used by the type adapters of subclasses.
+     *
+     * @param response Response to write.
+     * @param writer   JSON writer inside the response's object.
+     *
+     * @throws IOException If the fields could not be written.
+     */
+    protected static void writeErrorFields(DiscordApiResponse response, JsonWriter writer) throws IOException {
+        writer.name("error").value(response.error);
+        writer.name("error_description").value(response.errorDescription);
+    }
+
+    /**
+     * Streaming type adapter for {@link DiscordApiResponse}, which reads only the error fields and skips everything else.
+     */
+    public static class Adapter extends TypeAdapter<DiscordApiResponse> {
+
+        @Override
+        public void write(JsonWriter writer, DiscordApiResponse response) throws IOException {
+            if (response == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writeErrorFields(response, writer);
+            writer.endObject();
+        }
+
+        @Override
+        public DiscordApiResponse read(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return null;
+            }
+
+            DiscordApiResponse response = new DiscordApiResponse();
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                if (!readErrorField(response, reader.nextName(), reader)) {
+                    reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+            return response;
+        }
+    }
 }
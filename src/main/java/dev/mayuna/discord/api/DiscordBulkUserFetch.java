@@ -0,0 +1,95 @@
+package dev.mayuna.discord.api;
+
+import dev.mayuna.discord.api.entities.DiscordUser;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches users for access tokens pulled lazily from an iterator, with at most {@code maxConcurrency} requests in flight. Results are passed to the
+ * listener and not kept, so memory does not grow with the number of tokens.
+ */
+final class DiscordBulkUserFetch {
+
+    private final DiscordApi discordApi;
+    private final Iterator<String> accessTokens;
+    private final int maxConcurrency;
+    private final DiscordUserFetchListener listener;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private final Object listenerLock = new Object();
+
+    // Requests in flight, and pending pump() calls so only one thread pulls from the iterator at a time
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger pumpRequests = new AtomicInteger();
+    private volatile boolean exhausted;
+
+    DiscordBulkUserFetch(DiscordApi discordApi, Iterator<String> accessTokens, int maxConcurrency, DiscordUserFetchListener listener) {
+        this.discordApi = discordApi;
+        this.accessTokens = accessTokens;
+        this.maxConcurrency = maxConcurrency;
+        this.listener = listener;
+    }
+
+    CompletableFuture<Void> start() {
+        pump();
+        return future;
+    }
+
+    private void pump() {
+        if (pumpRequests.getAndIncrement() != 0) {
+            return;
+        }
+
+        do {
+            try {
+                while (!future.isDone() && inFlight.get() < maxConcurrency && accessTokens.hasNext()) {
+                    inFlight.incrementAndGet();
+                    fetch(accessTokens.next());
+                }
+
+                if (!accessTokens.hasNext()) {
+                    exhausted = true;
+                }
+            } catch (Throwable throwable) {
+                // Iterator failed
+                future.completeExceptionally(throwable);
+            }
+
+            if (exhausted && inFlight.get() == 0) {
+                future.complete(null);
+            }
+        } while (pumpRequests.decrementAndGet() != 0);
+    }
+
+    private void fetch(String accessToken) {
+        CompletableFuture<DiscordUser> userFuture;
+
+        try {
+            userFuture = discordApi.fetchUser(accessToken).sendAsync();
+        } catch (Throwable throwable) {
+            userFuture = CompletableFuture.failedFuture(throwable);
+        }
+
+        userFuture.whenComplete((user, throwable) -> {
+            // Listener is called one at a time
+            synchronized (listenerLock) {
+                if (!future.isDone()) {
+                    try {
+                        // 401, 429 and 5xx responses have no error field, so a user is fetched only by 2xx response with the user's ID
+                        if (throwable == null && user != null && user.isSuccessful() && user.getId() != null) {
+                            listener.onUserFetched(accessToken, user);
+                        } else {
+                            listener.onUserFetchFailed(accessToken, user, throwable);
+                        }
+                    } catch (Throwable listenerThrowable) {
+                        future.completeExceptionally(listenerThrowable);
+                    }
+                }
+            }
+
+            inFlight.decrementAndGet();
+            pump();
+        });
+    }
+}
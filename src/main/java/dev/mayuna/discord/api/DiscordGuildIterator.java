@@ -0,0 +1,66 @@
+package dev.mayuna.discord.api;
+
+import dev.mayuna.discord.api.entities.DiscordGuild;
+import dev.mayuna.discord.api.entities.DiscordGuildPage;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the user's guilds page by page, fetching the next page only when the current one was consumed, so at most a single page is kept.
+ */
+final class DiscordGuildIterator implements Iterator<DiscordGuild> {
+
+    private final DiscordApi discordApi;
+    private final String accessToken;
+    private final int pageSize;
+
+    private List<DiscordGuild> page = Collections.emptyList();
+    private int index;
+    private long after;
+    private boolean lastPage;
+
+    DiscordGuildIterator(DiscordApi discordApi, String accessToken, int pageSize) {
+        this.discordApi = discordApi;
+        this.accessToken = accessToken;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (index == page.size()) {
+            if (lastPage) {
+                return false;
+            }
+
+            fetchPage();
+        }
+
+        return true;
+    }
+
+    @Override
+    public DiscordGuild next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        return page.get(index++);
+    }
+
+    private void fetchPage() {
+        DiscordGuildPage guildPage = discordApi.fetchGuilds(accessToken, null, after != 0 ? after : null, pageSize).send();
+
+        if (!guildPage.isSuccessful()) {
+            throw new DiscordApiException(guildPage);
+        }
+
+        page = guildPage.getGuilds();
+        index = 0;
+        // Shorter page is the last one, so no request is sent just to get an empty page
+        lastPage = page.size() < pageSize;
+        after = Math.max(after, guildPage.getHighestGuildId());
+    }
+}
@@ -0,0 +1,88 @@
+package dev.mayuna.discord.api;
+
+import dev.mayuna.discord.api.entities.DiscordGuild;
+import dev.mayuna.discord.api.entities.DiscordGuildMembership;
+import dev.mayuna.discord.api.entities.DiscordGuildPage;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Fetches the user's guild IDs page by page without blocking: each page is requested from the callback of the previous one. Only the IDs are kept,
+ * in a growing primitive array.
+ */
+final class DiscordGuildMembershipFetch {
+
+    private final DiscordApi discordApi;
+    private final String accessToken;
+    private final int pageSize;
+    private final CompletableFuture<DiscordGuildMembership> future = new CompletableFuture<>();
+
+    // Written only from the callback of the previous page, so by one thread at a time
+    private long[] guildIds;
+    private int size;
+    private long after;
+
+    DiscordGuildMembershipFetch(DiscordApi discordApi, String accessToken, int pageSize) {
+        this.discordApi = discordApi;
+        this.accessToken = accessToken;
+        this.pageSize = pageSize;
+        this.guildIds = new long[pageSize];
+    }
+
+    CompletableFuture<DiscordGuildMembership> start() {
+        fetchPage();
+        return future;
+    }
+
+    private void fetchPage() {
+        CompletableFuture<DiscordGuildPage> pageFuture;
+
+        try {
+            pageFuture = discordApi.fetchGuilds(accessToken, null, after != 0 ? after : null, pageSize).sendAsync();
+        } catch (Throwable throwable) {
+            pageFuture = CompletableFuture.failedFuture(throwable);
+        }
+
+        pageFuture.whenComplete(this::onPageFetched);
+    }
+
+    private void onPageFetched(DiscordGuildPage page, Throwable throwable) {
+        if (throwable != null) {
+            future.completeExceptionally(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+            return;
+        }
+
+        if (!page.isSuccessful()) {
+            future.completeExceptionally(new DiscordApiException(page));
+            return;
+        }
+
+        try {
+            List<DiscordGuild> guilds = page.getGuilds();
+
+            if (size + guilds.size() > guildIds.length) {
+                guildIds = Arrays.copyOf(guildIds, Math.max(guildIds.length * 2, size + guilds.size()));
+            }
+
+            for (DiscordGuild guild : guilds) {
+                long guildId = guild.getIdAsLong();
+                guildIds[size++] = guildId;
+                after = Math.max(after, guildId);
+            }
+
+            if (guilds.size() < pageSize) {
+                future.complete(DiscordGuildMembership.of(guildIds, size));
+                return;
+            }
+        } catch (Throwable parseThrowable) {
+            // Malformed guild ID
+            future.completeExceptionally(parseThrowable);
+            return;
+        }
+
+        fetchPage();
+    }
+}
@@ -0,0 +1,229 @@
+package dev.mayuna.discord.api;
+
+import dev.mayuna.discord.api.entities.DiscordUser;
+import dev.mayuna.discord.utils.BoundedExpiringMap;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches responses of {@link DiscordApi#fetchUser(String)}.<br>Users are keyed by SHA-256 hash of the access token, so the cache never holds raw
+ * tokens. Concurrent fetches of the same user share a single request. Responses with {@link DiscordUser#getError()} are not cached.
+ */
+public class DiscordUserCache {
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    });
+
+    private final @Getter DiscordApi discordApi;
+    private final @Getter Duration ttl;
+    private final @Getter int maximumSize;
+
+    private final BoundedExpiringMap<TokenHash, CachedUser> users;
+    private final Map<TokenHash, CompletableFuture<DiscordUser>> fetchesInFlight = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Creates a new DiscordUserCache instance.
+     *
+     * @param discordApi  Nonnull DiscordApi used for fetching.
+     * @param ttl         Nonnull time for which the users are cached.
+     * @param maximumSize Maximum number of cached users.
+     */
+    public DiscordUserCache(@NonNull DiscordApi discordApi, @NonNull Duration ttl, int maximumSize) {
+        this.discordApi = discordApi;
+        this.ttl = ttl;
+        this.maximumSize = maximumSize;
+        this.users = new BoundedExpiringMap<>(maximumSize, Runtime.getRuntime().availableProcessors() * 4, CachedUser::getExpiresAt);
+    }
+
+    /**
+     * Creates a new DiscordUserCache instance with TTL of {@link #DEFAULT_TTL} and maximum size of {@link #DEFAULT_MAXIMUM_SIZE}.
+     *
+     * @param discordApi Nonnull DiscordApi used for fetching.
+     */
+    public DiscordUserCache(@NonNull DiscordApi discordApi) {
+        this(discordApi, DEFAULT_TTL, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Gets the user from the cache or fetches them from the Discord API.
+     *
+     * @param accessToken Nonnull access token of the user.
+     *
+     * @return Future of the user.
+     */
+    public CompletableFuture<DiscordUser> fetchUser(@NonNull String accessToken) {
+        TokenHash tokenHash = TokenHash.of(accessToken);
+        CachedUser cachedUser = users.get(tokenHash);
+
+        if (cachedUser != null) {
+            hitCount.increment();
+            return CompletableFuture.completedFuture(cachedUser.user);
+        }
+
+        missCount.increment();
+
+        CompletableFuture<DiscordUser> future = new CompletableFuture<>();
+        CompletableFuture<DiscordUser> inFlight = fetchesInFlight.putIfAbsent(tokenHash, future);
+
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        try {
+            discordApi.fetchUser(accessToken).sendAsync().whenComplete((user, throwable) -> {
+                // 401, 429 and 5xx responses have no error field, so only 2xx response with the user's ID is cached
+                if (throwable == null && user != null && user.isSuccessful() && user.getId() != null) {
+                    users.put(tokenHash, new CachedUser(user, System.currentTimeMillis() + ttl.toMillis()));
+                }
+
+                fetchesInFlight.remove(tokenHash, future);
+
+                if (throwable != null) {
+                    future.completeExceptionally(throwable);
+                } else {
+                    future.complete(user);
+                }
+            });
+        } catch (Throwable throwable) {
+            fetchesInFlight.remove(tokenHash, future);
+            future.completeExceptionally(throwable);
+        }
+
+        return future;
+    }
+
+    /**
+     * Removes the user from the cache, e.g., after the access token was revoked.
+     *
+     * @param accessToken Nonnull access token of the user.
+     */
+    public void invalidate(@NonNull String accessToken) {
+        users.remove(TokenHash.of(accessToken));
+    }
+
+    /**
+     * Removes all users from the cache.
+     */
+    public void clear() {
+        users.clear();
+    }
+
+    /**
+     * Gets the number of cached users.
+     *
+     * @return Number of cached users.
+     */
+    public int size() {
+        return users.size();
+    }
+
+    /**
+     * Gets the number of fetches answered from the cache.
+     *
+     * @return Number of hits.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Gets the number of fetches not answered from the cache. Includes fetches that joined an already running request.
+     *
+     * @return Number of misses.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Gets the number of users evicted because the cache was full.
+     *
+     * @return Number of evicted users.
+     */
+    public long getEvictionCount() {
+        return users.getEvictionCount();
+    }
+
+    /**
+     * Gets the number of users removed because their TTL has passed.
+     *
+     * @return Number of expired users.
+     */
+    public long getExpirationCount() {
+        return users.getExpirationCount();
+    }
+
+    private static final class CachedUser {
+
+        private final DiscordUser user;
+        private final long expiresAt;
+
+        private CachedUser(DiscordUser user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+
+        private long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+
+    /**
+     * First 128 bits of access token's SHA-256 hash.
+     */
+    private static final class TokenHash {
+
+        private final long high;
+        private final long low;
+
+        private TokenHash(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        private static @NotNull TokenHash of(String accessToken) {
+            ByteBuffer hash = ByteBuffer.wrap(SHA_256.get().digest(accessToken.getBytes(StandardCharsets.UTF_8)));
+            return new TokenHash(hash.getLong(), hash.getLong());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+
+            if (!(other instanceof TokenHash)) {
+                return false;
+            }
+
+            TokenHash tokenHash = (TokenHash) other;
+            return high == tokenHash.high && low == tokenHash.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high ^ low);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package dev.mayuna.discord.api;
+
+import dev.mayuna.discord.api.entities.DiscordUser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receives results of {@link DiscordApi#fetchUsers(Iterable, int, DiscordUserFetchListener)} as they complete.<br>Methods are called from the HTTP
+ * client's threads, one at a time, so they should not block. If a method throws, no more users are fetched and the bulk fetch completes
+ * exceptionally.
+ */
+public interface DiscordUserFetchListener {
+
+    /**
+     * Called when a user was fetched.
+     *
+     * @param accessToken Nonnull access token of the user.
+     * @param user        Nonnull fetched user.
+     */
+    void onUserFetched(@NotNull String accessToken, @NotNull DiscordUser user);
+
+    /**
+     * Called when a user could not be fetched.
+     *
+     * @param accessToken   Nonnull access token of the user.
+     * @param errorResponse Nullable response, when Discord returned an error or a non-2xx status code (see {@link DiscordUser#getError()} and
+     *                      {@link DiscordUser#getStatusCode()}).
+     * @param throwable     Nullable exception, when the request itself failed.
+     */
+    default void onUserFetchFailed(@NotNull String accessToken, @Nullable DiscordUser errorResponse, @Nullable Throwable throwable) {
+    }
+}
@@ -0,0 +1,254 @@
+package dev.mayuna.discord.api.entities;
+
+import dev.mayuna.discord.utils.Snowflakes;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compact, immutable form of {@link DiscordUser} for caching large numbers of users.<br>The ID is kept as a primitive {@code long}, optional
+ * booleans and numbers are packed into a bitfield and primitive fields instead of boxed objects, locale and discriminator are interned, so all users
+ * share the same few instances, and the avatar hash is kept as its 16 raw bytes in two {@code long}s. Only the username, global name and email are
+ * kept as strings of their own.
+ */
+public final class CompactDiscordUser {
+
+    private static final int BOT = 0;
+    private static final int SYSTEM = 1;
+    private static final int MFA_ENABLED = 2;
+    private static final int VERIFIED = 3;
+    private static final int ACCENT_COLOR_PRESENT = 1 << 8;
+    private static final int FLAGS_PRESENT = 1 << 9;
+    private static final int PREMIUM_TYPE_PRESENT = 1 << 10;
+    private static final int PUBLIC_FLAGS_PRESENT = 1 << 11;
+    private static final int AVATAR_PRESENT = 1 << 12;
+    private static final int AVATAR_ANIMATED = 1 << 13;
+
+    private static final String ANIMATED_AVATAR_PREFIX = "a_";
+    private static final int AVATAR_HASH_LENGTH = 32;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Gets the user's ID.
+     *
+     * @return The user's snowflake ID.
+     */
+    private final @Getter long id;
+    private final @Getter String username;
+    private final @Getter String discriminator;
+    private final @Getter @Nullable String globalName;
+    private final @Getter @Nullable String locale;
+    private final @Getter @Nullable String email;
+    private final @Getter @Nullable String avatarDecorationHash;
+
+    // Two bits per optional boolean (present, value) followed by presence bits of the other optional fields
+    private final int bits;
+    private final int accentColor;
+    private final int flags;
+    private final int publicFlags;
+    private final byte premiumType;
+    private final long avatarHashHigh;
+    private final long avatarHashLow;
+    // Avatar hash, which is not 32 hexadecimal digits
+    private final String unparsedAvatarHash;
+
+    private CompactDiscordUser(DiscordUser user) {
+        this.id = user.getIdAsLong();
+        this.username = user.getUsername();
+        this.discriminator = intern(user.getDiscriminator());
+        this.globalName = user.getGlobalName();
+        this.locale = intern(user.getLocale());
+        this.email = user.getEmail();
+        this.avatarDecorationHash = user.getAvatarDecorationHash();
+
+        int bits = packBoolean(BOT, user.getBot()) | packBoolean(SYSTEM, user.getSystem()) | packBoolean(MFA_ENABLED, user.getMfaEnabled())
+                | packBoolean(VERIFIED, user.getVerified());
+
+        this.accentColor = user.getAccentColor() != null ? user.getAccentColor() : 0;
+        this.flags = user.getFlags() != null ? user.getFlags() : 0;
+        this.publicFlags = user.getPublicFlags() != null ? user.getPublicFlags() : 0;
+        this.premiumType = user.getPremiumType() != null ? user.getPremiumType().byteValue() : 0;
+        bits |= user.getAccentColor() != null ? ACCENT_COLOR_PRESENT : 0;
+        bits |= user.getFlags() != null ? FLAGS_PRESENT : 0;
+        bits |= user.getPremiumType() != null ? PREMIUM_TYPE_PRESENT : 0;
+        bits |= user.getPublicFlags() != null ? PUBLIC_FLAGS_PRESENT : 0;
+
+        String avatarHash = user.getAvatarHash();
+        long avatarHashHigh = 0;
+        long avatarHashLow = 0;
+        String unparsedAvatarHash = null;
+
+        if (avatarHash != null) {
+            boolean animated = avatarHash.startsWith(ANIMATED_AVATAR_PREFIX);
+            int start = animated ? ANIMATED_AVATAR_PREFIX.length() : 0;
+
+            if (avatarHash.length() - start == AVATAR_HASH_LENGTH && isHex(avatarHash, start)) {
+                avatarHashHigh = parseHex(avatarHash, start);
+                avatarHashLow = parseHex(avatarHash, start + AVATAR_HASH_LENGTH / 2);
+                bits |= AVATAR_PRESENT | (animated ? AVATAR_ANIMATED : 0);
+            } else {
+                unparsedAvatarHash = avatarHash;
+            }
+        }
+
+        this.bits = bits;
+        this.avatarHashHigh = avatarHashHigh;
+        this.avatarHashLow = avatarHashLow;
+        this.unparsedAvatarHash = unparsedAvatarHash;
+    }
+
+    /**
+     * Creates compact form of the user.
+     *
+     * @param user Nonnull user with an ID.
+     *
+     * @return The compact user.
+     */
+    public static @NotNull CompactDiscordUser of(@NonNull DiscordUser user) {
+        if (user.getId() == null) {
+            throw new IllegalArgumentException("User must have an ID.");
+        }
+
+        return new CompactDiscordUser(user);
+    }
+
+    /**
+     * Gets the time when the user's account was created, from the user's ID.
+     *
+     * @return The time in milliseconds since Unix epoch.
+     */
+    public long getCreatedAt() {
+        return Snowflakes.getCreatedAt(id);
+    }
+
+    public @Nullable Boolean getBot() {
+        return unpackBoolean(BOT);
+    }
+
+    public @Nullable Boolean getSystem() {
+        return unpackBoolean(SYSTEM);
+    }
+
+    public @Nullable Boolean getMfaEnabled() {
+        return unpackBoolean(MFA_ENABLED);
+    }
+
+    public @Nullable Boolean getVerified() {
+        return unpackBoolean(VERIFIED);
+    }
+
+    public @Nullable Integer getAccentColor() {
+        return (bits & ACCENT_COLOR_PRESENT) != 0 ? accentColor : null;
+    }
+
+    public @Nullable Integer getFlags() {
+        return (bits & FLAGS_PRESENT) != 0 ? flags : null;
+    }
+
+    public @Nullable Integer getPremiumType() {
+        return (bits & PREMIUM_TYPE_PRESENT) != 0 ? (int) premiumType : null;
+    }
+
+    public @Nullable Integer getPublicFlags() {
+        return (bits & PUBLIC_FLAGS_PRESENT) != 0 ? publicFlags : null;
+    }
+
+    /**
+     * Determines if the user has an animated avatar.
+     *
+     * @return True if the avatar is animated, false otherwise.
+     */
+    public boolean isAvatarAnimated() {
+        return (bits & AVATAR_ANIMATED) != 0 || (unparsedAvatarHash != null && unparsedAvatarHash.startsWith(ANIMATED_AVATAR_PREFIX));
+    }
+
+    /**
+     * Gets the avatar hash, as returned by the Discord API. The string is created on each call.
+     *
+     * @return Nullable avatar hash.
+     */
+    public @Nullable String getAvatarHash() {
+        if ((bits & AVATAR_PRESENT) == 0) {
+            return unparsedAvatarHash;
+        }
+
+        boolean animated = (bits & AVATAR_ANIMATED) != 0;
+        char[] chars = new char[(animated ? ANIMATED_AVATAR_PREFIX.length() : 0) + AVATAR_HASH_LENGTH];
+        int start = 0;
+
+        if (animated) {
+            ANIMATED_AVATAR_PREFIX.getChars(0, ANIMATED_AVATAR_PREFIX.length(), chars, 0);
+            start = ANIMATED_AVATAR_PREFIX.length();
+        }
+
+        writeHex(avatarHashHigh, chars, start);
+        writeHex(avatarHashLow, chars, start + AVATAR_HASH_LENGTH / 2);
+        return new String(chars);
+    }
+
+    private Boolean unpackBoolean(int index) {
+        int value = bits >>> (index * 2);
+
+        if ((value & 0b10) == 0) {
+            return null;
+        }
+
+        return (value & 0b01) != 0;
+    }
+
+    private static int packBoolean(int index, Boolean value) {
+        if (value == null) {
+            return 0;
+        }
+
+        return (0b10 | (value ? 0b01 : 0)) << (index * 2);
+    }
+
+    private static String intern(String value) {
+        // Few distinct values shared by many users, JVM's string table holds them once
+        return value != null ? value.intern() : null;
+    }
+
+    private static boolean isHex(String string, int start) {
+        for (int i = start; i < string.length(); i++) {
+            if (Character.digit(string.charAt(i), 16) < 0 || Character.isUpperCase(string.charAt(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long parseHex(String string, int start) {
+        long value = 0;
+
+        for (int i = start; i < start + 16; i++) {
+            value = (value << 4) | Character.digit(string.charAt(i), 16);
+        }
+
+        return value;
+    }
+
+    private static void writeHex(long value, char[] chars, int start) {
+        for (int i = start + 15; i >= start; i--) {
+            chars[i] = HEX_DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CompactDiscordUser && ((CompactDiscordUser) other).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "CompactDiscordUser{id=" + id + ", username=" + username + "}";
+    }
+}
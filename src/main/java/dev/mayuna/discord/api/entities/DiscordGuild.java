@@ -0,0 +1,159 @@
+package dev.mayuna.discord.api.entities;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import dev.mayuna.discord.utils.JsonReaders;
+import dev.mayuna.discord.utils.Snowflakes;
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Partial guild, as returned by {@code /users/@me/guilds} (<a href="https://discord.com/developers/docs/resources/user#get-current-user-guilds">Discord's
+ * documentation</a>).
+ */
+@Getter
+public class DiscordGuild {
+
+    private String id;
+    private String name;
+    private @SerializedName("icon") String iconHash;
+    private @Nullable @SerializedName("banner") String bannerHash;
+    private @Nullable Boolean owner;
+    private @Nullable String permissions;
+    private List<String> features = Collections.emptyList();
+    private @Nullable @SerializedName("approximate_member_count") Integer approximateMemberCount;
+    private @Nullable @SerializedName("approximate_presence_count") Integer approximatePresenceCount;
+
+    /**
+     * Gets the guild's ID as a long.
+     *
+     * @return The guild's ID as a long.
+     */
+    public long getIdAsLong() {
+        return Snowflakes.parse(id);
+    }
+
+    /**
+     * Gets the time when the guild was created, from the guild's ID.
+     *
+     * @return The time in milliseconds since Unix epoch.
+     */
+    public long getCreatedAt() {
+        return Snowflakes.getCreatedAt(Snowflakes.parse(id));
+    }
+
+    /**
+     * Gets the user's permissions in the guild as a long.
+     *
+     * @return The permissions bitfield, or 0 if the permissions are not known.
+     */
+    public long getPermissionsAsLong() {
+        return permissions != null ? Long.parseLong(permissions) : 0;
+    }
+
+    /**
+     * Streaming type adapter for {@link DiscordGuild}, which skips unknown fields without reflection.
+     */
+    public static class Adapter extends TypeAdapter<DiscordGuild> {
+
+        @Override
+        public void write(JsonWriter writer, DiscordGuild guild) throws IOException {
+            if (guild == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("id").value(guild.id);
+            writer.name("name").value(guild.name);
+            writer.name("icon").value(guild.iconHash);
+            writer.name("banner").value(guild.bannerHash);
+            writer.name("owner").value(guild.owner);
+            writer.name("permissions").value(guild.permissions);
+            writer.name("features").beginArray();
+
+            for (String feature : guild.features) {
+                writer.value(feature);
+            }
+
+            writer.endArray();
+            writer.name("approximate_member_count").value(guild.approximateMemberCount);
+            writer.name("approximate_presence_count").value(guild.approximatePresenceCount);
+            writer.endObject();
+        }
+
+        @Override
+        public DiscordGuild read(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return null;
+            }
+
+            DiscordGuild guild = new DiscordGuild();
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id":
+                        guild.id = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "name":
+                        guild.name = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "icon":
+                        guild.iconHash = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "banner":
+                        guild.bannerHash = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "owner":
+                        guild.owner = JsonReaders.nextBooleanOrNull(reader);
+                        break;
+                    case "permissions":
+                        guild.permissions = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "features":
+                        guild.features = readFeatures(reader);
+                        break;
+                    case "approximate_member_count":
+                        guild.approximateMemberCount = JsonReaders.nextIntegerOrNull(reader);
+                        break;
+                    case "approximate_presence_count":
+                        guild.approximatePresenceCount = JsonReaders.nextIntegerOrNull(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+            return guild;
+        }
+
+        private static List<String> readFeatures(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return Collections.emptyList();
+            }
+
+            List<String> features = new ArrayList<>();
+            reader.beginArray();
+
+            while (reader.hasNext()) {
+                // Few distinct values shared by many guilds
+                features.add(reader.nextString().intern());
+            }
+
+            reader.endArray();
+            return features.isEmpty() ? Collections.emptyList() : features;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package dev.mayuna.discord.api.entities;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Compact, immutable index of the guilds a user is member of, for checking the membership on every request.<br>Guild IDs are kept in a sorted
+ * primitive {@code long} array, so a user in a hundred guilds takes less than a kilobyte and {@link #isMemberOf(long)} is a binary search, which
+ * allocates nothing.
+ */
+public final class DiscordGuildMembership {
+
+    /**
+     * Membership without any guild.
+     */
+    public static final DiscordGuildMembership EMPTY = new DiscordGuildMembership(new long[0]);
+
+    private final long[] guildIds;
+
+    private DiscordGuildMembership(long[] guildIds) {
+        this.guildIds = guildIds;
+    }
+
+    /**
+     * Creates the membership of the guilds.
+     *
+     * @param guildIds Nonnull guild IDs, in any order and with any duplicates. The array is copied.
+     *
+     * @return The membership.
+     */
+    public static @NotNull DiscordGuildMembership of(@NonNull long... guildIds) {
+        return of(guildIds, guildIds.length);
+    }
+
+    /**
+     * Creates the membership of the first {@code length} guild IDs in the array, e.g., of a buffer filled while paging.
+     *
+     * @param guildIds Nonnull guild IDs, in any order and with any duplicates. The array is copied.
+     * @param length   Number of guild IDs in the array.
+     *
+     * @return The membership.
+     */
+    public static @NotNull DiscordGuildMembership of(@NonNull long[] guildIds, int length) {
+        if (length < 0 || length > guildIds.length) {
+            throw new IllegalArgumentException("Length must be between 0 and the array's length.");
+        }
+
+        if (length == 0) {
+            return EMPTY;
+        }
+
+        long[] sortedGuildIds = Arrays.copyOf(guildIds, length);
+        Arrays.sort(sortedGuildIds);
+        int unique = 1;
+
+        for (int i = 1; i < length; i++) {
+            if (sortedGuildIds[i] != sortedGuildIds[unique - 1]) {
+                sortedGuildIds[unique++] = sortedGuildIds[i];
+            }
+        }
+
+        return new DiscordGuildMembership(unique == length ? sortedGuildIds : Arrays.copyOf(sortedGuildIds, unique));
+    }
+
+    /**
+     * Determines if the user is member of the guild.
+     *
+     * @param guildId Guild's snowflake ID.
+     *
+     * @return True if the user is member of the guild, false otherwise.
+     */
+    public boolean isMemberOf(long guildId) {
+        return Arrays.binarySearch(guildIds, guildId) >= 0;
+    }
+
+    /**
+     * Gets the number of guilds.
+     *
+     * @return Number of guilds.
+     */
+    public int size() {
+        return guildIds.length;
+    }
+
+    /**
+     * Gets the guild ID at the index, in ascending order of the IDs.
+     *
+     * @param index Index, from 0 to {@link #size()} exclusive.
+     *
+     * @return The guild's snowflake ID.
+     */
+    public long getGuildId(int index) {
+        return guildIds[index];
+    }
+
+    /**
+     * Gets the guild IDs in ascending order. The array is copied on each call.
+     *
+     * @return Copy of the guild IDs.
+     */
+    public long[] getGuildIds() {
+        return guildIds.clone();
+    }
+
+    /**
+     * Passes each guild ID, in ascending order, to the consumer.
+     *
+     * @param consumer Nonnull consumer.
+     */
+    public void forEach(@NonNull LongConsumer consumer) {
+        for (long guildId : guildIds) {
+            consumer.accept(guildId);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof DiscordGuildMembership && Arrays.equals(((DiscordGuildMembership) other).guildIds, guildIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(guildIds);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "DiscordGuildMembership{size=" + guildIds.length + "}";
+    }
+}
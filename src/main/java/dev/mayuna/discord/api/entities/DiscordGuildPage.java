@@ -0,0 +1,105 @@
+package dev.mayuna.discord.api.entities;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import dev.mayuna.discord.api.DiscordApiResponse;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single page of the user's guilds, returned by {@code /users/@me/guilds}.<br>Discord returns the page as a JSON array and errors as a JSON object,
+ * so the page is empty when Discord returned an error.
+ */
+@Getter
+public class DiscordGuildPage extends DiscordApiResponse {
+
+    private List<DiscordGuild> guilds = Collections.emptyList();
+
+    /**
+     * Gets the highest guild ID on the page, to be used as {@code after} of the next page.
+     *
+     * @return The highest guild ID, or 0 if the page is empty.
+     */
+    public long getHighestGuildId() {
+        long highestGuildId = 0;
+
+        for (DiscordGuild guild : guilds) {
+            highestGuildId = Math.max(highestGuildId, guild.getIdAsLong());
+        }
+
+        return highestGuildId;
+    }
+
+    /**
+     * Streaming type adapter for {@link DiscordGuildPage}, which reads either the array of guilds or the error fields.
+     */
+    public static class Adapter extends TypeAdapter<DiscordGuildPage> {
+
+        private final DiscordGuild.Adapter guildAdapter = new DiscordGuild.Adapter();
+
+        @Override
+        public void write(JsonWriter writer, DiscordGuildPage page) throws IOException {
+            if (page == null) {
+                writer.nullValue();
+                return;
+            }
+
+            if (page.error != null) {
+                writer.beginObject();
+                writeErrorFields(page, writer);
+                writer.endObject();
+                return;
+            }
+
+            writer.beginArray();
+
+            for (DiscordGuild guild : page.guilds) {
+                guildAdapter.write(writer, guild);
+            }
+
+            writer.endArray();
+        }
+
+        @Override
+        public DiscordGuildPage read(JsonReader reader) throws IOException {
+            JsonToken token = reader.peek();
+
+            if (token == JsonToken.NULL) {
+                reader.nextNull();
+                return null;
+            }
+
+            DiscordGuildPage page = new DiscordGuildPage();
+
+            if (token == JsonToken.BEGIN_ARRAY) {
+                List<DiscordGuild> guilds = new ArrayList<>();
+                reader.beginArray();
+
+                while (reader.hasNext()) {
+                    guilds.add(guildAdapter.read(reader));
+                }
+
+                reader.endArray();
+                page.guilds = guilds;
+                return page;
+            }
+
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                if (!readErrorField(page, reader.nextName(), reader)) {
+                    reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+            return page;
+        }
+    }
+}
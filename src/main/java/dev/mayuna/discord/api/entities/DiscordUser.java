@@ -1,10 +1,18 @@
 package dev.mayuna.discord.api.entities;
 
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import dev.mayuna.discord.api.DiscordApiResponse;
+import dev.mayuna.discord.utils.JsonReaders;
+import dev.mayuna.discord.utils.Snowflakes;
 import lombok.Getter;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+
 @Getter
 public class DiscordUser extends DiscordApiResponse {
 
@@ -33,4 +41,129 @@ public class DiscordUser extends DiscordApiResponse {
     public long getIdAsLong() {
         return Long.parseLong(id);
     }
+
+    /**
+     * Gets the time when the user's account was created, from the user's ID.
+     *
+     * @return The time in milliseconds since Unix epoch.
+     */
+    public long getCreatedAt() {
+        return Snowflakes.getCreatedAt(Snowflakes.parse(id));
+    }
+
+    /**
+     * Creates compact form of the user, for caching large numbers of users.
+     *
+     * @return The compact user.
+     */
+    public CompactDiscordUser toCompact() {
+        return CompactDiscordUser.of(this);
+    }
+
+    /**
+     * Streaming type adapter for {@link DiscordUser}, which skips unknown fields without reflection.
+     */
+    public static class Adapter extends TypeAdapter<DiscordUser> {
+
+        @Override
+        public void write(JsonWriter writer, DiscordUser user) throws IOException {
+            if (user == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("id").value(user.id);
+            writer.name("username").value(user.username);
+            writer.name("discriminator").value(user.discriminator);
+            writer.name("global_name").value(user.globalName);
+            writer.name("avatar").value(user.avatarHash);
+            writer.name("bot").value(user.bot);
+            writer.name("system").value(user.system);
+            writer.name("mfa_enabled").value(user.mfaEnabled);
+            writer.name("accent_color").value(user.accentColor);
+            writer.name("locale").value(user.locale);
+            writer.name("verified").value(user.verified);
+            writer.name("email").value(user.email);
+            writer.name("flags").value(user.flags);
+            writer.name("premium_type").value(user.premiumType);
+            writer.name("public_flags").value(user.publicFlags);
+            writer.name("avatar_decoration").value(user.avatarDecorationHash);
+            writeErrorFields(user, writer);
+            writer.endObject();
+        }
+
+        @Override
+        public DiscordUser read(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return null;
+            }
+
+            DiscordUser user = new DiscordUser();
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+
+                switch (name) {
+                    case "id":
+                        user.id = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "username":
+                        user.username = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "discriminator":
+                        user.discriminator = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "global_name":
+                        user.globalName = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "avatar":
+                        user.avatarHash = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "bot":
+                        user.bot = JsonReaders.nextBooleanOrNull(reader);
+                        break;
+                    case "system":
+                        user.system = JsonReaders.nextBooleanOrNull(reader);
+                        break;
+                    case "mfa_enabled":
+                        user.mfaEnabled = JsonReaders.nextBooleanOrNull(reader);
+                        break;
+                    case "accent_color":
+                        user.accentColor = JsonReaders.nextIntegerOrNull(reader);
+                        break;
+                    case "locale":
+                        user.locale = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "verified":
+                        user.verified = JsonReaders.nextBooleanOrNull(reader);
+                        break;
+                    case "email":
+                        user.email = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "flags":
+                        user.flags = JsonReaders.nextIntegerOrNull(reader);
+                        break;
+                    case "premium_type":
+                        user.premiumType = JsonReaders.nextIntegerOrNull(reader);
+                        break;
+                    case "public_flags":
+                        user.publicFlags = JsonReaders.nextIntegerOrNull(reader);
+                        break;
+                    case "avatar_decoration":
+                        user.avatarDecorationHash = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    default:
+                        if (!readErrorField(user, name, reader)) {
+                            reader.skipValue();
+                        }
+                }
+            }
+
+            reader.endObject();
+            return user;
+        }
+    }
 }
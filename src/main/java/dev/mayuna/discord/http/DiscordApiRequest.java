@@ -0,0 +1,237 @@
+package dev.mayuna.discord.http;
+
+import dev.mayuna.discord.utils.PercentEncoding;
+import dev.mayuna.simpleapi.RequestMethod;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Request to Discord's API, sent by {@link DiscordHttpClient}.<br>Responses with error status codes are deserialized into the response class as
+ * well, so the error may be read from {@link dev.mayuna.discord.api.DiscordApiResponse#getError()}.
+ *
+ * @param <T> Response class
+ */
+@Getter
+public class DiscordApiRequest<T> {
+
+    private final DiscordHttpClient httpClient;
+    private final Class<T> responseClass;
+    private final String url;
+    private final String endpoint;
+    private final RequestMethod requestMethod;
+    private final String[] headers;
+    private final HttpRequest.BodyPublisher bodyPublisher;
+    private final String rateLimitKey;
+    private final boolean retryable;
+    private final boolean retryableIfUnsent;
+
+    private DiscordApiRequest(Builder<T> builder) {
+        this.httpClient = builder.httpClient;
+        this.responseClass = builder.responseClass;
+        this.url = builder.url + builder.endpoint + builder.query;
+        this.endpoint = builder.endpoint;
+        this.requestMethod = builder.requestMethod;
+        this.headers = builder.headers.toArray(new String[0]);
+        this.bodyPublisher = builder.bodyPublisher;
+        this.rateLimitKey = builder.rateLimitKey != null ? builder.rateLimitKey : requestMethod.name() + " " + endpoint;
+        this.retryable = builder.retryable;
+        this.retryableIfUnsent = builder.retryableIfUnsent;
+    }
+
+    /**
+     * Creates new {@link DiscordApiRequest.Builder} instance.
+     *
+     * @param httpClient    Nonnull HTTP client which will send the request.
+     * @param url           Nonnull base URL of the API.
+     * @param responseClass Nonnull response class.
+     * @param <T>           Response class
+     *
+     * @return The DiscordApiRequest.Builder instance.
+     */
+    public static <T> @NotNull Builder<T> builder(@NonNull DiscordHttpClient httpClient, @NonNull String url, @NonNull Class<T> responseClass) {
+        return new Builder<>(httpClient, url, responseClass);
+    }
+
+    /**
+     * Sends the request and waits for the response.
+     *
+     * @return The response.
+     */
+    public T send() {
+        try {
+            return sendAsync().join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+
+            if (exception.getCause() instanceof Error) {
+                throw (Error) exception.getCause();
+            }
+
+            throw exception;
+        }
+    }
+
+    /**
+     * Sends the request asynchronously. If the request is rate limited, the future is completed once it was sent successfully.
+     *
+     * @return Future of the response.
+     */
+    public CompletableFuture<T> sendAsync() {
+        return httpClient.sendAsync(this);
+    }
+
+    /**
+     * Builder for {@link DiscordApiRequest}.
+     *
+     * @param <T> Response class
+     */
+    public static class Builder<T> {
+
+        private final DiscordHttpClient httpClient;
+        private final String url;
+        private final Class<T> responseClass;
+        private final List<String> headers = new ArrayList<>(4);
+        private final StringBuilder query = new StringBuilder();
+
+        private String endpoint = "";
+        private RequestMethod requestMethod = RequestMethod.GET;
+        private HttpRequest.BodyPublisher bodyPublisher;
+        private String rateLimitKey;
+        private boolean retryable;
+        private boolean retryableIfUnsent;
+
+        private Builder(DiscordHttpClient httpClient, String url, Class<T> responseClass) {
+            this.httpClient = httpClient;
+            this.url = url;
+            this.responseClass = responseClass;
+        }
+
+        /**
+         * Sets the endpoint, which is appended to the API URL.
+         *
+         * @param endpoint Nonnull endpoint, e.g., {@code /users/@me}.
+         *
+         * @return The DiscordApiRequest.Builder instance.
+         */
+        public @NotNull Builder<T> withEndpoint(@NonNull String endpoint) {
+            this.endpoint = endpoint;
+            return this;
+        }
+
+        /**
+         * Adds query parameter, which is appended to the URL. Both the name and the value are percent-encoded.
+         *
+         * @param name  Nonnull parameter name.
+         * @param value Nonnull parameter value.
+         *
+         * @return The DiscordApiRequest.Builder instance.
+         */
+        public @NotNull Builder<T> withQueryParameter(@NonNull String name, @NonNull String value) {
+            query.append(query.length() == 0 ? '?' : '&');
+            PercentEncoding.encode(name, query).append('=');
+            PercentEncoding.encode(value, query);
+            return this;
+        }
+
+        /**
+         * Sets the request method. Defaults to {@link RequestMethod#GET}.
+         *
+         * @param requestMethod Nonnull request method.
+         *
+         * @return The DiscordApiRequest.Builder instance.
+         */
+        public @NotNull Builder<T> withRequestMethod(@NonNull RequestMethod requestMethod) {
+            this.requestMethod = requestMethod;
+            return this;
+        }
+
+        /**
+         * Adds request header.
+         *
+         * @param name  Nonnull header name.
+         * @param value Nonnull header value.
+         *
+         * @return The DiscordApiRequest.Builder instance.
+         */
+        public @NotNull Builder<T> withRequestHeader(@NonNull String name, @NonNull String value) {
+            headers.add(name);
+            headers.add(value);
+            return this;
+        }
+
+        /**
+         * Sets the body publisher. The body publisher must be able to publish the body more than once, since the request may be sent again when it
+         * is rate limited.
+         *
+         * @param bodyPublisher Nullable body publisher.
+         *
+         * @return The DiscordApiRequest.Builder instance.
+         */
+        public @NotNull Builder<T> withBodyPublisher(@Nullable HttpRequest.BodyPublisher bodyPublisher) {
+            this.bodyPublisher = bodyPublisher;
+            return this;
+        }
+
+        /**
+         * Sets the key of the rate limit bucket. Defaults to the request method and endpoint. Routes limited per user should include the user in
+         * the key.
+         *
+         * @param rateLimitKey Nonnull rate limit key.
+         *
+         * @return The DiscordApiRequest.Builder instance.
+         */
+        public @NotNull Builder<T> withRateLimitKey(@NonNull String rateLimitKey) {
+            this.rateLimitKey = rateLimitKey;
+            return this;
+        }
+
+        /**
+         * Sets whether the request may be re-sent when it fails because of a transient error, see
+         * {@link dev.mayuna.discord.http.resilience.DiscordRetryPolicy}. Defaults to false. Only requests, which have the same effect when sent more
+         * than once, may be retryable. For example, exchange of authorization code must not be retryable, since the failed attempt may have
+         * consumed the code.
+         *
+         * @param retryable True if the request may be retried.
+         *
+         * @return The DiscordApiRequest.Builder instance.
+         */
+        public @NotNull Builder<T> withRetryable(boolean retryable) {
+            this.retryable = retryable;
+            return this;
+        }
+
+        /**
+         * Sets whether the request may be re-sent when it fails before Discord could have processed it, see
+         * {@link dev.mayuna.discord.http.resilience.DiscordRetryPolicy#isUnsentFailure(int, Throwable)}. Defaults to false. Useful for requests, which
+         * must not be sent twice, but are safe to re-send after a connection failure. For example, refresh of tokens rotates the refresh token, so a
+         * refresh which timed out after Discord processed it must not be retried.
+         *
+         * @param retryableIfUnsent True if the request may be retried when it was not processed.
+         *
+         * @return The DiscordApiRequest.Builder instance.
+         */
+        public @NotNull Builder<T> withRetryableIfUnsent(boolean retryableIfUnsent) {
+            this.retryableIfUnsent = retryableIfUnsent;
+            return this;
+        }
+
+        /**
+         * Builds the {@link DiscordApiRequest}.
+         *
+         * @return The DiscordApiRequest instance.
+         */
+        public @NotNull DiscordApiRequest<T> build() {
+            return new DiscordApiRequest<>(this);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package dev.mayuna.discord.http;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import dev.mayuna.discord.api.DiscordApiResponse;
+import dev.mayuna.discord.api.entities.DiscordGuild;
+import dev.mayuna.discord.api.entities.DiscordGuildPage;
+import dev.mayuna.discord.api.entities.DiscordUser;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+
+/**
+ * Shared {@link Gson} instance with streaming type adapters of the library's responses registered, so they are deserialized without reflection.
+ * Other classes fall back to Gson's reflective adapters.
+ */
+public final class DiscordGson {
+
+    /**
+     * The shared Gson instance. Gson is thread-safe, so it may be used by any number of threads.
+     */
+    public static final Gson INSTANCE = new GsonBuilder()
+            .registerTypeAdapter(DiscordApiResponse.class, new DiscordApiResponse.Adapter())
+            .registerTypeAdapter(DiscordAccessToken.class, new DiscordAccessToken.Adapter())
+            .registerTypeAdapter(DiscordUser.class, new DiscordUser.Adapter())
+            .registerTypeAdapter(DiscordGuild.class, new DiscordGuild.Adapter())
+            .registerTypeAdapter(DiscordGuildPage.class, new DiscordGuildPage.Adapter())
+            .create();
+
+    private DiscordGson() {
+    }
+}
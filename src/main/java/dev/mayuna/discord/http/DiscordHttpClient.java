@@ -0,0 +1,302 @@
+package dev.mayuna.discord.http;
+
+import com.google.gson.Gson;
+import dev.mayuna.discord.api.DiscordApi;
+import dev.mayuna.discord.api.DiscordApiResponse;
+import dev.mayuna.discord.http.metrics.DiscordRequestMetrics;
+import dev.mayuna.discord.http.metrics.DiscordRequestMetricsListener;
+import dev.mayuna.discord.http.ratelimit.DiscordRateLimiter;
+import dev.mayuna.discord.http.resilience.DiscordCircuitBreaker;
+import dev.mayuna.discord.http.resilience.DiscordCircuitBreakerConfig;
+import dev.mayuna.discord.http.resilience.DiscordCircuitBreakerOpenException;
+import dev.mayuna.discord.http.resilience.DiscordRetryPolicy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends {@link DiscordApiRequest}s through {@link HttpClient} and deserializes their responses with Gson. All requests go through the
+ * {@link DiscordRateLimiter}, so they wait for the rate limit instead of failing with {@code 429 Too Many Requests}. If configured, retryable requests
+ * failing with transient errors are retried according to {@link DiscordRetryPolicy} and each endpoint is guarded by {@link DiscordCircuitBreaker}.<br>A
+ * single instance should be shared by all {@link dev.mayuna.discord.oauth.DiscordOAuth} and {@link DiscordApi} instances, so they share the
+ * connections and rate limits.
+ */
+@Getter
+public class DiscordHttpClient {
+
+    private final HttpClient httpClient;
+    private final DiscordRateLimiter rateLimiter;
+    private final Gson gson;
+    private final Duration requestTimeout;
+    private final DiscordRequestMetricsListener metricsListener;
+    private final DiscordRetryPolicy retryPolicy;
+    private final DiscordCircuitBreakerConfig circuitBreakerConfig;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, DiscordCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new DiscordHttpClient instance.
+     *
+     * @param httpClient  Nonnull HTTP client.
+     * @param rateLimiter Nonnull rate limiter.
+     * @param gson        Nonnull Gson used to deserialize the responses.
+     * @param config      Nonnull configuration, from which the request timeout, metrics listener, retry policy and circuit breaker configuration are
+     *                    used.
+     */
+    public DiscordHttpClient(@NonNull HttpClient httpClient, @NonNull DiscordRateLimiter rateLimiter, @NonNull Gson gson, @NonNull DiscordHttpClientConfig config) {
+        this.httpClient = httpClient;
+        this.rateLimiter = rateLimiter;
+        this.gson = gson;
+        this.requestTimeout = config.getRequestTimeout();
+        this.metricsListener = config.getMetricsListener();
+        this.retryPolicy = config.getRetryPolicy();
+        this.circuitBreakerConfig = config.getCircuitBreakerConfig();
+    }
+
+    /**
+     * Creates a new DiscordHttpClient instance with the given configuration.
+     *
+     * @param config Nonnull configuration.
+     */
+    public DiscordHttpClient(@NonNull DiscordHttpClientConfig config) {
+        this(config.createHttpClient(), new DiscordRateLimiter(config.getMaxRateLimitRetries()), DiscordGson.INSTANCE, config);
+    }
+
+    /**
+     * Creates a new DiscordHttpClient instance with the default configuration.
+     */
+    public DiscordHttpClient() {
+        this(new DiscordHttpClientConfig.Builder().build());
+    }
+
+    /**
+     * Sends the request asynchronously.
+     *
+     * @param request Nonnull request.
+     * @param <T>     Response class
+     *
+     * @return Future of the response.
+     */
+    public <T> CompletableFuture<T> sendAsync(@NonNull DiscordApiRequest<T> request) {
+        HttpRequest httpRequest = createHttpRequest(request);
+
+        if (metricsListener != null || retryPolicy != null || circuitBreakerConfig != null) {
+            Exchange<T> exchange = new Exchange<>(request, httpRequest, getCircuitBreaker(request));
+            exchange.attempt();
+            return exchange.future;
+        }
+
+        return rateLimiter.submit(request.getRateLimitKey(), () -> httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString()))
+                          .thenApply(response -> deserialize(response, request.getResponseClass()));
+    }
+
+    /**
+     * Gets the circuit breaker of the endpoint.
+     *
+     * @param endpoint Nonnull request method and endpoint, e.g., {@code POST /oauth2/token}.
+     *
+     * @return The circuit breaker, or null if circuit breakers are not used or no request to the endpoint was sent yet.
+     */
+    public @Nullable DiscordCircuitBreaker getCircuitBreaker(@NonNull String endpoint) {
+        return circuitBreakers.get(endpoint);
+    }
+
+    private DiscordCircuitBreaker getCircuitBreaker(DiscordApiRequest<?> request) {
+        if (circuitBreakerConfig == null) {
+            return null;
+        }
+
+        String key = request.getRequestMethod().name() + " " + request.getEndpoint();
+        DiscordCircuitBreaker circuitBreaker = circuitBreakers.get(key);
+
+        if (circuitBreaker == null) {
+            circuitBreaker = circuitBreakers.computeIfAbsent(key, ignored -> new DiscordCircuitBreaker(circuitBreakerConfig));
+        }
+
+        return circuitBreaker;
+    }
+
+    private HttpRequest createHttpRequest(DiscordApiRequest<?> request) {
+        HttpRequest.BodyPublisher bodyPublisher = request.getBodyPublisher();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getUrl()))
+                                                 .method(request.getRequestMethod().name(), bodyPublisher != null ? bodyPublisher : HttpRequest.BodyPublishers.noBody())
+                                                 .header("User-Agent", DiscordApi.USER_AGENT);
+
+        if (requestTimeout != null) {
+            builder.timeout(requestTimeout);
+        }
+
+        String[] headers = request.getHeaders();
+
+        for (int i = 0; i < headers.length; i += 2) {
+            builder.header(headers[i], headers[i + 1]);
+        }
+
+        return builder.build();
+    }
+
+    private <T> T deserialize(HttpResponse<String> response, Class<T> responseClass) {
+        String body = response.body();
+
+        // Successful revocation has no body at all
+        if (body == null || body.isBlank()) {
+            body = "{}";
+        }
+
+        T result = gson.fromJson(body, responseClass);
+
+        if (result instanceof DiscordApiResponse) {
+            ((DiscordApiResponse) result).setStatusCode(response.statusCode());
+        }
+
+        return result;
+    }
+
+    // Chunked responses have no Content-Length, the body is counted as Discord's UTF-8 without encoding it again
+    private static long getUtf8Length(String string) {
+        long length = 0;
+
+        for (int i = 0; i < string.length(); i++) {
+            char character = string.charAt(i);
+
+            if (character < 0x80) {
+                length++;
+            } else if (character < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(character) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Single request with its attempts, when metrics, retries or circuit breakers are used. Times are written by the rate limiter's sender and read
+     * after the response completes.
+     */
+    private final class Exchange<T> {
+
+        private final DiscordApiRequest<T> request;
+        private final HttpRequest httpRequest;
+        private final DiscordCircuitBreaker circuitBreaker;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long submittedAt = System.nanoTime();
+
+        private volatile long sentAt;
+        private volatile int attempts;
+        private volatile int retries;
+
+        private Exchange(DiscordApiRequest<T> request, HttpRequest httpRequest, DiscordCircuitBreaker circuitBreaker) {
+            this.request = request;
+            this.httpRequest = httpRequest;
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        private void attempt() {
+            if (circuitBreaker != null && !circuitBreaker.tryAcquire()) {
+                complete(null, null, new DiscordCircuitBreakerOpenException(request.getRequestMethod().name() + " " + request.getEndpoint()));
+                return;
+            }
+
+            rateLimiter.submit(request.getRateLimitKey(), () -> {
+                sentAt = System.nanoTime();
+                attempts++;
+                return httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString());
+            }).whenComplete(this::onAttemptCompleted);
+        }
+
+        private void onAttemptCompleted(HttpResponse<String> response, Throwable throwable) {
+            int statusCode = response != null ? response.statusCode() : -1;
+            boolean transientFailure = DiscordRetryPolicy.isTransientFailure(statusCode, throwable);
+
+            if (circuitBreaker != null) {
+                if (transientFailure) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+            }
+
+            boolean retryable = request.isRetryable() ? transientFailure : request.isRetryableIfUnsent() && DiscordRetryPolicy.isUnsentFailure(statusCode, throwable);
+
+            if (retryable && retryPolicy != null && retries < retryPolicy.getMaxRetries()) {
+                long backoffMillis = retryPolicy.computeBackoffMillis(retries++);
+                CompletableFuture.delayedExecutor(backoffMillis, TimeUnit.MILLISECONDS).execute(this::attempt);
+                return;
+            }
+
+            T result = null;
+
+            if (response != null) {
+                try {
+                    result = deserialize(response, request.getResponseClass());
+                } catch (Throwable deserializationThrowable) {
+                    throwable = deserializationThrowable;
+                }
+            }
+
+            complete(response, result, throwable);
+        }
+
+        private void complete(HttpResponse<String> response, T result, Throwable throwable) {
+            if (metricsListener != null) {
+                reportMetrics(response, result, throwable);
+            }
+
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(result);
+            }
+        }
+
+        private void reportMetrics(HttpResponse<String> response, Object result, Throwable throwable) {
+            long completedAt = System.nanoTime();
+            long lastSentAt = attempts > 0 ? sentAt : completedAt;
+            String error = result instanceof DiscordApiResponse ? ((DiscordApiResponse) result).getError() : null;
+            long responseBytes = -1;
+
+            if (response != null) {
+                responseBytes = response.headers().firstValueAsLong("Content-Length").orElse(response.body() != null ? getUtf8Length(response.body()) : 0);
+            }
+
+            if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+
+            try {
+                metricsListener.onRequestCompleted(new DiscordRequestMetrics(
+                        request.getRequestMethod(),
+                        request.getEndpoint(),
+                        response != null ? response.statusCode() : -1,
+                        error,
+                        httpRequest.bodyPublisher().map(HttpRequest.BodyPublisher::contentLength).orElse(-1L),
+                        responseBytes,
+                        lastSentAt - submittedAt,
+                        completedAt - lastSentAt,
+                        attempts,
+                        throwable
+                ));
+            } catch (Throwable ignored) {
+                // Listener must not break the request
+            }
+        }
+    }
+}
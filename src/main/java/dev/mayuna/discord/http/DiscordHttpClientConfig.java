@@ -0,0 +1,226 @@
+package dev.mayuna.discord.http;
+
+import dev.mayuna.discord.http.metrics.DiscordRequestMetricsListener;
+import dev.mayuna.discord.http.ratelimit.DiscordRateLimiter;
+import dev.mayuna.discord.http.resilience.DiscordCircuitBreakerConfig;
+import dev.mayuna.discord.http.resilience.DiscordRetryPolicy;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Configuration of {@link DiscordHttpClient}.<br>By default, HTTP/2 is preferred, so concurrent requests to Discord are multiplexed over a single
+ * connection. If the server does not support HTTP/2, HTTP/1.1 is used.<br>On Java 21 and newer, the HTTP client may run on virtual threads, see
+ * {@link Builder#withVirtualThreads(boolean)}.
+ */
+@Getter
+public class DiscordHttpClientConfig {
+
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient.Version httpVersion;
+    private final Duration connectTimeout;
+    private final Duration requestTimeout;
+    private final Executor executor;
+    private final boolean virtualThreads;
+    private final int maxRateLimitRetries;
+    private final DiscordRequestMetricsListener metricsListener;
+    private final DiscordRetryPolicy retryPolicy;
+    private final DiscordCircuitBreakerConfig circuitBreakerConfig;
+
+    private DiscordHttpClientConfig(Builder builder) {
+        this.httpVersion = builder.httpVersion;
+        this.connectTimeout = builder.connectTimeout;
+        this.requestTimeout = builder.requestTimeout;
+        this.executor = builder.virtualThreads ? VirtualThreads.newVirtualThreadPerTaskExecutor() : builder.executor;
+        this.virtualThreads = builder.virtualThreads;
+        this.maxRateLimitRetries = builder.maxRateLimitRetries;
+        this.metricsListener = builder.metricsListener;
+        this.retryPolicy = builder.retryPolicy;
+        this.circuitBreakerConfig = builder.circuitBreakerConfig;
+    }
+
+    /**
+     * Creates {@link HttpClient} with this configuration.
+     *
+     * @return The HTTP client.
+     */
+    public @NotNull HttpClient createHttpClient() {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                                               .version(httpVersion)
+                                               .connectTimeout(connectTimeout);
+
+        if (executor != null) {
+            builder.executor(executor);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Builder for {@link DiscordHttpClientConfig}.
+     */
+    @Getter
+    public static class Builder {
+
+        private HttpClient.Version httpVersion = HttpClient.Version.HTTP_2;
+        private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        private Duration requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+        private Executor executor = null;
+        private boolean virtualThreads = false;
+        private int maxRateLimitRetries = DiscordRateLimiter.DEFAULT_MAX_RATE_LIMIT_RETRIES;
+        private DiscordRequestMetricsListener metricsListener = null;
+        private DiscordRetryPolicy retryPolicy = null;
+        private DiscordCircuitBreakerConfig circuitBreakerConfig = null;
+
+        /**
+         * Creates new {@link DiscordHttpClientConfig.Builder} instance.<br>HTTP version is set to HTTP/2, connect timeout to
+         * {@link #DEFAULT_CONNECT_TIMEOUT} and request timeout to {@link #DEFAULT_REQUEST_TIMEOUT}.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Sets the preferred HTTP version.
+         *
+         * @param httpVersion Nonnull HTTP version.
+         *
+         * @return The DiscordHttpClientConfig.Builder instance.
+         */
+        public @NotNull Builder withHttpVersion(@NonNull HttpClient.Version httpVersion) {
+            this.httpVersion = httpVersion;
+            return this;
+        }
+
+        /**
+         * Sets the timeout of establishing a connection.
+         *
+         * @param connectTimeout Nonnull connect timeout.
+         *
+         * @return The DiscordHttpClientConfig.Builder instance.
+         */
+        public @NotNull Builder withConnectTimeout(@NonNull Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the timeout of a single request, from sending it to receiving the response's headers. Time spent waiting for the rate limit is not
+         * included.
+         *
+         * @param requestTimeout Nonnull request timeout.
+         *
+         * @return The DiscordHttpClientConfig.Builder instance.
+         */
+        public @NotNull Builder withRequestTimeout(@NonNull Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the executor, which handles the HTTP client's asynchronous tasks and completes the futures returned by
+         * {@link DiscordApiRequest#sendAsync()}.
+         *
+         * @param executor Nullable executor. If null, the HTTP client's default executor is used.
+         *
+         * @return The DiscordHttpClientConfig.Builder instance.
+         */
+        public @NotNull Builder withExecutor(@Nullable Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets whether the HTTP client runs on virtual threads. Responses are then received and deserialized on the virtual thread, which also
+         * completes the future returned by {@link DiscordApiRequest#sendAsync()}, so there are no extra thread hops. Blocking
+         * {@link DiscordApiRequest#send()} called from a virtual thread does not block any platform thread.<br>Requires Java 21 or newer, see
+         * {@link VirtualThreads#isSupported()}. Takes precedence over {@link #withExecutor(Executor)}.
+         *
+         * @param virtualThreads True to use virtual threads.
+         *
+         * @return The DiscordHttpClientConfig.Builder instance.
+         */
+        public @NotNull Builder withVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * Sets how many times a request is re-sent after receiving {@code 429 Too Many Requests}.
+         *
+         * @param maxRateLimitRetries Max rate limit retries, must not be negative.
+         *
+         * @return The DiscordHttpClientConfig.Builder instance.
+         */
+        public @NotNull Builder withMaxRateLimitRetries(int maxRateLimitRetries) {
+            this.maxRateLimitRetries = maxRateLimitRetries;
+            return this;
+        }
+
+        /**
+         * Sets the listener receiving metrics of every request, e.g.,
+         * {@link dev.mayuna.discord.http.metrics.DiscordHistogramMetricsListener}. Without a listener, no metrics are collected at all.
+         *
+         * @param metricsListener Nullable metrics listener.
+         *
+         * @return The DiscordHttpClientConfig.Builder instance.
+         */
+        public @NotNull Builder withMetricsListener(@Nullable DiscordRequestMetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        /**
+         * Sets the policy of retrying requests that failed because of transient errors. Only requests marked as retryable are retried, see
+         * {@link DiscordApiRequest#isRetryable()}.
+         *
+         * @param retryPolicy Nullable retry policy. If null, requests are not retried.
+         *
+         * @return The DiscordHttpClientConfig.Builder instance.
+         */
+        public @NotNull Builder withRetryPolicy(@Nullable DiscordRetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the configuration of circuit breakers, which make requests to a failing endpoint fail fast with
+         * {@link dev.mayuna.discord.http.resilience.DiscordCircuitBreakerOpenException}.
+         *
+         * @param circuitBreakerConfig Nullable circuit breaker configuration. If null, circuit breakers are not used.
+         *
+         * @return The DiscordHttpClientConfig.Builder instance.
+         */
+        public @NotNull Builder withCircuitBreakerConfig(@Nullable DiscordCircuitBreakerConfig circuitBreakerConfig) {
+            this.circuitBreakerConfig = circuitBreakerConfig;
+            return this;
+        }
+
+        /**
+         * Builds the DiscordHttpClientConfig instance.
+         *
+         * @return The DiscordHttpClientConfig instance.
+         */
+        public @NotNull DiscordHttpClientConfig build() {
+            if (connectTimeout.isNegative() || connectTimeout.isZero() || requestTimeout.isNegative() || requestTimeout.isZero()) {
+                throw new IllegalStateException("Connect timeout and request timeout must be positive.");
+            }
+
+            if (maxRateLimitRetries < 0) {
+                throw new IllegalStateException("Max rate limit retries must not be negative.");
+            }
+
+            if (virtualThreads && !VirtualThreads.isSupported()) {
+                throw new IllegalStateException("Virtual threads require Java 21 or newer.");
+            }
+
+            return new DiscordHttpClientConfig(this);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package dev.mayuna.discord.http;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads, which are available since Java 21.<br>This is the Java 11 version of the class, which reports virtual threads as not
+ * supported. On Java 21 and newer, the version from {@code META-INF/versions/21} of the multi-release JAR is used instead.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Determines if virtual threads are supported by the running Java version.
+     *
+     * @return True if virtual threads are supported, false otherwise.
+     */
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task.
+     *
+     * @return The executor.
+     *
+     * @throws UnsupportedOperationException If virtual threads are not supported by the running Java version.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        throw new UnsupportedOperationException("Virtual threads require Java 21 or newer.");
+    }
+}
@@ -0,0 +1,112 @@
+package dev.mayuna.discord.http.metrics;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in {@link DiscordRequestMetricsListener}, which records queue and network time of requests into {@link LatencyHistogram}s and counts
+ * requests and failures, per endpoint. Endpoints are keyed by the request method and the endpoint, e.g., {@code POST /oauth2/token}.
+ */
+public class DiscordHistogramMetricsListener implements DiscordRequestMetricsListener {
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void onRequestCompleted(@NotNull DiscordRequestMetrics metrics) {
+        String key = metrics.getRequestMethod().name() + " " + metrics.getEndpoint();
+        EndpointMetrics endpointMetrics = endpoints.get(key);
+
+        if (endpointMetrics == null) {
+            endpointMetrics = endpoints.computeIfAbsent(key, ignored -> new EndpointMetrics());
+        }
+
+        endpointMetrics.record(metrics);
+    }
+
+    /**
+     * Gets the metrics of the endpoint.
+     *
+     * @param endpoint Nonnull request method and endpoint, e.g., {@code POST /oauth2/token}.
+     *
+     * @return The endpoint's metrics, or null if no request to the endpoint completed yet.
+     */
+    public @Nullable EndpointMetrics getEndpointMetrics(@NonNull String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    /**
+     * Gets the metrics of all endpoints.
+     *
+     * @return Unmodifiable map of the request method and endpoint to their metrics.
+     */
+    public @NotNull Map<String, EndpointMetrics> getAllEndpointMetrics() {
+        return Collections.unmodifiableMap(endpoints);
+    }
+
+    /**
+     * Metrics of a single endpoint.
+     */
+    @Getter
+    public static class EndpointMetrics {
+
+        private final LatencyHistogram queueTimeHistogram = new LatencyHistogram();
+        private final LatencyHistogram networkTimeHistogram = new LatencyHistogram();
+
+        @Getter(AccessLevel.NONE)
+        private final LongAdder requests = new LongAdder();
+        @Getter(AccessLevel.NONE)
+        private final LongAdder failures = new LongAdder();
+        @Getter(AccessLevel.NONE)
+        private final LongAdder responseBytes = new LongAdder();
+
+        private void record(DiscordRequestMetrics metrics) {
+            requests.increment();
+
+            if (!metrics.isSuccessful()) {
+                failures.increment();
+            }
+
+            if (metrics.getResponseBytes() > 0) {
+                responseBytes.add(metrics.getResponseBytes());
+            }
+
+            queueTimeHistogram.record(metrics.getQueueTimeNanos());
+            networkTimeHistogram.record(metrics.getNetworkTimeNanos());
+        }
+
+        /**
+         * Gets the number of completed requests.
+         *
+         * @return Number of requests.
+         */
+        public long getRequestCount() {
+            return requests.sum();
+        }
+
+        /**
+         * Gets the number of requests that were not successful, see {@link DiscordRequestMetrics#isSuccessful()}.
+         *
+         * @return Number of failures.
+         */
+        public long getFailureCount() {
+            return failures.sum();
+        }
+
+        /**
+         * Gets the total length of received response bodies.
+         *
+         * @return Number of bytes.
+         */
+        public long getResponseBytes() {
+            return responseBytes.sum();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package dev.mayuna.discord.http.metrics;
+
+import dev.mayuna.simpleapi.RequestMethod;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Metrics of a single request, passed to {@link DiscordRequestMetricsListener}.
+ */
+@Getter
+public class DiscordRequestMetrics {
+
+    private final RequestMethod requestMethod;
+    private final String endpoint;
+    private final int statusCode;
+    private final String error;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final long queueTimeNanos;
+    private final long networkTimeNanos;
+    private final int attempts;
+    private final Throwable throwable;
+
+    /**
+     * Creates a new DiscordRequestMetrics instance.
+     *
+     * @param requestMethod    Nonnull request method.
+     * @param endpoint         Nonnull endpoint, e.g., {@code /oauth2/token}.
+     * @param statusCode       HTTP status code of the response, or -1 if no response was received.
+     * @param error            Nullable error code from {@link dev.mayuna.discord.api.DiscordApiResponse#getError()}.
+     * @param requestBytes     Length of the request body, or -1 if unknown.
+     * @param responseBytes    Length of the response body, or -1 if no response was received.
+     * @param queueTimeNanos   Time from submitting the request until its last attempt was sent, e.g., time spent waiting for the rate limit.
+     * @param networkTimeNanos Time from sending the last attempt until the response was received and deserialized.
+     * @param attempts         Number of times the request was sent, more than one if it was rate limited.
+     * @param throwable        Nullable exception, when the request failed.
+     */
+    public DiscordRequestMetrics(@NonNull RequestMethod requestMethod, @NonNull String endpoint, int statusCode, @Nullable String error, long requestBytes, long responseBytes, long queueTimeNanos, long networkTimeNanos, int attempts, @Nullable Throwable throwable) {
+        this.requestMethod = requestMethod;
+        this.endpoint = endpoint;
+        this.statusCode = statusCode;
+        this.error = error;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.queueTimeNanos = queueTimeNanos;
+        this.networkTimeNanos = networkTimeNanos;
+        this.attempts = attempts;
+        this.throwable = throwable;
+    }
+
+    /**
+     * Determines if the request was successful, e.g., a response with 2xx status code and without an error was received.
+     *
+     * @return True if successful, false otherwise.
+     */
+    public boolean isSuccessful() {
+        return throwable == null && error == null && statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Gets the total time of the request, e.g., queue time and network time.
+     *
+     * @return Total time in nanoseconds.
+     */
+    public long getTotalTimeNanos() {
+        return queueTimeNanos + networkTimeNanos;
+    }
+}
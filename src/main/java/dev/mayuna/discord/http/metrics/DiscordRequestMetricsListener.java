@@ -0,0 +1,19 @@
+package dev.mayuna.discord.http.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives metrics of every request sent by {@link dev.mayuna.discord.http.DiscordHttpClient}, e.g., by {@link dev.mayuna.discord.oauth.DiscordOAuth}
+ * and {@link dev.mayuna.discord.api.DiscordApi}.<br>Called from the HTTP client's threads before the request's future is completed, so it must be
+ * fast and must not block. Exceptions thrown by the listener are ignored.
+ */
+@FunctionalInterface
+public interface DiscordRequestMetricsListener {
+
+    /**
+     * Called when a request completed, successfully or not.
+     *
+     * @param metrics Nonnull metrics of the request.
+     */
+    void onRequestCompleted(@NotNull DiscordRequestMetrics metrics);
+}
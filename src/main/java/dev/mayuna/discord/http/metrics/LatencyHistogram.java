@@ -0,0 +1,169 @@
+package dev.mayuna.discord.http.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values, e.g., latencies in nanoseconds, with log-linear buckets like HdrHistogram.<br>Values below
+ * {@code 2^precisionBits} are counted exactly, larger values are counted in buckets whose width is below {@code 1 / 2^precisionBits} of the value, so
+ * the relative error of percentiles stays bounded for the whole range of {@code long}. Recording is a single atomic increment and may be done from any
+ * number of threads. Reading percentiles while values are being recorded gives an approximate, but consistent result.
+ */
+public class LatencyHistogram {
+
+    public static final int DEFAULT_PRECISION_BITS = 7;
+
+    private final int precisionBits;
+    private final int subBucketCount;
+    private final AtomicLongArray counts;
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates a new LatencyHistogram instance.
+     *
+     * @param precisionBits Number of bits of the sub-bucket index, 1 to 16. Relative error is below {@code 1 / 2^precisionBits}, e.g., below 1% for 7
+     *                      bits.
+     */
+    public LatencyHistogram(int precisionBits) {
+        if (precisionBits < 1 || precisionBits > 16) {
+            throw new IllegalArgumentException("Precision bits must be between 1 and 16.");
+        }
+
+        this.precisionBits = precisionBits;
+        this.subBucketCount = 1 << precisionBits;
+        this.counts = new AtomicLongArray((64 - precisionBits) * subBucketCount);
+    }
+
+    /**
+     * Creates a new LatencyHistogram instance with precision bits of {@link #DEFAULT_PRECISION_BITS}.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * Records the value.
+     *
+     * @param value Value, negative values are recorded as zero.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        counts.incrementAndGet(indexOf(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return Number of recorded values.
+     */
+    public long getCount() {
+        long count = 0;
+
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+
+        return count;
+    }
+
+    /**
+     * Gets the maximum recorded value.
+     *
+     * @return The maximum value, or zero if no values were recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean of recorded values.
+     *
+     * @return The mean, or zero if no values were recorded.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * Gets the value at the percentile, e.g., the highest value equivalent to the value below which the given percent of recorded values lies.
+     *
+     * @param percentile Percentile, 0 to 100.
+     *
+     * @return The value, or zero if no values were recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+
+        long[] snapshot = new long[counts.length()];
+        long count = 0;
+
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+
+        if (count == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulative = 0;
+
+        for (int i = 0; i < snapshot.length; i++) {
+            cumulative += snapshot[i];
+
+            if (cumulative >= target) {
+                return Math.min(highestEquivalentValue(i), getMax());
+            }
+        }
+
+        return getMax();
+    }
+
+    /**
+     * Removes all recorded values. Values recorded concurrently with the reset may or may not be removed.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+
+        sum.reset();
+        max.reset();
+    }
+
+    int indexOf(long value) {
+        if (value < subBucketCount) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - precisionBits;
+        // Top precisionBits + 1 bits of the value, in [subBucketCount, 2 * subBucketCount)
+        int mantissa = (int) (value >>> shift);
+
+        return (shift + 1) * subBucketCount + (mantissa - subBucketCount);
+    }
+
+    long highestEquivalentValue(int index) {
+        if (index < subBucketCount) {
+            return index;
+        }
+
+        int shift = index / subBucketCount - 1;
+        long mantissa = subBucketCount + index % subBucketCount;
+        long lowest = mantissa << shift;
+
+        return lowest + (1L << shift) - 1;
+    }
+}
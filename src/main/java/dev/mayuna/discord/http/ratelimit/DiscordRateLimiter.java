@@ -0,0 +1,350 @@
+package dev.mayuna.discord.http.ratelimit;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Schedules requests according to Discord's rate limits (<a href="https://discord.com/developers/docs/topics/rate-limits">Discord's
+ * documentation</a>).<br>Rate limit state is kept per bucket, which is identified by the request's rate limit key (route and, for per-user routes,
+ * the user), and globally. Remaining requests and reset time are read from the {@code X-RateLimit-*} headers of every response. Requests that would
+ * exceed the limit are queued and sent once the bucket resets; no thread waits for them. Until the first response of a bucket tells its limit, only
+ * one request of the bucket is in flight. Requests that end with {@code 429 Too Many Requests} are queued again and sent after {@code Retry-After}.
+ */
+public class DiscordRateLimiter {
+
+    public static final int DEFAULT_MAX_RATE_LIMIT_RETRIES = 5;
+
+    private static final long DEFAULT_RETRY_AFTER_MILLIS = 1000;
+    private static final long IDLE_BUCKET_SWEEP_INTERVAL_MILLIS = 60_000;
+    private static final Pattern RETRY_AFTER_BODY_PATTERN = Pattern.compile("\"retry_after\"\\s*:\\s*([0-9.]+)");
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "discord-rate-limiter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final @Getter int maxRateLimitRetries;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.currentTimeMillis());
+    private volatile long globalResetAt;
+
+    /**
+     * Creates a new DiscordRateLimiter instance.
+     *
+     * @param maxRateLimitRetries How many times a request is re-sent after receiving {@code 429 Too Many Requests}. After that, the 429 response is
+     *                            returned as it is.
+     */
+    public DiscordRateLimiter(int maxRateLimitRetries) {
+        if (maxRateLimitRetries < 0) {
+            throw new IllegalArgumentException("Max rate limit retries must not be negative.");
+        }
+
+        this.maxRateLimitRetries = maxRateLimitRetries;
+    }
+
+    /**
+     * Creates a new DiscordRateLimiter instance with max rate limit retries of {@link #DEFAULT_MAX_RATE_LIMIT_RETRIES}.
+     */
+    public DiscordRateLimiter() {
+        this(DEFAULT_MAX_RATE_LIMIT_RETRIES);
+    }
+
+    /**
+     * Submits a request. The request is sent right away when the bucket has capacity, otherwise it is queued.
+     *
+     * @param rateLimitKey Nonnull key of the request's bucket.
+     * @param sender       Nonnull supplier sending the request. May be called more than once, when the request is rate limited.
+     * @param <B>          Response body type
+     *
+     * @return Future of the response.
+     */
+    public <B> CompletableFuture<HttpResponse<B>> submit(@NonNull String rateLimitKey, @NonNull Supplier<CompletableFuture<HttpResponse<B>>> sender) {
+        Task<B> task = new Task<>(sender);
+        Bucket bucket;
+
+        while (true) {
+            bucket = buckets.computeIfAbsent(rateLimitKey, key -> new Bucket());
+
+            synchronized (bucket) {
+                // Bucket was swept between getting it and locking it
+                if (bucket.removed) {
+                    continue;
+                }
+
+                bucket.queue.addLast(task);
+                break;
+            }
+        }
+
+        scheduleSweep();
+        drain(bucket);
+        return task.future;
+    }
+
+    /**
+     * Gets the number of requests waiting for capacity.
+     *
+     * @return Number of queued requests.
+     */
+    public int getQueuedRequests() {
+        int queued = 0;
+
+        for (Bucket bucket : buckets.values()) {
+            synchronized (bucket) {
+                queued += bucket.queue.size();
+            }
+        }
+
+        return queued;
+    }
+
+    /**
+     * Gets the time until which all requests are held because of the global rate limit.
+     *
+     * @return Time in milliseconds since epoch, in the past if there is no global rate limit.
+     */
+    public long getGlobalResetAt() {
+        return globalResetAt;
+    }
+
+    private void drain(Bucket bucket) {
+        List<Task<?>> tasksToSend = null;
+
+        synchronized (bucket) {
+            long now = System.currentTimeMillis();
+
+            while (!bucket.queue.isEmpty()) {
+                // Probe request is in flight, the rest is sent once its response tells the limit
+                if (bucket.limit == Bucket.UNKNOWN_LIMIT && bucket.inFlight > 0) {
+                    break;
+                }
+
+                long waitUntil = bucket.getWaitUntil(now, globalResetAt);
+
+                if (waitUntil > now) {
+                    if (!bucket.drainScheduled) {
+                        bucket.drainScheduled = true;
+                        SCHEDULER.schedule(() -> {
+                            synchronized (bucket) {
+                                bucket.drainScheduled = false;
+                            }
+
+                            drain(bucket);
+                        }, waitUntil - now, TimeUnit.MILLISECONDS);
+                    }
+
+                    break;
+                }
+
+                bucket.acquire();
+
+                if (tasksToSend == null) {
+                    tasksToSend = new ArrayList<>();
+                }
+
+                tasksToSend.add(bucket.queue.pollFirst());
+            }
+        }
+
+        if (tasksToSend != null) {
+            for (Task<?> task : tasksToSend) {
+                send(bucket, task);
+            }
+        }
+    }
+
+    private <B> void send(Bucket bucket, Task<B> task) {
+        CompletableFuture<HttpResponse<B>> responseFuture;
+
+        try {
+            responseFuture = task.sender.get();
+        } catch (Throwable throwable) {
+            responseFuture = CompletableFuture.failedFuture(throwable);
+        }
+
+        responseFuture.whenComplete((response, throwable) -> {
+            boolean retry = false;
+
+            synchronized (bucket) {
+                bucket.inFlight--;
+
+                if (response != null) {
+                    retry = update(bucket, response) && task.attempts++ < maxRateLimitRetries;
+
+                    if (retry) {
+                        bucket.queue.addFirst(task);
+                    }
+                }
+            }
+
+            if (!retry) {
+                if (throwable != null) {
+                    task.future.completeExceptionally(throwable);
+                } else {
+                    task.future.complete(response);
+                }
+            }
+
+            drain(bucket);
+        });
+    }
+
+    /**
+     * Updates the bucket from the response's headers.
+     *
+     * @return True if the response is 429 and the request should be sent again.
+     */
+    private boolean update(Bucket bucket, HttpResponse<?> response) {
+        HttpHeaders headers = response.headers();
+        long now = System.currentTimeMillis();
+
+        if (response.statusCode() == 429) {
+            long retryAfterMillis = parseRetryAfterMillis(response);
+            boolean global = headers.firstValue("X-RateLimit-Global").map(Boolean::parseBoolean).orElse(false)
+                    || headers.firstValue("X-RateLimit-Scope").map("global"::equals).orElse(false);
+
+            if (global) {
+                globalResetAt = Math.max(globalResetAt, now + retryAfterMillis);
+            } else {
+                bucket.remaining = 0;
+                bucket.resetAt = Math.max(bucket.resetAt, now + retryAfterMillis);
+            }
+
+            return true;
+        }
+
+        String limit = headers.firstValue("X-RateLimit-Limit").orElse(null);
+        String remaining = headers.firstValue("X-RateLimit-Remaining").orElse(null);
+        String resetAfter = headers.firstValue("X-RateLimit-Reset-After").orElse(null);
+
+        if (limit != null && remaining != null && resetAfter != null) {
+            try {
+                bucket.limit = Integer.parseInt(limit);
+                // Requests still in flight were probably not counted by Discord yet
+                bucket.remaining = Math.max(0, Integer.parseInt(remaining) - bucket.inFlight);
+                bucket.resetAt = now + (long) (Double.parseDouble(resetAfter) * 1000);
+                return false;
+            } catch (NumberFormatException ignored) {
+                // Malformed headers are ignored, bucket keeps its previous state
+            }
+        }
+
+        if (bucket.limit == Bucket.UNKNOWN_LIMIT) {
+            // Route without rate limit headers, requests are not held until Discord sends them
+            bucket.limit = Bucket.NO_LIMIT;
+        }
+
+        return false;
+    }
+
+    private static long parseRetryAfterMillis(HttpResponse<?> response) {
+        String retryAfter = response.headers().firstValue("Retry-After").orElse(null);
+
+        try {
+            if (retryAfter != null) {
+                return (long) (Double.parseDouble(retryAfter) * 1000);
+            }
+
+            if (response.body() instanceof String) {
+                Matcher matcher = RETRY_AFTER_BODY_PATTERN.matcher((String) response.body());
+
+                if (matcher.find()) {
+                    return (long) (Double.parseDouble(matcher.group(1)) * 1000);
+                }
+            }
+        } catch (NumberFormatException ignored) {
+            // Falls back to the default
+        }
+
+        return DEFAULT_RETRY_AFTER_MILLIS;
+    }
+
+    private void scheduleSweep() {
+        long now = System.currentTimeMillis();
+        long last = lastSweep.get();
+
+        if (now - last < IDLE_BUCKET_SWEEP_INTERVAL_MILLIS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+
+        // Not swept by the submitting thread, so submit() does not pay for it
+        SCHEDULER.execute(this::sweepIdleBuckets);
+    }
+
+    private void sweepIdleBuckets() {
+        long now = System.currentTimeMillis();
+
+        buckets.values().removeIf(bucket -> {
+            synchronized (bucket) {
+                bucket.removed = bucket.isIdle(now);
+                return bucket.removed;
+            }
+        });
+    }
+
+    private static final class Bucket {
+
+        private final ArrayDeque<Task<?>> queue = new ArrayDeque<>();
+
+        private static final int UNKNOWN_LIMIT = -1;
+        private static final int NO_LIMIT = Integer.MAX_VALUE;
+
+        // Unknown until the first response, no limit if the response has no rate limit headers
+        private int limit = UNKNOWN_LIMIT;
+        private int remaining;
+        private long resetAt;
+        private int inFlight;
+        private boolean drainScheduled;
+        private boolean removed;
+
+        private long getWaitUntil(long now, long globalResetAt) {
+            if (globalResetAt > now) {
+                return globalResetAt;
+            }
+
+            if (remaining <= 0 && resetAt > now) {
+                return resetAt;
+            }
+
+            return now;
+        }
+
+        private void acquire() {
+            if (remaining <= 0 && limit >= 0) {
+                // Bucket has reset since the last response
+                remaining = limit;
+            }
+
+            remaining--;
+            inFlight++;
+        }
+
+        private boolean isIdle(long now) {
+            return queue.isEmpty() && inFlight == 0 && resetAt <= now;
+        }
+    }
+
+    private static final class Task<B> {
+
+        private final Supplier<CompletableFuture<HttpResponse<B>>> sender;
+        private final CompletableFuture<HttpResponse<B>> future = new CompletableFuture<>();
+        private int attempts;
+
+        private Task(Supplier<CompletableFuture<HttpResponse<B>>> sender) {
+            this.sender = sender;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package dev.mayuna.discord.http.resilience;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Circuit breaker of a single endpoint.<br>While closed, outcomes of requests are recorded into a sliding window of the last
+ * {@link DiscordCircuitBreakerConfig#getWindowSize()} outcomes. When the failure rate in the window reaches the threshold, the circuit breaker opens
+ * and requests fail fast, instead of waiting for timeouts of an endpoint, which is down. After the open duration, the circuit breaker becomes
+ * half-open and lets probe requests through. It closes when all probes succeed and opens again when any of them fails.
+ */
+public class DiscordCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final @Getter DiscordCircuitBreakerConfig config;
+    private final boolean[] window;
+
+    private State state = State.CLOSED;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    /**
+     * Creates a new DiscordCircuitBreaker instance.
+     *
+     * @param config Nonnull configuration.
+     */
+    public DiscordCircuitBreaker(@NonNull DiscordCircuitBreakerConfig config) {
+        this.config = config;
+        this.window = new boolean[config.getWindowSize()];
+    }
+
+    /**
+     * Determines if a request may be sent. Every acquired permission must be followed by {@link #onSuccess()} or {@link #onFailure()}.
+     *
+     * @return True if the request may be sent, false if it should fail fast.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < config.getOpenDuration().toNanos()) {
+                return false;
+            }
+
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= config.getHalfOpenProbes()) {
+                return false;
+            }
+
+            probesInFlight++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Records a successful request.
+     */
+    public synchronized void onSuccess() {
+        switch (state) {
+            case CLOSED:
+                record(false);
+                break;
+            case HALF_OPEN:
+                probeSuccesses++;
+
+                if (probeSuccesses >= config.getHalfOpenProbes()) {
+                    close();
+                }
+                break;
+            default:
+                // Request acquired before the circuit breaker opened
+                break;
+        }
+    }
+
+    /**
+     * Records a failed request, i.e., a transient failure like {@code 5xx} response or timeout.
+     */
+    public synchronized void onFailure() {
+        switch (state) {
+            case CLOSED:
+                record(true);
+
+                if (windowCount >= config.getMinimumRequests() && (double) windowFailures / windowCount >= config.getFailureRateThreshold()) {
+                    open();
+                }
+                break;
+            case HALF_OPEN:
+                open();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Gets the current state.
+     *
+     * @return Nonnull state.
+     */
+    public synchronized @NotNull State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the failure rate in the current window.
+     *
+     * @return Failure rate, 0 to 1.
+     */
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0 : (double) windowFailures / windowCount;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+
+        window[windowIndex] = failure;
+        windowIndex = (windowIndex + 1) % window.length;
+
+        if (failure) {
+            windowFailures++;
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "DiscordCircuitBreaker{state=" + getState() + ", failureRate=" + getFailureRate() + "}";
+    }
+}
@@ -0,0 +1,143 @@
+package dev.mayuna.discord.http.resilience;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Configuration of {@link DiscordCircuitBreaker}s, which are created per endpoint by {@link dev.mayuna.discord.http.DiscordHttpClient}.
+ */
+@Getter
+public class DiscordCircuitBreakerConfig {
+
+    public static final int DEFAULT_WINDOW_SIZE = 20;
+    public static final int DEFAULT_MINIMUM_REQUESTS = 10;
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+    public static final int DEFAULT_HALF_OPEN_PROBES = 1;
+
+    private final int windowSize;
+    private final int minimumRequests;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenProbes;
+
+    private DiscordCircuitBreakerConfig(Builder builder) {
+        this.windowSize = builder.windowSize;
+        this.minimumRequests = builder.minimumRequests;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.openDuration = builder.openDuration;
+        this.halfOpenProbes = builder.halfOpenProbes;
+    }
+
+    /**
+     * Builder for {@link DiscordCircuitBreakerConfig}.
+     */
+    @Getter
+    public static class Builder {
+
+        private int windowSize = DEFAULT_WINDOW_SIZE;
+        private int minimumRequests = DEFAULT_MINIMUM_REQUESTS;
+        private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+        private Duration openDuration = DEFAULT_OPEN_DURATION;
+        private int halfOpenProbes = DEFAULT_HALF_OPEN_PROBES;
+
+        /**
+         * Creates new {@link DiscordCircuitBreakerConfig.Builder} instance with {@link #DEFAULT_WINDOW_SIZE}, {@link #DEFAULT_MINIMUM_REQUESTS},
+         * {@link #DEFAULT_FAILURE_RATE_THRESHOLD}, {@link #DEFAULT_OPEN_DURATION} and {@link #DEFAULT_HALF_OPEN_PROBES}.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Sets the number of last outcomes the failure rate is computed from.
+         *
+         * @param windowSize Window size, at least 1.
+         *
+         * @return The DiscordCircuitBreakerConfig.Builder instance.
+         */
+        public @NotNull Builder withWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of outcomes in the window needed before the circuit breaker may open.
+         *
+         * @param minimumRequests Minimum requests, 1 to window size.
+         *
+         * @return The DiscordCircuitBreakerConfig.Builder instance.
+         */
+        public @NotNull Builder withMinimumRequests(int minimumRequests) {
+            this.minimumRequests = minimumRequests;
+            return this;
+        }
+
+        /**
+         * Sets the failure rate at which the circuit breaker opens.
+         *
+         * @param failureRateThreshold Failure rate, greater than 0 and at most 1.
+         *
+         * @return The DiscordCircuitBreakerConfig.Builder instance.
+         */
+        public @NotNull Builder withFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets how long the circuit breaker stays open before it lets probe requests through.
+         *
+         * @param openDuration Nonnull open duration.
+         *
+         * @return The DiscordCircuitBreakerConfig.Builder instance.
+         */
+        public @NotNull Builder withOpenDuration(@NonNull Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Sets the number of probe requests let through when half-open. All of them must succeed to close the circuit breaker.
+         *
+         * @param halfOpenProbes Half-open probes, at least 1.
+         *
+         * @return The DiscordCircuitBreakerConfig.Builder instance.
+         */
+        public @NotNull Builder withHalfOpenProbes(int halfOpenProbes) {
+            this.halfOpenProbes = halfOpenProbes;
+            return this;
+        }
+
+        /**
+         * Builds the DiscordCircuitBreakerConfig instance.
+         *
+         * @return The DiscordCircuitBreakerConfig instance.
+         */
+        public @NotNull DiscordCircuitBreakerConfig build() {
+            if (windowSize < 1) {
+                throw new IllegalStateException("Window size must be at least 1.");
+            }
+
+            if (minimumRequests < 1 || minimumRequests > windowSize) {
+                throw new IllegalStateException("Minimum requests must be between 1 and window size.");
+            }
+
+            if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+                throw new IllegalStateException("Failure rate threshold must be greater than 0 and at most 1.");
+            }
+
+            if (openDuration.isNegative() || openDuration.isZero()) {
+                throw new IllegalStateException("Open duration must be positive.");
+            }
+
+            if (halfOpenProbes < 1) {
+                throw new IllegalStateException("Half-open probes must be at least 1.");
+            }
+
+            return new DiscordCircuitBreakerConfig(this);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dev.mayuna.discord.http.resilience;
+
+/**
+ * Thrown when a request is not sent, because the circuit breaker of its endpoint is open.
+ */
+public class DiscordCircuitBreakerOpenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new DiscordCircuitBreakerOpenException instance.
+     *
+     * @param endpoint Endpoint of the request.
+     */
+    public DiscordCircuitBreakerOpenException(String endpoint) {
+        super("Circuit breaker of " + endpoint + " is open, request was not sent.");
+    }
+}
@@ -0,0 +1,186 @@
+package dev.mayuna.discord.http.resilience;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Policy of retrying requests that failed because of transient errors, e.g., {@code 5xx} responses, timeouts and connection failures, with
+ * exponential backoff and full jitter.<br>Only requests marked as retryable are retried (see
+ * {@link dev.mayuna.discord.http.DiscordApiRequest#isRetryable()}), e.g., token revocation, never the exchange of authorization code, which may be
+ * consumed by the failed attempt. Requests marked as retryable if unsent (see {@link dev.mayuna.discord.http.DiscordApiRequest#isRetryableIfUnsent()}),
+ * e.g., token refresh, are retried only when the failed attempt could not have been processed by Discord.
+ */
+@Getter
+public class DiscordRetryPolicy {
+
+    public static final int DEFAULT_MAX_RETRIES = 3;
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofMillis(200);
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(5);
+    public static final double DEFAULT_MULTIPLIER = 2;
+
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double multiplier;
+
+    private DiscordRetryPolicy(Builder builder) {
+        this.maxRetries = builder.maxRetries;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.multiplier = builder.multiplier;
+    }
+
+    /**
+     * Determines if the attempt failed because of a transient error and may be retried.
+     *
+     * @param statusCode Status code of the response, or -1 if no response was received.
+     * @param throwable  Nullable exception, when the attempt failed.
+     *
+     * @return True if the attempt may be retried, false otherwise.
+     */
+    public static boolean isTransientFailure(int statusCode, @Nullable Throwable throwable) {
+        if (throwable != null) {
+            if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+
+            // Includes timeouts and connection failures
+            return throwable instanceof IOException;
+        }
+
+        return statusCode == 500 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    /**
+     * Determines if the attempt failed before Discord could have processed it, so it may be retried even if sending it twice is not safe, e.g.,
+     * refresh of tokens, which rotates the refresh token. These are connection failures and {@code 502 Bad Gateway} and
+     * {@code 503 Service Unavailable} responses, not timeouts or other {@code 5xx} responses, after which the request may have been processed.
+     *
+     * @param statusCode Status code of the response, or -1 if no response was received.
+     * @param throwable  Nullable exception, when the attempt failed.
+     *
+     * @return True if the attempt may be retried, false otherwise.
+     */
+    public static boolean isUnsentFailure(int statusCode, @Nullable Throwable throwable) {
+        if (throwable != null) {
+            if (throwable instanceof CompletionException && throwable.getCause() != null) {
+                throwable = throwable.getCause();
+            }
+
+            // Connection was not established, so nothing was sent
+            return throwable instanceof ConnectException || throwable instanceof HttpConnectTimeoutException;
+        }
+
+        return statusCode == 502 || statusCode == 503;
+    }
+
+    /**
+     * Computes the backoff before the retry. The backoff is random between zero and {@code initialBackoff * multiplier^retry}, capped at
+     * {@code maxBackoff}.
+     *
+     * @param retry Number of the retry, starting at zero.
+     *
+     * @return Backoff in milliseconds.
+     */
+    public long computeBackoffMillis(int retry) {
+        double backoff = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() * Math.pow(multiplier, retry));
+        return (long) (ThreadLocalRandom.current().nextDouble() * backoff);
+    }
+
+    /**
+     * Builder for {@link DiscordRetryPolicy}.
+     */
+    @Getter
+    public static class Builder {
+
+        private int maxRetries = DEFAULT_MAX_RETRIES;
+        private Duration initialBackoff = DEFAULT_INITIAL_BACKOFF;
+        private Duration maxBackoff = DEFAULT_MAX_BACKOFF;
+        private double multiplier = DEFAULT_MULTIPLIER;
+
+        /**
+         * Creates new {@link DiscordRetryPolicy.Builder} instance with {@link #DEFAULT_MAX_RETRIES}, {@link #DEFAULT_INITIAL_BACKOFF},
+         * {@link #DEFAULT_MAX_BACKOFF} and {@link #DEFAULT_MULTIPLIER}.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Sets the maximum number of retries of a single request.
+         *
+         * @param maxRetries Max retries, must not be negative.
+         *
+         * @return The DiscordRetryPolicy.Builder instance.
+         */
+        public @NotNull Builder withMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Sets the backoff before the first retry.
+         *
+         * @param initialBackoff Nonnull initial backoff.
+         *
+         * @return The DiscordRetryPolicy.Builder instance.
+         */
+        public @NotNull Builder withInitialBackoff(@NonNull Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /**
+         * Sets the maximum backoff.
+         *
+         * @param maxBackoff Nonnull max backoff.
+         *
+         * @return The DiscordRetryPolicy.Builder instance.
+         */
+        public @NotNull Builder withMaxBackoff(@NonNull Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Sets the multiplier of the backoff after each retry.
+         *
+         * @param multiplier Multiplier, at least 1.
+         *
+         * @return The DiscordRetryPolicy.Builder instance.
+         */
+        public @NotNull Builder withMultiplier(double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * Builds the DiscordRetryPolicy instance.
+         *
+         * @return The DiscordRetryPolicy instance.
+         */
+        public @NotNull DiscordRetryPolicy build() {
+            if (maxRetries < 0) {
+                throw new IllegalStateException("Max retries must not be negative.");
+            }
+
+            if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+                throw new IllegalStateException("Initial backoff must not be negative and max backoff must not be lower than initial backoff.");
+            }
+
+            if (multiplier < 1) {
+                throw new IllegalStateException("Multiplier must be at least 1.");
+            }
+
+            return new DiscordRetryPolicy(this);
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package dev.mayuna.discord.oauth;
 
 import dev.mayuna.discord.api.DiscordApi;
+import dev.mayuna.discord.http.DiscordHttpClient;
+import dev.mayuna.discord.http.DiscordHttpClientConfig;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import dev.mayuna.discord.oauth.entities.DiscordScope;
+import dev.mayuna.discord.oauth.entities.DiscordScopeSet;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import org.jetbrains.annotations.NotNull;
@@ -8,7 +14,7 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * Holds Discord application's information, such as the client ID, client secret, redirect URL and scopes.<br>You may also here change the Discord's
- * API URL to request and the authorization URL format.
+ * API URL to request, the authorization URL format and the HTTP client shared by {@link DiscordOAuth} and {@link DiscordApi}.
  */
 @Getter
 public class DiscordApplication {
@@ -18,7 +24,19 @@ public class DiscordApplication {
     private final String clientSecret;
     private final String redirectUrl;
     private final String[] scopes;
+    /**
+     * Gets the scopes of the application, parsed once, e.g., for checking the granted scopes by
+     * {@link DiscordAccessToken#hasAllScopes(DiscordScopeSet)}.
+     *
+     * @return The scopes.
+     */
+    private final DiscordScopeSet scopeSet;
     private final DiscordOAuthAuthorizationUrlFactory authorizationUrlFactory;
+    private final DiscordHttpClient httpClient;
+
+    // Compiled by the authorization URL factory on first use
+    @Getter(AccessLevel.NONE)
+    volatile String authorizationUrlPrefix;
 
     /**
      * Creates a new DiscordApplication instance.
@@ -28,15 +46,32 @@ public class DiscordApplication {
      * @param clientSecret            Nonnull client secret of the application.
      * @param redirectUrl             Nonnull redirect URL of the application.
      * @param authorizationUrlFactory Nonnull authorization URL factory.
+     * @param httpClient              Nonnull HTTP client shared by {@link DiscordOAuth} and {@link DiscordApi}.
      * @param scopes                  The scopes of the application.
      */
-    public DiscordApplication(@NonNull String apiUrl, @NonNull String clientId, @NonNull String clientSecret, @NonNull String redirectUrl, @NonNull DiscordOAuthAuthorizationUrlFactory authorizationUrlFactory, @Nullable String... scopes) {
+    public DiscordApplication(@NonNull String apiUrl, @NonNull String clientId, @NonNull String clientSecret, @NonNull String redirectUrl, @NonNull DiscordOAuthAuthorizationUrlFactory authorizationUrlFactory, @NonNull DiscordHttpClient httpClient, @Nullable String... scopes) {
         this.apiUrl = apiUrl;
         this.clientId = clientId;
         this.clientSecret = clientSecret;
         this.redirectUrl = redirectUrl;
         this.authorizationUrlFactory = authorizationUrlFactory;
+        this.httpClient = httpClient;
         this.scopes = scopes;
+        this.scopeSet = DiscordScopeSet.fromValues(scopes);
+    }
+
+    /**
+     * Creates a new DiscordApplication instance with its own {@link DiscordHttpClient} with the default configuration.
+     *
+     * @param apiUrl                  Nonnull Discord's API URL.
+     * @param clientId                Nonnull client ID of the application.
+     * @param clientSecret            Nonnull client secret of the application.
+     * @param redirectUrl             Nonnull redirect URL of the application.
+     * @param authorizationUrlFactory Nonnull authorization URL factory.
+     * @param scopes                  The scopes of the application.
+     */
+    public DiscordApplication(@NonNull String apiUrl, @NonNull String clientId, @NonNull String clientSecret, @NonNull String redirectUrl, @NonNull DiscordOAuthAuthorizationUrlFactory authorizationUrlFactory, @Nullable String... scopes) {
+        this(apiUrl, clientId, clientSecret, redirectUrl, authorizationUrlFactory, new DiscordHttpClient(), scopes);
     }
 
     /**
@@ -82,6 +117,8 @@ public class DiscordApplication {
         private String redirectUrl;
         private String[] scopes = null;
         private DiscordOAuthAuthorizationUrlFactory authorizationUrlFactory = new DiscordOAuthAuthorizationUrlFactory();
+        private DiscordHttpClientConfig httpClientConfig = null;
+        private DiscordHttpClient httpClient = null;
 
         /**
          * Creates new {@link DiscordApplication.Builder} instance.<br>API URL is set to {@link DiscordApi#DEFAULT_API_URL}
@@ -149,6 +186,23 @@ public class DiscordApplication {
             return this;
         }
 
+        /**
+         * Sets the scopes of the application.
+         *
+         * @param scopes Nonnull scopes of the application.
+         *
+         * @return The DiscordApplication.Builder instance.
+         */
+        public @NotNull Builder withScopes(@NonNull DiscordScope... scopes) {
+            String[] values = new String[scopes.length];
+
+            for (int i = 0; i < scopes.length; i++) {
+                values[i] = scopes[i].getValue();
+            }
+
+            return withScopes(values);
+        }
+
         /**
          * Sets the authorization URL factory of the application.
          *
@@ -161,6 +215,31 @@ public class DiscordApplication {
             return this;
         }
 
+        /**
+         * Sets the configuration of the HTTP client, which is created when building the application. Ignored if the HTTP client is set by
+         * {@link #withHttpClient(DiscordHttpClient)}.
+         *
+         * @param httpClientConfig Nonnull HTTP client configuration.
+         *
+         * @return The DiscordApplication.Builder instance.
+         */
+        public @NotNull Builder withHttpClientConfig(@NonNull DiscordHttpClientConfig httpClientConfig) {
+            this.httpClientConfig = httpClientConfig;
+            return this;
+        }
+
+        /**
+         * Sets the HTTP client of the application. Useful for sharing a single HTTP client between multiple applications.
+         *
+         * @param httpClient Nonnull HTTP client.
+         *
+         * @return The DiscordApplication.Builder instance.
+         */
+        public @NotNull Builder withHttpClient(@NonNull DiscordHttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
         /**
          * Builds the DiscordApplication instance.
          *
@@ -171,7 +250,13 @@ public class DiscordApplication {
                 throw new IllegalStateException("Client ID, client secret and redirect URL must be set.");
             }
 
-            return new DiscordApplication(apiUrl, clientId, clientSecret, redirectUrl, authorizationUrlFactory, scopes);
+            DiscordHttpClient httpClient = this.httpClient;
+
+            if (httpClient == null) {
+                httpClient = httpClientConfig != null ? new DiscordHttpClient(httpClientConfig) : new DiscordHttpClient();
+            }
+
+            return new DiscordApplication(apiUrl, clientId, clientSecret, redirectUrl, authorizationUrlFactory, httpClient, scopes);
         }
     }
 }
@@ -0,0 +1,153 @@
+package dev.mayuna.discord.oauth;
+
+import dev.mayuna.discord.api.DiscordApiException;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe handle of user's tokens, which refreshes them when needed.<br>Discord rotates refresh tokens, so refreshing the same tokens twice
+ * results in {@code invalid_grant} error. Concurrent refreshes are therefore coalesced into a single request, which all callers wait for.
+ */
+public class DiscordCredential {
+
+    public static final Duration DEFAULT_REFRESH_MARGIN = Duration.ofMinutes(1);
+
+    private final @Getter DiscordOAuth discordOAuth;
+    private final @Getter Duration refreshMargin;
+    private final AtomicReference<DiscordAccessToken> token;
+    private final AtomicReference<CompletableFuture<DiscordAccessToken>> refreshInFlight = new AtomicReference<>();
+
+    /**
+     * Creates a new DiscordCredential instance.
+     *
+     * @param discordOAuth  Nonnull DiscordOAuth used for refreshing.
+     * @param token         Nonnull user's tokens with refresh token.
+     * @param refreshMargin Nonnull time before the expiry when the tokens are already considered expired.
+     */
+    public DiscordCredential(@NonNull DiscordOAuth discordOAuth, @NonNull DiscordAccessToken token, @NonNull Duration refreshMargin) {
+        this.discordOAuth = discordOAuth;
+        this.refreshMargin = refreshMargin;
+        this.token = new AtomicReference<>(token);
+    }
+
+    /**
+     * Creates a new DiscordCredential instance with refresh margin of {@link #DEFAULT_REFRESH_MARGIN}.
+     *
+     * @param discordOAuth Nonnull DiscordOAuth used for refreshing.
+     * @param token        Nonnull user's tokens with refresh token.
+     */
+    public DiscordCredential(@NonNull DiscordOAuth discordOAuth, @NonNull DiscordAccessToken token) {
+        this(discordOAuth, token, DEFAULT_REFRESH_MARGIN);
+    }
+
+    /**
+     * Gets the current tokens, which may be expired.<br>Persist these after a refresh, since the previous refresh token is no longer valid.
+     *
+     * @return The current tokens.
+     */
+    public DiscordAccessToken getToken() {
+        return token.get();
+    }
+
+    /**
+     * Gets valid tokens, refreshing them if they are expired or about to expire.<br>If Discord does not return new tokens, e.g., it returns an
+     * error or a non-2xx status code, the future is completed exceptionally with {@link DiscordApiException} and the current tokens are kept.
+     *
+     * @return Future of the tokens.
+     */
+    public CompletableFuture<DiscordAccessToken> getValidToken() {
+        DiscordAccessToken current = token.get();
+
+        if (!needsRefresh(current)) {
+            return CompletableFuture.completedFuture(current);
+        }
+
+        return refresh(current);
+    }
+
+    /**
+     * Gets valid access token, refreshing the tokens if they are expired or about to expire.
+     *
+     * @return Future of the access token. Completed exceptionally with {@link DiscordApiException} if Discord does not return new tokens while
+     * refreshing.
+     */
+    public CompletableFuture<String> getAccessToken() {
+        return getValidToken().thenApply(DiscordAccessToken::getAccessToken);
+    }
+
+    /**
+     * Refreshes the tokens, even if they are not expired. If a refresh is already running, its future is returned instead.
+     *
+     * @return Future of the refreshed tokens. Completed exceptionally with {@link DiscordApiException} if Discord does not return new tokens, in
+     * which case the current tokens are kept.
+     */
+    public CompletableFuture<DiscordAccessToken> refresh() {
+        return refresh(token.get());
+    }
+
+    private boolean needsRefresh(DiscordAccessToken current) {
+        return System.currentTimeMillis() + refreshMargin.toMillis() >= current.getExpiresAt();
+    }
+
+    private CompletableFuture<DiscordAccessToken> refresh(DiscordAccessToken expected) {
+        while (true) {
+            CompletableFuture<DiscordAccessToken> inFlight = refreshInFlight.get();
+
+            if (inFlight != null) {
+                return inFlight;
+            }
+
+            CompletableFuture<DiscordAccessToken> future = new CompletableFuture<>();
+
+            if (!refreshInFlight.compareAndSet(null, future)) {
+                continue;
+            }
+
+            DiscordAccessToken current = token.get();
+
+            // Tokens were refreshed by someone else between reading them and winning the race
+            if (current != expected) {
+                refreshInFlight.compareAndSet(future, null);
+                future.complete(current);
+                return future;
+            }
+
+            try {
+                discordOAuth.refreshAccessToken(current.getRefreshToken())
+                            .sendAsync()
+                            .whenComplete((newToken, throwable) -> onRefreshCompleted(future, newToken, throwable));
+            } catch (Throwable throwable) {
+                onRefreshCompleted(future, null, throwable);
+            }
+
+            return future;
+        }
+    }
+
+    private void onRefreshCompleted(CompletableFuture<DiscordAccessToken> future, DiscordAccessToken newToken, Throwable throwable) {
+        // 5xx and 429 responses have no error field, so only 2xx response with the access token counts as new tokens
+        boolean refreshed = throwable == null && newToken != null && newToken.isSuccessful() && newToken.getAccessToken() != null;
+
+        if (refreshed) {
+            // New tokens must be visible before the in-flight refresh is cleared
+            token.set(newToken);
+        }
+
+        refreshInFlight.compareAndSet(future, null);
+
+        if (refreshed) {
+            future.complete(newToken);
+        } else if (throwable != null) {
+            future.completeExceptionally(throwable);
+        } else if (newToken != null) {
+            future.completeExceptionally(new DiscordApiException(newToken));
+        } else {
+            future.completeExceptionally(new IllegalStateException("Discord returned no response while refreshing tokens."));
+        }
+    }
+}
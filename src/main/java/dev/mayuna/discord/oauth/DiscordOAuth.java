@@ -1,26 +1,65 @@
 package dev.mayuna.discord.oauth;
 
+import dev.mayuna.discord.api.DiscordApi;
 import dev.mayuna.discord.api.DiscordApiResponse;
+import dev.mayuna.discord.http.DiscordApiRequest;
+import dev.mayuna.discord.http.DiscordHttpClient;
 import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
-import dev.mayuna.simpleapi.ApiRequest;
+import dev.mayuna.discord.utils.FormBodyTemplate;
 import dev.mayuna.simpleapi.RequestHeader;
 import dev.mayuna.simpleapi.RequestMethod;
 import dev.mayuna.simpleapi.WrappedApi;
+import lombok.Getter;
 import lombok.NonNull;
 
-import java.net.http.HttpRequest;
-
 public class DiscordOAuth implements WrappedApi {
 
-    private final DiscordApplication application;
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+
+    private final @Getter DiscordApplication application;
+    private final @Getter DiscordHttpClient httpClient;
+
+    // Bodies with client's credentials encoded once, only the code/token is appended per request
+    private final FormBodyTemplate fetchAccessTokenBody;
+    private final FormBodyTemplate refreshAccessTokenBody;
+    private final FormBodyTemplate revokeTokensBody;
 
     /**
      * Creates a new DiscordOAuth instance.
      *
      * @param application The Discord application.
+     * @param httpClient  Nonnull HTTP client which will send the requests. May be shared with {@link DiscordApi}, so both share the rate limits.
      */
-    public DiscordOAuth(@NonNull DiscordApplication application) {
+    public DiscordOAuth(@NonNull DiscordApplication application, @NonNull DiscordHttpClient httpClient) {
         this.application = application;
+        this.httpClient = httpClient;
+
+        this.fetchAccessTokenBody = new FormBodyTemplate(new String[]{
+                "client_id", application.getClientId(),
+                "client_secret", application.getClientSecret(),
+                "grant_type", "authorization_code",
+                "redirect_uri", application.getRedirectUrl()
+        }, "code");
+
+        this.refreshAccessTokenBody = new FormBodyTemplate(new String[]{
+                "client_id", application.getClientId(),
+                "client_secret", application.getClientSecret(),
+                "grant_type", "refresh_token"
+        }, "refresh_token");
+
+        this.revokeTokensBody = new FormBodyTemplate(new String[]{
+                "client_id", application.getClientId(),
+                "client_secret", application.getClientSecret()
+        }, "token");
+    }
+
+    /**
+     * Creates a new DiscordOAuth instance with the application's {@link DiscordHttpClient}.
+     *
+     * @param application The Discord application.
+     */
+    public DiscordOAuth(@NonNull DiscordApplication application) {
+        this(application, application.getHttpClient());
     }
 
     @Override
@@ -30,8 +69,9 @@ public class DiscordOAuth implements WrappedApi {
 
     @Override
     public RequestHeader[] getDefaultRequestHeaders() {
+        // Requests are sent by DiscordHttpClient, which sets the User-Agent itself. Fresh array, so callers cannot change other callers' headers
         return new RequestHeader[]{
-                RequestHeader.of("User-Agent", "Java-Discord-OAuth2 (dev.mayuna, 1.0)")
+                RequestHeader.of("User-Agent", DiscordApi.USER_AGENT)
         };
     }
 
@@ -45,21 +85,15 @@ public class DiscordOAuth implements WrappedApi {
      *
      * @return The API request.
      */
-    public ApiRequest<DiscordAccessToken> fetchAccessToken(@NonNull String code) {
-        String body = "";
-
-        body += "client_id=" + application.getClientId();
-        body += "&client_secret=" + application.getClientSecret();
-        body += "&grant_type=authorization_code";
-        body += "&code=" + code;
-        body += "&redirect_uri=" + application.getRedirectUrl();
-
-        return ApiRequest.builder(this, DiscordAccessToken.class)
-                         .withEndpoint("/oauth2/token")
-                         .withRequestMethod(RequestMethod.POST)
-                         .withRequestHeader(RequestHeader.ofContentType("application/x-www-form-urlencoded"))
-                         .withBodyPublisher(HttpRequest.BodyPublishers.ofString(body))
-                         .build();
+    public DiscordApiRequest<DiscordAccessToken> fetchAccessToken(@NonNull String code) {
+        return DiscordApiRequest.builder(httpClient, application.getApiUrl(), DiscordAccessToken.class)
+                                .withEndpoint("/oauth2/token")
+                                .withRequestMethod(RequestMethod.POST)
+                                .withRequestHeader("Content-Type", FORM_CONTENT_TYPE)
+                                .withBodyPublisher(fetchAccessTokenBody.createBodyPublisher(code))
+                                // Not retryable, failed attempt may have consumed the code
+                                .withRetryable(false)
+                                .build();
     }
 
     /**
@@ -70,20 +104,15 @@ public class DiscordOAuth implements WrappedApi {
      *
      * @return The API request.
      */
-    public ApiRequest<DiscordAccessToken> refreshAccessToken(@NonNull String refreshToken) {
-        String body = "";
-
-        body += "client_id=" + application.getClientId();
-        body += "&client_secret=" + application.getClientSecret();
-        body += "&grant_type=refresh_token";
-        body += "&refresh_token=" + refreshToken;
-
-        return ApiRequest.builder(this, DiscordAccessToken.class)
-                         .withEndpoint("/oauth2/token")
-                         .withRequestMethod(RequestMethod.POST)
-                         .withRequestHeader(RequestHeader.ofContentType("application/x-www-form-urlencoded"))
-                         .withBodyPublisher(HttpRequest.BodyPublishers.ofString(body))
-                         .build();
+    public DiscordApiRequest<DiscordAccessToken> refreshAccessToken(@NonNull String refreshToken) {
+        return DiscordApiRequest.builder(httpClient, application.getApiUrl(), DiscordAccessToken.class)
+                                .withEndpoint("/oauth2/token")
+                                .withRequestMethod(RequestMethod.POST)
+                                .withRequestHeader("Content-Type", FORM_CONTENT_TYPE)
+                                .withBodyPublisher(refreshAccessTokenBody.createBodyPublisher(refreshToken))
+                                // Discord rotates the refresh token, so a refresh that may have been processed must not be sent again
+                                .withRetryableIfUnsent(true)
+                                .build();
     }
 
     /**
@@ -95,19 +124,14 @@ public class DiscordOAuth implements WrappedApi {
      *
      * @return The API request.
      */
-    public ApiRequest<DiscordApiResponse> revokeTokens(@NonNull String accessToken) {
-        String body = "";
-
-        body += "token=" + accessToken;
-        body += "&client_id=" + application.getClientId();
-        body += "&client_secret=" + application.getClientSecret();
-
-        return ApiRequest.builder(this, DiscordApiResponse.class)
-                         .withEndpoint("/oauth2/token/revoke")
-                         .withRequestMethod(RequestMethod.POST)
-                         .withRequestHeader(RequestHeader.ofContentType("application/x-www-form-urlencoded"))
-                         .withBodyPublisher(HttpRequest.BodyPublishers.ofString(body))
-                         .build();
+    public DiscordApiRequest<DiscordApiResponse> revokeTokens(@NonNull String accessToken) {
+        return DiscordApiRequest.builder(httpClient, application.getApiUrl(), DiscordApiResponse.class)
+                                .withEndpoint("/oauth2/token/revoke")
+                                .withRequestMethod(RequestMethod.POST)
+                                .withRequestHeader("Content-Type", FORM_CONTENT_TYPE)
+                                .withBodyPublisher(revokeTokensBody.createBodyPublisher(accessToken))
+                                .withRetryable(true)
+                                .build();
     }
 
 }
@@ -1,5 +1,6 @@
 package dev.mayuna.discord.oauth;
 
+import dev.mayuna.discord.utils.PercentEncoding;
 import lombok.Getter;
 import lombok.NonNull;
 import org.jetbrains.annotations.Nullable;
@@ -40,21 +41,81 @@ public class DiscordOAuthAuthorizationUrlFactory {
      * @return The full authorization URL.
      */
     public String createAuthorizationUrl(@NonNull DiscordApplication application, @Nullable String state, @Nullable String prompt) {
-        String url = baseAuthorizeUrl + "?client_id=" + application.getClientId() + "&redirect_uri=" + application.getRedirectUrl() + "&response_type=code";
+        String prefix = getAuthorizationUrlPrefix(application);
 
-        if (application.getScopes() != null) {
-            url += "&scope=" + String.join("%20", application.getScopes());
+        if (state == null && prompt == null) {
+            return prefix;
         }
 
+        int length = prefix.length();
+
+        if (state != null) {
+            length += "&state=".length() + PercentEncoding.encodedLength(state);
+        }
+
+        if (prompt != null) {
+            length += "&prompt=".length() + PercentEncoding.encodedLength(prompt);
+        }
+
+        StringBuilder url = new StringBuilder(length).append(prefix);
+
         if (state != null) {
-            url += "&state=" + state;
+            PercentEncoding.encode(state, url.append("&state="));
         }
 
         if (prompt != null) {
-            url += "&prompt=" + prompt;
+            PercentEncoding.encode(prompt, url.append("&prompt="));
+        }
+
+        return url.toString();
+    }
+
+    /**
+     * Creates the part of the authorization URL which is the same for every user of the application, e.g., everything but state and prompt.<br>
+     * The result is cached in the application, when this factory is the application's factory.
+     *
+     * @param application Nonnull Discord application.
+     *
+     * @return The authorization URL without state and prompt.
+     */
+    protected String compileAuthorizationUrlPrefix(@NonNull DiscordApplication application) {
+        StringBuilder url = new StringBuilder(baseAuthorizeUrl);
+
+        PercentEncoding.encode(application.getClientId(), url.append("?client_id="));
+        PercentEncoding.encode(application.getRedirectUrl(), url.append("&redirect_uri="));
+        url.append("&response_type=code");
+
+        String[] scopes = application.getScopes();
+
+        if (scopes != null) {
+            url.append("&scope=");
+
+            for (int i = 0; i < scopes.length; i++) {
+                if (i != 0) {
+                    url.append("%20");
+                }
+
+                PercentEncoding.encode(scopes[i], url);
+            }
+        }
+
+        return url.toString();
+    }
+
+    private String getAuthorizationUrlPrefix(DiscordApplication application) {
+        if (application.getAuthorizationUrlFactory() != this) {
+            return compileAuthorizationUrlPrefix(application);
+        }
+
+        String prefix = application.authorizationUrlPrefix;
+
+        if (prefix == null) {
+            // Racing threads compile the same prefix, so there is no need to synchronize
+            prefix = compileAuthorizationUrlPrefix(application);
+            application.authorizationUrlPrefix = prefix;
         }
 
-        return url;
+        return prefix;
     }
 
     /**
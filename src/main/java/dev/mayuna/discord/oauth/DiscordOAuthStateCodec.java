@@ -0,0 +1,349 @@
+package dev.mayuna.discord.oauth;
+
+import dev.mayuna.discord.oauth.callback.DiscordOAuthCallbackServer;
+import dev.mayuna.discord.oauth.callback.DiscordOAuthStateValidator;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Issues and verifies stateless {@code state} values of the authorization URL.<br>A state carries the time it was issued, a random nonce and an
+ * optional small payload, e.g., a return path, and is signed by HMAC-SHA256 truncated to {@link #SIGNATURE_LENGTH} bytes. Verifying a state needs only
+ * the secret, so any node sharing the secret handles any redirect without a session or a shared store. Signatures are compared in constant time.<br>
+ * Each state is bound to the user's browser: the signature also covers a binding, e.g., a random value kept in a cookie of the browser that started
+ * the authorization (see {@link #createBinding()}), which is not part of the state. Without the binding, an attacker could send their own valid state
+ * and code to a victim's browser and log the victim into the attacker's account (login CSRF).<br>The state is not encrypted, so the payload must not
+ * contain secrets. A state may be verified more than once until it expires, applications needing single-use states must remember the used ones.
+ * Secrets may be rotated by {@link Builder#withPreviousSecrets(byte[]...)}, states signed by the previous secrets are still accepted.
+ */
+public class DiscordOAuthStateCodec {
+
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(10);
+    public static final int DEFAULT_MAX_PAYLOAD_LENGTH = 256;
+    public static final int MINIMUM_SECRET_LENGTH = 32;
+    public static final int SIGNATURE_LENGTH = 16;
+
+    // Version 1 states were not bound to the browser
+    private static final byte VERSION = 2;
+    private static final int NONCE_LENGTH = 8;
+    private static final int BINDING_LENGTH = 16;
+    // Version, issued at in seconds, nonce
+    private static final int HEADER_LENGTH = 1 + Integer.BYTES + NONCE_LENGTH;
+    // Allowed difference of clocks of the nodes
+    private static final long CLOCK_SKEW_SECONDS = 60;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final @Getter Duration maxAge;
+    private final @Getter int maxPayloadLength;
+
+    private final SecretKeySpec[] keys;
+    private final ThreadLocal<Mac[]> macs;
+
+    /**
+     * Creates a new DiscordOAuthStateCodec instance. Use {@link Builder} for default values.
+     *
+     * @param secret           Nonnull secret shared by all nodes, at least {@link #MINIMUM_SECRET_LENGTH} bytes.
+     * @param previousSecrets  Nonnull previous secrets, whose states are still accepted.
+     * @param maxAge           Nonnull time after which the states expire.
+     * @param maxPayloadLength Maximum length of the payload in UTF-8 bytes.
+     */
+    public DiscordOAuthStateCodec(@NonNull byte[] secret, @NonNull byte[][] previousSecrets, @NonNull Duration maxAge, int maxPayloadLength) {
+        if (maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("Max age must be positive.");
+        }
+
+        if (maxPayloadLength < 0) {
+            throw new IllegalArgumentException("Max payload length must not be negative.");
+        }
+
+        this.maxAge = maxAge;
+        this.maxPayloadLength = maxPayloadLength;
+        this.keys = new SecretKeySpec[1 + previousSecrets.length];
+
+        for (int i = 0; i < keys.length; i++) {
+            byte[] key = i == 0 ? secret : previousSecrets[i - 1];
+
+            if (key == null || key.length < MINIMUM_SECRET_LENGTH) {
+                throw new IllegalArgumentException("Secrets must have at least " + MINIMUM_SECRET_LENGTH + " bytes.");
+            }
+
+            keys[i] = new SecretKeySpec(key, "HmacSHA256");
+        }
+
+        this.macs = ThreadLocal.withInitial(this::createMacs);
+    }
+
+    /**
+     * Creates a new random binding, to be kept in a cookie of the user's browser, e.g., {@code HttpOnly}, {@code Secure} and {@code SameSite=Lax}.
+     *
+     * @return The binding, safe in cookies and URLs without encoding.
+     */
+    public static @NotNull String createBinding() {
+        byte[] binding = new byte[BINDING_LENGTH];
+        RANDOM.nextBytes(binding);
+        return ENCODER.encodeToString(binding);
+    }
+
+    /**
+     * Issues a new state without payload.
+     *
+     * @param binding Nonnull, non-empty value identifying the user's browser, e.g., from {@link #createBinding()} kept in a cookie.
+     *
+     * @return The state.
+     */
+    public @NotNull String issue(@NonNull String binding) {
+        return issue(binding, null);
+    }
+
+    /**
+     * Issues a new state carrying the payload.
+     *
+     * @param binding Nonnull, non-empty value identifying the user's browser, e.g., from {@link #createBinding()} kept in a cookie.
+     * @param payload Nullable payload, e.g., a return path. It is not encrypted.
+     *
+     * @return The state.
+     */
+    public @NotNull String issue(@NonNull String binding, @Nullable String payload) {
+        if (binding.isEmpty()) {
+            throw new IllegalArgumentException("Binding must not be empty.");
+        }
+
+        byte[] payloadBytes = payload != null ? payload.getBytes(StandardCharsets.UTF_8) : new byte[0];
+
+        if (payloadBytes.length > maxPayloadLength) {
+            throw new IllegalArgumentException("Payload has " + payloadBytes.length + " bytes, maximum is " + maxPayloadLength + " bytes.");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + payloadBytes.length + SIGNATURE_LENGTH);
+        byte[] nonce = new byte[NONCE_LENGTH];
+        RANDOM.nextBytes(nonce);
+
+        buffer.put(VERSION);
+        buffer.putInt((int) (System.currentTimeMillis() / 1000));
+        buffer.put(nonce);
+        buffer.put(payloadBytes);
+        buffer.put(sign(macs.get()[0], binding, buffer.array(), buffer.position()), 0, SIGNATURE_LENGTH);
+
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    /**
+     * Determines if the state was issued for the binding by this codec, or by a codec with the same secret, and has not expired.
+     *
+     * @param state   Nullable state.
+     * @param binding Nullable value identifying the user's browser, which the state was issued for.
+     *
+     * @return True if the state is valid, false otherwise.
+     */
+    public boolean isValid(@Nullable String state, @Nullable String binding) {
+        return verify(state, binding) != null;
+    }
+
+    /**
+     * Creates a validator for {@link DiscordOAuthCallbackServer.Builder#withStateValidator(DiscordOAuthStateValidator)}, which verifies the state
+     * against the binding in the cookie sent by the user's browser.
+     *
+     * @param cookieName Nonnull name of the cookie holding the binding, set when the authorization was started.
+     *
+     * @return The state validator.
+     */
+    public @NotNull DiscordOAuthStateValidator createStateValidator(@NonNull String cookieName) {
+        return (state, exchange) -> isValid(state, DiscordOAuthCallbackServer.getCookie(exchange, cookieName));
+    }
+
+    /**
+     * Verifies the state.
+     *
+     * @param state   Nullable state.
+     * @param binding Nullable value identifying the user's browser, which the state was issued for. Null or empty binding is never valid, e.g.,
+     *                when the browser did not send the cookie.
+     *
+     * @return The verified state, or null if the state is not valid, was issued for another binding or has expired.
+     */
+    public @Nullable VerifiedState verify(@Nullable String state, @Nullable String binding) {
+        if (state == null || state.isEmpty() || binding == null || binding.isEmpty()) {
+            return null;
+        }
+
+        byte[] bytes;
+
+        try {
+            bytes = DECODER.decode(state);
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+
+        int signedLength = bytes.length - SIGNATURE_LENGTH;
+
+        if (signedLength < HEADER_LENGTH || signedLength - HEADER_LENGTH > maxPayloadLength || bytes[0] != VERSION) {
+            return null;
+        }
+
+        byte[] signature = Arrays.copyOfRange(bytes, signedLength, bytes.length);
+        boolean signed = false;
+
+        for (Mac mac : macs.get()) {
+            // Constant time comparison
+            signed |= MessageDigest.isEqual(signature, Arrays.copyOf(sign(mac, binding, bytes, signedLength), SIGNATURE_LENGTH));
+        }
+
+        if (!signed) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, signedLength - 1);
+        long issuedAtSeconds = Integer.toUnsignedLong(buffer.getInt());
+        long nowSeconds = System.currentTimeMillis() / 1000;
+
+        if (issuedAtSeconds > nowSeconds + CLOCK_SKEW_SECONDS || nowSeconds - issuedAtSeconds > maxAge.getSeconds()) {
+            return null;
+        }
+
+        String payload = signedLength > HEADER_LENGTH ? new String(bytes, HEADER_LENGTH, signedLength - HEADER_LENGTH, StandardCharsets.UTF_8) : null;
+        return new VerifiedState(issuedAtSeconds * 1000, payload);
+    }
+
+    private static byte[] sign(Mac mac, String binding, byte[] data, int length) {
+        byte[] bindingBytes = binding.getBytes(StandardCharsets.UTF_8);
+
+        // Length prefix, so the binding and the payload cannot be shifted into each other
+        mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(bindingBytes.length).array());
+        mac.update(bindingBytes);
+        mac.update(data, 0, length);
+        return mac.doFinal();
+    }
+
+    private Mac[] createMacs() {
+        Mac[] macs = new Mac[keys.length];
+
+        try {
+            for (int i = 0; i < keys.length; i++) {
+                macs[i] = Mac.getInstance("HmacSHA256");
+                macs[i].init(keys[i]);
+            }
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException("HmacSHA256 is not available", exception);
+        }
+
+        return macs;
+    }
+
+    /**
+     * State verified by {@link DiscordOAuthStateCodec#verify(String, String)}.
+     */
+    @Getter
+    public static class VerifiedState {
+
+        /**
+         * Gets the time when the state was issued, in whole seconds.
+         *
+         * @return The time in milliseconds.
+         */
+        private final long issuedAt;
+        private final @Nullable String payload;
+
+        private VerifiedState(long issuedAt, @Nullable String payload) {
+            this.issuedAt = issuedAt;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Builder for {@link DiscordOAuthStateCodec}.
+     */
+    @Getter
+    public static class Builder {
+
+        private byte[] secret;
+        private final List<byte[]> previousSecrets = new ArrayList<>();
+        private Duration maxAge = DEFAULT_MAX_AGE;
+        private int maxPayloadLength = DEFAULT_MAX_PAYLOAD_LENGTH;
+
+        /**
+         * Creates new {@link DiscordOAuthStateCodec.Builder} instance.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Sets the secret shared by all nodes, which signs new states.
+         *
+         * @param secret Nonnull secret, at least {@link #MINIMUM_SECRET_LENGTH} bytes.
+         *
+         * @return The DiscordOAuthStateCodec.Builder instance.
+         */
+        public @NotNull Builder withSecret(@NonNull byte[] secret) {
+            this.secret = secret.clone();
+            return this;
+        }
+
+        /**
+         * Adds previous secrets, whose states are still accepted, e.g., during rotation of the secret.
+         *
+         * @param previousSecrets Nonnull previous secrets.
+         *
+         * @return The DiscordOAuthStateCodec.Builder instance.
+         */
+        public @NotNull Builder withPreviousSecrets(@NonNull byte[]... previousSecrets) {
+            for (byte[] previousSecret : previousSecrets) {
+                this.previousSecrets.add(previousSecret.clone());
+            }
+
+            return this;
+        }
+
+        /**
+         * Sets the time after which the states expire. Should be longer than the user needs for authorizing the application.
+         *
+         * @param maxAge Nonnull max age.
+         *
+         * @return The DiscordOAuthStateCodec.Builder instance.
+         */
+        public @NotNull Builder withMaxAge(@NonNull Duration maxAge) {
+            this.maxAge = maxAge;
+            return this;
+        }
+
+        /**
+         * Sets the maximum length of the payload in UTF-8 bytes.
+         *
+         * @param maxPayloadLength Max payload length.
+         *
+         * @return The DiscordOAuthStateCodec.Builder instance.
+         */
+        public @NotNull Builder withMaxPayloadLength(int maxPayloadLength) {
+            this.maxPayloadLength = maxPayloadLength;
+            return this;
+        }
+
+        /**
+         * Builds the DiscordOAuthStateCodec instance.
+         *
+         * @return The DiscordOAuthStateCodec instance.
+         */
+        public @NotNull DiscordOAuthStateCodec build() {
+            if (secret == null) {
+                throw new IllegalStateException("Secret must be set.");
+            }
+
+            return new DiscordOAuthStateCodec(secret, previousSecrets.toArray(new byte[0][]), maxAge, maxPayloadLength);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package dev.mayuna.discord.oauth.callback;
+
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receives results of the redirects handled by {@link DiscordOAuthCallbackServer}.<br>Results of the code exchange are reported from the HTTP
+ * client's threads, redirects failed before the exchange, e.g., with the {@code error} parameter or invalid state, are reported from the server's
+ * executor. Methods should not block either of them. The user's browser receives the response after the method returns.
+ */
+public interface DiscordOAuthCallbackListener {
+
+    /**
+     * Called when the user authorized the application and the code was exchanged for tokens.
+     *
+     * @param state Nullable state from the redirect.
+     * @param token Nonnull tokens.
+     */
+    void onAuthorized(@Nullable String state, @NotNull DiscordAccessToken token);
+
+    /**
+     * Called when the user did not authorize the application, the state was not valid or the code could not be exchanged for tokens.
+     *
+     * @param state         Nullable state from the redirect.
+     * @param error         Nullable error from the redirect, e.g., {@code access_denied}, or {@link DiscordOAuthCallbackServer#INVALID_STATE_ERROR}.
+     * @param errorResponse Nullable response, when Discord returned an error or a non-2xx status code (see {@link DiscordAccessToken#getError()}
+     *                      and {@link DiscordAccessToken#getStatusCode()}).
+     * @param throwable     Nullable exception, when the request itself failed.
+     */
+    default void onAuthorizationFailed(@Nullable String state, @Nullable String error, @Nullable DiscordAccessToken errorResponse, @Nullable Throwable throwable) {
+    }
+}
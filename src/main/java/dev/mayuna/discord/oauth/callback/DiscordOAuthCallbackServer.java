@@ -0,0 +1,564 @@
+package dev.mayuna.discord.oauth.callback;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.mayuna.discord.http.VirtualThreads;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embeddable HTTP server handling the redirect URI of the application.<br>The server parses {@code code} and {@code state} from the redirect,
+ * exchanges the code for tokens by {@link DiscordOAuth#fetchAccessToken(String)} asynchronously and passes the result to the
+ * {@link DiscordOAuthCallbackListener}. The server's threads only parse the redirect and write the response, they never wait for Discord, so a few
+ * threads handle thousands of concurrent redirects. Virtual threads are used when supported by the running Java version.<br>At most
+ * {@link #getMaxPendingExchanges()} code exchanges run at once, further redirects are answered with {@code 503 Service Unavailable}.<br>The JDK's
+ * HTTP server writes the response headers and body separately, so unless the application runs with {@code -Dsun.net.httpserver.nodelay=true},
+ * Nagle's algorithm may hold back the body until the browser acknowledges the headers. The server does not set the JVM-wide property itself.
+ */
+public class DiscordOAuthCallbackServer implements AutoCloseable {
+
+    /**
+     * Error passed to {@link DiscordOAuthCallbackListener#onAuthorizationFailed(String, String, DiscordAccessToken, Throwable)} when the state was
+     * rejected by the state validator.
+     */
+    public static final String INVALID_STATE_ERROR = "invalid_state";
+
+    public static final int DEFAULT_MAX_PENDING_EXCHANGES = 10_000;
+    public static final int DEFAULT_BACKLOG = 1024;
+
+    private static final byte[] SUCCESS_BODY = page("Authorized", "You may now close this page.");
+    private static final byte[] FAILURE_BODY = page("Authorization failed", "Please try again.");
+    private static final byte[] UNAVAILABLE_BODY = page("Service unavailable", "Please try again later.");
+
+    private final @Getter DiscordOAuth discordOAuth;
+    private final @Getter DiscordOAuthCallbackListener listener;
+    private final @Getter InetSocketAddress address;
+    private final @Getter String path;
+    private final @Getter @Nullable DiscordOAuthStateValidator stateValidator;
+    private final @Getter @Nullable String successRedirectUrl;
+    private final @Getter @Nullable String failureRedirectUrl;
+    private final @Getter int maxPendingExchanges;
+    private final @Getter int backlog;
+
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final AtomicInteger pendingExchanges = new AtomicInteger();
+    private HttpServer httpServer;
+
+    /**
+     * Creates a new DiscordOAuthCallbackServer instance. Use {@link Builder} for default values. The server is started by {@link #start()}.
+     *
+     * @param discordOAuth        Nonnull DiscordOAuth used for exchanging the codes.
+     * @param listener            Nonnull listener receiving the tokens.
+     * @param address             Nonnull address to bind to.
+     * @param path                Nonnull path of the redirect URI, e.g., {@code /callback}.
+     * @param stateValidator      Nullable validator of the state and the request, redirects with rejected state are not exchanged. Null accepts any
+     *                            state.
+     * @param successRedirectUrl  Nullable URL the user is redirected to after authorizing. Null responds with a simple page.
+     * @param failureRedirectUrl  Nullable URL the user is redirected to after failed authorization. Null responds with a simple page.
+     * @param maxPendingExchanges Maximum number of code exchanges running at once.
+     * @param backlog             Maximum number of connections waiting to be accepted.
+     * @param executor            Nullable executor handling the requests. Null creates virtual threads if supported, otherwise a thread per
+     *                            processor.
+     */
+    public DiscordOAuthCallbackServer(@NonNull DiscordOAuth discordOAuth, @NonNull DiscordOAuthCallbackListener listener, @NonNull InetSocketAddress address, @NonNull String path, @Nullable DiscordOAuthStateValidator stateValidator, @Nullable String successRedirectUrl, @Nullable String failureRedirectUrl, int maxPendingExchanges, int backlog, @Nullable Executor executor) {
+        if (!path.startsWith("/")) {
+            throw new IllegalArgumentException("Path must start with /.");
+        }
+
+        if (maxPendingExchanges <= 0) {
+            throw new IllegalArgumentException("Max pending exchanges must be positive.");
+        }
+
+        this.discordOAuth = discordOAuth;
+        this.listener = listener;
+        this.address = address;
+        this.path = path;
+        this.stateValidator = stateValidator;
+        this.successRedirectUrl = successRedirectUrl;
+        this.failureRedirectUrl = failureRedirectUrl;
+        this.maxPendingExchanges = maxPendingExchanges;
+        this.backlog = backlog;
+        this.ownsExecutor = executor == null;
+        this.executor = executor != null ? executor : createExecutor();
+    }
+
+    /**
+     * Binds the server and starts handling the redirects.
+     *
+     * @throws IOException           If the server could not be bound.
+     * @throws IllegalStateException If the server was already started.
+     */
+    public synchronized void start() throws IOException {
+        if (httpServer != null) {
+            throw new IllegalStateException("Server was already started.");
+        }
+
+        HttpServer httpServer = HttpServer.create(address, backlog);
+        httpServer.createContext(path, this::handle);
+        httpServer.setExecutor(executor);
+        httpServer.start();
+
+        this.httpServer = httpServer;
+    }
+
+    /**
+     * Gets the port the server is bound to, e.g., when bound to port 0.
+     *
+     * @return The port.
+     *
+     * @throws IllegalStateException If the server was not started.
+     */
+    public synchronized int getPort() {
+        if (httpServer == null) {
+            throw new IllegalStateException("Server was not started.");
+        }
+
+        return httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Gets the number of code exchanges currently running.
+     *
+     * @return Number of pending exchanges.
+     */
+    public int getPendingExchanges() {
+        return pendingExchanges.get();
+    }
+
+    /**
+     * Stops the server. Redirects, whose codes are being exchanged, are not answered.
+     */
+    @Override
+    public synchronized void close() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+        }
+
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private void handle(HttpExchange exchange) {
+        // Contexts match by prefix, e.g., /callbackfoo or /callback/x would be handled too
+        if (!path.equals(exchange.getRequestURI().getPath())) {
+            respond(exchange, 404, null, FAILURE_BODY);
+            return;
+        }
+
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, null, FAILURE_BODY);
+            return;
+        }
+
+        String query = exchange.getRequestURI().getRawQuery();
+        String code = getQueryParameter(query, "code");
+        String state = getQueryParameter(query, "state");
+        String error = getQueryParameter(query, "error");
+
+        if (error != null) {
+            notifyFailure(state, error, null, null);
+            respondFailure(exchange);
+            return;
+        }
+
+        if (code == null || code.isEmpty()) {
+            respond(exchange, 400, null, FAILURE_BODY);
+            return;
+        }
+
+        if (stateValidator != null && (state == null || !isStateValid(state, exchange))) {
+            notifyFailure(state, INVALID_STATE_ERROR, null, null);
+            respondFailure(exchange);
+            return;
+        }
+
+        if (pendingExchanges.incrementAndGet() > maxPendingExchanges) {
+            pendingExchanges.decrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 503, null, UNAVAILABLE_BODY);
+            return;
+        }
+
+        try {
+            discordOAuth.fetchAccessToken(code)
+                        .sendAsync()
+                        .whenComplete((token, throwable) -> {
+                            pendingExchanges.decrementAndGet();
+                            onExchangeCompleted(exchange, state, token, throwable);
+                        });
+        } catch (Throwable throwable) {
+            pendingExchanges.decrementAndGet();
+            onExchangeCompleted(exchange, state, null, throwable);
+        }
+    }
+
+    private boolean isStateValid(String state, HttpExchange exchange) {
+        try {
+            return stateValidator.isValid(state, exchange);
+        } catch (Throwable ignored) {
+            // Validator must not prevent the response
+            return false;
+        }
+    }
+
+    private void onExchangeCompleted(HttpExchange exchange, String state, DiscordAccessToken token, Throwable throwable) {
+        // 429 and 5xx responses have no error field, so only 2xx response with the access token authorizes the user
+        boolean successful = throwable == null && token != null && token.isSuccessful() && token.getAccessToken() != null;
+
+        try {
+            if (successful) {
+                listener.onAuthorized(state, token);
+            } else {
+                notifyFailure(state, null, token, throwable);
+            }
+        } catch (Throwable ignored) {
+            // Listener must not prevent the response
+        } finally {
+            try {
+                // Response is written by the server's executor, not by the HTTP client's threads
+                executor.execute(() -> {
+                    if (successful) {
+                        respond(exchange, successRedirectUrl != null ? 302 : 200, successRedirectUrl, SUCCESS_BODY);
+                    } else {
+                        respondFailure(exchange);
+                    }
+                });
+            } catch (RejectedExecutionException ignored) {
+                // Server was closed
+                exchange.close();
+            }
+        }
+    }
+
+    private void notifyFailure(String state, String error, DiscordAccessToken errorResponse, Throwable throwable) {
+        try {
+            listener.onAuthorizationFailed(state, error, errorResponse, throwable);
+        } catch (Throwable ignored) {
+            // Listener must not prevent the response
+        }
+    }
+
+    private void respondFailure(HttpExchange exchange) {
+        respond(exchange, failureRedirectUrl != null ? 302 : 400, failureRedirectUrl, FAILURE_BODY);
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, String location, byte[] body) {
+        try {
+            if (location != null) {
+                exchange.getResponseHeaders().set("Location", location);
+                exchange.sendResponseHeaders(statusCode, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            exchange.sendResponseHeaders(statusCode, body.length);
+
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        } catch (IOException ignored) {
+            // User's browser closed the connection
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Gets the decoded value of the query parameter.
+     *
+     * @param query Nullable raw query.
+     * @param name  Nonnull parameter name.
+     *
+     * @return The value, or null if the query does not contain the parameter.
+     */
+    static @Nullable String getQueryParameter(@Nullable String query, @NonNull String name) {
+        if (query == null) {
+            return null;
+        }
+
+        int start = 0;
+
+        while (start < query.length()) {
+            int end = query.indexOf('&', start);
+
+            if (end == -1) {
+                end = query.length();
+            }
+
+            if (query.startsWith(name, start) && start + name.length() < end && query.charAt(start + name.length()) == '=') {
+                String value = query.substring(start + name.length() + 1, end);
+
+                // Codes and states are usually unreserved characters only
+                if (value.indexOf('%') == -1 && value.indexOf('+') == -1) {
+                    return value;
+                }
+
+                try {
+                    return URLDecoder.decode(value, StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException exception) {
+                    return null;
+                }
+            }
+
+            if (query.startsWith(name, start) && start + name.length() == end) {
+                return "";
+            }
+
+            start = end + 1;
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the value of the cookie sent by the user's browser, e.g., the binding of {@link dev.mayuna.discord.oauth.DiscordOAuthStateCodec}.
+     *
+     * @param exchange Nonnull request.
+     * @param name     Nonnull cookie name.
+     *
+     * @return The value, or null if the request does not contain the cookie.
+     */
+    public static @Nullable String getCookie(@NonNull HttpExchange exchange, @NonNull String name) {
+        List<String> headers = exchange.getRequestHeaders().get("Cookie");
+
+        if (headers == null) {
+            return null;
+        }
+
+        for (String header : headers) {
+            for (String cookie : header.split(";")) {
+                int separator = cookie.indexOf('=');
+
+                if (separator == -1 || !cookie.substring(0, separator).trim().equals(name)) {
+                    continue;
+                }
+
+                String value = cookie.substring(separator + 1).trim();
+
+                // Value may be quoted (RFC 6265)
+                if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+                    value = value.substring(1, value.length() - 1);
+                }
+
+                return value;
+            }
+        }
+
+        return null;
+    }
+
+    private static ExecutorService createExecutor() {
+        if (VirtualThreads.isSupported()) {
+            return VirtualThreads.newVirtualThreadPerTaskExecutor();
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "discord-oauth-callback-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static byte[] page(String title, String message) {
+        return ("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>" + title + "</title></head><body><h1>" + title + "</h1><p>" + message
+                + "</p></body></html>").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Builder for {@link DiscordOAuthCallbackServer}.
+     */
+    @Getter
+    public static class Builder {
+
+        private DiscordOAuth discordOAuth;
+        private DiscordOAuthCallbackListener listener;
+        private InetSocketAddress address;
+        private String path;
+        private DiscordOAuthStateValidator stateValidator;
+        private String successRedirectUrl;
+        private String failureRedirectUrl;
+        private int maxPendingExchanges = DEFAULT_MAX_PENDING_EXCHANGES;
+        private int backlog = DEFAULT_BACKLOG;
+        private Executor executor;
+
+        /**
+         * Creates new {@link DiscordOAuthCallbackServer.Builder} instance.<br>Unless set, the port and path are taken from the application's redirect
+         * URL and the server binds to all interfaces.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Sets the DiscordOAuth used for exchanging the codes.
+         *
+         * @param discordOAuth Nonnull DiscordOAuth.
+         *
+         * @return The DiscordOAuthCallbackServer.Builder instance.
+         */
+        public @NotNull Builder withDiscordOAuth(@NonNull DiscordOAuth discordOAuth) {
+            this.discordOAuth = discordOAuth;
+            return this;
+        }
+
+        /**
+         * Sets the listener receiving the tokens.
+         *
+         * @param listener Nonnull listener.
+         *
+         * @return The DiscordOAuthCallbackServer.Builder instance.
+         */
+        public @NotNull Builder withListener(@NonNull DiscordOAuthCallbackListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Sets the address to bind to, e.g., when the server runs behind a reverse proxy.
+         *
+         * @param address Nonnull address.
+         *
+         * @return The DiscordOAuthCallbackServer.Builder instance.
+         */
+        public @NotNull Builder withAddress(@NonNull InetSocketAddress address) {
+            this.address = address;
+            return this;
+        }
+
+        /**
+         * Sets the path of the redirect URI.
+         *
+         * @param path Nonnull path, e.g., {@code /callback}.
+         *
+         * @return The DiscordOAuthCallbackServer.Builder instance.
+         */
+        public @NotNull Builder withPath(@NonNull String path) {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Sets the validator of the state, which also receives the request, e.g., for checking the state against a cookie by
+         * {@link dev.mayuna.discord.oauth.DiscordOAuthStateCodec#createStateValidator(String)}. Redirects with rejected state are not exchanged for
+         * tokens.
+         *
+         * @param stateValidator Nonnull state validator.
+         *
+         * @return The DiscordOAuthCallbackServer.Builder instance.
+         */
+        public @NotNull Builder withStateValidator(@NonNull DiscordOAuthStateValidator stateValidator) {
+            this.stateValidator = stateValidator;
+            return this;
+        }
+
+        /**
+         * Sets the URL the user is redirected to after authorizing.
+         *
+         * @param successRedirectUrl Nonnull URL.
+         *
+         * @return The DiscordOAuthCallbackServer.Builder instance.
+         */
+        public @NotNull Builder withSuccessRedirectUrl(@NonNull String successRedirectUrl) {
+            this.successRedirectUrl = successRedirectUrl;
+            return this;
+        }
+
+        /**
+         * Sets the URL the user is redirected to after failed authorization.
+         *
+         * @param failureRedirectUrl Nonnull URL.
+         *
+         * @return The DiscordOAuthCallbackServer.Builder instance.
+         */
+        public @NotNull Builder withFailureRedirectUrl(@NonNull String failureRedirectUrl) {
+            this.failureRedirectUrl = failureRedirectUrl;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of code exchanges running at once.
+         *
+         * @param maxPendingExchanges Max pending exchanges.
+         *
+         * @return The DiscordOAuthCallbackServer.Builder instance.
+         */
+        public @NotNull Builder withMaxPendingExchanges(int maxPendingExchanges) {
+            this.maxPendingExchanges = maxPendingExchanges;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of connections waiting to be accepted.
+         *
+         * @param backlog Backlog.
+         *
+         * @return The DiscordOAuthCallbackServer.Builder instance.
+         */
+        public @NotNull Builder withBacklog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        /**
+         * Sets the executor handling the requests. The executor is not shut down when the server is closed.
+         *
+         * @param executor Nonnull executor.
+         *
+         * @return The DiscordOAuthCallbackServer.Builder instance.
+         */
+        public @NotNull Builder withExecutor(@NonNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Builds the DiscordOAuthCallbackServer instance.
+         *
+         * @return The DiscordOAuthCallbackServer instance.
+         */
+        public @NotNull DiscordOAuthCallbackServer build() {
+            if (discordOAuth == null || listener == null) {
+                throw new IllegalStateException("DiscordOAuth and listener must be set.");
+            }
+
+            InetSocketAddress address = this.address;
+            String path = this.path;
+
+            if (address == null || path == null) {
+                URI redirectUri = URI.create(discordOAuth.getApplication().getRedirectUrl());
+
+                if (address == null) {
+                    int port = redirectUri.getPort() != -1 ? redirectUri.getPort() : ("https".equals(redirectUri.getScheme()) ? 443 : 80);
+                    address = new InetSocketAddress(port);
+                }
+
+                if (path == null) {
+                    path = redirectUri.getPath() == null || redirectUri.getPath().isEmpty() ? "/" : redirectUri.getPath();
+                }
+            }
+
+            return new DiscordOAuthCallbackServer(discordOAuth, listener, address, path, stateValidator, successRedirectUrl, failureRedirectUrl, maxPendingExchanges, backlog, executor);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package dev.mayuna.discord.oauth.callback;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Validates the {@code state} of the redirects handled by {@link DiscordOAuthCallbackServer}.<br>The validator receives the whole request, so the
+ * state can be checked against the user's browser, e.g., against a cookie read by {@link DiscordOAuthCallbackServer#getCookie(HttpExchange, String)}.
+ * It is called from the server's threads before the code is exchanged, so it should not block.
+ */
+@FunctionalInterface
+public interface DiscordOAuthStateValidator {
+
+    /**
+     * Determines if the state of the redirect is valid.
+     *
+     * @param state    Nonnull state from the redirect.
+     * @param exchange Nonnull request of the redirect. The response must not be sent by the validator.
+     *
+     * @return True if the code may be exchanged for tokens, false otherwise.
+     */
+    boolean isValid(@NotNull String state, @NotNull HttpExchange exchange);
+}
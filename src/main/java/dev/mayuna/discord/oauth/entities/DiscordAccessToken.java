@@ -1,8 +1,19 @@
 package dev.mayuna.discord.oauth.entities;
 
+import com.google.gson.TypeAdapter;
 import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import dev.mayuna.discord.api.DiscordApiResponse;
+import dev.mayuna.discord.oauth.DiscordApplication;
+import dev.mayuna.discord.utils.JsonReaders;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
 
 /**
  * Represents Discord's access token response. Visit <a
@@ -17,7 +28,7 @@ public class DiscordAccessToken extends DiscordApiResponse {
      *
      * @return The time in milliseconds.
      */
-    private final @Getter long fetchedAt = System.currentTimeMillis();
+    private final @Getter long fetchedAt;
 
     private @SerializedName("access_token") String accessToken;
     private @SerializedName("token_type") String tokenType;
@@ -25,17 +36,58 @@ public class DiscordAccessToken extends DiscordApiResponse {
     private @SerializedName("refresh_token") String refreshToken;
     private String scope;
 
+    // Parsed scope, set when deserialized by the adapter or lazily when deserialized reflectively
+    @Getter(AccessLevel.NONE)
+    private transient volatile DiscordScopeSet scopeSet;
+
+    /**
+     * Creates a new empty DiscordAccessToken instance fetched now. Used when deserializing the response.
+     */
+    public DiscordAccessToken() {
+        this.fetchedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Creates a new DiscordAccessToken instance, e.g., when restoring a stored token.
+     *
+     * @param fetchedAt        Time when the access token was fetched, in milliseconds.
+     * @param accessToken      Nullable access token.
+     * @param tokenType        Nullable token type.
+     * @param expiresInSeconds Number of seconds after fetching the access token expires.
+     * @param refreshToken     Nullable refresh token.
+     * @param scope            Nullable space-separated scopes.
+     */
+    public DiscordAccessToken(long fetchedAt, String accessToken, String tokenType, long expiresInSeconds, String refreshToken, String scope) {
+        this.fetchedAt = fetchedAt;
+        this.accessToken = accessToken;
+        this.tokenType = tokenType;
+        this.expiresInSeconds = expiresInSeconds;
+        this.refreshToken = refreshToken;
+        this.scope = scope;
+        this.scopeSet = DiscordScopeSet.parse(scope);
+    }
+
     /**
      * Determines if access token are expired
      *
      * @return boolean
      */
     public boolean isAccessTokenExpired() {
-        return System.currentTimeMillis() - fetchedAt > expiresInSeconds * 1000;
+        return System.currentTimeMillis() > getExpiresAt();
     }
 
     /**
-     * Gets the scopes returned by the Discord API.<br> If the scope is null or empty, then an empty array will be returned.
+     * Gets the time when the access token expires, e.g., {@link #getFetchedAt()} + {@link #getExpiresInSeconds()}.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getExpiresAt() {
+        return fetchedAt + expiresInSeconds * 1000;
+    }
+
+    /**
+     * Gets the scopes returned by the Discord API.<br> If the scope is null or empty, then an empty array will be returned.<br>Creates a new array on
+     * each call, use {@link #hasScope(DiscordScope)} or {@link #getScopeSet()} for checking the scopes.
      *
      * @return The scopes.
      */
@@ -46,4 +98,106 @@ public class DiscordAccessToken extends DiscordApiResponse {
 
         return scope.split(" ");
     }
+
+    /**
+     * Gets the scopes returned by the Discord API, parsed once.
+     *
+     * @return The scopes, empty if the scope is null or empty.
+     */
+    public @NotNull DiscordScopeSet getScopeSet() {
+        DiscordScopeSet scopeSet = this.scopeSet;
+
+        if (scopeSet == null) {
+            scopeSet = DiscordScopeSet.parse(scope);
+            this.scopeSet = scopeSet;
+        }
+
+        return scopeSet;
+    }
+
+    /**
+     * Determines if the scope was granted. Allocates nothing.
+     *
+     * @param scope Nonnull scope.
+     *
+     * @return True if the scope was granted, false otherwise.
+     */
+    public boolean hasScope(@NonNull DiscordScope scope) {
+        return getScopeSet().contains(scope);
+    }
+
+    /**
+     * Determines if all the scopes were granted, e.g., all scopes requested by {@link DiscordApplication#getScopeSet()}. Allocates nothing.
+     *
+     * @param scopes Nonnull scopes.
+     *
+     * @return True if all the scopes were granted, false otherwise.
+     */
+    public boolean hasAllScopes(@NonNull DiscordScopeSet scopes) {
+        return getScopeSet().containsAll(scopes);
+    }
+
+    /**
+     * Streaming type adapter for {@link DiscordAccessToken}, which skips unknown fields without reflection.
+     */
+    public static class Adapter extends TypeAdapter<DiscordAccessToken> {
+
+        @Override
+        public void write(JsonWriter writer, DiscordAccessToken token) throws IOException {
+            if (token == null) {
+                writer.nullValue();
+                return;
+            }
+
+            writer.beginObject();
+            writer.name("access_token").value(token.accessToken);
+            writer.name("token_type").value(token.tokenType);
+            writer.name("expires_in").value(token.expiresInSeconds);
+            writer.name("refresh_token").value(token.refreshToken);
+            writer.name("scope").value(token.scope);
+            writeErrorFields(token, writer);
+            writer.endObject();
+        }
+
+        @Override
+        public DiscordAccessToken read(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return null;
+            }
+
+            DiscordAccessToken token = new DiscordAccessToken();
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+
+                switch (name) {
+                    case "access_token":
+                        token.accessToken = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "token_type":
+                        token.tokenType = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "expires_in":
+                        token.expiresInSeconds = JsonReaders.nextLongOrZero(reader);
+                        break;
+                    case "refresh_token":
+                        token.refreshToken = JsonReaders.nextStringOrNull(reader);
+                        break;
+                    case "scope":
+                        token.scope = JsonReaders.nextStringOrNull(reader);
+                        token.scopeSet = DiscordScopeSet.parse(token.scope);
+                        break;
+                    default:
+                        if (!readErrorField(token, name, reader)) {
+                            reader.skipValue();
+                        }
+                }
+            }
+
+            reader.endObject();
+            return token;
+        }
+    }
 }
@@ -0,0 +1,79 @@
+package dev.mayuna.discord.oauth.entities;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Known OAuth2 scopes. Visit <a href="https://discord.com/developers/docs/topics/oauth2#shared-resources-oauth2-scopes">Discord's documentation</a>
+ * for more information. Scopes not listed here are kept as strings by {@link DiscordScopeSet}.
+ */
+public enum DiscordScope {
+
+    ACTIVITIES_READ("activities.read"),
+    ACTIVITIES_WRITE("activities.write"),
+    APPLICATIONS_BUILDS_READ("applications.builds.read"),
+    APPLICATIONS_BUILDS_UPLOAD("applications.builds.upload"),
+    APPLICATIONS_COMMANDS("applications.commands"),
+    APPLICATIONS_COMMANDS_UPDATE("applications.commands.update"),
+    APPLICATIONS_COMMANDS_PERMISSIONS_UPDATE("applications.commands.permissions.update"),
+    APPLICATIONS_ENTITLEMENTS("applications.entitlements"),
+    APPLICATIONS_STORE_UPDATE("applications.store.update"),
+    BOT("bot"),
+    CONNECTIONS("connections"),
+    DM_CHANNELS_READ("dm_channels.read"),
+    EMAIL("email"),
+    GDM_JOIN("gdm.join"),
+    GUILDS("guilds"),
+    GUILDS_JOIN("guilds.join"),
+    GUILDS_MEMBERS_READ("guilds.members.read"),
+    IDENTIFY("identify"),
+    MESSAGES_READ("messages.read"),
+    OPENID("openid"),
+    RELATIONSHIPS_READ("relationships.read"),
+    ROLE_CONNECTIONS_WRITE("role_connections.write"),
+    RPC("rpc"),
+    RPC_ACTIVITIES_WRITE("rpc.activities.write"),
+    RPC_NOTIFICATIONS_READ("rpc.notifications.read"),
+    RPC_VOICE_READ("rpc.voice.read"),
+    RPC_VOICE_WRITE("rpc.voice.write"),
+    VOICE("voice"),
+    WEBHOOK_INCOMING("webhook.incoming");
+
+    private static final Map<String, DiscordScope> BY_VALUE = new HashMap<>();
+
+    static {
+        for (DiscordScope scope : values()) {
+            BY_VALUE.put(scope.value, scope);
+        }
+    }
+
+    /**
+     * Gets the scope as used by the Discord API, e.g., {@code guilds.join}.
+     *
+     * @return The scope's value.
+     */
+    private final @Getter String value;
+
+    DiscordScope(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Gets the known scope by its value.
+     *
+     * @param value Nonnull scope as used by the Discord API, e.g., {@code guilds.join}.
+     *
+     * @return The scope, or null if the scope is not known.
+     */
+    public static @Nullable DiscordScope fromValue(@NonNull String value) {
+        return BY_VALUE.get(value);
+    }
+
+    long bit() {
+        return 1L << ordinal();
+    }
+}
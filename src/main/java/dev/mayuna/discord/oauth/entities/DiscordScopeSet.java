@@ -0,0 +1,312 @@
+package dev.mayuna.discord.oauth.entities;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable set of OAuth2 scopes, parsed once from the space-separated scopes returned by the Discord API.<br>Known scopes are kept as bits of a
+ * {@code long}, so checking them is a single bitwise operation, which allocates nothing. Unknown scopes are kept as strings and checked by
+ * {@link #contains(String)}. Build the set of required scopes once, e.g., by {@link #of(DiscordScope...)}, and check it by
+ * {@link #containsAll(DiscordScopeSet)}.
+ */
+public final class DiscordScopeSet {
+
+    /**
+     * Set without any scopes.
+     */
+    public static final DiscordScopeSet EMPTY = new DiscordScopeSet(0, new String[0]);
+
+    static {
+        if (DiscordScope.values().length > Long.SIZE) {
+            throw new AssertionError("Known scopes do not fit into long.");
+        }
+    }
+
+    private final long bits;
+    private final String[] unknownScopes;
+
+    private DiscordScopeSet(long bits, String[] unknownScopes) {
+        this.bits = bits;
+        this.unknownScopes = unknownScopes;
+    }
+
+    /**
+     * Creates a set of the given scopes.
+     *
+     * @param scopes Nonnull scopes.
+     *
+     * @return The set.
+     */
+    public static @NotNull DiscordScopeSet of(@NonNull DiscordScope... scopes) {
+        long bits = 0;
+
+        for (DiscordScope scope : scopes) {
+            bits |= scope.bit();
+        }
+
+        return bits == 0 ? EMPTY : new DiscordScopeSet(bits, EMPTY.unknownScopes);
+    }
+
+    /**
+     * Creates a set of the given scopes, as used by the Discord API.
+     *
+     * @param scopes Nullable scopes, e.g., {@code identify} or {@code guilds.join}. Null, empty and duplicate scopes are ignored.
+     *
+     * @return The set.
+     */
+    public static @NotNull DiscordScopeSet fromValues(@Nullable String... scopes) {
+        if (scopes == null) {
+            return EMPTY;
+        }
+
+        Builder builder = new Builder();
+
+        for (String scope : scopes) {
+            if (scope != null) {
+                builder.add(scope);
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Parses the space-separated scopes, as returned by the Discord API.
+     *
+     * @param scope Nullable space-separated scopes. Empty and duplicate scopes are ignored.
+     *
+     * @return The set.
+     */
+    public static @NotNull DiscordScopeSet parse(@Nullable String scope) {
+        if (scope == null || scope.isEmpty()) {
+            return EMPTY;
+        }
+
+        Builder builder = new Builder();
+        int start = 0;
+
+        while (start <= scope.length()) {
+            int end = scope.indexOf(' ', start);
+
+            if (end == -1) {
+                end = scope.length();
+            }
+
+            builder.add(scope.substring(start, end));
+            start = end + 1;
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Determines if the set contains the scope.
+     *
+     * @param scope Nonnull scope.
+     *
+     * @return True if the set contains the scope, false otherwise.
+     */
+    public boolean contains(@NonNull DiscordScope scope) {
+        return (bits & scope.bit()) != 0;
+    }
+
+    /**
+     * Determines if the set contains the scope. Known scopes are checked without comparing strings.
+     *
+     * @param scope Nonnull scope, as used by the Discord API.
+     *
+     * @return True if the set contains the scope, false otherwise.
+     */
+    public boolean contains(@NonNull String scope) {
+        DiscordScope knownScope = DiscordScope.fromValue(scope);
+
+        if (knownScope != null) {
+            return contains(knownScope);
+        }
+
+        for (String unknownScope : unknownScopes) {
+            if (unknownScope.equals(scope)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Determines if the set contains all scopes of the other set, e.g., if all requested scopes were granted.
+     *
+     * @param scopes Nonnull other set.
+     *
+     * @return True if the set contains all scopes of the other set, false otherwise.
+     */
+    public boolean containsAll(@NonNull DiscordScopeSet scopes) {
+        if ((bits & scopes.bits) != scopes.bits) {
+            return false;
+        }
+
+        for (String unknownScope : scopes.unknownScopes) {
+            if (!contains(unknownScope)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Determines if the set contains any scope of the other set.
+     *
+     * @param scopes Nonnull other set.
+     *
+     * @return True if the set contains any scope of the other set, false otherwise.
+     */
+    public boolean containsAny(@NonNull DiscordScopeSet scopes) {
+        if ((bits & scopes.bits) != 0) {
+            return true;
+        }
+
+        for (String unknownScope : scopes.unknownScopes) {
+            if (contains(unknownScope)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the number of scopes in the set.
+     *
+     * @return Number of scopes.
+     */
+    public int size() {
+        return Long.bitCount(bits) + unknownScopes.length;
+    }
+
+    /**
+     * Determines if the set is empty.
+     *
+     * @return True if the set has no scopes, false otherwise.
+     */
+    public boolean isEmpty() {
+        return bits == 0 && unknownScopes.length == 0;
+    }
+
+    /**
+     * Gets the known scopes of the set.
+     *
+     * @return New set of the known scopes.
+     */
+    public @NotNull Set<DiscordScope> getKnownScopes() {
+        EnumSet<DiscordScope> knownScopes = EnumSet.noneOf(DiscordScope.class);
+
+        for (DiscordScope scope : DiscordScope.values()) {
+            if (contains(scope)) {
+                knownScopes.add(scope);
+            }
+        }
+
+        return knownScopes;
+    }
+
+    /**
+     * Gets the scopes of the set, which are not {@link DiscordScope}s.
+     *
+     * @return New array of the unknown scopes.
+     */
+    public @NotNull String[] getUnknownScopes() {
+        return unknownScopes.clone();
+    }
+
+    /**
+     * Gets all scopes of the set, as used by the Discord API. Known scopes come first, in the order of {@link DiscordScope}.
+     *
+     * @return New array of the scopes.
+     */
+    public @NotNull String[] toArray() {
+        String[] scopes = new String[size()];
+        int index = 0;
+
+        for (DiscordScope scope : DiscordScope.values()) {
+            if (contains(scope)) {
+                scopes[index++] = scope.getValue();
+            }
+        }
+
+        System.arraycopy(unknownScopes, 0, scopes, index, unknownScopes.length);
+        return scopes;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof DiscordScopeSet)) {
+            return false;
+        }
+
+        DiscordScopeSet otherSet = (DiscordScopeSet) other;
+        return bits == otherSet.bits && unknownScopes.length == otherSet.unknownScopes.length && containsAll(otherSet);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = Long.hashCode(bits);
+
+        for (String unknownScope : unknownScopes) {
+            // Order independent
+            hashCode += unknownScope.hashCode();
+        }
+
+        return hashCode;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return String.join(" ", toArray());
+    }
+
+    private static final class Builder {
+
+        private long bits;
+        private List<String> unknownScopes;
+
+        private void add(String scope) {
+            if (scope.isEmpty()) {
+                return;
+            }
+
+            DiscordScope knownScope = DiscordScope.fromValue(scope);
+
+            if (knownScope != null) {
+                bits |= knownScope.bit();
+                return;
+            }
+
+            if (unknownScopes == null) {
+                unknownScopes = new ArrayList<>(1);
+            }
+
+            if (!unknownScopes.contains(scope)) {
+                unknownScopes.add(scope);
+            }
+        }
+
+        private DiscordScopeSet build() {
+            if (bits == 0 && unknownScopes == null) {
+                return EMPTY;
+            }
+
+            return new DiscordScopeSet(bits, unknownScopes == null ? EMPTY.unknownScopes : unknownScopes.toArray(new String[0]));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package dev.mayuna.discord.oauth.login;
+
+import dev.mayuna.discord.api.entities.DiscordUser;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Completed login, e.g., the user's tokens and the user, see {@link DiscordLoginPipeline}.
+ */
+@Getter
+public class DiscordLogin {
+
+    private final DiscordAccessToken token;
+    private final DiscordUser user;
+
+    /**
+     * Creates a new DiscordLogin instance.
+     *
+     * @param token Nonnull tokens.
+     * @param user  Nonnull user.
+     */
+    public DiscordLogin(@NonNull DiscordAccessToken token, @NonNull DiscordUser user) {
+        this.token = token;
+        this.user = user;
+    }
+}
@@ -0,0 +1,56 @@
+package dev.mayuna.discord.oauth.login;
+
+import dev.mayuna.discord.api.DiscordApiResponse;
+import lombok.Getter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Thrown when a login of {@link DiscordLoginPipeline} fails, either because Discord returned an error or because the request itself failed.
+ */
+@Getter
+public class DiscordLoginException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Stage stage;
+    private final @Nullable DiscordApiResponse errorResponse;
+
+    /**
+     * Creates a new DiscordLoginException instance.
+     *
+     * @param stage         Stage which failed.
+     * @param errorResponse Nullable response, when Discord returned an error or a non-2xx status code.
+     * @param cause         Nullable exception, when the request itself failed.
+     */
+    public DiscordLoginException(Stage stage, @Nullable DiscordApiResponse errorResponse, @Nullable Throwable cause) {
+        super(stage + " failed" + describe(errorResponse), cause);
+        this.stage = stage;
+        this.errorResponse = errorResponse;
+    }
+
+    private static String describe(@Nullable DiscordApiResponse errorResponse) {
+        if (errorResponse == null) {
+            return ".";
+        }
+
+        if (errorResponse.getError() != null) {
+            return ": " + errorResponse.getError();
+        }
+
+        return errorResponse.getStatusCode() != 0 ? ": status code " + errorResponse.getStatusCode() : ".";
+    }
+
+    /**
+     * Stages of a login.
+     */
+    public enum Stage {
+        /**
+         * Exchange of the authorization code for the tokens.
+         */
+        TOKEN_EXCHANGE,
+        /**
+         * Fetching the user by the access token.
+         */
+        USER_FETCH
+    }
+}
@@ -0,0 +1,226 @@
+package dev.mayuna.discord.oauth.login;
+
+import dev.mayuna.discord.api.DiscordApi;
+import dev.mayuna.discord.api.entities.DiscordUser;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs users in with a single non-blocking call: exchanges the authorization code for the tokens and fetches the user by the access token.<br>The
+ * user is fetched from the callback of the exchange, so no thread waits between the two requests. Both requests are sent by the
+ * {@link DiscordOAuth}'s HTTP client, so they share the rate limits and the second request reuses the kept-alive connection of the first one. The
+ * whole login has a single deadline: if it passes, the login fails with {@link TimeoutException} and the user is not fetched.<br>Failed requests and
+ * Discord's errors fail the login with {@link DiscordLoginException}.
+ */
+public class DiscordLoginPipeline {
+
+    private final @Getter DiscordOAuth discordOAuth;
+    private final @Getter DiscordApi discordApi;
+    private final @Getter @Nullable Duration deadline;
+
+    /**
+     * Creates a new DiscordLoginPipeline instance.
+     *
+     * @param discordOAuth Nonnull DiscordOAuth, whose HTTP client sends both requests.
+     * @param deadline     Nullable time in which the whole login must complete, null for no deadline.
+     */
+    public DiscordLoginPipeline(@NonNull DiscordOAuth discordOAuth, @Nullable Duration deadline) {
+        if (deadline != null && (deadline.isNegative() || deadline.isZero())) {
+            throw new IllegalArgumentException("Deadline must be positive.");
+        }
+
+        this.discordOAuth = discordOAuth;
+        this.discordApi = new DiscordApi(discordOAuth.getApplication().getApiUrl(), discordOAuth.getHttpClient());
+        this.deadline = deadline;
+    }
+
+    /**
+     * Creates a new DiscordLoginPipeline instance without a deadline. Requests are still bounded by the HTTP client's request timeout.
+     *
+     * @param discordOAuth Nonnull DiscordOAuth, whose HTTP client sends both requests.
+     */
+    public DiscordLoginPipeline(@NonNull DiscordOAuth discordOAuth) {
+        this(discordOAuth, null);
+    }
+
+    /**
+     * Logs the user in with the pipeline's deadline.
+     *
+     * @param code Nonnull code from the URL that the Discord redirected the user to.
+     *
+     * @return Future of the login. Completes exceptionally with {@link DiscordLoginException} or, when the deadline passes, with
+     * {@link TimeoutException}.
+     */
+    public @NotNull CompletableFuture<DiscordLogin> login(@NonNull String code) {
+        return login(code, deadline);
+    }
+
+    /**
+     * Logs the user in.
+     *
+     * @param code     Nonnull code from the URL that the Discord redirected the user to.
+     * @param deadline Nullable time in which the whole login must complete, null for no deadline.
+     *
+     * @return Future of the login. Completes exceptionally with {@link DiscordLoginException} or, when the deadline passes, with
+     * {@link TimeoutException}.
+     */
+    public @NotNull CompletableFuture<DiscordLogin> login(@NonNull String code, @Nullable Duration deadline) {
+        CompletableFuture<DiscordLogin> login = new CompletableFuture<>();
+
+        if (deadline != null) {
+            login.orTimeout(deadline.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        CompletableFuture<DiscordAccessToken> tokenFuture;
+
+        try {
+            tokenFuture = discordOAuth.fetchAccessToken(code).sendAsync();
+        } catch (Throwable throwable) {
+            tokenFuture = CompletableFuture.failedFuture(throwable);
+        }
+
+        tokenFuture.whenComplete((token, throwable) -> {
+            // Deadline has passed, the user is not fetched
+            if (login.isDone()) {
+                return;
+            }
+
+            // 429 and 5xx responses have no error field, so a token without access token would fail the user fetch instead
+            if (throwable != null || token == null || !token.isSuccessful() || token.getAccessToken() == null) {
+                login.completeExceptionally(new DiscordLoginException(DiscordLoginException.Stage.TOKEN_EXCHANGE, token, unwrap(throwable)));
+                return;
+            }
+
+            fetchUser(login, token);
+        });
+
+        return login;
+    }
+
+    /**
+     * Creates a publisher of the login, for reactive pipelines. The login starts when the subscriber requests it, the publisher accepts a single
+     * subscriber, since the code can be exchanged only once.
+     *
+     * @param code Nonnull code from the URL that the Discord redirected the user to.
+     *
+     * @return Publisher emitting the login and completing, or failing like {@link #login(String)}.
+     */
+    public @NotNull Flow.Publisher<DiscordLogin> publishLogin(@NonNull String code) {
+        return new LoginPublisher(this, code);
+    }
+
+    private void fetchUser(CompletableFuture<DiscordLogin> login, DiscordAccessToken token) {
+        CompletableFuture<DiscordUser> userFuture;
+
+        try {
+            userFuture = discordApi.fetchUser(token.getAccessToken()).sendAsync();
+        } catch (Throwable throwable) {
+            userFuture = CompletableFuture.failedFuture(throwable);
+        }
+
+        userFuture.whenComplete((user, throwable) -> {
+            // Discord's 401 has neither the error nor the user's fields
+            if (throwable != null || user == null || !user.isSuccessful() || user.getId() == null) {
+                login.completeExceptionally(new DiscordLoginException(DiscordLoginException.Stage.USER_FETCH, user, unwrap(throwable)));
+            } else {
+                login.complete(new DiscordLogin(token, user));
+            }
+        });
+    }
+
+    private static @Nullable Throwable unwrap(@Nullable Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+
+        return throwable;
+    }
+
+    /**
+     * Publisher of a single login, started on the first request.
+     */
+    private static final class LoginPublisher implements Flow.Publisher<DiscordLogin> {
+
+        private final DiscordLoginPipeline pipeline;
+        private final String code;
+        private final AtomicBoolean subscribed = new AtomicBoolean();
+
+        private LoginPublisher(DiscordLoginPipeline pipeline, String code) {
+            this.pipeline = pipeline;
+            this.code = code;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super DiscordLogin> subscriber) {
+            if (!subscribed.compareAndSet(false, true)) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("Login publisher accepts a single subscriber."));
+                return;
+            }
+
+            subscriber.onSubscribe(new LoginSubscription(subscriber));
+        }
+
+        private final class LoginSubscription implements Flow.Subscription {
+
+            private final Flow.Subscriber<? super DiscordLogin> subscriber;
+            private final AtomicBoolean requested = new AtomicBoolean();
+            private volatile boolean cancelled;
+
+            private LoginSubscription(Flow.Subscriber<? super DiscordLogin> subscriber) {
+                this.subscriber = subscriber;
+            }
+
+            @Override
+            public void request(long n) {
+                if (cancelled || !requested.compareAndSet(false, true)) {
+                    return;
+                }
+
+                if (n <= 0) {
+                    cancelled = true;
+                    subscriber.onError(new IllegalArgumentException("Requested number of items must be positive."));
+                    return;
+                }
+
+                pipeline.login(code).whenComplete((login, throwable) -> {
+                    if (cancelled) {
+                        return;
+                    }
+
+                    if (throwable != null) {
+                        subscriber.onError(throwable);
+                    } else {
+                        subscriber.onNext(login);
+                        subscriber.onComplete();
+                    }
+                });
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+            }
+        }
+    }
+}
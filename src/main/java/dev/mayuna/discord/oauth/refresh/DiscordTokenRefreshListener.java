@@ -0,0 +1,32 @@
+package dev.mayuna.discord.oauth.refresh;
+
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receives results of the refreshes done by {@link DiscordTokenRefreshScheduler}.<br>Methods are called from the HTTP client's threads, so they
+ * should not block.
+ */
+public interface DiscordTokenRefreshListener {
+
+    /**
+     * Called when user's tokens were refreshed. The previous refresh token is no longer valid, so the new tokens should be persisted.
+     *
+     * @param userId   User's snowflake ID.
+     * @param newToken Nonnull refreshed tokens.
+     */
+    void onTokenRefreshed(long userId, @NotNull DiscordAccessToken newToken);
+
+    /**
+     * Called when user's tokens could not be refreshed. The tokens are no longer tracked by the scheduler and the stored tokens are kept.
+     *
+     * @param userId        User's snowflake ID.
+     * @param previousToken Nonnull tokens that were being refreshed.
+     * @param errorResponse Nullable response, when Discord returned an error or a non-2xx status code (see
+     *                      {@link DiscordAccessToken#getError()} and {@link DiscordAccessToken#getStatusCode()}).
+     * @param throwable     Nullable exception, when the request itself failed.
+     */
+    default void onTokenRefreshFailed(long userId, @NotNull DiscordAccessToken previousToken, @Nullable DiscordAccessToken errorResponse, @Nullable Throwable throwable) {
+    }
+}
@@ -0,0 +1,356 @@
+package dev.mayuna.discord.oauth.refresh;
+
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import dev.mayuna.discord.oauth.store.DiscordTokenStore;
+import dev.mayuna.discord.utils.HierarchicalTimingWheel;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Refreshes users' tokens in the background, before their access tokens expire.<br>Tracked tokens are kept in a {@link HierarchicalTimingWheel},
+ * so tracking and untracking a token is O(1) even with millions of tokens. Each token is refreshed {@link #getRefreshMargin()} before it expires,
+ * minus random jitter up to {@link #getJitter()}, so tokens fetched at the same time are not refreshed at the same time. At most
+ * {@link #getMaxConcurrentRefreshes()} refreshes run at once, the rest waits in a queue.<br>Refreshed tokens are tracked again automatically.
+ */
+public class DiscordTokenRefreshScheduler implements AutoCloseable {
+
+    public static final Duration DEFAULT_REFRESH_MARGIN = Duration.ofHours(1);
+    public static final Duration DEFAULT_JITTER = Duration.ofMinutes(10);
+    public static final Duration DEFAULT_TICK_DURATION = Duration.ofSeconds(1);
+    public static final int DEFAULT_MAX_CONCURRENT_REFRESHES = 16;
+
+    private static final int WHEEL_BITS = 9;
+    private static final int WHEEL_LEVELS = 3;
+
+    private final @Getter DiscordOAuth discordOAuth;
+    private final @Getter DiscordTokenRefreshListener listener;
+    private final @Getter @Nullable DiscordTokenStore tokenStore;
+    private final @Getter Duration refreshMargin;
+    private final @Getter Duration jitter;
+    private final @Getter int maxConcurrentRefreshes;
+
+    private final HierarchicalTimingWheel timingWheel;
+    private final Map<Long, ScheduledRefresh> scheduledRefreshes = new ConcurrentHashMap<>();
+    private final Queue<ScheduledRefresh> dueRefreshes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger runningRefreshes = new AtomicInteger();
+
+    /**
+     * Creates a new DiscordTokenRefreshScheduler instance and starts its thread. Use {@link Builder} for default values.
+     *
+     * @param discordOAuth           Nonnull DiscordOAuth used for refreshing.
+     * @param listener               Nonnull listener receiving refreshed tokens.
+     * @param tokenStore             Nullable token store, into which the refreshed tokens are stored.
+     * @param refreshMargin          Nonnull time before the expiry when the token should be refreshed.
+     * @param jitter                 Nonnull maximum random time subtracted from the refresh time.
+     * @param tickDuration           Nonnull precision of the scheduling.
+     * @param maxConcurrentRefreshes Maximum number of refreshes running at once.
+     */
+    public DiscordTokenRefreshScheduler(@NonNull DiscordOAuth discordOAuth, @NonNull DiscordTokenRefreshListener listener, @Nullable DiscordTokenStore tokenStore, @NonNull Duration refreshMargin, @NonNull Duration jitter, @NonNull Duration tickDuration, int maxConcurrentRefreshes) {
+        if (maxConcurrentRefreshes <= 0) {
+            throw new IllegalArgumentException("Max concurrent refreshes must be positive.");
+        }
+
+        this.discordOAuth = discordOAuth;
+        this.listener = listener;
+        this.tokenStore = tokenStore;
+        this.refreshMargin = refreshMargin;
+        this.jitter = jitter;
+        this.maxConcurrentRefreshes = maxConcurrentRefreshes;
+        this.timingWheel = new HierarchicalTimingWheel(tickDuration.toMillis(), WHEEL_BITS, WHEEL_LEVELS, "discord-token-refresh-scheduler");
+    }
+
+    /**
+     * Starts tracking user's tokens. If the user's tokens are already tracked, they are replaced.
+     *
+     * @param userId User's snowflake ID.
+     * @param token  Nonnull tokens with refresh token.
+     */
+    public void schedule(long userId, @NonNull DiscordAccessToken token) {
+        if (token.getRefreshToken() == null) {
+            throw new IllegalArgumentException("Token does not have a refresh token.");
+        }
+
+        long refreshAt = token.getExpiresAt() - refreshMargin.toMillis();
+        long jitterMillis = jitter.toMillis();
+
+        if (jitterMillis > 0) {
+            refreshAt -= ThreadLocalRandom.current().nextLong(jitterMillis + 1);
+        }
+
+        ScheduledRefresh scheduledRefresh = new ScheduledRefresh(userId, token);
+        ScheduledRefresh previous = scheduledRefreshes.put(userId, scheduledRefresh);
+
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        scheduledRefresh.timeout = timingWheel.schedule(refreshAt, () -> onRefreshDue(scheduledRefresh));
+    }
+
+    /**
+     * Stops tracking user's tokens. Refresh that is already running is not interrupted, its result is still passed to the listener, but it is not
+     * written to the token store.
+     *
+     * @param userId User's snowflake ID.
+     *
+     * @return True if the user's tokens were tracked.
+     */
+    public boolean cancel(long userId) {
+        ScheduledRefresh scheduledRefresh = scheduledRefreshes.remove(userId);
+
+        if (scheduledRefresh == null) {
+            return false;
+        }
+
+        scheduledRefresh.cancel();
+        return true;
+    }
+
+    /**
+     * Gets the number of tracked users' tokens.
+     *
+     * @return Number of tracked tokens.
+     */
+    public int getScheduledCount() {
+        return scheduledRefreshes.size();
+    }
+
+    /**
+     * Gets the number of refreshes currently running.
+     *
+     * @return Number of running refreshes.
+     */
+    public int getRunningRefreshes() {
+        return runningRefreshes.get();
+    }
+
+    /**
+     * Stops the scheduler. Tracked tokens will no longer be refreshed.
+     */
+    @Override
+    public void close() {
+        timingWheel.close();
+        scheduledRefreshes.clear();
+        dueRefreshes.clear();
+    }
+
+    private void onRefreshDue(ScheduledRefresh scheduledRefresh) {
+        dueRefreshes.add(scheduledRefresh);
+        drainDueRefreshes();
+    }
+
+    private void drainDueRefreshes() {
+        while (!dueRefreshes.isEmpty()) {
+            int running = runningRefreshes.get();
+
+            if (running >= maxConcurrentRefreshes) {
+                return;
+            }
+
+            if (!runningRefreshes.compareAndSet(running, running + 1)) {
+                continue;
+            }
+
+            ScheduledRefresh scheduledRefresh = dueRefreshes.poll();
+
+            if (scheduledRefresh == null || scheduledRefresh.cancelled) {
+                runningRefreshes.decrementAndGet();
+                continue;
+            }
+
+            refresh(scheduledRefresh);
+        }
+    }
+
+    private void refresh(ScheduledRefresh scheduledRefresh) {
+        try {
+            discordOAuth.refreshAccessToken(scheduledRefresh.token.getRefreshToken())
+                        .sendAsync()
+                        .whenComplete((newToken, throwable) -> {
+                            try {
+                                onRefreshCompleted(scheduledRefresh, newToken, throwable);
+                            } finally {
+                                runningRefreshes.decrementAndGet();
+                                drainDueRefreshes();
+                            }
+                        });
+        } catch (Throwable throwable) {
+            runningRefreshes.decrementAndGet();
+            onRefreshCompleted(scheduledRefresh, null, throwable);
+        }
+    }
+
+    private void onRefreshCompleted(ScheduledRefresh scheduledRefresh, DiscordAccessToken newToken, Throwable throwable) {
+        long userId = scheduledRefresh.userId;
+
+        // 5xx and 429 responses have no error field, so they must not be stored in place of the tokens
+        if (throwable != null || newToken == null || !newToken.isSuccessful() || newToken.getAccessToken() == null) {
+            scheduledRefreshes.remove(userId, scheduledRefresh);
+            listener.onTokenRefreshFailed(userId, scheduledRefresh.token, newToken, throwable);
+            return;
+        }
+
+        // Store and keep tracking, unless the user was cancelled or re-scheduled in the meantime
+        if (!scheduledRefresh.cancelled && scheduledRefreshes.get(userId) == scheduledRefresh) {
+            if (tokenStore != null) {
+                tokenStore.store(userId, newToken);
+            }
+
+            schedule(userId, newToken);
+        }
+
+        listener.onTokenRefreshed(userId, newToken);
+    }
+
+    private static final class ScheduledRefresh {
+
+        private final long userId;
+        private final DiscordAccessToken token;
+        private volatile HierarchicalTimingWheel.Timeout timeout;
+        private volatile boolean cancelled;
+
+        private ScheduledRefresh(long userId, DiscordAccessToken token) {
+            this.userId = userId;
+            this.token = token;
+        }
+
+        private void cancel() {
+            cancelled = true;
+
+            HierarchicalTimingWheel.Timeout timeout = this.timeout;
+
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link DiscordTokenRefreshScheduler}.
+     */
+    @Getter
+    public static class Builder {
+
+        private DiscordOAuth discordOAuth;
+        private DiscordTokenRefreshListener listener;
+        private DiscordTokenStore tokenStore;
+        private Duration refreshMargin = DEFAULT_REFRESH_MARGIN;
+        private Duration jitter = DEFAULT_JITTER;
+        private Duration tickDuration = DEFAULT_TICK_DURATION;
+        private int maxConcurrentRefreshes = DEFAULT_MAX_CONCURRENT_REFRESHES;
+
+        /**
+         * Creates new {@link DiscordTokenRefreshScheduler.Builder} instance.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Sets the DiscordOAuth used for refreshing.
+         *
+         * @param discordOAuth Nonnull DiscordOAuth.
+         *
+         * @return The DiscordTokenRefreshScheduler.Builder instance.
+         */
+        public @NotNull Builder withDiscordOAuth(@NonNull DiscordOAuth discordOAuth) {
+            this.discordOAuth = discordOAuth;
+            return this;
+        }
+
+        /**
+         * Sets the listener receiving refreshed tokens.
+         *
+         * @param listener Nonnull listener.
+         *
+         * @return The DiscordTokenRefreshScheduler.Builder instance.
+         */
+        public @NotNull Builder withListener(@NonNull DiscordTokenRefreshListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Sets the token store, into which the refreshed tokens are stored.
+         *
+         * @param tokenStore Nonnull token store.
+         *
+         * @return The DiscordTokenRefreshScheduler.Builder instance.
+         */
+        public @NotNull Builder withTokenStore(@NonNull DiscordTokenStore tokenStore) {
+            this.tokenStore = tokenStore;
+            return this;
+        }
+
+        /**
+         * Sets how long before the expiry the tokens should be refreshed.
+         *
+         * @param refreshMargin Nonnull refresh margin.
+         *
+         * @return The DiscordTokenRefreshScheduler.Builder instance.
+         */
+        public @NotNull Builder withRefreshMargin(@NonNull Duration refreshMargin) {
+            this.refreshMargin = refreshMargin;
+            return this;
+        }
+
+        /**
+         * Sets the maximum random time subtracted from the refresh time.
+         *
+         * @param jitter Nonnull jitter.
+         *
+         * @return The DiscordTokenRefreshScheduler.Builder instance.
+         */
+        public @NotNull Builder withJitter(@NonNull Duration jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Sets the precision of the scheduling.
+         *
+         * @param tickDuration Nonnull tick duration.
+         *
+         * @return The DiscordTokenRefreshScheduler.Builder instance.
+         */
+        public @NotNull Builder withTickDuration(@NonNull Duration tickDuration) {
+            this.tickDuration = tickDuration;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of refreshes running at once.
+         *
+         * @param maxConcurrentRefreshes Max concurrent refreshes.
+         *
+         * @return The DiscordTokenRefreshScheduler.Builder instance.
+         */
+        public @NotNull Builder withMaxConcurrentRefreshes(int maxConcurrentRefreshes) {
+            this.maxConcurrentRefreshes = maxConcurrentRefreshes;
+            return this;
+        }
+
+        /**
+         * Builds the DiscordTokenRefreshScheduler instance.
+         *
+         * @return The DiscordTokenRefreshScheduler instance.
+         */
+        public @NotNull DiscordTokenRefreshScheduler build() {
+            if (discordOAuth == null || listener == null) {
+                throw new IllegalStateException("DiscordOAuth and listener must be set.");
+            }
+
+            return new DiscordTokenRefreshScheduler(discordOAuth, listener, tokenStore, refreshMargin, jitter, tickDuration, maxConcurrentRefreshes);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package dev.mayuna.discord.oauth.revoke;
+
+import dev.mayuna.discord.api.DiscordApiResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receives results of the revocations done by {@link DiscordTokenRevocationQueue}.<br>Methods are called from the HTTP client's threads, so they
+ * should not block.
+ */
+public interface DiscordTokenRevocationListener {
+
+    /**
+     * Called when the token was revoked.
+     *
+     * @param token Nonnull revoked token.
+     */
+    default void onTokenRevoked(@NotNull String token) {
+    }
+
+    /**
+     * Called when the token could not be revoked.
+     *
+     * @param token         Nonnull token.
+     * @param errorResponse Nullable response, when Discord returned an error (see {@link DiscordApiResponse#getError()}).
+     * @param throwable     Nullable exception, when the request itself failed.
+     * @param willRetry     True if the revocation is retried after a backoff, false if it was given up. Given up revocations of transient failures
+     *                      stay in the log and are retried when the queue is opened again.
+     */
+    default void onTokenRevocationFailed(@NotNull String token, @Nullable DiscordApiResponse errorResponse, @Nullable Throwable throwable, boolean willRetry) {
+    }
+}
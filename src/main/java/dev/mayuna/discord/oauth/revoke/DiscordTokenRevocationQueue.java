@@ -0,0 +1,843 @@
+package dev.mayuna.discord.oauth.revoke;
+
+import dev.mayuna.discord.api.DiscordApiResponse;
+import dev.mayuna.discord.http.resilience.DiscordRetryPolicy;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.utils.Directories;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * Revokes tokens in the background, durably.<br>Submitted tokens are appended to a write-ahead log file and queued, so submitting costs a local
+ * append instead of a request to Discord, e.g., on logout. Queued tokens are revoked with at most {@link #getMaxConcurrentRevocations()} requests
+ * in flight, through the {@link DiscordOAuth}'s HTTP client, which waits for the rate limits. Revocations failing with {@code 429}, {@code 5xx} or
+ * a failed request are retried after the retry policy's backoff. Each completed revocation is marked in the log.<br>The log is written to the disk
+ * by a background thread every flush interval, so a crash of the process loses nothing and a crash of the operating system loses at most the last
+ * flush interval. When the queue is opened again, tokens that were not revoked yet are queued again, so a token may be revoked twice, which is
+ * harmless. When the share of completed records reaches the compaction threshold, pending tokens are copied into a new log, which then atomically
+ * replaces the old one.<br>The log holds the tokens in plain text, so it should be readable only by the application. The file must not be used by
+ * more than one queue at once. Call {@link #close()} when the queue is no longer needed, pending tokens stay in the log.
+ */
+public class DiscordTokenRevocationQueue implements Closeable {
+
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(100);
+    public static final int DEFAULT_MAX_CONCURRENT_REVOCATIONS = 8;
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+    public static final DiscordRetryPolicy DEFAULT_RETRY_POLICY = new DiscordRetryPolicy.Builder()
+            .withMaxRetries(10)
+            .withInitialBackoff(Duration.ofSeconds(1))
+            .withMaxBackoff(Duration.ofMinutes(1))
+            .build();
+    public static final int MAXIMUM_TOKEN_LENGTH = 1024;
+
+    private static final int MAGIC = 0x44525651;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 8;
+    // Length and checksum of the body
+    private static final int RECORD_HEADER_SIZE = 8;
+    // Type and sequence number
+    private static final int RECORD_BODY_HEADER_SIZE = 1 + Long.BYTES;
+    private static final byte RECORD_SUBMIT = 1;
+    private static final byte RECORD_DONE = 2;
+    private static final long MINIMUM_COMPACTION_SIZE = 64 * 1024;
+
+    private final @Getter DiscordOAuth discordOAuth;
+    private final @Getter @Nullable DiscordTokenRevocationListener listener;
+    private final @Getter Path path;
+    private final @Getter int maxConcurrentRevocations;
+    private final @Getter DiscordRetryPolicy retryPolicy;
+    private final @Getter double compactionThreshold;
+
+    private final Object logMonitor = new Object();
+    private final Object compactionMonitor = new Object();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final ScheduledThreadPoolExecutor executor;
+
+    // Guarded by logMonitor
+    private final Map<Long, String> pendingTokens = new LinkedHashMap<>();
+    private FileChannel channel;
+    private long fileSize;
+    private long liveBytes;
+    private long nextSequence;
+    private volatile boolean closed;
+
+    private final Queue<Revocation> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger runningRevocations = new AtomicInteger();
+
+    /**
+     * Opens or creates the queue and starts revoking the tokens left in the log. Use {@link Builder} for default values.
+     *
+     * @param discordOAuth             Nonnull DiscordOAuth used for revoking.
+     * @param listener                 Nullable listener receiving results of the revocations.
+     * @param path                     Nonnull path of the log file.
+     * @param flushInterval            Nonnull interval of writing the log to the disk.
+     * @param maxConcurrentRevocations Maximum number of revocations running at once.
+     * @param retryPolicy              Nonnull policy of retrying failed revocations.
+     * @param compactionThreshold      Share of completed records in the log at which the log is compacted, greater than 0 and lower than 1.
+     *
+     * @throws IOException If the log file could not be opened or is not a log file of the queue.
+     */
+    public DiscordTokenRevocationQueue(@NonNull DiscordOAuth discordOAuth, @Nullable DiscordTokenRevocationListener listener, @NonNull Path path, @NonNull Duration flushInterval, int maxConcurrentRevocations, @NonNull DiscordRetryPolicy retryPolicy, double compactionThreshold) throws IOException {
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Flush interval must be positive.");
+        }
+
+        if (maxConcurrentRevocations <= 0) {
+            throw new IllegalArgumentException("Max concurrent revocations must be positive.");
+        }
+
+        if (compactionThreshold <= 0 || compactionThreshold >= 1) {
+            throw new IllegalArgumentException("Compaction threshold must be greater than 0 and lower than 1.");
+        }
+
+        this.discordOAuth = discordOAuth;
+        this.listener = listener;
+        this.path = path;
+        this.maxConcurrentRevocations = maxConcurrentRevocations;
+        this.retryPolicy = retryPolicy;
+        this.compactionThreshold = compactionThreshold;
+
+        // Leftover of interrupted compaction, the log itself is still complete
+        Files.deleteIfExists(getCompactionPath());
+        recover();
+
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "discord-token-revocation-queue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Closing must not interrupt the thread, an interrupt during I/O would close the log's channel
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        long flushIntervalNanos = flushInterval.toNanos();
+        executor.scheduleWithFixedDelay(this::flushQuietly, flushIntervalNanos, flushIntervalNanos, TimeUnit.NANOSECONDS);
+
+        for (Map.Entry<Long, String> entry : pendingTokens.entrySet()) {
+            queue.add(new Revocation(entry.getKey(), entry.getValue()));
+        }
+
+        drain();
+    }
+
+    /**
+     * Submits the token for revocation. Returns once the token is appended to the log.
+     *
+     * @param token Nonnull access or refresh token.
+     */
+    public void submit(@NonNull String token) {
+        submitAll(Collections.singletonList(token));
+    }
+
+    /**
+     * Submits the tokens for revocation, e.g., when offboarding a tenant. All tokens are appended to the log by a single write.
+     *
+     * @param tokens Nonnull access or refresh tokens.
+     */
+    public void submitAll(@NonNull Collection<String> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        byte[][] encodedTokens = new byte[tokens.size()][];
+        int length = 0;
+        int i = 0;
+
+        for (String token : tokens) {
+            if (token == null || token.isEmpty() || token.length() > MAXIMUM_TOKEN_LENGTH) {
+                throw new IllegalArgumentException("Tokens must not be null or empty and must have at most " + MAXIMUM_TOKEN_LENGTH + " characters.");
+            }
+
+            encodedTokens[i] = token.getBytes(StandardCharsets.UTF_8);
+            length += RECORD_HEADER_SIZE + RECORD_BODY_HEADER_SIZE + encodedTokens[i++].length;
+        }
+
+        List<Revocation> revocations = new ArrayList<>(encodedTokens.length);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+
+        synchronized (logMonitor) {
+            ensureOpen();
+            long firstSequence = nextSequence;
+
+            for (byte[] encodedToken : encodedTokens) {
+                putRecord(buffer, RECORD_SUBMIT, nextSequence++, encodedToken);
+            }
+
+            buffer.flip();
+
+            try {
+                append(buffer);
+            } catch (IOException exception) {
+                nextSequence = firstSequence;
+                throw new UncheckedIOException(exception);
+            }
+
+            fileSize += length;
+            liveBytes += length;
+            i = 0;
+
+            for (String token : tokens) {
+                long sequence = firstSequence + i++;
+                pendingTokens.put(sequence, token);
+                revocations.add(new Revocation(sequence, token));
+            }
+        }
+
+        queue.addAll(revocations);
+        drain();
+    }
+
+    /**
+     * Gets the number of tokens that were submitted and not revoked yet, including the running revocations and revocations that were given up.
+     *
+     * @return Number of pending tokens.
+     */
+    public int getPendingCount() {
+        synchronized (logMonitor) {
+            return pendingTokens.size();
+        }
+    }
+
+    /**
+     * Gets the number of revocations currently running.
+     *
+     * @return Number of running revocations.
+     */
+    public int getRunningRevocations() {
+        return runningRevocations.get();
+    }
+
+    /**
+     * Gets the size of the log file.
+     *
+     * @return Size in bytes.
+     */
+    public long getLogSize() {
+        synchronized (logMonitor) {
+            return fileSize;
+        }
+    }
+
+    /**
+     * Writes the log to the disk. This is done periodically in the background, calling this is only needed when the submitted tokens must survive a
+     * crash of the operating system right away.
+     */
+    public void flush() {
+        FileChannel currentChannel;
+
+        synchronized (logMonitor) {
+            ensureOpen();
+            currentChannel = channel;
+        }
+
+        boolean interrupted = Thread.interrupted();
+
+        try {
+            while (true) {
+                try {
+                    currentChannel.force(false);
+                    return;
+                } catch (ClosedChannelException exception) {
+                    interrupted |= Thread.interrupted();
+
+                    synchronized (logMonitor) {
+                        if (closed) {
+                            // Written to the disk by close()
+                            return;
+                        }
+
+                        if (currentChannel == channel) {
+                            // Closed by an interrupt of another thread using the channel
+                            reopen();
+                        }
+
+                        // Otherwise replaced by compaction, records appended to the new log since then are written too
+                        currentChannel = channel;
+                    }
+                }
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Copies pending tokens into a new log, which then atomically replaces the current one. This is done in the background when the share of
+     * completed records reaches the compaction threshold.<br>Tokens may be submitted while the pending tokens are copied.
+     *
+     * @throws IOException If the new log could not be written.
+     */
+    public void compact() throws IOException {
+        // Interrupt during I/O would close the channels, including the log's one while the appended records are copied
+        boolean interrupted = Thread.interrupted();
+
+        try {
+            compactUninterruptibly();
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void compactUninterruptibly() throws IOException {
+        synchronized (compactionMonitor) {
+            long snapshotFileSize;
+            long[] sequences;
+            String[] tokens;
+
+            synchronized (logMonitor) {
+                ensureOpen();
+                snapshotFileSize = fileSize;
+                sequences = new long[pendingTokens.size()];
+                tokens = new String[pendingTokens.size()];
+
+                int i = 0;
+
+                for (Map.Entry<Long, String> entry : pendingTokens.entrySet()) {
+                    sequences[i] = entry.getKey();
+                    tokens[i++] = entry.getValue();
+                }
+            }
+
+            Path compactionPath = getCompactionPath();
+            FileChannel newChannel = FileChannel.open(compactionPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean replaced = false;
+
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+                long position = 0;
+                buffer.putInt(MAGIC).putInt(VERSION);
+
+                for (int i = 0; i < tokens.length; i++) {
+                    byte[] encodedToken = tokens[i].getBytes(StandardCharsets.UTF_8);
+
+                    if (buffer.remaining() < RECORD_HEADER_SIZE + RECORD_BODY_HEADER_SIZE + encodedToken.length) {
+                        buffer.flip();
+                        position += write(newChannel, buffer, position);
+                        buffer.clear();
+                    }
+
+                    putRecord(buffer, RECORD_SUBMIT, sequences[i], encodedToken);
+                }
+
+                buffer.flip();
+                position += write(newChannel, buffer, position);
+
+                // Snapshot is written to the disk without holding the lock, so submitting does not wait for it
+                newChannel.force(true);
+
+                synchronized (logMonitor) {
+                    if (closed) {
+                        return;
+                    }
+
+                    if (!channel.isOpen()) {
+                        // Closed by an interrupt of another thread using the channel
+                        reopen();
+                    }
+
+                    // Records appended while copying are valid in the new log as they are
+                    for (long copied = 0; copied < fileSize - snapshotFileSize; ) {
+                        copied += channel.transferTo(snapshotFileSize + copied, fileSize - snapshotFileSize - copied, newChannel.position(position + copied));
+                    }
+
+                    if (fileSize > snapshotFileSize) {
+                        newChannel.force(true);
+                    }
+
+                    Files.move(compactionPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    replaced = true;
+                    // Without it, the rename may be lost on a crash of the operating system together with everything flushed to the new log
+                    Directories.forceParent(path);
+
+                    channel.close();
+                    channel = newChannel;
+                    fileSize = position + fileSize - snapshotFileSize;
+                }
+            } finally {
+                if (!replaced) {
+                    newChannel.close();
+                    Files.deleteIfExists(compactionPath);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the log to the disk and closes the queue. Running revocations are not waited for, tokens which were not revoked yet stay in the log and
+     * are revoked when the queue is opened again.
+     *
+     * @throws IOException If the log file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (logMonitor) {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+        }
+
+        executor.shutdown();
+        queue.clear();
+
+        synchronized (compactionMonitor) {
+            synchronized (logMonitor) {
+                boolean interrupted = Thread.interrupted();
+
+                try {
+                    if (!channel.isOpen()) {
+                        // Closed by an interrupt of another thread using the channel, the written records must still reach the disk
+                        reopen();
+                    }
+
+                    channel.force(false);
+                } finally {
+                    channel.close();
+
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+    }
+
+    private void drain() {
+        while (!queue.isEmpty() && !closed) {
+            int running = runningRevocations.get();
+
+            if (running >= maxConcurrentRevocations) {
+                return;
+            }
+
+            if (!runningRevocations.compareAndSet(running, running + 1)) {
+                continue;
+            }
+
+            Revocation revocation = queue.poll();
+
+            if (revocation == null) {
+                runningRevocations.decrementAndGet();
+                continue;
+            }
+
+            revoke(revocation);
+        }
+    }
+
+    private void revoke(Revocation revocation) {
+        try {
+            discordOAuth.revokeTokens(revocation.token)
+                        .sendAsync()
+                        .whenComplete((response, throwable) -> {
+                            try {
+                                onRevocationCompleted(revocation, response, throwable);
+                            } finally {
+                                runningRevocations.decrementAndGet();
+                                drain();
+                            }
+                        });
+        } catch (Throwable throwable) {
+            runningRevocations.decrementAndGet();
+            onRevocationCompleted(revocation, null, throwable);
+        }
+    }
+
+    private void onRevocationCompleted(Revocation revocation, DiscordApiResponse response, Throwable throwable) {
+        if (closed) {
+            // Revoked again when the queue is opened again
+            return;
+        }
+
+        if (throwable == null && response != null && response.isSuccessful()) {
+            markDone(revocation);
+
+            if (listener != null) {
+                listener.onTokenRevoked(revocation.token);
+            }
+
+            return;
+        }
+
+        // Discord's 429 and 5xx have no error field, so only the status code tells them apart
+        int statusCode = response != null ? response.getStatusCode() : -1;
+        boolean permanentFailure = throwable == null && statusCode / 100 == 4 && statusCode != 429;
+        boolean willRetry = !permanentFailure && revocation.attempts < retryPolicy.getMaxRetries();
+
+        if (permanentFailure) {
+            // Retrying would not help, e.g., invalid client credentials
+            markDone(revocation);
+        } else if (willRetry) {
+            long backoffMillis = retryPolicy.computeBackoffMillis(revocation.attempts++);
+
+            try {
+                executor.schedule(() -> {
+                    queue.add(revocation);
+                    drain();
+                }, backoffMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException ignored) {
+                // Closed meanwhile, the token stays in the log
+                return;
+            }
+        }
+        // Given up tokens stay in the log and are revoked when the queue is opened again
+
+        if (listener != null) {
+            listener.onTokenRevocationFailed(revocation.token, response, throwable, willRetry);
+        }
+    }
+
+    private void markDone(Revocation revocation) {
+        synchronized (logMonitor) {
+            if (closed || pendingTokens.remove(revocation.sequence) == null) {
+                return;
+            }
+
+            byte[] encodedToken = revocation.token.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + RECORD_BODY_HEADER_SIZE);
+            putRecord(buffer, RECORD_DONE, revocation.sequence, null);
+            buffer.flip();
+
+            try {
+                append(buffer);
+                fileSize += buffer.limit();
+                liveBytes -= RECORD_HEADER_SIZE + RECORD_BODY_HEADER_SIZE + encodedToken.length;
+            } catch (IOException ignored) {
+                // Token is revoked again when the queue is opened again, which is harmless
+            }
+
+            if (fileSize >= MINIMUM_COMPACTION_SIZE && fileSize - liveBytes >= compactionThreshold * fileSize && compactionScheduled.compareAndSet(false, true)) {
+                executor.execute(() -> {
+                    compactionScheduled.set(false);
+
+                    try {
+                        compact();
+                    } catch (IOException | RuntimeException ignored) {
+                        // Compaction is attempted again after next revocation
+                    }
+                });
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            long size = channel.size();
+
+            if (size < FILE_HEADER_SIZE) {
+                // Crashed before the header was written
+                channel.truncate(0);
+                write(channel, ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip(), 0);
+                channel.force(true);
+                Directories.forceParent(path);
+                fileSize = FILE_HEADER_SIZE;
+                return;
+            }
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File " + path + " is too large.");
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+
+            while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+                // Reads until the buffer is full
+            }
+
+            buffer.flip();
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("File " + path + " is not a token revocation queue log.");
+            }
+
+            CRC32 crc = new CRC32();
+
+            while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+                int recordStart = buffer.position();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+
+                // End of the log or torn record
+                if (length < RECORD_BODY_HEADER_SIZE || length > buffer.remaining()) {
+                    buffer.position(recordStart);
+                    break;
+                }
+
+                crc.reset();
+                crc.update(buffer.array(), buffer.position(), length);
+
+                if ((int) crc.getValue() != checksum) {
+                    buffer.position(recordStart);
+                    break;
+                }
+
+                byte type = buffer.get();
+                long sequence = buffer.getLong();
+                int tokenLength = length - RECORD_BODY_HEADER_SIZE;
+
+                if (type == RECORD_SUBMIT) {
+                    pendingTokens.put(sequence, new String(buffer.array(), buffer.position(), tokenLength, StandardCharsets.UTF_8));
+                } else if (type == RECORD_DONE) {
+                    pendingTokens.remove(sequence);
+                }
+
+                buffer.position(buffer.position() + tokenLength);
+                nextSequence = Math.max(nextSequence, sequence + 1);
+            }
+
+            for (String token : pendingTokens.values()) {
+                liveBytes += RECORD_HEADER_SIZE + RECORD_BODY_HEADER_SIZE + token.getBytes(StandardCharsets.UTF_8).length;
+            }
+
+            // Torn records must not be read after new records
+            fileSize = buffer.position();
+            channel.truncate(fileSize);
+        } catch (IOException | RuntimeException exception) {
+            channel.close();
+            throw exception;
+        }
+    }
+
+    // Guarded by logMonitor
+    private void append(ByteBuffer buffer) throws IOException {
+        // Interrupt during the write would close the channel for all threads, so the write waits uninterruptibly
+        boolean interrupted = Thread.interrupted();
+
+        try {
+            while (true) {
+                try {
+                    write(channel, buffer, fileSize);
+                    return;
+                } catch (ClosedChannelException exception) {
+                    // Closed by an interrupt of another thread using the channel, the write is repeated as a whole
+                    interrupted |= Thread.interrupted();
+                    reopen();
+                    buffer.rewind();
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Guarded by logMonitor
+    private void reopen() throws IOException {
+        channel.close();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ignored) {
+            // Flushed again after the interval
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Token revocation queue is closed.");
+        }
+    }
+
+    private Path getCompactionPath() {
+        return path.resolveSibling(path.getFileName() + ".compact");
+    }
+
+    private static void putRecord(ByteBuffer buffer, byte type, long sequence, @Nullable byte[] encodedToken) {
+        int recordStart = buffer.position();
+        int length = RECORD_BODY_HEADER_SIZE + (encodedToken != null ? encodedToken.length : 0);
+
+        buffer.putInt(length).putInt(0).put(type).putLong(sequence);
+
+        if (encodedToken != null) {
+            buffer.put(encodedToken);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), recordStart + RECORD_HEADER_SIZE, length);
+        buffer.putInt(recordStart + Integer.BYTES, (int) crc.getValue());
+    }
+
+    private static int write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+
+        return written;
+    }
+
+    private static final class Revocation {
+
+        private final long sequence;
+        private final String token;
+        private int attempts;
+
+        private Revocation(long sequence, String token) {
+            this.sequence = sequence;
+            this.token = token;
+        }
+    }
+
+    /**
+     * Builder for {@link DiscordTokenRevocationQueue}.
+     */
+    @Getter
+    public static class Builder {
+
+        private DiscordOAuth discordOAuth;
+        private DiscordTokenRevocationListener listener;
+        private Path path;
+        private Duration flushInterval = DEFAULT_FLUSH_INTERVAL;
+        private int maxConcurrentRevocations = DEFAULT_MAX_CONCURRENT_REVOCATIONS;
+        private DiscordRetryPolicy retryPolicy = DEFAULT_RETRY_POLICY;
+        private double compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+        /**
+         * Creates new {@link DiscordTokenRevocationQueue.Builder} instance.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Sets the DiscordOAuth used for revoking.
+         *
+         * @param discordOAuth Nonnull DiscordOAuth.
+         *
+         * @return The DiscordTokenRevocationQueue.Builder instance.
+         */
+        public @NotNull Builder withDiscordOAuth(@NonNull DiscordOAuth discordOAuth) {
+            this.discordOAuth = discordOAuth;
+            return this;
+        }
+
+        /**
+         * Sets the listener receiving results of the revocations.
+         *
+         * @param listener Nonnull listener.
+         *
+         * @return The DiscordTokenRevocationQueue.Builder instance.
+         */
+        public @NotNull Builder withListener(@NonNull DiscordTokenRevocationListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Sets the path of the log file.
+         *
+         * @param path Nonnull path.
+         *
+         * @return The DiscordTokenRevocationQueue.Builder instance.
+         */
+        public @NotNull Builder withPath(@NonNull Path path) {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Sets the interval of writing the log to the disk.
+         *
+         * @param flushInterval Nonnull flush interval.
+         *
+         * @return The DiscordTokenRevocationQueue.Builder instance.
+         */
+        public @NotNull Builder withFlushInterval(@NonNull Duration flushInterval) {
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of revocations running at once.
+         *
+         * @param maxConcurrentRevocations Max concurrent revocations.
+         *
+         * @return The DiscordTokenRevocationQueue.Builder instance.
+         */
+        public @NotNull Builder withMaxConcurrentRevocations(int maxConcurrentRevocations) {
+            this.maxConcurrentRevocations = maxConcurrentRevocations;
+            return this;
+        }
+
+        /**
+         * Sets the policy of retrying revocations failed with {@code 429}, {@code 5xx} or a failed request. Only the number of retries and the
+         * backoff are used, revocations are always retryable.
+         *
+         * @param retryPolicy Nonnull retry policy.
+         *
+         * @return The DiscordTokenRevocationQueue.Builder instance.
+         */
+        public @NotNull Builder withRetryPolicy(@NonNull DiscordRetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the share of completed records in the log at which the log is compacted.
+         *
+         * @param compactionThreshold Compaction threshold, greater than 0 and lower than 1.
+         *
+         * @return The DiscordTokenRevocationQueue.Builder instance.
+         */
+        public @NotNull Builder withCompactionThreshold(double compactionThreshold) {
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        /**
+         * Opens or creates the DiscordTokenRevocationQueue instance.
+         *
+         * @return The DiscordTokenRevocationQueue instance.
+         *
+         * @throws IOException If the log file could not be opened or is not a log file of the queue.
+         */
+        public @NotNull DiscordTokenRevocationQueue build() throws IOException {
+            if (discordOAuth == null || path == null) {
+                throw new IllegalStateException("DiscordOAuth and path must be set.");
+            }
+
+            return new DiscordTokenRevocationQueue(discordOAuth, listener, path, flushInterval, maxConcurrentRevocations, retryPolicy, compactionThreshold);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package dev.mayuna.discord.oauth.store;
+
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout of {@link DiscordAccessToken}s kept outside the heap: fetched at, expires in seconds, then access token, token type, refresh token
+ * and scope, each as its UTF-8 length ({@code -1} for null) followed by the bytes. All reads are absolute, so buffers may be read concurrently.
+ */
+final class DiscordTokenCodec {
+
+    static final int ACCESS_TOKEN = 0;
+    static final int TOKEN_TYPE = 1;
+    static final int REFRESH_TOKEN = 2;
+    static final int SCOPE = 3;
+
+    private static final int FETCHED_AT_INDEX = 0;
+    private static final int EXPIRES_IN_SECONDS_INDEX = Long.BYTES;
+    private static final int STRINGS_INDEX = 2 * Long.BYTES;
+
+    private DiscordTokenCodec() {
+    }
+
+    /**
+     * Encodes the token.
+     *
+     * @param token Token.
+     *
+     * @return Encoded token.
+     */
+    static byte[] encode(DiscordAccessToken token) {
+        byte[][] strings = {
+                toBytes(token.getAccessToken()), toBytes(token.getTokenType()), toBytes(token.getRefreshToken()), toBytes(token.getScope())
+        };
+
+        int length = STRINGS_INDEX;
+
+        for (byte[] string : strings) {
+            length += Integer.BYTES + (string != null ? string.length : 0);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putLong(token.getFetchedAt()).putLong(token.getExpiresInSeconds());
+
+        for (byte[] string : strings) {
+            if (string == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(string.length).put(string);
+            }
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the token.
+     *
+     * @param buffer Buffer.
+     * @param index  Index of the encoded token in the buffer.
+     *
+     * @return Decoded token.
+     */
+    static DiscordAccessToken decode(ByteBuffer buffer, int index) {
+        int accessTokenIndex = index + STRINGS_INDEX;
+        int tokenTypeIndex = nextStringIndex(buffer, accessTokenIndex);
+        int refreshTokenIndex = nextStringIndex(buffer, tokenTypeIndex);
+        int scopeIndex = nextStringIndex(buffer, refreshTokenIndex);
+
+        return new DiscordAccessToken(getFetchedAt(buffer, index), getString(buffer, accessTokenIndex), getString(buffer, tokenTypeIndex),
+                                      getExpiresInSeconds(buffer, index), getString(buffer, refreshTokenIndex), getString(buffer, scopeIndex));
+    }
+
+    static long getFetchedAt(ByteBuffer buffer, int index) {
+        return buffer.getLong(index + FETCHED_AT_INDEX);
+    }
+
+    static long getExpiresInSeconds(ByteBuffer buffer, int index) {
+        return buffer.getLong(index + EXPIRES_IN_SECONDS_INDEX);
+    }
+
+    static long getExpiresAt(ByteBuffer buffer, int index) {
+        return getFetchedAt(buffer, index) + getExpiresInSeconds(buffer, index) * 1000;
+    }
+
+    /**
+     * Gets the string field of the encoded token.
+     *
+     * @param buffer Buffer.
+     * @param index  Index of the encoded token in the buffer.
+     * @param field  One of {@link #ACCESS_TOKEN}, {@link #TOKEN_TYPE}, {@link #REFRESH_TOKEN} and {@link #SCOPE}.
+     *
+     * @return The string or null.
+     */
+    static String getStringField(ByteBuffer buffer, int index, int field) {
+        int stringIndex = index + STRINGS_INDEX;
+
+        for (int i = 0; i < field; i++) {
+            stringIndex = nextStringIndex(buffer, stringIndex);
+        }
+
+        return getString(buffer, stringIndex);
+    }
+
+    private static int nextStringIndex(ByteBuffer buffer, int index) {
+        return index + Integer.BYTES + Math.max(0, buffer.getInt(index));
+    }
+
+    private static String getString(ByteBuffer buffer, int index) {
+        int length = buffer.getInt(index);
+
+        if (length < 0) {
+            return null;
+        }
+
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + index + Integer.BYTES, length, StandardCharsets.UTF_8);
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.duplicate().position(index + Integer.BYTES).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] toBytes(String string) {
+        return string != null ? string.getBytes(StandardCharsets.UTF_8) : null;
+    }
+}
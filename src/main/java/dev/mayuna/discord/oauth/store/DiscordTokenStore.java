@@ -0,0 +1,50 @@
+package dev.mayuna.discord.oauth.store;
+
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Stores users' {@link DiscordAccessToken}s keyed by the user's snowflake ID.<br>Implement this interface to keep the tokens wherever you want,
+ * or use the built-in {@link InMemoryDiscordTokenStore}.
+ */
+public interface DiscordTokenStore {
+
+    /**
+     * Stores the token for the user, replacing the previous one.
+     *
+     * @param userId User's snowflake ID.
+     * @param token  Nonnull access token.
+     */
+    void store(long userId, @NotNull DiscordAccessToken token);
+
+    /**
+     * Gets the user's token.
+     *
+     * @param userId User's snowflake ID.
+     *
+     * @return The token or null if there is none or it has expired.
+     */
+    @Nullable DiscordAccessToken get(long userId);
+
+    /**
+     * Removes the user's token.
+     *
+     * @param userId User's snowflake ID.
+     *
+     * @return The removed token or null if there was none.
+     */
+    @Nullable DiscordAccessToken remove(long userId);
+
+    /**
+     * Gets the number of stored tokens.
+     *
+     * @return Number of stored tokens.
+     */
+    int size();
+
+    /**
+     * Removes all stored tokens.
+     */
+    void clear();
+}
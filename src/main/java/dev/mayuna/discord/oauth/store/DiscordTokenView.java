@@ -0,0 +1,135 @@
+package dev.mayuna.discord.oauth.store;
+
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reusable view of a token read by {@link OffHeapDiscordTokenStore#read(long, DiscordTokenView)}.<br>The token's bytes are copied into the view's
+ * own buffer, so the view stays valid after the token is replaced or removed from the store, until it is used for the next read. Reading into the
+ * same view again allocates nothing, strings are created only when their getters are called. Not thread-safe, use a view per thread.
+ */
+public class DiscordTokenView {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+
+    /**
+     * Gets the user's snowflake ID of the token last read into the view.
+     *
+     * @return User's snowflake ID.
+     */
+    private @Getter long userId;
+
+    /**
+     * Loads the token from the buffer.
+     *
+     * @param userId User's snowflake ID.
+     * @param source Source buffer.
+     * @param index  Index of the encoded token in the source buffer.
+     * @param length Length of the encoded token.
+     */
+    void load(long userId, ByteBuffer source, int index, int length) {
+        if (buffer.capacity() < length) {
+            buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+        }
+
+        // Absolute copy, so no buffer views are allocated
+        int copied = 0;
+
+        for (; copied + Long.BYTES <= length; copied += Long.BYTES) {
+            buffer.putLong(copied, source.getLong(index + copied));
+        }
+
+        for (; copied < length; copied++) {
+            buffer.put(copied, source.get(index + copied));
+        }
+
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the time when the access token was fetched.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getFetchedAt() {
+        return DiscordTokenCodec.getFetchedAt(buffer, 0);
+    }
+
+    /**
+     * Gets the number of seconds after fetching the access token expires.
+     *
+     * @return Number of seconds.
+     */
+    public long getExpiresInSeconds() {
+        return DiscordTokenCodec.getExpiresInSeconds(buffer, 0);
+    }
+
+    /**
+     * Gets the time when the access token expires.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getExpiresAt() {
+        return DiscordTokenCodec.getExpiresAt(buffer, 0);
+    }
+
+    /**
+     * Determines if the access token is expired.
+     *
+     * @return True if expired, false otherwise.
+     */
+    public boolean isAccessTokenExpired() {
+        return System.currentTimeMillis() > getExpiresAt();
+    }
+
+    /**
+     * Gets the access token.
+     *
+     * @return Nullable access token.
+     */
+    public @Nullable String getAccessToken() {
+        return DiscordTokenCodec.getStringField(buffer, 0, DiscordTokenCodec.ACCESS_TOKEN);
+    }
+
+    /**
+     * Gets the token type.
+     *
+     * @return Nullable token type.
+     */
+    public @Nullable String getTokenType() {
+        return DiscordTokenCodec.getStringField(buffer, 0, DiscordTokenCodec.TOKEN_TYPE);
+    }
+
+    /**
+     * Gets the refresh token.
+     *
+     * @return Nullable refresh token.
+     */
+    public @Nullable String getRefreshToken() {
+        return DiscordTokenCodec.getStringField(buffer, 0, DiscordTokenCodec.REFRESH_TOKEN);
+    }
+
+    /**
+     * Gets the space-separated scopes.
+     *
+     * @return Nullable scopes.
+     */
+    public @Nullable String getScope() {
+        return DiscordTokenCodec.getStringField(buffer, 0, DiscordTokenCodec.SCOPE);
+    }
+
+    /**
+     * Creates {@link DiscordAccessToken} from the view.
+     *
+     * @return New access token.
+     */
+    public @NotNull DiscordAccessToken toAccessToken() {
+        return DiscordTokenCodec.decode(buffer, 0);
+    }
+}
@@ -0,0 +1,98 @@
+package dev.mayuna.discord.oauth.store;
+
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import dev.mayuna.discord.utils.BoundedExpiringMap;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Bounded in-memory {@link DiscordTokenStore}.<br>Tokens are evicted when their access token expires ({@link DiscordAccessToken#getExpiresAt()})
+ * or, when the store is full, in least-recently-used order. The store is split into independently locked segments, so it scales with the number of
+ * threads using it.
+ */
+public class InMemoryDiscordTokenStore implements DiscordTokenStore {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 100_000;
+
+    private final @Getter int maximumSize;
+    private final BoundedExpiringMap<Long, DiscordAccessToken> tokens;
+
+    /**
+     * Creates a new InMemoryDiscordTokenStore instance.
+     *
+     * @param maximumSize      Maximum number of stored tokens.
+     * @param concurrencyLevel Estimated number of threads concurrently using the store.
+     */
+    public InMemoryDiscordTokenStore(int maximumSize, int concurrencyLevel) {
+        this.maximumSize = maximumSize;
+        this.tokens = new BoundedExpiringMap<>(maximumSize, concurrencyLevel, DiscordAccessToken::getExpiresAt);
+    }
+
+    /**
+     * Creates a new InMemoryDiscordTokenStore instance with concurrency level based on the number of available processors.
+     *
+     * @param maximumSize Maximum number of stored tokens.
+     */
+    public InMemoryDiscordTokenStore(int maximumSize) {
+        this(maximumSize, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Creates a new InMemoryDiscordTokenStore instance with maximum size of {@link #DEFAULT_MAXIMUM_SIZE}.
+     */
+    public InMemoryDiscordTokenStore() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    @Override
+    public void store(long userId, @NonNull DiscordAccessToken token) {
+        tokens.put(userId, token);
+    }
+
+    @Override
+    public @Nullable DiscordAccessToken get(long userId) {
+        return tokens.get(userId);
+    }
+
+    @Override
+    public @Nullable DiscordAccessToken remove(long userId) {
+        return tokens.remove(userId);
+    }
+
+    @Override
+    public int size() {
+        return tokens.size();
+    }
+
+    @Override
+    public void clear() {
+        tokens.clear();
+    }
+
+    /**
+     * Removes all expired tokens. Calling this is not required, expired tokens are removed gradually while the store is used.
+     */
+    public void purgeExpired() {
+        tokens.purgeExpired();
+    }
+
+    /**
+     * Gets the number of tokens evicted because the store was full.
+     *
+     * @return Number of evicted tokens.
+     */
+    public long getEvictionCount() {
+        return tokens.getEvictionCount();
+    }
+
+    /**
+     * Gets the number of tokens removed because they have expired.
+     *
+     * @return Number of expired tokens.
+     */
+    public long getExpirationCount() {
+        return tokens.getExpirationCount();
+    }
+}
@@ -0,0 +1,701 @@
+package dev.mayuna.discord.oauth.store;
+
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import dev.mayuna.discord.utils.Directories;
+import dev.mayuna.discord.utils.LongLongHashMap;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent {@link DiscordTokenStore} backed by a memory-mapped, append-only log file and an in-memory index of user IDs to positions in the
+ * log.<br>Every change is appended to the log as a checksummed record, so writes are memory copies and lookups are memory reads of the mapped file.
+ * Mapped pages are written to the disk in batches by a background thread every flush interval, so a crash of the process loses nothing and a crash
+ * of the operating system loses at most the last flush interval. On startup, the log is scanned and the index is rebuilt, stopping at the first torn
+ * or corrupted record.<br>When the share of superseded and removed records reaches the compaction threshold, live tokens are copied into a new log
+ * in the background, which then atomically replaces the old one. Expired tokens are dropped by the compaction.<br>The file must not be used by more
+ * than one store at once. Call {@link #close()} when the store is no longer needed.
+ */
+public class MappedDiscordTokenStore implements DiscordTokenStore, Closeable {
+
+    public static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(100);
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_REMOVE = 2;
+    private static final byte RECORD_CLEAR = 3;
+    private static final int TOKEN_INDEX = 1 + Long.BYTES;
+    private static final long NO_OFFSET = -1;
+
+    private final @Getter Path path;
+    private final @Getter double compactionThreshold;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object compactionMonitor = new Object();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor;
+
+    private ByteBuffer recordBuffer = ByteBuffer.allocate(512);
+    private MappedLog log;
+    private LongLongHashMap index;
+    private long liveBytes;
+    private boolean closed;
+
+    /**
+     * Opens or creates the store.
+     *
+     * @param path                Nonnull path of the log file.
+     * @param regionSize          Size of the regions the log file is mapped in, at least 4 KiB. Used only when the file is created, existing files
+     *                            keep their region size.
+     * @param flushInterval       Nonnull interval of writing the mapped pages to the disk.
+     * @param compactionThreshold Share of dead bytes in the log at which the log is compacted, greater than 0 and lower than 1.
+     *
+     * @throws IOException If the log file could not be opened or is not a log file of the store.
+     */
+    public MappedDiscordTokenStore(@NonNull Path path, int regionSize, @NonNull Duration flushInterval, double compactionThreshold) throws IOException {
+        if (regionSize < MappedLog.MINIMUM_REGION_SIZE) {
+            throw new IllegalArgumentException("Region size must be at least " + MappedLog.MINIMUM_REGION_SIZE + " bytes.");
+        }
+
+        if (flushInterval.isNegative() || flushInterval.isZero()) {
+            throw new IllegalArgumentException("Flush interval must be positive.");
+        }
+
+        if (compactionThreshold <= 0 || compactionThreshold >= 1) {
+            throw new IllegalArgumentException("Compaction threshold must be greater than 0 and lower than 1.");
+        }
+
+        this.path = path;
+        this.compactionThreshold = compactionThreshold;
+
+        // Leftover of interrupted compaction, the log itself is still complete
+        Files.deleteIfExists(getCompactionPath());
+
+        this.log = MappedLog.open(path, regionSize);
+        this.index = new LongLongHashMap();
+
+        long[] recoveredLiveBytes = {0};
+        log.setEndOffset(log.scan(MappedLog.FIRST_RECORD_OFFSET, (offset, body) -> {
+            recoveredLiveBytes[0] = apply(log, index, recoveredLiveBytes[0], offset, body);
+        }));
+        // Torn records and pages written out of order must not be read after new records
+        log.zeroTail();
+        this.liveBytes = recoveredLiveBytes[0];
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "discord-token-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long flushIntervalNanos = flushInterval.toNanos();
+        executor.scheduleWithFixedDelay(this::flushQuietly, flushIntervalNanos, flushIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Opens or creates the store with {@link #DEFAULT_REGION_SIZE}, {@link #DEFAULT_FLUSH_INTERVAL} and {@link #DEFAULT_COMPACTION_THRESHOLD}.
+     *
+     * @param path Nonnull path of the log file.
+     *
+     * @throws IOException If the log file could not be opened or is not a log file of the store.
+     */
+    public MappedDiscordTokenStore(@NonNull Path path) throws IOException {
+        this(path, DEFAULT_REGION_SIZE, DEFAULT_FLUSH_INTERVAL, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    @Override
+    public void store(long userId, @NonNull DiscordAccessToken token) {
+        lock.writeLock().lock();
+
+        try {
+            ensureOpen();
+            append(encodePut(userId, token));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public @Nullable DiscordAccessToken get(long userId) {
+        DiscordAccessToken token;
+        lock.readLock().lock();
+
+        try {
+            ensureOpen();
+            long offset = index.get(userId, NO_OFFSET);
+
+            if (offset == NO_OFFSET) {
+                return null;
+            }
+
+            token = DiscordTokenCodec.decode(log.body(offset), TOKEN_INDEX);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return token.isAccessTokenExpired() ? null : token;
+    }
+
+    @Override
+    public @Nullable DiscordAccessToken remove(long userId) {
+        lock.writeLock().lock();
+
+        try {
+            ensureOpen();
+            long offset = index.get(userId, NO_OFFSET);
+
+            if (offset == NO_OFFSET) {
+                return null;
+            }
+
+            DiscordAccessToken token = DiscordTokenCodec.decode(log.body(offset), TOKEN_INDEX);
+            append(encodeRemove(RECORD_REMOVE, userId));
+            return token;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+
+        try {
+            ensureOpen();
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+
+        try {
+            ensureOpen();
+            append(encodeRemove(RECORD_CLEAR, 0));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the size of the log, including superseded and removed records.
+     *
+     * @return Size of the log in bytes.
+     */
+    public long getLogSize() {
+        lock.readLock().lock();
+
+        try {
+            ensureOpen();
+            return log.getEndOffset();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the mapped pages of the log to the disk. This is done periodically in the background, calling this is only needed when the changes
+     * must survive a crash of the operating system right away.
+     */
+    public void flush() {
+        MappedLog currentLog;
+        lock.readLock().lock();
+
+        try {
+            ensureOpen();
+            currentLog = log;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        currentLog.force();
+    }
+
+    /**
+     * Copies live tokens into a new log, which then atomically replaces the current one. Expired tokens are dropped. This is done in the
+     * background when the share of dead bytes reaches the compaction threshold, calling this is only needed to drop expired tokens.<br>The store
+     * may be used while the tokens are copied.
+     *
+     * @throws IOException If the new log could not be written.
+     */
+    public void compact() throws IOException {
+        synchronized (compactionMonitor) {
+            MappedLog oldLog;
+            long snapshotEndOffset;
+            long[] userIds;
+            long[] offsets;
+
+            lock.readLock().lock();
+
+            try {
+                ensureOpen();
+                oldLog = log;
+                snapshotEndOffset = log.getEndOffset();
+                userIds = new long[index.size()];
+                offsets = new long[index.size()];
+
+                int[] count = {0};
+                index.forEach((userId, offset) -> {
+                    userIds[count[0]] = userId;
+                    offsets[count[0]++] = offset;
+                });
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            Path compactionPath = getCompactionPath();
+            MappedLog newLog = MappedLog.create(compactionPath, oldLog.getRegionSize());
+            boolean replaced = false;
+
+            try {
+                LongLongHashMap newIndex = new LongLongHashMap(userIds.length);
+                long[] newLiveBytes = {0};
+                long now = System.currentTimeMillis();
+
+                // Records up to the snapshot are never modified, so they are copied without holding the lock
+                for (int i = 0; i < userIds.length; i++) {
+                    ByteBuffer body = oldLog.body(offsets[i]);
+
+                    if (now > DiscordTokenCodec.getExpiresAt(body, TOKEN_INDEX)) {
+                        continue;
+                    }
+
+                    long offset = newLog.append(body);
+                    newLiveBytes[0] = apply(newLog, newIndex, newLiveBytes[0], offset, body);
+                }
+
+                // Snapshot is written to the disk without holding the lock, so only the changes made while copying are forced under it
+                newLog.force();
+                lock.writeLock().lock();
+
+                try {
+                    if (closed) {
+                        return;
+                    }
+
+                    // Changes made while copying
+                    oldLog.scan(snapshotEndOffset, (oldOffset, body) -> {
+                        long offset = newLog.append(body);
+                        newLiveBytes[0] = apply(newLog, newIndex, newLiveBytes[0], offset, body);
+                    });
+
+                    newLog.force();
+                    newLog.moveTo(path);
+                    replaced = true;
+                    // Without it, the rename may be lost on a crash of the operating system together with everything forced to the new log
+                    Directories.forceParent(path);
+
+                    log = newLog;
+                    index = newIndex;
+                    liveBytes = newLiveBytes[0];
+                    oldLog.close();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } finally {
+                if (!replaced) {
+                    newLog.close();
+                    Files.deleteIfExists(compactionPath);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the mapped pages to the disk and closes the store. Running compaction is waited for.
+     *
+     * @throws IOException If the log file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+
+        try {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        executor.shutdownNow();
+
+        synchronized (compactionMonitor) {
+            log.force();
+            log.close();
+        }
+    }
+
+    private void append(ByteBuffer body) {
+        try {
+            long offset = log.append(body);
+            liveBytes = apply(log, index, liveBytes, offset, body);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        long logSize = log.getEndOffset();
+
+        if (logSize >= log.getRegionSize() / 4 && logSize - liveBytes >= compactionThreshold * logSize && compactionScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                compactionScheduled.set(false);
+
+                try {
+                    compact();
+                } catch (IOException | RuntimeException ignored) {
+                    // Compaction is attempted again after next write
+                }
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ignored) {
+            // Flushed again after the interval
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Token store is closed.");
+        }
+    }
+
+    private Path getCompactionPath() {
+        return path.resolveSibling(path.getFileName() + ".compact");
+    }
+
+    private static long apply(MappedLog log, LongLongHashMap index, long liveBytes, long offset, ByteBuffer body) {
+        switch (body.get(0)) {
+            case RECORD_PUT: {
+                long previousOffset = index.put(body.getLong(1), offset, NO_OFFSET);
+
+                if (previousOffset != NO_OFFSET) {
+                    liveBytes -= log.recordSize(previousOffset);
+                }
+
+                return liveBytes + log.recordSize(offset);
+            }
+            case RECORD_REMOVE: {
+                long previousOffset = index.remove(body.getLong(1), NO_OFFSET);
+                return previousOffset != NO_OFFSET ? liveBytes - log.recordSize(previousOffset) : liveBytes;
+            }
+            case RECORD_CLEAR:
+                index.clear();
+                return 0;
+            default:
+                return liveBytes;
+        }
+    }
+
+    private ByteBuffer encodePut(long userId, DiscordAccessToken token) {
+        byte[] encodedToken = DiscordTokenCodec.encode(token);
+        return prepareRecordBuffer(TOKEN_INDEX + encodedToken.length).put(RECORD_PUT).putLong(userId).put(encodedToken).flip();
+    }
+
+    private ByteBuffer encodeRemove(byte type, long userId) {
+        return prepareRecordBuffer(1 + Long.BYTES).put(type).putLong(userId).flip();
+    }
+
+    private ByteBuffer prepareRecordBuffer(int length) {
+        if (recordBuffer.capacity() < length) {
+            recordBuffer = ByteBuffer.allocate(Math.max(length, recordBuffer.capacity() * 2));
+        }
+
+        return recordBuffer.clear();
+    }
+
+    /**
+     * Visitor of records in the log.
+     */
+    @FunctionalInterface
+    private interface RecordVisitor {
+
+        void visit(long offset, ByteBuffer body) throws IOException;
+    }
+
+    /**
+     * Append-only log of checksummed records in a file mapped in fixed-size regions. Records never cross regions. Each record is the length of its
+     * body, CRC32 of the body and the body itself. Zero length marks the end of the log, {@code -1} marks the end of a region.<br>Appending must be
+     * synchronized externally, reading of appended records is thread-safe.
+     */
+    private static final class MappedLog {
+
+        private static final int MAGIC = 0x44544B4C;
+        private static final int VERSION = 1;
+        private static final int FILE_HEADER_SIZE = 16;
+        private static final int RECORD_HEADER_SIZE = 8;
+        private static final int END_OF_REGION = -1;
+        private static final int MINIMUM_REGION_SIZE = 4096;
+        private static final long FIRST_RECORD_OFFSET = FILE_HEADER_SIZE;
+
+        // Only mapping uses the channel, appending is synchronized externally
+        private Path path;
+        private FileChannel channel;
+        private final @Getter int regionSize;
+        private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+        private volatile @Getter long endOffset = FIRST_RECORD_OFFSET;
+        private volatile long forcedOffset = FIRST_RECORD_OFFSET;
+
+        private MappedLog(Path path, FileChannel channel, int regionSize) {
+            this.path = path;
+            this.channel = channel;
+            this.regionSize = regionSize;
+        }
+
+        private static MappedLog open(Path path, int regionSize) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            try {
+                long size = channel.size();
+                boolean created = size < FILE_HEADER_SIZE;
+
+                if (created) {
+                    // Crashed before the header was written
+                    channel.truncate(0);
+                } else {
+                    ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+                    channel.read(header, 0);
+                    header.flip();
+
+                    if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                        throw new IOException("File " + path + " is not a token store log.");
+                    }
+
+                    regionSize = header.getInt();
+
+                    if (regionSize < MINIMUM_REGION_SIZE) {
+                        throw new IOException("File " + path + " has corrupted header.");
+                    }
+                }
+
+                MappedLog log = new MappedLog(path, channel, regionSize);
+                log.region(Math.max(0, size - 1));
+
+                if (created) {
+                    log.regions[0].putInt(0, MAGIC).putInt(4, VERSION).putInt(8, regionSize);
+                    log.regions[0].force();
+                    Directories.forceParent(path);
+                }
+
+                return log;
+            } catch (IOException | RuntimeException exception) {
+                channel.close();
+                throw exception;
+            }
+        }
+
+        private static MappedLog create(Path path, int regionSize) throws IOException {
+            Files.deleteIfExists(path);
+            return open(path, regionSize);
+        }
+
+        private long append(ByteBuffer body) throws IOException {
+            int length = body.remaining();
+            int recordSize = RECORD_HEADER_SIZE + length;
+
+            if (recordSize > regionSize - FILE_HEADER_SIZE) {
+                throw new IllegalArgumentException("Record of " + recordSize + " bytes does not fit into region of " + regionSize + " bytes.");
+            }
+
+            long offset = endOffset;
+            int position = (int) (offset % regionSize);
+
+            if (position + recordSize > regionSize) {
+                if (position + Integer.BYTES <= regionSize) {
+                    region(offset).putInt(position, END_OF_REGION);
+                }
+
+                offset = (offset / regionSize + 1) * regionSize;
+                position = 0;
+            }
+
+            MappedByteBuffer region = region(offset);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+
+            region.duplicate().position(position + RECORD_HEADER_SIZE).put(body.duplicate());
+            region.putInt(position + Integer.BYTES, (int) crc.getValue());
+            // Length is written last, a record with zero length is the end of the log
+            region.putInt(position, length);
+
+            endOffset = offset + recordSize;
+            return offset;
+        }
+
+        private long scan(long offset, RecordVisitor visitor) throws IOException {
+            CRC32 crc = new CRC32();
+
+            while (true) {
+                MappedByteBuffer[] regions = this.regions;
+                int region = (int) (offset / regionSize);
+                int position = (int) (offset % regionSize);
+
+                if (region >= regions.length) {
+                    return offset;
+                }
+
+                if (position + RECORD_HEADER_SIZE > regionSize || regions[region].getInt(position) == END_OF_REGION) {
+                    offset = (region + 1L) * regionSize;
+                    continue;
+                }
+
+                int length = regions[region].getInt(position);
+
+                // End of the log or torn record
+                if (length <= 0 || position + RECORD_HEADER_SIZE + length > regionSize) {
+                    return offset;
+                }
+
+                ByteBuffer body = slice(regions[region], position + RECORD_HEADER_SIZE, length);
+                crc.reset();
+                crc.update(body.duplicate());
+
+                if ((int) crc.getValue() != regions[region].getInt(position + Integer.BYTES)) {
+                    return offset;
+                }
+
+                visitor.visit(offset, body);
+                offset += RECORD_HEADER_SIZE + length;
+            }
+        }
+
+        private ByteBuffer body(long offset) {
+            MappedByteBuffer region = regions[(int) (offset / regionSize)];
+            int position = (int) (offset % regionSize);
+            return slice(region, position + RECORD_HEADER_SIZE, region.getInt(position));
+        }
+
+        private int recordSize(long offset) {
+            return RECORD_HEADER_SIZE + regions[(int) (offset / regionSize)].getInt((int) (offset % regionSize));
+        }
+
+        private void setEndOffset(long endOffset) {
+            this.endOffset = endOffset;
+            this.forcedOffset = endOffset;
+        }
+
+        private void zeroTail() {
+            MappedByteBuffer[] regions = this.regions;
+            long fileSize = (long) regions.length * regionSize;
+
+            // Only non-zero bytes are written, so untouched pages stay untouched
+            for (long offset = endOffset; offset < fileSize; ) {
+                MappedByteBuffer region = regions[(int) (offset / regionSize)];
+                int position = (int) (offset % regionSize);
+
+                if (position + Long.BYTES <= regionSize) {
+                    if (region.getLong(position) != 0) {
+                        region.putLong(position, 0);
+                    }
+
+                    offset += Long.BYTES;
+                } else {
+                    if (region.get(position) != 0) {
+                        region.put(position, (byte) 0);
+                    }
+
+                    offset++;
+                }
+            }
+        }
+
+        private void force() {
+            long endOffset = this.endOffset;
+
+            if (endOffset == forcedOffset) {
+                return;
+            }
+
+            MappedByteBuffer[] regions = this.regions;
+            int lastRegion = (int) Math.min(regions.length - 1, endOffset / regionSize);
+
+            for (int i = (int) (forcedOffset / regionSize); i <= lastRegion; i++) {
+                regions[i].force();
+            }
+
+            forcedOffset = endOffset;
+        }
+
+        private void moveTo(Path target) throws IOException {
+            Files.move(path, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            path = target;
+        }
+
+        private void close() throws IOException {
+            channel.close();
+        }
+
+        private MappedByteBuffer region(long offset) throws IOException {
+            int region = (int) (offset / regionSize);
+            MappedByteBuffer[] regions = this.regions;
+
+            if (region >= regions.length) {
+                int mappedRegions = regions.length;
+                regions = Arrays.copyOf(regions, region + 1);
+
+                for (int i = mappedRegions; i <= region; i++) {
+                    regions[i] = map((long) i * regionSize);
+                }
+
+                this.regions = regions;
+            }
+
+            return regions[region];
+        }
+
+        private MappedByteBuffer map(long position) throws IOException {
+            // Interrupt during mapping would close the channel, so the mapping waits uninterruptibly
+            boolean interrupted = Thread.interrupted();
+
+            try {
+                while (true) {
+                    try {
+                        return channel.map(FileChannel.MapMode.READ_WRITE, position, regionSize);
+                    } catch (ClosedByInterruptException exception) {
+                        // Interrupted while mapping, regions mapped before stay valid without the channel
+                        interrupted |= Thread.interrupted();
+                        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private static ByteBuffer slice(MappedByteBuffer region, int position, int length) {
+            ByteBuffer buffer = region.duplicate();
+            buffer.position(position).limit(position + length);
+            return buffer.slice();
+        }
+    }
+}
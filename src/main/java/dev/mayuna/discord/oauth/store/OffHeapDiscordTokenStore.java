@@ -0,0 +1,318 @@
+package dev.mayuna.discord.oauth.store;
+
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import dev.mayuna.discord.utils.LongLongHashMap;
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link DiscordTokenStore} keeping the tokens in direct memory, outside the heap.<br>User IDs are indexed by a primitive open-addressing map and
+ * the tokens' bytes are kept in direct memory chunks split into slots of sizes in steps of 32 bytes, so the heap holds only a few arrays no matter how many
+ * tokens are stored, and the garbage collector has nothing to trace. Freed slots are reused by tokens of the same slot size.<br>{@link #get(long)}
+ * creates a new {@link DiscordAccessToken} on each call. Hot paths should use {@link #read(long, DiscordTokenView)} with a reused view instead,
+ * which allocates nothing.<br>Unlike {@link InMemoryDiscordTokenStore}, the store is not bounded, expired tokens are removed by
+ * {@link #purgeExpired()}. Reads run concurrently, writes are serialized.
+ */
+public class OffHeapDiscordTokenStore implements DiscordTokenStore {
+
+    private static final long NO_ADDRESS = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongLongHashMap index;
+    private final SlabAllocator allocator = new SlabAllocator();
+
+    /**
+     * Creates a new OffHeapDiscordTokenStore instance.
+     *
+     * @param expectedSize Expected number of stored tokens, so the index does not have to grow.
+     */
+    public OffHeapDiscordTokenStore(int expectedSize) {
+        this.index = new LongLongHashMap(expectedSize);
+    }
+
+    /**
+     * Creates a new empty OffHeapDiscordTokenStore instance.
+     */
+    public OffHeapDiscordTokenStore() {
+        this(0);
+    }
+
+    @Override
+    public void store(long userId, @NonNull DiscordAccessToken token) {
+        byte[] encodedToken = DiscordTokenCodec.encode(token);
+        lock.writeLock().lock();
+
+        try {
+            long address = index.get(userId, NO_ADDRESS);
+
+            if (address == NO_ADDRESS || !allocator.fits(address, encodedToken.length)) {
+                if (address != NO_ADDRESS) {
+                    allocator.free(address);
+                }
+
+                address = allocator.allocate(encodedToken.length);
+                index.put(userId, address, NO_ADDRESS);
+            }
+
+            allocator.write(address, encodedToken);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public @Nullable DiscordAccessToken get(long userId) {
+        DiscordAccessToken token;
+        lock.readLock().lock();
+
+        try {
+            long address = index.get(userId, NO_ADDRESS);
+
+            if (address == NO_ADDRESS) {
+                return null;
+            }
+
+            token = DiscordTokenCodec.decode(allocator.chunkOf(address), allocator.dataIndexOf(address));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return token.isAccessTokenExpired() ? null : token;
+    }
+
+    /**
+     * Reads the user's token into the view, without allocating anything.
+     *
+     * @param userId User's snowflake ID.
+     * @param view   Nonnull view to read the token into.
+     *
+     * @return True if the token was read, false if there is none or it has expired.
+     */
+    public boolean read(long userId, @NonNull DiscordTokenView view) {
+        lock.readLock().lock();
+
+        try {
+            long address = index.get(userId, NO_ADDRESS);
+
+            if (address == NO_ADDRESS) {
+                return false;
+            }
+
+            view.load(userId, allocator.chunkOf(address), allocator.dataIndexOf(address), allocator.lengthOf(address));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return !view.isAccessTokenExpired();
+    }
+
+    @Override
+    public @Nullable DiscordAccessToken remove(long userId) {
+        lock.writeLock().lock();
+
+        try {
+            long address = index.remove(userId, NO_ADDRESS);
+
+            if (address == NO_ADDRESS) {
+                return null;
+            }
+
+            DiscordAccessToken token = DiscordTokenCodec.decode(allocator.chunkOf(address), allocator.dataIndexOf(address));
+            allocator.free(address);
+            return token;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all stored tokens and releases the direct memory.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+
+        try {
+            index.clear();
+            allocator.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all expired tokens.
+     */
+    public void purgeExpired() {
+        lock.writeLock().lock();
+
+        try {
+            long now = System.currentTimeMillis();
+            LongLongHashMap expired = new LongLongHashMap();
+
+            // Index must not be modified while iterating
+            index.forEach((userId, address) -> {
+                if (now > DiscordTokenCodec.getExpiresAt(allocator.chunkOf(address), allocator.dataIndexOf(address))) {
+                    expired.put(userId, address, NO_ADDRESS);
+                }
+            });
+
+            expired.forEach((userId, address) -> {
+                index.remove(userId, NO_ADDRESS);
+                allocator.free(address);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of bytes of direct memory allocated by the store.
+     *
+     * @return Number of bytes.
+     */
+    public long getOffHeapBytes() {
+        lock.readLock().lock();
+
+        try {
+            return allocator.getAllocatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Allocator of slots in direct memory chunks. Slot sizes are multiples of {@link #SLOT_SIZE_STEP} up to {@link #MAXIMUM_SLOT_SIZE}, so at most
+     * {@code SLOT_SIZE_STEP - 1} bytes of a slot are wasted, and each slot size has its own chunks and free list. A slot holds the length of the data followed by the data. Address of a slot is its slot size
+     * class, chunk and offset in the chunk. Not thread-safe.
+     */
+    private static final class SlabAllocator {
+
+        private static final int SLOT_SIZE_STEP = 32;
+        private static final int MAXIMUM_SLOT_SIZE = 4096;
+        private static final int CHUNK_SIZE_BITS = 20;
+        private static final int CHUNK_SIZE = 1 << CHUNK_SIZE_BITS;
+        private static final int CLASS_SHIFT = 56;
+
+        private final SizeClass[] sizeClasses = new SizeClass[MAXIMUM_SLOT_SIZE / SLOT_SIZE_STEP];
+
+        private SlabAllocator() {
+            clear();
+        }
+
+        private long allocate(int length) {
+            int slotSize = Integer.BYTES + length;
+
+            if (slotSize > MAXIMUM_SLOT_SIZE) {
+                throw new IllegalArgumentException("Token of " + length + " bytes is larger than the maximum of " + (MAXIMUM_SLOT_SIZE - Integer.BYTES) + " bytes.");
+            }
+
+            int sizeClassIndex = (slotSize - 1) / SLOT_SIZE_STEP;
+            return ((long) sizeClassIndex << CLASS_SHIFT) | sizeClasses[sizeClassIndex].allocate();
+        }
+
+        private boolean fits(long address, int length) {
+            return Integer.BYTES + length <= sizeClasses[(int) (address >>> CLASS_SHIFT)].slotSize;
+        }
+
+        private void write(long address, byte[] data) {
+            ByteBuffer chunk = chunkOf(address);
+            int offset = offsetOf(address);
+
+            chunk.putInt(offset, data.length);
+            chunk.duplicate().position(offset + Integer.BYTES).put(data);
+        }
+
+        private void free(long address) {
+            sizeClasses[(int) (address >>> CLASS_SHIFT)].free(address & ((1L << CLASS_SHIFT) - 1));
+        }
+
+        private ByteBuffer chunkOf(long address) {
+            return sizeClasses[(int) (address >>> CLASS_SHIFT)].chunks.get((int) ((address & ((1L << CLASS_SHIFT) - 1)) >>> CHUNK_SIZE_BITS));
+        }
+
+        private int dataIndexOf(long address) {
+            return offsetOf(address) + Integer.BYTES;
+        }
+
+        private int lengthOf(long address) {
+            return chunkOf(address).getInt(offsetOf(address));
+        }
+
+        private long getAllocatedBytes() {
+            long allocatedBytes = 0;
+
+            for (SizeClass sizeClass : sizeClasses) {
+                allocatedBytes += (long) sizeClass.chunks.size() * CHUNK_SIZE;
+            }
+
+            return allocatedBytes;
+        }
+
+        private void clear() {
+            for (int i = 0; i < sizeClasses.length; i++) {
+                sizeClasses[i] = new SizeClass((i + 1) * SLOT_SIZE_STEP);
+            }
+        }
+
+        private static int offsetOf(long address) {
+            return (int) (address & (CHUNK_SIZE - 1));
+        }
+
+        /**
+         * Chunks and free slots of a single slot size. Slots are addressed by chunk index and offset in the chunk.
+         */
+        private static final class SizeClass {
+
+            private final int slotSize;
+            private final List<ByteBuffer> chunks = new ArrayList<>();
+            private int usedInLastChunk = CHUNK_SIZE;
+            private long[] freeSlots = new long[16];
+            private int freeSlotCount;
+
+            private SizeClass(int slotSize) {
+                this.slotSize = slotSize;
+            }
+
+            private long allocate() {
+                if (freeSlotCount > 0) {
+                    return freeSlots[--freeSlotCount];
+                }
+
+                if (usedInLastChunk + slotSize > CHUNK_SIZE) {
+                    chunks.add(ByteBuffer.allocateDirect(CHUNK_SIZE));
+                    usedInLastChunk = 0;
+                }
+
+                long slot = ((long) (chunks.size() - 1) << CHUNK_SIZE_BITS) | usedInLastChunk;
+                usedInLastChunk += slotSize;
+                return slot;
+            }
+
+            private void free(long slot) {
+                if (freeSlotCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+                }
+
+                freeSlots[freeSlotCount++] = slot;
+            }
+        }
+    }
+}
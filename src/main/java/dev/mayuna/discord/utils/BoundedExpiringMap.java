@@ -0,0 +1,246 @@
+package dev.mayuna.discord.utils;
+
+import lombok.NonNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe map bounded by size and by per-value expiry time.<br>The map is split into independently locked segments, each of them being an
+ * access-ordered {@link LinkedHashMap}, so that threads working with different keys rarely contend. When a segment is full, its least recently
+ * used entry is evicted. Expired entries are removed when they are read and also when they are found at the least recently used end of a segment
+ * during a write, so that no full scan is ever needed.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class BoundedExpiringMap<K, V> {
+
+    private static final int EXPIRED_ENTRIES_PROBED_PER_WRITE = 4;
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final ToLongFunction<V> expiresAtFunction;
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+
+    /**
+     * Creates a new BoundedExpiringMap instance.
+     *
+     * @param maximumSize       Maximum number of entries in the map. Must be positive.
+     * @param concurrencyLevel  Estimated number of concurrently writing threads. Rounded up to the next power of two.
+     * @param expiresAtFunction Nonnull function returning the time (in milliseconds since epoch) when the value expires.
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedExpiringMap(int maximumSize, int concurrencyLevel, @NonNull ToLongFunction<V> expiresAtFunction) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive.");
+        }
+
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive.");
+        }
+
+        int segmentCount = 1;
+        while (segmentCount < concurrencyLevel && segmentCount < maximumSize) {
+            segmentCount <<= 1;
+        }
+
+        int segmentCapacity = (maximumSize + segmentCount - 1) / segmentCount;
+
+        @SuppressWarnings("unchecked")
+        Segment<K, V>[] segments = (Segment<K, V>[]) new Segment<?, ?>[segmentCount];
+        this.segments = segments;
+        this.segmentMask = segmentCount - 1;
+        this.expiresAtFunction = expiresAtFunction;
+
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * Gets the value for the key. Expired value is removed and null is returned instead.
+     *
+     * @param key Nonnull key
+     *
+     * @return Nullable value
+     */
+    public @Nullable V get(@NonNull K key) {
+        Segment<K, V> segment = segmentFor(key);
+
+        synchronized (segment) {
+            V value = segment.get(key);
+
+            if (value != null && isExpired(value, System.currentTimeMillis())) {
+                segment.remove(key);
+                expirationCount.increment();
+                return null;
+            }
+
+            return value;
+        }
+    }
+
+    /**
+     * Puts the value into the map.
+     *
+     * @param key   Nonnull key
+     * @param value Nonnull value
+     *
+     * @return Previous value (may be expired) or null
+     */
+    public @Nullable V put(@NonNull K key, @NonNull V value) {
+        Segment<K, V> segment = segmentFor(key);
+
+        synchronized (segment) {
+            V previous = segment.put(key, value);
+            purgeEldestExpired(segment);
+
+            while (segment.size() > segment.capacity) {
+                Iterator<V> iterator = segment.values().iterator();
+                iterator.next();
+                iterator.remove();
+                evictionCount.increment();
+            }
+
+            return previous;
+        }
+    }
+
+    /**
+     * Removes the value from the map.
+     *
+     * @param key Nonnull key
+     *
+     * @return Removed value (may be expired) or null
+     */
+    public @Nullable V remove(@NonNull K key) {
+        Segment<K, V> segment = segmentFor(key);
+
+        synchronized (segment) {
+            return segment.remove(key);
+        }
+    }
+
+    /**
+     * Removes the value from the map only if it is currently mapped to the key.
+     *
+     * @param key   Nonnull key
+     * @param value Nonnull value
+     *
+     * @return True if the value was removed
+     */
+    public boolean remove(@NonNull K key, @NonNull V value) {
+        Segment<K, V> segment = segmentFor(key);
+
+        synchronized (segment) {
+            return segment.remove(key, value);
+        }
+    }
+
+    /**
+     * Gets the number of entries in the map, including the expired ones that were not removed yet.
+     *
+     * @return Number of entries
+     */
+    public int size() {
+        int size = 0;
+
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Removes all entries from the map.
+     */
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Removes all expired entries. Segments are locked one at a time, so this never blocks the whole map.
+     */
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                Iterator<V> iterator = segment.values().iterator();
+
+                while (iterator.hasNext()) {
+                    if (isExpired(iterator.next(), now)) {
+                        iterator.remove();
+                        expirationCount.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of entries evicted because the map was full.
+     *
+     * @return Number of evicted entries
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Gets the number of entries removed because they have expired.
+     *
+     * @return Number of expired entries
+     */
+    public long getExpirationCount() {
+        return expirationCount.sum();
+    }
+
+    private void purgeEldestExpired(Segment<K, V> segment) {
+        long now = System.currentTimeMillis();
+        Iterator<V> iterator = segment.values().iterator();
+
+        for (int i = 0; i < EXPIRED_ENTRIES_PROBED_PER_WRITE && iterator.hasNext(); i++) {
+            if (!isExpired(iterator.next(), now)) {
+                return;
+            }
+
+            iterator.remove();
+            expirationCount.increment();
+        }
+    }
+
+    private boolean isExpired(V value, long now) {
+        return expiresAtFunction.applyAsLong(value) <= now;
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[hash & segmentMask];
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(Math.min(capacity, 1 << 16), 0.75f, true);
+            this.capacity = capacity;
+        }
+    }
+}
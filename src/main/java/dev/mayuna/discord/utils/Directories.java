@@ -0,0 +1,41 @@
+package dev.mayuna.discord.utils;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Helpers for making changes of directories durable, used by the logs which are replaced by a rename.
+ */
+public final class Directories {
+
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+
+    private Directories() {
+    }
+
+    /**
+     * Writes the directory of the file to the disk, so the file's creation or rename survives a crash of the operating system. Forcing the file
+     * itself writes only its content.
+     *
+     * @param file Nonnull file, whose directory is written.
+     *
+     * @throws IOException If the directory could not be written.
+     */
+    public static void forceParent(@NonNull Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+
+        // Directories cannot be opened on Windows, whose renames are written by the file system itself
+        if (directory == null || WINDOWS) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package dev.mayuna.discord.utils;
+
+import lombok.NonNull;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Flow;
+
+/**
+ * Pre-encoded {@code application/x-www-form-urlencoded} body with constant parameters, to which only the last parameter's value is appended per
+ * request.<br>The constant part is encoded once and shared by all bodies created from the template, without being copied.
+ */
+public final class FormBodyTemplate {
+
+    private final byte[] prefix;
+
+    /**
+     * Creates a new FormBodyTemplate instance.
+     *
+     * @param constantParameters Nonnull constant parameters as name-value pairs, e.g., {@code "client_id", "123", "grant_type", "refresh_token"}.
+     * @param variableParameter  Nonnull name of the last parameter, whose value is supplied per request.
+     */
+    public FormBodyTemplate(@NonNull String[] constantParameters, @NonNull String variableParameter) {
+        if (constantParameters.length % 2 != 0) {
+            throw new IllegalArgumentException("Constant parameters must be name-value pairs.");
+        }
+
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < constantParameters.length; i += 2) {
+            PercentEncoding.encode(constantParameters[i], builder).append('=');
+            PercentEncoding.encode(constantParameters[i + 1], builder).append('&');
+        }
+
+        PercentEncoding.encode(variableParameter, builder).append('=');
+
+        this.prefix = builder.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Creates body publisher with the variable parameter's value.
+     *
+     * @param value Nonnull value of the variable parameter.
+     *
+     * @return The body publisher.
+     */
+    public HttpRequest.BodyPublisher createBodyPublisher(@NonNull String value) {
+        byte[] encodedValue = new byte[PercentEncoding.encodedLength(value)];
+        PercentEncoding.encode(value, encodedValue, 0);
+
+        return new PrefixedBodyPublisher(prefix, encodedValue);
+    }
+
+    /**
+     * Creates the whole body with the variable parameter's value.
+     *
+     * @param value Nonnull value of the variable parameter.
+     *
+     * @return The body.
+     */
+    public String createBody(@NonNull String value) {
+        return new String(prefix, StandardCharsets.US_ASCII) + PercentEncoding.encode(value);
+    }
+
+    /**
+     * Publishes the shared prefix and the value as two buffers, with known content length.
+     */
+    private static final class PrefixedBodyPublisher implements HttpRequest.BodyPublisher {
+
+        private final byte[] prefix;
+        private final byte[] value;
+
+        private PrefixedBodyPublisher(byte[] prefix, byte[] value) {
+            this.prefix = prefix;
+            this.value = value;
+        }
+
+        @Override
+        public long contentLength() {
+            return prefix.length + value.length;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            HttpRequest.BodyPublishers.ofByteArrays(Arrays.asList(prefix, value)).subscribe(subscriber);
+        }
+    }
+}
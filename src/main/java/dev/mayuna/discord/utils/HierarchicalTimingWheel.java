@@ -0,0 +1,297 @@
+package dev.mayuna.discord.utils;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hierarchical timing wheel for large amounts of timeouts with coarse precision.<br>Scheduling and cancelling a timeout is O(1): both only enqueue
+ * the timeout into a lock-free queue, which is drained by the wheel's own thread on every tick. Timeouts far in the future are kept in coarser
+ * levels of the wheel and cascaded down into finer levels as the time approaches.<br>Tasks are run on the wheel's thread, so they should be short
+ * and hand off any real work.
+ */
+public class HierarchicalTimingWheel implements AutoCloseable {
+
+    private final @Getter long tickMillis;
+    private final int wheelBits;
+    private final int wheelMask;
+    private final Bucket[][] levels;
+    private final Bucket overflow = new Bucket();
+
+    private final Queue<Timeout> scheduledTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pendingTimeouts = new AtomicLong();
+
+    private final ScheduledExecutorService tickExecutor;
+    private final long startTime;
+    private long currentTick;
+
+    /**
+     * Creates a new HierarchicalTimingWheel instance and starts its thread.
+     *
+     * @param tickMillis Duration of one tick in milliseconds. Timeouts are expired with this precision.
+     * @param wheelBits  Number of bits of one level, e.g., 9 means 512 slots per level.
+     * @param levelCount Number of levels. Timeouts further than {@code tickMillis * 2^(wheelBits * levelCount)} are parked until the wheel gets
+     *                   there.
+     * @param threadName Nonnull name of the wheel's thread.
+     */
+    public HierarchicalTimingWheel(long tickMillis, int wheelBits, int levelCount, @NonNull String threadName) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive.");
+        }
+
+        if (wheelBits <= 0 || levelCount <= 0 || (long) wheelBits * levelCount > 62) {
+            throw new IllegalArgumentException("Invalid wheel size.");
+        }
+
+        this.tickMillis = tickMillis;
+        this.wheelBits = wheelBits;
+        this.wheelMask = (1 << wheelBits) - 1;
+        this.levels = new Bucket[levelCount][1 << wheelBits];
+
+        for (Bucket[] level : levels) {
+            for (int i = 0; i < level.length; i++) {
+                level[i] = new Bucket();
+            }
+        }
+
+        this.startTime = System.currentTimeMillis();
+        this.tickExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        tickExecutor.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules the task to be run at the specified time.
+     *
+     * @param deadlineMillis Time in milliseconds since epoch. Past deadlines are run on the next tick.
+     * @param task           Nonnull task.
+     *
+     * @return The timeout, which may be cancelled.
+     */
+    public Timeout schedule(long deadlineMillis, @NonNull Runnable task) {
+        Timeout timeout = new Timeout(this, Math.max(0, (deadlineMillis - startTime) / tickMillis), task);
+        pendingTimeouts.incrementAndGet();
+        scheduledTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Gets the number of scheduled timeouts that have not expired nor been cancelled yet.
+     *
+     * @return Number of pending timeouts.
+     */
+    public long getPendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    /**
+     * Stops the wheel's thread. Pending timeouts are never run.
+     */
+    @Override
+    public void close() {
+        tickExecutor.shutdownNow();
+    }
+
+    private void tick() {
+        long targetTick = (System.currentTimeMillis() - startTime) / tickMillis;
+
+        while (currentTick < targetTick) {
+            currentTick++;
+            advance();
+        }
+    }
+
+    private void advance() {
+        int topShift = wheelBits * levels.length;
+
+        if ((currentTick & ((1L << topShift) - 1)) == 0) {
+            cascade(overflow);
+        }
+
+        for (int level = levels.length - 1; level > 0; level--) {
+            int shift = wheelBits * level;
+
+            if ((currentTick & ((1L << shift) - 1)) == 0) {
+                cascade(levels[level][(int) ((currentTick >>> shift) & wheelMask)]);
+            }
+        }
+
+        Timeout timeout;
+
+        while ((timeout = scheduledTimeouts.poll()) != null) {
+            if (timeout.state.get() == Timeout.STATE_PENDING) {
+                place(timeout);
+            }
+        }
+
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.unlink(timeout);
+            }
+        }
+
+        Bucket bucket = levels[0][(int) (currentTick & wheelMask)];
+
+        while ((timeout = bucket.head) != null) {
+            bucket.unlink(timeout);
+
+            if (timeout.state.compareAndSet(Timeout.STATE_PENDING, Timeout.STATE_EXPIRED)) {
+                pendingTimeouts.decrementAndGet();
+
+                try {
+                    timeout.task.run();
+                } catch (Throwable ignored) {
+                    // The wheel's thread must survive any task
+                }
+            }
+        }
+    }
+
+    private void cascade(Bucket bucket) {
+        Timeout timeout = bucket.detachAll();
+
+        while (timeout != null) {
+            Timeout next = timeout.next;
+
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+
+            if (timeout.state.get() == Timeout.STATE_PENDING) {
+                place(timeout);
+            }
+
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout timeout) {
+        long deadlineTick = Math.max(timeout.deadlineTick, currentTick);
+
+        for (int level = 0; level < levels.length; level++) {
+            int windowShift = wheelBits * (level + 1);
+
+            // Timeout belongs to the lowest level whose current window contains it
+            if ((deadlineTick >>> windowShift) == (currentTick >>> windowShift)) {
+                levels[level][(int) ((deadlineTick >>> (wheelBits * level)) & wheelMask)].link(timeout);
+                return;
+            }
+        }
+
+        overflow.link(timeout);
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout {
+
+        private static final int STATE_PENDING = 0;
+        private static final int STATE_CANCELLED = 1;
+        private static final int STATE_EXPIRED = 2;
+
+        private final HierarchicalTimingWheel wheel;
+        private final long deadlineTick;
+        private final Runnable task;
+        private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+
+        // Accessed only by the wheel's thread
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(HierarchicalTimingWheel wheel, long deadlineTick, Runnable task) {
+            this.wheel = wheel;
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        /**
+         * Cancels the timeout.
+         *
+         * @return True if the timeout was cancelled, false if it has already expired or been cancelled.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(STATE_PENDING, STATE_CANCELLED)) {
+                return false;
+            }
+
+            wheel.pendingTimeouts.decrementAndGet();
+            wheel.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        /**
+         * Determines if the timeout was cancelled.
+         *
+         * @return boolean
+         */
+        public boolean isCancelled() {
+            return state.get() == STATE_CANCELLED;
+        }
+
+        /**
+         * Determines if the timeout has expired, e.g., its task was run.
+         *
+         * @return boolean
+         */
+        public boolean isExpired() {
+            return state.get() == STATE_EXPIRED;
+        }
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+
+        private void link(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.previous = null;
+            timeout.next = head;
+
+            if (head != null) {
+                head.previous = timeout;
+            }
+
+            head = timeout;
+        }
+
+        private Timeout detachAll() {
+            Timeout detached = head;
+            head = null;
+            return detached;
+        }
+
+        private void unlink(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package dev.mayuna.discord.utils;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import lombok.NonNull;
+
+import java.io.IOException;
+
+/**
+ * Helpers for reading nullable values with {@link JsonReader}, used by the hand-written type adapters.
+ */
+public final class JsonReaders {
+
+    private JsonReaders() {
+    }
+
+    /**
+     * Reads a string, or null if the value is JSON null. Numbers and booleans are read as strings.
+     *
+     * @param reader Nonnull JSON reader.
+     *
+     * @return The string or null.
+     *
+     * @throws IOException If the value could not be read.
+     */
+    public static String nextStringOrNull(@NonNull JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+
+        if (token == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(reader.nextBoolean());
+        }
+
+        return reader.nextString();
+    }
+
+    /**
+     * Reads a boolean, or null if the value is JSON null.
+     *
+     * @param reader Nonnull JSON reader.
+     *
+     * @return The boolean or null.
+     *
+     * @throws IOException If the value could not be read.
+     */
+    public static Boolean nextBooleanOrNull(@NonNull JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        return reader.nextBoolean();
+    }
+
+    /**
+     * Reads an integer, or null if the value is JSON null.
+     *
+     * @param reader Nonnull JSON reader.
+     *
+     * @return The integer or null.
+     *
+     * @throws IOException If the value could not be read.
+     */
+    public static Integer nextIntegerOrNull(@NonNull JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        return reader.nextInt();
+    }
+
+    /**
+     * Reads a long, or zero if the value is JSON null.
+     *
+     * @param reader Nonnull JSON reader.
+     *
+     * @return The long or zero.
+     *
+     * @throws IOException If the value could not be read.
+     */
+    public static long nextLongOrZero(@NonNull JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return 0;
+        }
+
+        return reader.nextLong();
+    }
+}
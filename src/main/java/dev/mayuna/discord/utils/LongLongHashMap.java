@@ -0,0 +1,258 @@
+package dev.mayuna.discord.utils;
+
+/**
+ * Open-addressing hash map of primitive {@code long} keys to {@code long} values with linear probing, e.g., for indexing millions of snowflake IDs
+ * without boxing. Takes 16 bytes per slot and is kept at most half full.<br>Not thread-safe.
+ */
+public class LongLongHashMap {
+
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    // Zero marks empty slots, so the zero key is kept aside
+    private boolean hasZeroKey;
+    private long zeroKeyValue;
+
+    /**
+     * Creates a new LongLongHashMap instance.
+     *
+     * @param expectedSize Expected number of entries.
+     */
+    public LongLongHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative.");
+        }
+
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+
+        allocate(capacity);
+    }
+
+    /**
+     * Creates a new empty LongLongHashMap instance.
+     */
+    public LongLongHashMap() {
+        this(0);
+    }
+
+    /**
+     * Gets the value of the key.
+     *
+     * @param key          Key.
+     * @param defaultValue Value returned when there is no entry for the key.
+     *
+     * @return The value or default value.
+     */
+    public long get(long key, long defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroKeyValue : defaultValue;
+        }
+
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            long slotKey = keys[slot];
+
+            if (slotKey == key) {
+                return values[slot];
+            }
+
+            if (slotKey == 0) {
+                return defaultValue;
+            }
+        }
+    }
+
+    /**
+     * Puts the value for the key, replacing the previous one.
+     *
+     * @param key          Key.
+     * @param value        Value.
+     * @param defaultValue Value returned when there was no entry for the key.
+     *
+     * @return The previous value or default value.
+     */
+    public long put(long key, long value, long defaultValue) {
+        if (key == 0) {
+            long previous = hasZeroKey ? zeroKeyValue : defaultValue;
+
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+
+            zeroKeyValue = value;
+            return previous;
+        }
+
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            long slotKey = keys[slot];
+
+            if (slotKey == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+
+            if (slotKey == 0) {
+                keys[slot] = key;
+                values[slot] = value;
+
+                if (++size * 2L > keys.length) {
+                    allocate(keys.length << 1);
+                }
+
+                return defaultValue;
+            }
+        }
+    }
+
+    /**
+     * Removes the entry of the key.
+     *
+     * @param key          Key.
+     * @param defaultValue Value returned when there was no entry for the key.
+     *
+     * @return The removed value or default value.
+     */
+    public long remove(long key, long defaultValue) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                return defaultValue;
+            }
+
+            hasZeroKey = false;
+            size--;
+            return zeroKeyValue;
+        }
+
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            long slotKey = keys[slot];
+
+            if (slotKey == 0) {
+                return defaultValue;
+            }
+
+            if (slotKey == key) {
+                long previous = values[slot];
+                shiftBackFrom(slot);
+                size--;
+                return previous;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return Number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all entries and shrinks the map.
+     */
+    public void clear() {
+        keys = null;
+        values = null;
+        allocate(MINIMUM_CAPACITY);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    /**
+     * Calls the consumer for every entry, in no particular order. The map must not be modified by the consumer.
+     *
+     * @param consumer Entry consumer.
+     */
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0, zeroKeyValue);
+        }
+
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != 0) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Moves the following entries of the cluster into the freed slot, so that no tombstones are needed.
+     */
+    private void shiftBackFrom(int gap) {
+        for (int slot = (gap + 1) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+            int home = slotOf(keys[slot]);
+
+            // Entry may move only if the gap lies between its home slot and its current slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+
+        keys[gap] = 0;
+        values[gap] = 0;
+    }
+
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+
+        if (oldKeys == null) {
+            return;
+        }
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+
+            if (key != 0) {
+                int slot = slotOf(key);
+
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private int slotOf(long key) {
+        // Finalizer of MurmurHash3, snowflakes have most of their entropy in the middle bits
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    /**
+     * Consumer of map entries.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        /**
+         * Accepts the entry.
+         *
+         * @param key   Key.
+         * @param value Value.
+         */
+        void accept(long key, long value);
+    }
+}
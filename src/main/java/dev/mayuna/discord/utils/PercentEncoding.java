@@ -0,0 +1,162 @@
+package dev.mayuna.discord.utils;
+
+import lombok.NonNull;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Percent-encoding of URL query and form values (<a href="https://www.rfc-editor.org/rfc/rfc3986#section-2.1">RFC 3986</a>).<br>Only unreserved
+ * characters are left as they are, so the output is valid both in URL query and in {@code application/x-www-form-urlencoded} body. Values consisting
+ * only of unreserved characters, like Discord's tokens and codes, are copied without any intermediate allocation.
+ */
+public final class PercentEncoding {
+
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private PercentEncoding() {
+    }
+
+    /**
+     * Gets the length of the encoded value.
+     *
+     * @param value Nonnull value.
+     *
+     * @return Length of the encoded value.
+     */
+    public static int encodedLength(@NonNull String value) {
+        if (!isAscii(value)) {
+            return encodeToBytes(value).length;
+        }
+
+        int length = 0;
+
+        for (int i = 0; i < value.length(); i++) {
+            length += isUnreserved(value.charAt(i)) ? 1 : 3;
+        }
+
+        return length;
+    }
+
+    /**
+     * Encodes the value into the array.
+     *
+     * @param value  Nonnull value.
+     * @param target Nonnull target array with at least {@link #encodedLength(String)} free bytes from the offset.
+     * @param offset Offset in the target array.
+     *
+     * @return Offset after the encoded value.
+     */
+    public static int encode(@NonNull String value, @NonNull byte[] target, int offset) {
+        if (!isAscii(value)) {
+            byte[] encoded = encodeToBytes(value);
+            System.arraycopy(encoded, 0, target, offset, encoded.length);
+            return offset + encoded.length;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+
+            if (isUnreserved(character)) {
+                target[offset++] = (byte) character;
+            } else {
+                offset = encodeByte((byte) character, target, offset);
+            }
+        }
+
+        return offset;
+    }
+
+    /**
+     * Encodes the value into the string builder.
+     *
+     * @param value   Nonnull value.
+     * @param builder Nonnull string builder.
+     *
+     * @return The string builder.
+     */
+    public static StringBuilder encode(@NonNull String value, @NonNull StringBuilder builder) {
+        if (!isAscii(value)) {
+            for (byte encodedByte : encodeToBytes(value)) {
+                builder.append((char) encodedByte);
+            }
+
+            return builder;
+        }
+
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+
+            if (isUnreserved(character)) {
+                builder.append(character);
+            } else {
+                builder.append('%').append((char) HEX_DIGITS[(character >> 4) & 0x0F]).append((char) HEX_DIGITS[character & 0x0F]);
+            }
+        }
+
+        return builder;
+    }
+
+    /**
+     * Encodes the value.
+     *
+     * @param value Nonnull value.
+     *
+     * @return The encoded value.
+     */
+    public static String encode(@NonNull String value) {
+        return encode(value, new StringBuilder(value.length() + 16)).toString();
+    }
+
+    /**
+     * Encodes the value into US-ASCII bytes.
+     *
+     * @param value Nonnull value.
+     *
+     * @return The encoded value.
+     */
+    public static byte[] encodeToBytes(@NonNull String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        int length = 0;
+
+        for (byte utf8Byte : utf8) {
+            length += isUnreserved((char) (utf8Byte & 0xFF)) ? 1 : 3;
+        }
+
+        byte[] encoded = new byte[length];
+        int offset = 0;
+
+        for (byte utf8Byte : utf8) {
+            if (isUnreserved((char) (utf8Byte & 0xFF))) {
+                encoded[offset++] = utf8Byte;
+            } else {
+                offset = encodeByte(utf8Byte, encoded, offset);
+            }
+        }
+
+        return encoded;
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int encodeByte(byte value, byte[] target, int offset) {
+        target[offset++] = '%';
+        target[offset++] = HEX_DIGITS[(value >> 4) & 0x0F];
+        target[offset++] = HEX_DIGITS[value & 0x0F];
+        return offset;
+    }
+
+    private static boolean isUnreserved(char character) {
+        return (character >= 'a' && character <= 'z')
+                || (character >= 'A' && character <= 'Z')
+                || (character >= '0' && character <= '9')
+                || character == '-' || character == '.' || character == '_' || character == '~';
+    }
+}
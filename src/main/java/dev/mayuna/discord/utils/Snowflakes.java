@@ -0,0 +1,115 @@
+package dev.mayuna.discord.utils;
+
+import lombok.NonNull;
+
+/**
+ * Utilities for Discord's snowflake IDs (<a href="https://discord.com/developers/docs/reference#snowflakes">Discord's documentation</a>).<br>A
+ * snowflake is a 64-bit number consisting of milliseconds since {@link #DISCORD_EPOCH} (42 bits), internal worker ID (5 bits), internal process ID
+ * (5 bits) and increment (12 bits). All methods work on primitive values and allocate nothing.
+ */
+public final class Snowflakes {
+
+    /**
+     * First second of 2015, in milliseconds since Unix epoch.
+     */
+    public static final long DISCORD_EPOCH = 1420070400000L;
+
+    private static final int TIMESTAMP_SHIFT = 22;
+
+    private Snowflakes() {
+    }
+
+    /**
+     * Parses the snowflake from any {@link CharSequence}, e.g., a part of a larger buffer, without allocating.
+     *
+     * @param snowflake Nonnull snowflake as a string.
+     *
+     * @return The snowflake.
+     *
+     * @throws NumberFormatException If the string is not a snowflake.
+     */
+    public static long parse(@NonNull CharSequence snowflake) {
+        int length = snowflake.length();
+
+        if (length == 0 || length > 19) {
+            throw new NumberFormatException("Invalid snowflake: " + snowflake);
+        }
+
+        long value = 0;
+
+        for (int i = 0; i < length; i++) {
+            int digit = snowflake.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid snowflake: " + snowflake);
+            }
+
+            value = value * 10 + digit;
+
+            if (value < 0) {
+                throw new NumberFormatException("Invalid snowflake: " + snowflake);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Gets the time when the snowflake was created.
+     *
+     * @param snowflake Snowflake.
+     *
+     * @return The time in milliseconds since Unix epoch.
+     */
+    public static long getCreatedAt(long snowflake) {
+        return (snowflake >>> TIMESTAMP_SHIFT) + DISCORD_EPOCH;
+    }
+
+    /**
+     * Gets the internal worker ID of the snowflake.
+     *
+     * @param snowflake Snowflake.
+     *
+     * @return Worker ID, 0 to 31.
+     */
+    public static int getWorkerId(long snowflake) {
+        return (int) ((snowflake >>> 17) & 0x1F);
+    }
+
+    /**
+     * Gets the internal process ID of the snowflake.
+     *
+     * @param snowflake Snowflake.
+     *
+     * @return Process ID, 0 to 31.
+     */
+    public static int getProcessId(long snowflake) {
+        return (int) ((snowflake >>> 12) & 0x1F);
+    }
+
+    /**
+     * Gets the increment of the snowflake, e.g., the number of snowflakes generated by the process in the same millisecond before this one.
+     *
+     * @param snowflake Snowflake.
+     *
+     * @return Increment, 0 to 4095.
+     */
+    public static int getIncrement(long snowflake) {
+        return (int) (snowflake & 0xFFF);
+    }
+
+    /**
+     * Creates the lowest snowflake created at the given time, e.g., for paginating by time.
+     *
+     * @param createdAt Time in milliseconds since Unix epoch, not before {@link #DISCORD_EPOCH}.
+     *
+     * @return The snowflake.
+     */
+    public static long fromCreatedAt(long createdAt) {
+        if (createdAt < DISCORD_EPOCH) {
+            throw new IllegalArgumentException("Time must not be before Discord epoch.");
+        }
+
+        return (createdAt - DISCORD_EPOCH) << TIMESTAMP_SHIFT;
+    }
+}
@@ -0,0 +1,32 @@
+package dev.mayuna.discord.http;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads, which are available since Java 21.<br>This is the Java 21 version of the class, packaged in
+ * {@code META-INF/versions/21} of the multi-release JAR.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Determines if virtual threads are supported by the running Java version.
+     *
+     * @return True if virtual threads are supported, false otherwise.
+     */
+    public static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task.
+     *
+     * @return The executor.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("discord-http-", 0).factory());
+    }
+}
@@ -3,11 +3,22 @@ package dev.mayuna.discord.api;
 import dev.mayuna.discord.Utils;
 import dev.mayuna.discord.api.entities.DiscordUser;
 import dev.mayuna.discord.api.server.DiscordApiMock;
+import dev.mayuna.discord.testing.DiscordStandInServer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class DiscordApiTest {
 
     private final static String testAccessToken = "abcdefg";
@@ -79,6 +90,113 @@ public class DiscordApiTest {
         Assertions.assertNotNull(user.getErrorDescription());
     }
 
+    @Test
+    public void testFetchUsers() {
+        List<String> accessTokens = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            accessTokens.add(i % 2 == 0 ? testAccessToken : "invalid_token");
+        }
+
+        AtomicInteger fetched = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        discordApi.fetchUsers(accessTokens, 4, new DiscordUserFetchListener() {
+            @Override
+            public void onUserFetched(@NotNull String accessToken, @NotNull DiscordUser user) {
+                Assertions.assertEquals(testAccessToken, accessToken);
+                Assertions.assertEquals(testUser.getId(), user.getId());
+                fetched.incrementAndGet();
+            }
+
+            @Override
+            public void onUserFetchFailed(@NotNull String accessToken, @Nullable DiscordUser errorResponse, @Nullable Throwable throwable) {
+                Assertions.assertEquals("invalid_token", accessToken);
+                Assertions.assertNotNull(errorResponse);
+                Assertions.assertNotNull(errorResponse.getError());
+                failed.incrementAndGet();
+            }
+        }).join();
+
+        Assertions.assertEquals(50, fetched.get());
+        Assertions.assertEquals(50, failed.get());
+    }
+
+    @Test
+    public void testFetchUsersUnauthorized() throws IOException {
+        DiscordStandInServer server = new DiscordStandInServer.Builder().build();
+        server.start();
+
+        try {
+            DiscordApi standInApi = new DiscordApi(server.getUrl());
+            AtomicInteger failed = new AtomicInteger();
+
+            // Stand-in server responds with UNAUTHORIZED_RESPONSE, which has no error field
+            standInApi.fetchUsers(Collections.nCopies(10, "revoked_token"), 4, new DiscordUserFetchListener() {
+                @Override
+                public void onUserFetched(@NotNull String accessToken, @NotNull DiscordUser user) {
+                    Assertions.fail("Unauthorized response was passed as fetched user");
+                }
+
+                @Override
+                public void onUserFetchFailed(@NotNull String accessToken, @Nullable DiscordUser errorResponse, @Nullable Throwable throwable) {
+                    Assertions.assertNotNull(errorResponse);
+                    Assertions.assertEquals(401, errorResponse.getStatusCode());
+                    Assertions.assertNull(errorResponse.getId());
+                    failed.incrementAndGet();
+                }
+            }).join();
+
+            Assertions.assertEquals(10, failed.get());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testFetchUsersPullsTokensLazily() {
+        AtomicInteger pulled = new AtomicInteger();
+        AtomicInteger maxAheadOfCompleted = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        Iterable<String> accessTokens = () -> new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return pulled.get() < 50;
+            }
+
+            @Override
+            public String next() {
+                maxAheadOfCompleted.accumulateAndGet(pulled.incrementAndGet() - completed.get(), Math::max);
+                return testAccessToken;
+            }
+        };
+
+        discordApi.fetchUsers(accessTokens, 3, (accessToken, user) -> completed.incrementAndGet()).join();
+
+        Assertions.assertEquals(50, completed.get());
+        Assertions.assertTrue(maxAheadOfCompleted.get() <= 3);
+    }
+
+    @Test
+    public void testFetchUsersListenerFailure() {
+        CompletionException exception = Assertions.assertThrows(CompletionException.class, () -> {
+            discordApi.fetchUsers(Collections.nCopies(20, testAccessToken), 2, (accessToken, user) -> {
+                throw new IllegalStateException("listener failed");
+            }).join();
+        });
+
+        Assertions.assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    public void testFetchUsersArguments() {
+        Assertions.assertDoesNotThrow(() -> discordApi.fetchUsers(Collections.emptyList(), (accessToken, user) -> {}).join());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> discordApi.fetchUsers(Collections.emptyList(), 0, (accessToken, user) -> {}));
+        Assertions.assertThrows(NullPointerException.class, () -> discordApi.fetchUsers(null, (accessToken, user) -> {}));
+        Assertions.assertThrows(NullPointerException.class, () -> discordApi.fetchUsers(Collections.emptyList(), null));
+    }
+
     private static DiscordUser createTestUser() {
         DiscordUser user = new DiscordUser();
 
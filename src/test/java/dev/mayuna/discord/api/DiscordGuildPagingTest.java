@@ -0,0 +1,167 @@
+package dev.mayuna.discord.api;
+
+import dev.mayuna.discord.api.entities.DiscordGuild;
+import dev.mayuna.discord.api.entities.DiscordGuildMembership;
+import dev.mayuna.discord.api.entities.DiscordGuildPage;
+import dev.mayuna.discord.http.DiscordGson;
+import dev.mayuna.discord.oauth.DiscordApplication;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.testing.DiscordStandInServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class DiscordGuildPagingTest {
+
+    private static final long USER_ID = 42;
+    private static final long FIRST_GUILD_ID = 80351110224678912L;
+
+    private DiscordStandInServer server;
+    private DiscordApi discordApi;
+    private String accessToken;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = new DiscordStandInServer.Builder().build();
+        server.start();
+
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withApiUrl(server.getUrl())
+                .withClientId("1")
+                .withClientSecret("secret")
+                .withRedirectUrl("https://example.com/discord/callback")
+                .build();
+
+        discordApi = new DiscordApi(application.getApiUrl(), application.getHttpClient());
+        accessToken = new DiscordOAuth(application).fetchAccessToken(server.createCode(USER_ID)).send().getAccessToken();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop();
+    }
+
+    private long[] setGuilds(int count) {
+        long[] guildIds = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            // Descending, so the server has to sort them
+            guildIds[i] = FIRST_GUILD_ID + (long) (count - i) * 1000;
+        }
+
+        server.setGuilds(USER_ID, guildIds);
+        return guildIds;
+    }
+
+    @Test
+    public void testFetchGuildsPage() {
+        setGuilds(10);
+
+        DiscordGuildPage page = discordApi.fetchGuilds(accessToken, null, FIRST_GUILD_ID + 3000, 4).send();
+
+        Assertions.assertTrue(page.isSuccessful());
+        Assertions.assertEquals(4, page.getGuilds().size());
+        Assertions.assertEquals(FIRST_GUILD_ID + 4000, page.getGuilds().get(0).getIdAsLong());
+        Assertions.assertEquals(FIRST_GUILD_ID + 7000, page.getHighestGuildId());
+
+        page = discordApi.fetchGuilds(accessToken, FIRST_GUILD_ID + 3000, null, 5).send();
+
+        Assertions.assertEquals(2, page.getGuilds().size());
+        Assertions.assertEquals(FIRST_GUILD_ID + 1000, page.getGuilds().get(0).getIdAsLong());
+    }
+
+    @Test
+    public void testIterateGuildsFetchesPagesLazily() {
+        setGuilds(25);
+        long requestsBefore = server.getRequestCount();
+
+        Iterator<DiscordGuild> iterator = discordApi.iterateGuilds(accessToken, 10);
+
+        Assertions.assertEquals(requestsBefore, server.getRequestCount());
+        Assertions.assertEquals(FIRST_GUILD_ID + 1000, iterator.next().getIdAsLong());
+        Assertions.assertEquals(requestsBefore + 1, server.getRequestCount());
+
+        int count = 1;
+        long previousGuildId = FIRST_GUILD_ID + 1000;
+
+        while (iterator.hasNext()) {
+            long guildId = iterator.next().getIdAsLong();
+            Assertions.assertTrue(guildId > previousGuildId);
+            previousGuildId = guildId;
+            count++;
+        }
+
+        Assertions.assertEquals(25, count);
+        // Last page is shorter, so no empty page is fetched
+        Assertions.assertEquals(requestsBefore + 3, server.getRequestCount());
+    }
+
+    @Test
+    public void testStreamGuildsStopsFetching() {
+        setGuilds(450);
+        long requestsBefore = server.getRequestCount();
+
+        Assertions.assertTrue(discordApi.streamGuilds(accessToken).anyMatch(guild -> guild.getIdAsLong() == FIRST_GUILD_ID + 50_000));
+        Assertions.assertEquals(requestsBefore + 1, server.getRequestCount());
+        Assertions.assertEquals(450, discordApi.streamGuilds(accessToken).count());
+    }
+
+    @Test
+    public void testFetchGuildMembership() throws Exception {
+        long[] guildIds = setGuilds(401);
+
+        DiscordGuildMembership membership = discordApi.fetchGuildMembership(accessToken).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(401, membership.size());
+
+        for (long guildId : guildIds) {
+            Assertions.assertTrue(membership.isMemberOf(guildId));
+        }
+
+        Assertions.assertFalse(membership.isMemberOf(FIRST_GUILD_ID));
+        Assertions.assertEquals(FIRST_GUILD_ID + 1000, membership.getGuildId(0));
+    }
+
+    @Test
+    public void testFetchGuildMembershipWithoutGuilds() throws Exception {
+        Assertions.assertSame(DiscordGuildMembership.EMPTY, discordApi.fetchGuildMembership(accessToken).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testInvalidAccessToken() {
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> discordApi.fetchGuildMembership("invalid").get(10, TimeUnit.SECONDS));
+        DiscordApiException apiException = Assertions.assertInstanceOf(DiscordApiException.class, exception.getCause());
+
+        Assertions.assertEquals(401, apiException.getErrorResponse().getStatusCode());
+        Assertions.assertThrows(DiscordApiException.class, () -> discordApi.iterateGuilds("invalid").hasNext());
+    }
+
+    @Test
+    public void testInvalidLimit() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> discordApi.fetchGuilds(accessToken, null, null, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> discordApi.iterateGuilds(accessToken, DiscordApi.MAX_GUILD_PAGE_SIZE + 1));
+    }
+
+    @Test
+    public void testDeserializePage() {
+        DiscordGuildPage page = DiscordGson.INSTANCE.fromJson(DiscordStandInServer.GUILDS_RESPONSE, DiscordGuildPage.class);
+        DiscordGuild guild = page.getGuilds().get(0);
+
+        Assertions.assertEquals(FIRST_GUILD_ID, guild.getIdAsLong());
+        Assertions.assertEquals("1337 Krew", guild.getName());
+        Assertions.assertEquals(Boolean.TRUE, guild.getOwner());
+        Assertions.assertEquals(36953089L, guild.getPermissionsAsLong());
+        Assertions.assertEquals(2, guild.getFeatures().size());
+
+        DiscordGuildPage errorPage = DiscordGson.INSTANCE.fromJson("{\"error\":\"invalid_token\"}", DiscordGuildPage.class);
+
+        Assertions.assertFalse(errorPage.isSuccessful());
+        Assertions.assertTrue(errorPage.getGuilds().isEmpty());
+    }
+}
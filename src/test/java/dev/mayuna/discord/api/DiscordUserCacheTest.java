@@ -0,0 +1,110 @@
+package dev.mayuna.discord.api;
+
+import dev.mayuna.discord.Utils;
+import dev.mayuna.discord.api.entities.DiscordUser;
+import dev.mayuna.discord.api.server.DiscordApiMock;
+import dev.mayuna.discord.testing.DiscordStandInServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+public class DiscordUserCacheTest {
+
+    private final static String testAccessToken = "abcdefg";
+
+    private static DiscordApi discordApi;
+    private static DiscordApiMock discordApiMock;
+
+    @BeforeAll
+    public static void prepare() {
+        DiscordUser user = new DiscordUser();
+        Utils.setField(user, "id", "677516608778928129");
+        Utils.setField(user, "username", "TestUser");
+
+        discordApiMock = new DiscordApiMock(testAccessToken, user);
+        discordApiMock.start();
+
+        discordApi = new DiscordApi(discordApiMock.getUrl());
+    }
+
+    @AfterAll
+    public static void stop() {
+        discordApiMock.stop();
+    }
+
+    @Test
+    public void testConstructors() {
+        Assertions.assertThrows(NullPointerException.class, () -> new DiscordUserCache(null));
+        Assertions.assertThrows(NullPointerException.class, () -> new DiscordUserCache(discordApi, null, 10));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DiscordUserCache(discordApi, Duration.ofMinutes(1), 0));
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        DiscordUserCache cache = new DiscordUserCache(discordApi);
+
+        DiscordUser user = cache.fetchUser(testAccessToken).join();
+        Assertions.assertEquals("677516608778928129", user.getId());
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(0, cache.getHitCount());
+
+        Assertions.assertSame(user, cache.fetchUser(testAccessToken).join());
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getHitCount());
+        Assertions.assertEquals(1, cache.size());
+
+        cache.invalidate(testAccessToken);
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertNotSame(user, cache.fetchUser(testAccessToken).join());
+        Assertions.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testErrorsAreNotCached() {
+        DiscordUserCache cache = new DiscordUserCache(discordApi);
+
+        Assertions.assertNotNull(cache.fetchUser("invalid_token").join().getError());
+        Assertions.assertNotNull(cache.fetchUser("invalid_token").join().getError());
+        Assertions.assertEquals(2, cache.getMissCount());
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testUnauthorizedIsNotCached() throws IOException {
+        DiscordStandInServer server = new DiscordStandInServer.Builder().build();
+        server.start();
+
+        try {
+            DiscordUserCache cache = new DiscordUserCache(new DiscordApi(server.getUrl()));
+
+            for (int i = 0; i < 2; i++) {
+                DiscordUser user = cache.fetchUser("revoked_token").join();
+
+                Assertions.assertEquals(401, user.getStatusCode());
+                Assertions.assertNull(user.getId());
+            }
+
+            Assertions.assertEquals(0, cache.size());
+            Assertions.assertEquals(2, cache.getMissCount());
+            Assertions.assertEquals(2, server.getRejectedRequestCount());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testTtl() throws InterruptedException {
+        DiscordUserCache cache = new DiscordUserCache(discordApi, Duration.ofMillis(50), 10);
+
+        cache.fetchUser(testAccessToken).join();
+        Thread.sleep(100);
+        cache.fetchUser(testAccessToken).join();
+
+        Assertions.assertEquals(2, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getExpirationCount());
+    }
+}
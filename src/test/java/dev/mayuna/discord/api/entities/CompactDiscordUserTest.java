@@ -0,0 +1,74 @@
+package dev.mayuna.discord.api.entities;
+
+import dev.mayuna.discord.http.DiscordGson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class CompactDiscordUserTest {
+
+    private static final String USER_JSON = "{\"id\":\"80351110224678912\",\"username\":\"Nelly\",\"discriminator\":\"1337\",\"global_name\":\"Nelly\","
+            + "\"avatar\":\"a_8342729096ea3675442027381ff50dfe\",\"verified\":true,\"bot\":false,\"email\":\"nelly@discord.com\",\"flags\":64,"
+            + "\"accent_color\":16711680,\"premium_type\":1,\"public_flags\":64,\"locale\":\"en-US\"}";
+
+    @Test
+    public void testMatchesUser() {
+        DiscordUser user = DiscordGson.INSTANCE.fromJson(USER_JSON, DiscordUser.class);
+        CompactDiscordUser compactUser = user.toCompact();
+
+        Assertions.assertEquals(80351110224678912L, compactUser.getId());
+        Assertions.assertEquals(user.getUsername(), compactUser.getUsername());
+        Assertions.assertEquals(user.getDiscriminator(), compactUser.getDiscriminator());
+        Assertions.assertEquals(user.getGlobalName(), compactUser.getGlobalName());
+        Assertions.assertEquals(user.getEmail(), compactUser.getEmail());
+        Assertions.assertEquals(user.getLocale(), compactUser.getLocale());
+        Assertions.assertEquals(user.getAvatarHash(), compactUser.getAvatarHash());
+        Assertions.assertTrue(compactUser.isAvatarAnimated());
+
+        Assertions.assertEquals(Boolean.TRUE, compactUser.getVerified());
+        Assertions.assertEquals(Boolean.FALSE, compactUser.getBot());
+        Assertions.assertNull(compactUser.getSystem());
+        Assertions.assertNull(compactUser.getMfaEnabled());
+
+        Assertions.assertEquals(user.getFlags(), compactUser.getFlags());
+        Assertions.assertEquals(user.getAccentColor(), compactUser.getAccentColor());
+        Assertions.assertEquals(user.getPremiumType(), compactUser.getPremiumType());
+        Assertions.assertEquals(user.getPublicFlags(), compactUser.getPublicFlags());
+
+        Assertions.assertEquals(user.getCreatedAt(), compactUser.getCreatedAt());
+    }
+
+    @Test
+    public void testMissingFields() {
+        DiscordUser user = DiscordGson.INSTANCE.fromJson("{\"id\":\"80351110224678912\",\"username\":\"Nelly\"}", DiscordUser.class);
+        CompactDiscordUser compactUser = CompactDiscordUser.of(user);
+
+        Assertions.assertNull(compactUser.getAvatarHash());
+        Assertions.assertFalse(compactUser.isAvatarAnimated());
+        Assertions.assertNull(compactUser.getVerified());
+        Assertions.assertNull(compactUser.getAccentColor());
+        Assertions.assertNull(compactUser.getPremiumType());
+        Assertions.assertNull(compactUser.getLocale());
+    }
+
+    @Test
+    public void testUnexpectedAvatarHash() {
+        DiscordUser user = DiscordGson.INSTANCE.fromJson("{\"id\":\"1\",\"avatar\":\"8342729096EA3675442027381FF50DFE\"}", DiscordUser.class);
+
+        Assertions.assertEquals("8342729096EA3675442027381FF50DFE", user.toCompact().getAvatarHash());
+    }
+
+    @Test
+    public void testInternsSharedValues() {
+        CompactDiscordUser first = DiscordGson.INSTANCE.fromJson(USER_JSON, DiscordUser.class).toCompact();
+        CompactDiscordUser second = DiscordGson.INSTANCE.fromJson(USER_JSON, DiscordUser.class).toCompact();
+
+        Assertions.assertSame(first.getLocale(), second.getLocale());
+        Assertions.assertSame(first.getDiscriminator(), second.getDiscriminator());
+        Assertions.assertEquals(first, second);
+    }
+
+    @Test
+    public void testRequiresId() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CompactDiscordUser.of(new DiscordUser()));
+    }
+}
@@ -0,0 +1,44 @@
+package dev.mayuna.discord.api.entities;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DiscordGuildMembershipTest {
+
+    @Test
+    public void testIsMemberOf() {
+        DiscordGuildMembership membership = DiscordGuildMembership.of(300, 100, 200, 100);
+
+        Assertions.assertEquals(3, membership.size());
+        Assertions.assertArrayEquals(new long[]{100, 200, 300}, membership.getGuildIds());
+        Assertions.assertTrue(membership.isMemberOf(100));
+        Assertions.assertTrue(membership.isMemberOf(300));
+        Assertions.assertFalse(membership.isMemberOf(150));
+        Assertions.assertFalse(membership.isMemberOf(400));
+    }
+
+    @Test
+    public void testOfPartOfArray() {
+        long[] buffer = {5, 3, 3, 1, 9};
+        DiscordGuildMembership membership = DiscordGuildMembership.of(buffer, 3);
+
+        Assertions.assertArrayEquals(new long[]{3, 5}, membership.getGuildIds());
+        Assertions.assertFalse(membership.isMemberOf(1));
+        // Buffer is not modified
+        Assertions.assertArrayEquals(new long[]{5, 3, 3, 1, 9}, buffer);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DiscordGuildMembership.of(buffer, 6));
+    }
+
+    @Test
+    public void testEmpty() {
+        Assertions.assertSame(DiscordGuildMembership.EMPTY, DiscordGuildMembership.of());
+        Assertions.assertFalse(DiscordGuildMembership.EMPTY.isMemberOf(0));
+    }
+
+    @Test
+    public void testEquals() {
+        Assertions.assertEquals(DiscordGuildMembership.of(1, 2), DiscordGuildMembership.of(2, 1, 2));
+        Assertions.assertEquals(DiscordGuildMembership.of(1, 2).hashCode(), DiscordGuildMembership.of(2, 1).hashCode());
+        Assertions.assertNotEquals(DiscordGuildMembership.of(1, 2), DiscordGuildMembership.of(1, 3));
+    }
+}
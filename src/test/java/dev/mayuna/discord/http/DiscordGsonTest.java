@@ -0,0 +1,96 @@
+package dev.mayuna.discord.http;
+
+import com.google.gson.Gson;
+import dev.mayuna.discord.api.DiscordApiResponse;
+import dev.mayuna.discord.api.entities.DiscordUser;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DiscordGsonTest {
+
+    private static final String ACCESS_TOKEN_JSON = "{\"access_token\":\"6qrZcUqja7812RVdnEKjpzOL4CvHBFG\",\"token_type\":\"Bearer\",\"expires_in\":604800,"
+            + "\"refresh_token\":\"D43f5y0ahjqew82jZ4NViEr2YafMKhue\",\"scope\":\"identify guilds\",\"webhook\":{\"id\":\"1\",\"nested\":[1,2,{\"a\":null}]}}";
+
+    private static final String USER_JSON = "{\"id\":\"80351110224678912\",\"username\":\"Nelly\",\"discriminator\":\"1337\",\"global_name\":null,"
+            + "\"avatar\":\"8342729096ea3675442027381ff50dfe\",\"bot\":false,\"verified\":true,\"email\":\"nelly@discord.com\",\"flags\":64,"
+            + "\"banner\":\"06c16474723fe537c283b8efa61a30c8\",\"accent_color\":16711680,\"premium_type\":1,\"public_flags\":64,\"locale\":\"en-US\","
+            + "\"mfa_enabled\":true,\"avatar_decoration\":null,\"avatar_decoration_data\":{\"asset\":\"a\",\"sku_id\":\"1\"}}";
+
+    private static final String ERROR_JSON = "{\"error\":\"invalid_grant\",\"error_description\":\"Invalid \\\"code\\\" in request.\"}";
+
+    private final Gson reflectiveGson = new Gson();
+
+    @Test
+    public void testAccessToken() {
+        DiscordAccessToken token = DiscordGson.INSTANCE.fromJson(ACCESS_TOKEN_JSON, DiscordAccessToken.class);
+        DiscordAccessToken reflectiveToken = reflectiveGson.fromJson(ACCESS_TOKEN_JSON, DiscordAccessToken.class);
+
+        Assertions.assertEquals("6qrZcUqja7812RVdnEKjpzOL4CvHBFG", token.getAccessToken());
+        Assertions.assertEquals(reflectiveToken.getAccessToken(), token.getAccessToken());
+        Assertions.assertEquals(reflectiveToken.getTokenType(), token.getTokenType());
+        Assertions.assertEquals(reflectiveToken.getExpiresInSeconds(), token.getExpiresInSeconds());
+        Assertions.assertEquals(reflectiveToken.getRefreshToken(), token.getRefreshToken());
+        Assertions.assertEquals(reflectiveToken.getScope(), token.getScope());
+        Assertions.assertNull(token.getError());
+        Assertions.assertTrue(token.getFetchedAt() > 0);
+    }
+
+    @Test
+    public void testUser() {
+        DiscordUser user = DiscordGson.INSTANCE.fromJson(USER_JSON, DiscordUser.class);
+        DiscordUser reflectiveUser = reflectiveGson.fromJson(USER_JSON, DiscordUser.class);
+
+        Assertions.assertEquals("80351110224678912", user.getId());
+        Assertions.assertEquals(reflectiveUser.getId(), user.getId());
+        Assertions.assertEquals(reflectiveUser.getUsername(), user.getUsername());
+        Assertions.assertEquals(reflectiveUser.getDiscriminator(), user.getDiscriminator());
+        Assertions.assertEquals(reflectiveUser.getGlobalName(), user.getGlobalName());
+        Assertions.assertEquals(reflectiveUser.getAvatarHash(), user.getAvatarHash());
+        Assertions.assertEquals(reflectiveUser.getBot(), user.getBot());
+        Assertions.assertEquals(reflectiveUser.getSystem(), user.getSystem());
+        Assertions.assertEquals(reflectiveUser.getMfaEnabled(), user.getMfaEnabled());
+        Assertions.assertEquals(reflectiveUser.getAccentColor(), user.getAccentColor());
+        Assertions.assertEquals(reflectiveUser.getLocale(), user.getLocale());
+        Assertions.assertEquals(reflectiveUser.getVerified(), user.getVerified());
+        Assertions.assertEquals(reflectiveUser.getEmail(), user.getEmail());
+        Assertions.assertEquals(reflectiveUser.getFlags(), user.getFlags());
+        Assertions.assertEquals(reflectiveUser.getPremiumType(), user.getPremiumType());
+        Assertions.assertEquals(reflectiveUser.getPublicFlags(), user.getPublicFlags());
+        Assertions.assertEquals(reflectiveUser.getAvatarDecorationHash(), user.getAvatarDecorationHash());
+        Assertions.assertNull(user.getGlobalName());
+        Assertions.assertNull(user.getSystem());
+    }
+
+    @Test
+    public void testErrors() {
+        DiscordAccessToken token = DiscordGson.INSTANCE.fromJson(ERROR_JSON, DiscordAccessToken.class);
+        Assertions.assertEquals("invalid_grant", token.getError());
+        Assertions.assertEquals("Invalid \"code\" in request.", token.getErrorDescription());
+        Assertions.assertNull(token.getAccessToken());
+
+        DiscordApiResponse response = DiscordGson.INSTANCE.fromJson(ERROR_JSON, DiscordApiResponse.class);
+        Assertions.assertEquals("invalid_grant", response.getError());
+
+        Assertions.assertNull(DiscordGson.INSTANCE.fromJson("{}", DiscordApiResponse.class).getError());
+        Assertions.assertNull(DiscordGson.INSTANCE.fromJson("null", DiscordUser.class));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        DiscordUser user = DiscordGson.INSTANCE.fromJson(USER_JSON, DiscordUser.class);
+        DiscordUser copy = DiscordGson.INSTANCE.fromJson(DiscordGson.INSTANCE.toJson(user), DiscordUser.class);
+
+        Assertions.assertEquals(user.getId(), copy.getId());
+        Assertions.assertEquals(user.getEmail(), copy.getEmail());
+        Assertions.assertEquals(user.getAccentColor(), copy.getAccentColor());
+        Assertions.assertEquals(user.getMfaEnabled(), copy.getMfaEnabled());
+
+        DiscordAccessToken token = DiscordGson.INSTANCE.fromJson(ACCESS_TOKEN_JSON, DiscordAccessToken.class);
+        DiscordAccessToken tokenCopy = DiscordGson.INSTANCE.fromJson(DiscordGson.INSTANCE.toJson(token), DiscordAccessToken.class);
+
+        Assertions.assertEquals(token.getAccessToken(), tokenCopy.getAccessToken());
+        Assertions.assertEquals(token.getExpiresInSeconds(), tokenCopy.getExpiresInSeconds());
+        Assertions.assertFalse(DiscordGson.INSTANCE.toJson(token).contains("error"));
+    }
+}
@@ -0,0 +1,84 @@
+package dev.mayuna.discord.http;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class DiscordHttpClientConfigTest {
+
+    @Test
+    public void testDefaults() {
+        DiscordHttpClientConfig config = new DiscordHttpClientConfig.Builder().build();
+
+        Assertions.assertEquals(HttpClient.Version.HTTP_2, config.getHttpVersion());
+        Assertions.assertEquals(DiscordHttpClientConfig.DEFAULT_CONNECT_TIMEOUT, config.getConnectTimeout());
+        Assertions.assertEquals(DiscordHttpClientConfig.DEFAULT_REQUEST_TIMEOUT, config.getRequestTimeout());
+        Assertions.assertNull(config.getExecutor());
+        Assertions.assertFalse(config.isVirtualThreads());
+
+        HttpClient httpClient = config.createHttpClient();
+        Assertions.assertEquals(HttpClient.Version.HTTP_2, httpClient.version());
+        Assertions.assertEquals(DiscordHttpClientConfig.DEFAULT_CONNECT_TIMEOUT, httpClient.connectTimeout().orElseThrow());
+    }
+
+    @Test
+    public void testBuilder() {
+        Executor executor = Executors.newSingleThreadExecutor();
+
+        DiscordHttpClientConfig config = new DiscordHttpClientConfig.Builder()
+                .withHttpVersion(HttpClient.Version.HTTP_1_1)
+                .withConnectTimeout(Duration.ofSeconds(1))
+                .withRequestTimeout(Duration.ofSeconds(2))
+                .withExecutor(executor)
+                .withMaxRateLimitRetries(0)
+                .build();
+
+        Assertions.assertEquals(HttpClient.Version.HTTP_1_1, config.getHttpVersion());
+        Assertions.assertEquals(Duration.ofSeconds(1), config.getConnectTimeout());
+        Assertions.assertEquals(Duration.ofSeconds(2), config.getRequestTimeout());
+        Assertions.assertEquals(executor, config.getExecutor());
+        Assertions.assertEquals(0, config.getMaxRateLimitRetries());
+        Assertions.assertEquals(executor, config.createHttpClient().executor().orElseThrow());
+
+        DiscordHttpClient httpClient = new DiscordHttpClient(config);
+        Assertions.assertEquals(HttpClient.Version.HTTP_1_1, httpClient.getHttpClient().version());
+        Assertions.assertEquals(0, httpClient.getRateLimiter().getMaxRateLimitRetries());
+        Assertions.assertEquals(Duration.ofSeconds(2), httpClient.getRequestTimeout());
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        DiscordHttpClientConfig.Builder builder = new DiscordHttpClientConfig.Builder().withVirtualThreads(true);
+
+        if (!VirtualThreads.isSupported()) {
+            Assertions.assertThrows(IllegalStateException.class, builder::build);
+            Assertions.assertThrows(UnsupportedOperationException.class, VirtualThreads::newVirtualThreadPerTaskExecutor);
+            return;
+        }
+
+        DiscordHttpClientConfig config = builder.build();
+        Assertions.assertTrue(config.isVirtualThreads());
+        Assertions.assertNotNull(config.getExecutor());
+
+        Thread thread = ((ExecutorService) config.getExecutor()).submit(Thread::currentThread).get();
+        Assertions.assertTrue(thread.getName().startsWith("discord-http-"));
+    }
+
+    @Test
+    public void testInvalidValues() {
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordHttpClientConfig.Builder().withConnectTimeout(Duration.ZERO).build());
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordHttpClientConfig.Builder().withRequestTimeout(Duration.ofSeconds(-1)).build());
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordHttpClientConfig.Builder().withMaxRateLimitRetries(-1).build());
+
+        DiscordHttpClientConfig.Builder builder = new DiscordHttpClientConfig.Builder();
+        Assertions.assertThrows(NullPointerException.class, () -> builder.withHttpVersion(null));
+        Assertions.assertThrows(NullPointerException.class, () -> builder.withConnectTimeout(null));
+        Assertions.assertThrows(NullPointerException.class, () -> builder.withRequestTimeout(null));
+        Assertions.assertDoesNotThrow(() -> builder.withExecutor(null));
+    }
+}
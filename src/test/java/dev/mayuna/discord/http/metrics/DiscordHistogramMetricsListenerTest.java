@@ -0,0 +1,104 @@
+package dev.mayuna.discord.http.metrics;
+
+import dev.mayuna.discord.Utils;
+import dev.mayuna.discord.api.DiscordApi;
+import dev.mayuna.discord.api.entities.DiscordUser;
+import dev.mayuna.discord.api.server.DiscordApiMock;
+import dev.mayuna.discord.http.DiscordHttpClient;
+import dev.mayuna.discord.http.DiscordHttpClientConfig;
+import dev.mayuna.simpleapi.RequestMethod;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class DiscordHistogramMetricsListenerTest {
+
+    private final static String testAccessToken = "abcdefg";
+
+    private static DiscordApiMock discordApiMock;
+
+    @BeforeAll
+    public static void prepare() {
+        DiscordUser user = new DiscordUser();
+        Utils.setField(user, "id", "677516608778928129");
+
+        discordApiMock = new DiscordApiMock(testAccessToken, user);
+        discordApiMock.start();
+    }
+
+    @AfterAll
+    public static void stop() {
+        discordApiMock.stop();
+    }
+
+    @Test
+    public void testMetrics() {
+        List<DiscordRequestMetrics> allMetrics = new CopyOnWriteArrayList<>();
+        DiscordHistogramMetricsListener histogramListener = new DiscordHistogramMetricsListener();
+
+        DiscordApi discordApi = createDiscordApi(metrics -> {
+            allMetrics.add(metrics);
+            histogramListener.onRequestCompleted(metrics);
+        });
+
+        discordApi.fetchUser(testAccessToken).send();
+        discordApi.fetchUser("invalid_token").send();
+
+        Assertions.assertEquals(2, allMetrics.size());
+
+        DiscordRequestMetrics successful = allMetrics.get(0);
+        Assertions.assertEquals(RequestMethod.GET, successful.getRequestMethod());
+        Assertions.assertEquals("/users/@me", successful.getEndpoint());
+        Assertions.assertEquals(200, successful.getStatusCode());
+        Assertions.assertNull(successful.getError());
+        Assertions.assertTrue(successful.isSuccessful());
+        Assertions.assertTrue(successful.getResponseBytes() > 0);
+        Assertions.assertTrue(successful.getNetworkTimeNanos() > 0);
+        Assertions.assertTrue(successful.getQueueTimeNanos() >= 0);
+        Assertions.assertEquals(1, successful.getAttempts());
+
+        DiscordRequestMetrics failed = allMetrics.get(1);
+        Assertions.assertNotNull(failed.getError());
+        Assertions.assertFalse(failed.isSuccessful());
+
+        DiscordHistogramMetricsListener.EndpointMetrics endpointMetrics = histogramListener.getEndpointMetrics("GET /users/@me");
+        Assertions.assertNotNull(endpointMetrics);
+        Assertions.assertEquals(2, endpointMetrics.getRequestCount());
+        Assertions.assertEquals(1, endpointMetrics.getFailureCount());
+        Assertions.assertEquals(2, endpointMetrics.getNetworkTimeHistogram().getCount());
+        Assertions.assertTrue(endpointMetrics.getNetworkTimeHistogram().getValueAtPercentile(50) > 0);
+        Assertions.assertEquals(1, histogramListener.getAllEndpointMetrics().size());
+    }
+
+    @Test
+    public void testConnectionFailure() {
+        List<DiscordRequestMetrics> allMetrics = new CopyOnWriteArrayList<>();
+        DiscordHttpClient httpClient = new DiscordHttpClient(new DiscordHttpClientConfig.Builder().withMetricsListener(allMetrics::add).build());
+        DiscordApi discordApi = new DiscordApi("http://localhost:1", httpClient);
+
+        Assertions.assertThrows(Exception.class, () -> discordApi.fetchUser(testAccessToken).send());
+
+        Assertions.assertEquals(1, allMetrics.size());
+        Assertions.assertEquals(-1, allMetrics.get(0).getStatusCode());
+        Assertions.assertNotNull(allMetrics.get(0).getThrowable());
+        Assertions.assertFalse(allMetrics.get(0).isSuccessful());
+    }
+
+    @Test
+    public void testListenerExceptionsAreIgnored() {
+        DiscordApi discordApi = createDiscordApi(metrics -> {
+            throw new IllegalStateException();
+        });
+
+        Assertions.assertEquals("677516608778928129", discordApi.fetchUser(testAccessToken).send().getId());
+    }
+
+    private static DiscordApi createDiscordApi(DiscordRequestMetricsListener listener) {
+        DiscordHttpClient httpClient = new DiscordHttpClient(new DiscordHttpClientConfig.Builder().withMetricsListener(listener).build());
+        return new DiscordApi(discordApiMock.getUrl(), httpClient);
+    }
+}
@@ -0,0 +1,107 @@
+package dev.mayuna.discord.http.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testConstructors() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(17));
+    }
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getMax());
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(99));
+        Assertions.assertEquals(0.0, histogram.getMean(), 0.0);
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        Assertions.assertEquals(100, histogram.getCount());
+        Assertions.assertEquals(50, histogram.getValueAtPercentile(50));
+        Assertions.assertEquals(99, histogram.getValueAtPercentile(99));
+        Assertions.assertEquals(100, histogram.getValueAtPercentile(100));
+        Assertions.assertEquals(100, histogram.getMax());
+        Assertions.assertEquals(50.5, histogram.getMean(), 0.0001);
+    }
+
+    @Test
+    public void testRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram(7);
+        Random random = new Random(42);
+        List<Long> values = new ArrayList<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            long value = (long) Math.exp(random.nextDouble() * 30);
+            values.add(value);
+            histogram.record(value);
+        }
+
+        values.sort(Long::compare);
+
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long expected = values.get((int) Math.ceil(percentile / 100 * values.size()) - 1);
+            long actual = histogram.getValueAtPercentile(percentile);
+
+            Assertions.assertTrue(actual >= expected, "p" + percentile + " below exact value");
+            Assertions.assertTrue(actual <= expected + expected / 128 + 1, "p" + percentile + " error too large: " + expected + " vs " + actual);
+        }
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        LatencyHistogram histogram = new LatencyHistogram(3);
+
+        for (long value : new long[]{0, 7, 8, 15, 16, 1000, Long.MAX_VALUE}) {
+            int index = histogram.indexOf(value);
+            long highest = histogram.highestEquivalentValue(index);
+
+            Assertions.assertTrue(highest >= value);
+            Assertions.assertEquals(index, histogram.indexOf(highest));
+        }
+
+        histogram.record(Long.MAX_VALUE);
+        Assertions.assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[8];
+
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    histogram.record(j);
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(80_000, histogram.getCount());
+        Assertions.assertEquals(9_999, histogram.getMax());
+
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.getCount());
+    }
+}
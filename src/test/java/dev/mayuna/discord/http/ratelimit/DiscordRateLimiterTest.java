@@ -0,0 +1,257 @@
+package dev.mayuna.discord.http.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DiscordRateLimiterTest {
+
+    @Test
+    public void testConstructors() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DiscordRateLimiter(-1));
+        Assertions.assertEquals(DiscordRateLimiter.DEFAULT_MAX_RATE_LIMIT_RETRIES, new DiscordRateLimiter().getMaxRateLimitRetries());
+    }
+
+    @Test
+    public void testWaitsForBucketReset() {
+        DiscordRateLimiter rateLimiter = new DiscordRateLimiter();
+
+        long start = System.currentTimeMillis();
+        rateLimiter.submit("bucket", () -> respond(200, "X-RateLimit-Limit", "1", "X-RateLimit-Remaining", "0", "X-RateLimit-Reset-After", "0.2")).join();
+        HttpResponse<String> response = rateLimiter.submit("bucket", () -> respond(200)).join();
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertTrue(System.currentTimeMillis() - start >= 200);
+    }
+
+    @Test
+    public void testOtherBucketsAreNotHeld() {
+        DiscordRateLimiter rateLimiter = new DiscordRateLimiter();
+
+        rateLimiter.submit("bucket", () -> respond(200, "X-RateLimit-Limit", "1", "X-RateLimit-Remaining", "0", "X-RateLimit-Reset-After", "10")).join();
+        CompletableFuture<HttpResponse<String>> held = rateLimiter.submit("bucket", () -> respond(200));
+
+        Assertions.assertEquals(200, rateLimiter.submit("other-bucket", () -> respond(200)).join().statusCode());
+        Assertions.assertFalse(held.isDone());
+        Assertions.assertEquals(1, rateLimiter.getQueuedRequests());
+    }
+
+    @Test
+    public void testRetriesAfterTooManyRequests() {
+        DiscordRateLimiter rateLimiter = new DiscordRateLimiter();
+        AtomicInteger attempts = new AtomicInteger();
+
+        long start = System.currentTimeMillis();
+        HttpResponse<String> response = rateLimiter.submit("bucket", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                return respond(429, "Retry-After", "0.1");
+            }
+
+            return respond(200);
+        }).join();
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals(2, attempts.get());
+        Assertions.assertTrue(System.currentTimeMillis() - start >= 100);
+    }
+
+    @Test
+    public void testRetryAfterFromBody() {
+        DiscordRateLimiter rateLimiter = new DiscordRateLimiter();
+        AtomicInteger attempts = new AtomicInteger();
+
+        long start = System.currentTimeMillis();
+        rateLimiter.submit("bucket", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                return CompletableFuture.completedFuture(new FakeResponse(429, "{\"message\": \"You are being rate limited.\", \"retry_after\": 0.1}", Map.of()));
+            }
+
+            return respond(200);
+        }).join();
+
+        Assertions.assertTrue(System.currentTimeMillis() - start >= 100);
+    }
+
+    @Test
+    public void testGlobalRateLimitHoldsAllBuckets() {
+        DiscordRateLimiter rateLimiter = new DiscordRateLimiter(0);
+
+        long start = System.currentTimeMillis();
+        rateLimiter.submit("bucket", () -> respond(429, "Retry-After", "0.2", "X-RateLimit-Global", "true")).join();
+        Assertions.assertTrue(rateLimiter.getGlobalResetAt() > start);
+
+        rateLimiter.submit("other-bucket", () -> respond(200)).join();
+        Assertions.assertTrue(System.currentTimeMillis() - start >= 200);
+    }
+
+    @Test
+    public void testGivesUpAfterMaxRetries() {
+        DiscordRateLimiter rateLimiter = new DiscordRateLimiter(2);
+        AtomicInteger attempts = new AtomicInteger();
+
+        HttpResponse<String> response = rateLimiter.submit("bucket", () -> {
+            attempts.incrementAndGet();
+            return respond(429, "Retry-After", "0");
+        }).join();
+
+        Assertions.assertEquals(429, response.statusCode());
+        Assertions.assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testFailurePropagates() {
+        DiscordRateLimiter rateLimiter = new DiscordRateLimiter();
+
+        CompletableFuture<HttpResponse<String>> future = rateLimiter.submit("bucket", () -> CompletableFuture.failedFuture(new IllegalStateException()));
+
+        Assertions.assertTrue(future.isCompletedExceptionally());
+        Assertions.assertEquals(200, rateLimiter.submit("bucket", () -> respond(200)).join().statusCode());
+    }
+
+    @Test
+    public void testNewBucketSendsOneProbe() {
+        DiscordRateLimiter rateLimiter = new DiscordRateLimiter();
+        CompletableFuture<HttpResponse<String>> probeResponse = new CompletableFuture<>();
+        AtomicInteger sent = new AtomicInteger();
+
+        CompletableFuture<HttpResponse<String>> probe = rateLimiter.submit("bucket", () -> {
+            sent.incrementAndGet();
+            return probeResponse;
+        });
+
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            futures.add(rateLimiter.submit("bucket", () -> {
+                sent.incrementAndGet();
+                return respond(200);
+            }));
+        }
+
+        // Limit is not known until the probe's response arrives
+        Assertions.assertEquals(1, sent.get());
+        Assertions.assertEquals(10, rateLimiter.getQueuedRequests());
+
+        probeResponse.complete(new FakeResponse(200, "{}", Map.of("X-RateLimit-Limit", List.of("5"), "X-RateLimit-Remaining", List.of("4"),
+                                                                  "X-RateLimit-Reset-After", List.of("10"))));
+
+        Assertions.assertEquals(200, probe.join().statusCode());
+        Assertions.assertEquals(5, sent.get());
+        Assertions.assertEquals(6, rateLimiter.getQueuedRequests());
+        Assertions.assertEquals(4, futures.stream().filter(CompletableFuture::isDone).count());
+    }
+
+    @Test
+    public void testBucketWithoutHeadersIsNotHeld() {
+        DiscordRateLimiter rateLimiter = new DiscordRateLimiter();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+
+        rateLimiter.submit("bucket", () -> respond(200)).join();
+
+        for (int i = 0; i < 10; i++) {
+            CompletableFuture<HttpResponse<String>> response = new CompletableFuture<>();
+            responses.add(response);
+            rateLimiter.submit("bucket", () -> response);
+        }
+
+        // All are in flight at once
+        Assertions.assertEquals(0, rateLimiter.getQueuedRequests());
+        responses.forEach(response -> response.complete(new FakeResponse(200, "{}", Map.of())));
+    }
+
+    @Test
+    public void testManyQueuedRequests() {
+        DiscordRateLimiter rateLimiter = new DiscordRateLimiter();
+        AtomicInteger sent = new AtomicInteger();
+
+        rateLimiter.submit("bucket", () -> respond(200, "X-RateLimit-Limit", "5000", "X-RateLimit-Remaining", "0", "X-RateLimit-Reset-After", "0.1")).join();
+
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            futures.add(rateLimiter.submit("bucket", () -> {
+                sent.incrementAndGet();
+                return respond(200);
+            }));
+        }
+
+        Assertions.assertEquals(0, sent.get());
+        Assertions.assertEquals(5000, rateLimiter.getQueuedRequests());
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        Assertions.assertEquals(5000, sent.get());
+        Assertions.assertEquals(0, rateLimiter.getQueuedRequests());
+    }
+
+    private static CompletableFuture<HttpResponse<String>> respond(int statusCode, String... headers) {
+        Map<String, List<String>> headerMap = new HashMap<>();
+
+        for (int i = 0; i < headers.length; i += 2) {
+            headerMap.put(headers[i], List.of(headers[i + 1]));
+        }
+
+        return CompletableFuture.completedFuture(new FakeResponse(statusCode, "{}", headerMap));
+    }
+
+    private static class FakeResponse implements HttpResponse<String> {
+
+        private final int statusCode;
+        private final String body;
+        private final HttpHeaders headers;
+
+        private FakeResponse(int statusCode, String body, Map<String, List<String>> headers) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.headers = HttpHeaders.of(headers, (name, value) -> true);
+        }
+
+        @Override
+        public int statusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return null;
+        }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public String body() {
+            return body;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return URI.create("https://discord.com/api/v10");
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package dev.mayuna.discord.http.resilience;
+
+import dev.mayuna.discord.api.DiscordApi;
+import dev.mayuna.discord.http.DiscordHttpClient;
+import dev.mayuna.discord.http.DiscordHttpClientConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class DiscordCircuitBreakerTest {
+
+    @Test
+    public void testBuilder() {
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordCircuitBreakerConfig.Builder().withWindowSize(0).build());
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordCircuitBreakerConfig.Builder().withWindowSize(5).withMinimumRequests(6).build());
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordCircuitBreakerConfig.Builder().withFailureRateThreshold(0).build());
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordCircuitBreakerConfig.Builder().withOpenDuration(Duration.ZERO).build());
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordCircuitBreakerConfig.Builder().withHalfOpenProbes(0).build());
+    }
+
+    @Test
+    public void testOpensAtFailureRateThreshold() {
+        DiscordCircuitBreaker circuitBreaker = createCircuitBreaker(Duration.ofMinutes(1));
+
+        // Below minimum requests
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(circuitBreaker.tryAcquire());
+            circuitBreaker.onFailure();
+        }
+
+        Assertions.assertEquals(DiscordCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+
+        Assertions.assertEquals(DiscordCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assertions.assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void testWindowSlides() {
+        DiscordCircuitBreaker circuitBreaker = createCircuitBreaker(Duration.ofMinutes(1));
+
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onSuccess();
+        }
+
+        Assertions.assertEquals(0.0, circuitBreaker.getFailureRate());
+
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        Assertions.assertEquals(0.5, circuitBreaker.getFailureRate());
+        Assertions.assertEquals(DiscordCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        circuitBreaker.onFailure();
+
+        Assertions.assertEquals(DiscordCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenProbe() throws InterruptedException {
+        DiscordCircuitBreaker circuitBreaker = createCircuitBreaker(Duration.ofMillis(50));
+        open(circuitBreaker);
+
+        Thread.sleep(60);
+
+        // Single probe is let through
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+        Assertions.assertEquals(DiscordCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Assertions.assertFalse(circuitBreaker.tryAcquire());
+
+        circuitBreaker.onFailure();
+        Assertions.assertEquals(DiscordCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assertions.assertFalse(circuitBreaker.tryAcquire());
+
+        Thread.sleep(60);
+
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess();
+
+        Assertions.assertEquals(DiscordCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assertions.assertEquals(0.0, circuitBreaker.getFailureRate());
+        Assertions.assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    public void testRequestsFailFastWhenOpen() {
+        DiscordHttpClient httpClient = new DiscordHttpClient(new DiscordHttpClientConfig.Builder()
+                                                                     .withConnectTimeout(Duration.ofSeconds(1))
+                                                                     .withCircuitBreakerConfig(new DiscordCircuitBreakerConfig.Builder()
+                                                                                                       .withWindowSize(2)
+                                                                                                       .withMinimumRequests(2)
+                                                                                                       .build())
+                                                                     .build());
+        DiscordApi discordApi = new DiscordApi("http://localhost:1", httpClient);
+
+        for (int i = 0; i < 2; i++) {
+            Exception exception = Assertions.assertThrows(Exception.class, () -> discordApi.fetchUser("abcdefg").send());
+            Assertions.assertFalse(exception instanceof DiscordCircuitBreakerOpenException);
+        }
+
+        Assertions.assertThrows(DiscordCircuitBreakerOpenException.class, () -> discordApi.fetchUser("abcdefg").send());
+        Assertions.assertEquals(DiscordCircuitBreaker.State.OPEN, httpClient.getCircuitBreaker("GET /users/@me").getState());
+        Assertions.assertNull(httpClient.getCircuitBreaker("POST /oauth2/token"));
+    }
+
+    private static DiscordCircuitBreaker createCircuitBreaker(Duration openDuration) {
+        return new DiscordCircuitBreaker(new DiscordCircuitBreakerConfig.Builder()
+                                                 .withWindowSize(4)
+                                                 .withMinimumRequests(4)
+                                                 .withFailureRateThreshold(0.75)
+                                                 .withOpenDuration(openDuration)
+                                                 .build());
+    }
+
+    private static void open(DiscordCircuitBreaker circuitBreaker) {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.tryAcquire();
+            circuitBreaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package dev.mayuna.discord.http.resilience;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.mayuna.discord.api.DiscordApi;
+import dev.mayuna.discord.api.entities.DiscordUser;
+import dev.mayuna.discord.http.DiscordHttpClient;
+import dev.mayuna.discord.http.DiscordHttpClientConfig;
+import dev.mayuna.discord.oauth.DiscordApplication;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DiscordRetryPolicyTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int failingRequests;
+    private volatile int failingStatusCode = 503;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            boolean failing = requests.incrementAndGet() <= failingRequests;
+            byte[] body = (failing ? "{}" : "{\"id\": \"677516608778928129\", \"access_token\": \"abcdefg\"}").getBytes(StandardCharsets.UTF_8);
+
+            exchange.sendResponseHeaders(failing ? failingStatusCode : 200, body.length);
+
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testBuilder() {
+        DiscordRetryPolicy retryPolicy = new DiscordRetryPolicy.Builder().build();
+        Assertions.assertEquals(DiscordRetryPolicy.DEFAULT_MAX_RETRIES, retryPolicy.getMaxRetries());
+        Assertions.assertEquals(DiscordRetryPolicy.DEFAULT_INITIAL_BACKOFF, retryPolicy.getInitialBackoff());
+        Assertions.assertEquals(DiscordRetryPolicy.DEFAULT_MAX_BACKOFF, retryPolicy.getMaxBackoff());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordRetryPolicy.Builder().withMaxRetries(-1).build());
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordRetryPolicy.Builder().withInitialBackoff(Duration.ofSeconds(10)).withMaxBackoff(Duration.ofSeconds(1)).build());
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordRetryPolicy.Builder().withMultiplier(0.5).build());
+    }
+
+    @Test
+    public void testBackoffIsJitteredAndCapped() {
+        DiscordRetryPolicy retryPolicy = new DiscordRetryPolicy.Builder()
+                .withInitialBackoff(Duration.ofMillis(100))
+                .withMaxBackoff(Duration.ofMillis(1000))
+                .build();
+
+        boolean differs = false;
+        long previous = -1;
+
+        for (int i = 0; i < 100; i++) {
+            long first = retryPolicy.computeBackoffMillis(0);
+            long capped = retryPolicy.computeBackoffMillis(20);
+
+            Assertions.assertTrue(first >= 0 && first <= 100);
+            Assertions.assertTrue(capped >= 0 && capped <= 1000);
+
+            differs |= previous != -1 && previous != capped;
+            previous = capped;
+        }
+
+        Assertions.assertTrue(differs);
+    }
+
+    @Test
+    public void testTransientFailures() {
+        Assertions.assertTrue(DiscordRetryPolicy.isTransientFailure(500, null));
+        Assertions.assertTrue(DiscordRetryPolicy.isTransientFailure(502, null));
+        Assertions.assertTrue(DiscordRetryPolicy.isTransientFailure(503, null));
+        Assertions.assertTrue(DiscordRetryPolicy.isTransientFailure(504, null));
+        Assertions.assertTrue(DiscordRetryPolicy.isTransientFailure(-1, new HttpTimeoutException("timed out")));
+        Assertions.assertTrue(DiscordRetryPolicy.isTransientFailure(-1, new CompletionException(new IOException())));
+
+        Assertions.assertFalse(DiscordRetryPolicy.isTransientFailure(200, null));
+        Assertions.assertFalse(DiscordRetryPolicy.isTransientFailure(400, null));
+        Assertions.assertFalse(DiscordRetryPolicy.isTransientFailure(401, null));
+        Assertions.assertFalse(DiscordRetryPolicy.isTransientFailure(-1, new IllegalStateException()));
+    }
+
+    @Test
+    public void testUnsentFailures() {
+        Assertions.assertTrue(DiscordRetryPolicy.isUnsentFailure(502, null));
+        Assertions.assertTrue(DiscordRetryPolicy.isUnsentFailure(503, null));
+        Assertions.assertTrue(DiscordRetryPolicy.isUnsentFailure(-1, new ConnectException("refused")));
+        Assertions.assertTrue(DiscordRetryPolicy.isUnsentFailure(-1, new CompletionException(new HttpConnectTimeoutException("timed out"))));
+
+        // Request may have been processed
+        Assertions.assertFalse(DiscordRetryPolicy.isUnsentFailure(500, null));
+        Assertions.assertFalse(DiscordRetryPolicy.isUnsentFailure(504, null));
+        Assertions.assertFalse(DiscordRetryPolicy.isUnsentFailure(-1, new HttpTimeoutException("timed out")));
+        Assertions.assertFalse(DiscordRetryPolicy.isUnsentFailure(-1, new IOException("connection reset")));
+        Assertions.assertFalse(DiscordRetryPolicy.isUnsentFailure(200, null));
+    }
+
+    @Test
+    public void testRefreshIsRetriedOnlyIfUnsent() {
+        DiscordOAuth discordOAuth = createDiscordOAuth();
+
+        failingRequests = 1;
+        Assertions.assertEquals("abcdefg", discordOAuth.refreshAccessToken("refresh_token").send().getAccessToken());
+        Assertions.assertEquals(2, requests.get());
+
+        requests.set(0);
+        failingStatusCode = 500;
+        Assertions.assertEquals(500, discordOAuth.refreshAccessToken("refresh_token").send().getStatusCode());
+        Assertions.assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testRetryableRequestIsRetried() {
+        failingRequests = 2;
+
+        DiscordApi discordApi = new DiscordApi(getUrl(), createHttpClient());
+        DiscordUser user = discordApi.fetchUser("abcdefg").send();
+
+        Assertions.assertEquals("677516608778928129", user.getId());
+        Assertions.assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void testRetriesAreLimited() {
+        failingRequests = Integer.MAX_VALUE;
+
+        DiscordApi discordApi = new DiscordApi(getUrl(), createHttpClient());
+        discordApi.fetchUser("abcdefg").send();
+
+        Assertions.assertEquals(4, requests.get());
+    }
+
+    @Test
+    public void testCodeExchangeIsNotRetried() {
+        failingRequests = 1;
+
+        DiscordOAuth discordOAuth = createDiscordOAuth();
+
+        Assertions.assertNull(discordOAuth.fetchAccessToken("NhhvTDYsFcdgNLnnLijcl7Ku7bEEeee").send().getAccessToken());
+        Assertions.assertEquals(1, requests.get());
+
+        Assertions.assertEquals("abcdefg", discordOAuth.refreshAccessToken("refresh_token").send().getAccessToken());
+    }
+
+    private DiscordOAuth createDiscordOAuth() {
+        return new DiscordOAuth(new DiscordApplication.Builder()
+                                        .withApiUrl(getUrl())
+                                        .withClientId("1234567890123456789")
+                                        .withClientSecret("O5X1hCXYc9ZHQ9xQkfv8jnYJ0qgyPJ3H")
+                                        .withRedirectUrl("https://example.com/discord/callback")
+                                        .withScopes("identify")
+                                        .withHttpClient(createHttpClient())
+                                        .build());
+    }
+
+    private DiscordHttpClient createHttpClient() {
+        return new DiscordHttpClient(new DiscordHttpClientConfig.Builder()
+                                             .withRetryPolicy(new DiscordRetryPolicy.Builder()
+                                                                      .withInitialBackoff(Duration.ofMillis(10))
+                                                                      .withMaxBackoff(Duration.ofMillis(50))
+                                                                      .build())
+                                             .build());
+    }
+
+    private String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+}
@@ -2,6 +2,8 @@ package dev.mayuna.discord.oauth;
 
 import dev.mayuna.discord.Utils;
 import dev.mayuna.discord.api.DiscordApi;
+import dev.mayuna.discord.http.DiscordHttpClient;
+import dev.mayuna.discord.http.DiscordHttpClientConfig;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -70,6 +72,26 @@ public class DiscordApplicationTest {
         Assertions.assertEquals(factory, builder.getAuthorizationUrlFactory());
     }
 
+    @Test
+    public void testHttpClient() {
+        DiscordApplication.Builder builder = new DiscordApplication.Builder().withClientId(clientId).withClientSecret(clientSecret).withRedirectUrl(redirectUrl);
+
+        DiscordApplication application = builder.build();
+        Assertions.assertNotNull(application.getHttpClient());
+        Assertions.assertSame(application.getHttpClient(), new DiscordOAuth(application).getHttpClient());
+
+        DiscordHttpClientConfig config = new DiscordHttpClientConfig.Builder().withMaxRateLimitRetries(1).build();
+        builder.withHttpClientConfig(config);
+        Assertions.assertEquals(1, builder.build().getHttpClient().getRateLimiter().getMaxRateLimitRetries());
+
+        DiscordHttpClient httpClient = new DiscordHttpClient();
+        builder.withHttpClient(httpClient);
+        Assertions.assertSame(httpClient, builder.build().getHttpClient());
+
+        Assertions.assertThrows(NullPointerException.class, () -> builder.withHttpClient(null));
+        Assertions.assertThrows(NullPointerException.class, () -> builder.withHttpClientConfig(null));
+    }
+
     @Test
     public void testFullConstructor() {
         DiscordOAuthAuthorizationUrlFactory factory = new DiscordOAuthAuthorizationUrlFactory();
@@ -0,0 +1,172 @@
+package dev.mayuna.discord.oauth;
+
+import dev.mayuna.discord.Utils;
+import dev.mayuna.discord.api.DiscordApiException;
+import dev.mayuna.discord.http.DiscordHttpClientConfig;
+import dev.mayuna.discord.http.resilience.DiscordRetryPolicy;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import dev.mayuna.discord.oauth.server.DiscordOAuthServerMock;
+import dev.mayuna.discord.testing.DiscordStandInFaults;
+import dev.mayuna.discord.testing.DiscordStandInServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+public class DiscordCredentialTest {
+
+    private static final String clientId = new Random().nextLong() + "";
+    private static final String clientSecret = UUID.randomUUID().toString().replace("-", "");
+    private static final String redirectUrl = "https://localhost:8080";
+    private static final String code = UUID.randomUUID().toString().replace("-", "");
+
+    private static DiscordOAuthServerMock serverMock;
+    private static DiscordOAuth discordOAuth;
+
+    @BeforeAll
+    public static void prepare() {
+        serverMock = new DiscordOAuthServerMock(clientId, clientSecret, code, redirectUrl, "identify");
+        serverMock.start();
+
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withApiUrl(serverMock.getUrl())
+                .withClientId(clientId)
+                .withClientSecret(clientSecret)
+                .withRedirectUrl(redirectUrl)
+                .withScopes("identify")
+                .build();
+
+        discordOAuth = new DiscordOAuth(application);
+    }
+
+    @AfterAll
+    public static void stop() {
+        serverMock.stop();
+    }
+
+    @Test
+    public void testNullsInConstructor() {
+        Assertions.assertThrows(NullPointerException.class, () -> new DiscordCredential(null, new DiscordAccessToken()));
+        Assertions.assertThrows(NullPointerException.class, () -> new DiscordCredential(discordOAuth, null));
+    }
+
+    @Test
+    public void testValidTokenIsNotRefreshed() {
+        DiscordAccessToken token = discordOAuth.fetchAccessToken(code).sendAsync().join();
+        DiscordCredential credential = new DiscordCredential(discordOAuth, token);
+
+        Assertions.assertSame(token, credential.getValidToken().join());
+        Assertions.assertEquals(token.getAccessToken(), credential.getAccessToken().join());
+    }
+
+    @Test
+    public void testConcurrentRefreshesAreCoalesced() throws InterruptedException {
+        DiscordAccessToken token = discordOAuth.fetchAccessToken(code).sendAsync().join();
+        Utils.setField(token, "expiresInSeconds", 0L);
+
+        DiscordCredential credential = new DiscordCredential(discordOAuth, token);
+        List<CompletableFuture<DiscordAccessToken>> futures = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int i = 0; i < 16; i++) {
+            CompletableFuture<DiscordAccessToken> future = new CompletableFuture<>();
+            futures.add(future);
+
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    credential.getValidToken().whenComplete((result, throwable) -> {
+                        if (throwable != null) {
+                            future.completeExceptionally(throwable);
+                        } else {
+                            future.complete(result);
+                        }
+                    });
+                } catch (InterruptedException exception) {
+                    future.completeExceptionally(exception);
+                }
+            });
+
+            threads.add(thread);
+            thread.start();
+        }
+
+        start.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        DiscordAccessToken refreshedToken = futures.get(0).join();
+
+        // Mock rejects already used refresh tokens, so a second refresh would end with an error
+        for (CompletableFuture<DiscordAccessToken> future : futures) {
+            DiscordAccessToken result = future.join();
+
+            Assertions.assertNull(result.getError());
+            Assertions.assertSame(refreshedToken, result);
+        }
+
+        Assertions.assertNotSame(token, refreshedToken);
+        Assertions.assertSame(refreshedToken, credential.getToken());
+    }
+
+    @Test
+    public void testFailedRefreshKeepsToken() {
+        DiscordAccessToken token = discordOAuth.fetchAccessToken(code).sendAsync().join();
+
+        // Makes the token's refresh token invalid
+        discordOAuth.refreshAccessToken(token.getRefreshToken()).sendAsync().join();
+
+        DiscordCredential credential = new DiscordCredential(discordOAuth, token);
+        CompletionException exception = Assertions.assertThrows(CompletionException.class, () -> credential.refresh().join());
+        DiscordApiException cause = Assertions.assertInstanceOf(DiscordApiException.class, exception.getCause());
+
+        Assertions.assertNotNull(cause.getErrorResponse().getError());
+        Assertions.assertSame(token, credential.getToken());
+    }
+
+    @Test
+    public void testServerErrorKeepsToken() throws IOException {
+        DiscordStandInServer standInServer = new DiscordStandInServer.Builder()
+                .withClientId(clientId)
+                .withClientSecret(clientSecret)
+                .withRedirectUrl(redirectUrl)
+                .withFaults(new DiscordStandInFaults.Builder().withServerErrors(1).build())
+                .build();
+        standInServer.start();
+
+        try {
+            DiscordApplication application = new DiscordApplication.Builder()
+                    .withApiUrl(standInServer.getUrl())
+                    .withClientId(clientId)
+                    .withClientSecret(clientSecret)
+                    .withRedirectUrl(redirectUrl)
+                    .withHttpClientConfig(new DiscordHttpClientConfig.Builder().withRetryPolicy(new DiscordRetryPolicy.Builder().withMaxRetries(0).build()).build())
+                    .build();
+
+            DiscordAccessToken token = discordOAuth.fetchAccessToken(code).sendAsync().join();
+            DiscordCredential credential = new DiscordCredential(new DiscordOAuth(application), token);
+
+            // 5xx body has no error field, so it must not be mistaken for new tokens
+            CompletionException exception = Assertions.assertThrows(CompletionException.class, () -> credential.refresh().join());
+            DiscordApiException cause = Assertions.assertInstanceOf(DiscordApiException.class, exception.getCause());
+
+            Assertions.assertEquals(5, cause.getErrorResponse().getStatusCode() / 100);
+            Assertions.assertSame(token, credential.getToken());
+            Assertions.assertThrows(CompletionException.class, () -> credential.getAccessToken().join());
+        } finally {
+            standInServer.stop();
+        }
+    }
+}
@@ -11,6 +11,7 @@ public class DiscordOAuthAuthorizationUrlFactoryTest {
     private static final String clientId = new Random().nextLong() + "";
     private static final String clientSecret = UUID.randomUUID().toString().replace("-", "");
     private static final String redirectUrl = "https://localhost:8080";
+    private static final String encodedRedirectUrl = "https%3A%2F%2Flocalhost%3A8080";
 
     @Test
     public void getBaseAuthorizeUrlTest() {
@@ -41,23 +42,27 @@ public class DiscordOAuthAuthorizationUrlFactoryTest {
         DiscordOAuthAuthorizationUrlFactory factory = new DiscordOAuthAuthorizationUrlFactory();
 
         String url = factory.createAuthorizationUrl(application, state, "consent");
-        String simulatedUrl = "https://discord.com/oauth2/authorize?client_id=" + clientId + "&redirect_uri=" + redirectUrl + "&response_type=code&scope=identify%20guilds&state=" + state + "&prompt=consent";
+        String simulatedUrl = "https://discord.com/oauth2/authorize?client_id=" + clientId + "&redirect_uri=" + encodedRedirectUrl + "&response_type=code&scope=identify%20guilds&state=" + state + "&prompt=consent";
         Assertions.assertEquals(simulatedUrl, url);
 
         url = factory.createAuthorizationUrl(application);
-        simulatedUrl = "https://discord.com/oauth2/authorize?client_id=" + clientId + "&redirect_uri=" + redirectUrl + "&response_type=code&scope=identify%20guilds";
+        simulatedUrl = "https://discord.com/oauth2/authorize?client_id=" + clientId + "&redirect_uri=" + encodedRedirectUrl + "&response_type=code&scope=identify%20guilds";
         Assertions.assertEquals(simulatedUrl, url);
 
         url = factory.createAuthorizationUrl(application, null, "consent");
-        simulatedUrl = "https://discord.com/oauth2/authorize?client_id=" + clientId + "&redirect_uri=" + redirectUrl + "&response_type=code&scope=identify%20guilds&prompt=consent";
+        simulatedUrl = "https://discord.com/oauth2/authorize?client_id=" + clientId + "&redirect_uri=" + encodedRedirectUrl + "&response_type=code&scope=identify%20guilds&prompt=consent";
         Assertions.assertEquals(simulatedUrl, url);
 
         url = factory.createAuthorizationUrl(application, state);
-        simulatedUrl = "https://discord.com/oauth2/authorize?client_id=" + clientId + "&redirect_uri=" + redirectUrl + "&response_type=code&scope=identify%20guilds&state=" + state;
+        simulatedUrl = "https://discord.com/oauth2/authorize?client_id=" + clientId + "&redirect_uri=" + encodedRedirectUrl + "&response_type=code&scope=identify%20guilds&state=" + state;
         Assertions.assertEquals(simulatedUrl, url);
 
         url = factory.createAuthorizationUrl(applicationWithoutScopes, state);
-        simulatedUrl = "https://discord.com/oauth2/authorize?client_id=" + clientId + "&redirect_uri=" + redirectUrl + "&response_type=code&state=" + state;
+        simulatedUrl = "https://discord.com/oauth2/authorize?client_id=" + clientId + "&redirect_uri=" + encodedRedirectUrl + "&response_type=code&state=" + state;
+        Assertions.assertEquals(simulatedUrl, url);
+
+        url = new DiscordOAuthAuthorizationUrlFactory().createAuthorizationUrl(application, "a b&c", "none");
+        simulatedUrl = "https://discord.com/oauth2/authorize?client_id=" + clientId + "&redirect_uri=" + encodedRedirectUrl + "&response_type=code&scope=identify%20guilds&state=a%20b%26c&prompt=none";
         Assertions.assertEquals(simulatedUrl, url);
 
         Assertions.assertThrows(NullPointerException.class, () -> factory.createAuthorizationUrl(null));
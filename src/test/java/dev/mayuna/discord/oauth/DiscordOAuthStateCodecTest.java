@@ -0,0 +1,128 @@
+package dev.mayuna.discord.oauth;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+
+public class DiscordOAuthStateCodecTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] OTHER_SECRET = "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.US_ASCII);
+    private static final String BINDING = DiscordOAuthStateCodec.createBinding();
+
+    @Test
+    public void testIssueAndVerify() {
+        DiscordOAuthStateCodec codec = new DiscordOAuthStateCodec.Builder().withSecret(SECRET).build();
+
+        String state = codec.issue(BINDING, "/dashboard?tab=1");
+        DiscordOAuthStateCodec.VerifiedState verifiedState = codec.verify(state, BINDING);
+
+        Assertions.assertNotNull(verifiedState);
+        Assertions.assertEquals("/dashboard?tab=1", verifiedState.getPayload());
+        Assertions.assertTrue(Math.abs(System.currentTimeMillis() - verifiedState.getIssuedAt()) < 2000);
+
+        String emptyState = codec.issue(BINDING);
+        Assertions.assertTrue(codec.isValid(emptyState, BINDING));
+        Assertions.assertNull(codec.verify(emptyState, BINDING).getPayload());
+        // Compact and safe in URLs without encoding
+        Assertions.assertEquals(39, emptyState.length());
+        Assertions.assertTrue(emptyState.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    public void testStatesAreUnique() {
+        DiscordOAuthStateCodec codec = new DiscordOAuthStateCodec.Builder().withSecret(SECRET).build();
+        Set<String> states = new HashSet<>();
+
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertTrue(states.add(codec.issue(BINDING)));
+        }
+    }
+
+    @Test
+    public void testBinding() {
+        DiscordOAuthStateCodec codec = new DiscordOAuthStateCodec.Builder().withSecret(SECRET).build();
+        String otherBinding = DiscordOAuthStateCodec.createBinding();
+
+        // Attacker's state must not be accepted in victim's browser
+        String state = codec.issue(BINDING, "payload");
+
+        Assertions.assertNotEquals(BINDING, otherBinding);
+        Assertions.assertTrue(otherBinding.matches("[A-Za-z0-9_-]+"));
+        Assertions.assertTrue(codec.isValid(state, BINDING));
+        Assertions.assertFalse(codec.isValid(state, otherBinding));
+        Assertions.assertFalse(codec.isValid(state, null));
+        Assertions.assertFalse(codec.isValid(state, ""));
+
+        // Binding and payload cannot be shifted into each other
+        Assertions.assertFalse(codec.isValid(codec.issue("ab", "c"), "abc"));
+    }
+
+    @Test
+    public void testSharedSecret() {
+        DiscordOAuthStateCodec first = new DiscordOAuthStateCodec.Builder().withSecret(SECRET).build();
+        DiscordOAuthStateCodec second = new DiscordOAuthStateCodec.Builder().withSecret(SECRET).build();
+        DiscordOAuthStateCodec other = new DiscordOAuthStateCodec.Builder().withSecret(OTHER_SECRET).build();
+
+        String state = first.issue(BINDING, "payload");
+
+        Assertions.assertTrue(second.isValid(state, BINDING));
+        Assertions.assertFalse(other.isValid(state, BINDING));
+    }
+
+    @Test
+    public void testPreviousSecrets() {
+        DiscordOAuthStateCodec previous = new DiscordOAuthStateCodec.Builder().withSecret(SECRET).build();
+        DiscordOAuthStateCodec rotated = new DiscordOAuthStateCodec.Builder().withSecret(OTHER_SECRET).withPreviousSecrets(SECRET).build();
+
+        Assertions.assertTrue(rotated.isValid(previous.issue(BINDING), BINDING));
+        Assertions.assertTrue(rotated.isValid(rotated.issue(BINDING), BINDING));
+        Assertions.assertFalse(previous.isValid(rotated.issue(BINDING), BINDING));
+    }
+
+    @Test
+    public void testTampered() {
+        DiscordOAuthStateCodec codec = new DiscordOAuthStateCodec.Builder().withSecret(SECRET).build();
+        byte[] bytes = Base64.getUrlDecoder().decode(codec.issue(BINDING, "/home"));
+
+        for (int i = 0; i < bytes.length; i++) {
+            byte[] tampered = bytes.clone();
+            tampered[i] ^= 1;
+
+            Assertions.assertFalse(codec.isValid(Base64.getUrlEncoder().withoutPadding().encodeToString(tampered), BINDING));
+        }
+
+        Assertions.assertFalse(codec.isValid(null, BINDING));
+        Assertions.assertFalse(codec.isValid("", BINDING));
+        Assertions.assertFalse(codec.isValid("not a state", BINDING));
+        Assertions.assertFalse(codec.isValid("AAAA", BINDING));
+    }
+
+    @Test
+    public void testExpired() throws InterruptedException {
+        DiscordOAuthStateCodec codec = new DiscordOAuthStateCodec.Builder().withSecret(SECRET).withMaxAge(Duration.ofSeconds(1)).build();
+        String state = codec.issue(BINDING);
+
+        Assertions.assertTrue(codec.isValid(state, BINDING));
+        Thread.sleep(2100);
+        Assertions.assertFalse(codec.isValid(state, BINDING));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordOAuthStateCodec.Builder().build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DiscordOAuthStateCodec.Builder().withSecret(new byte[16]).build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DiscordOAuthStateCodec.Builder().withSecret(SECRET).withPreviousSecrets(new byte[8]).build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DiscordOAuthStateCodec.Builder().withSecret(SECRET).withMaxAge(Duration.ZERO).build());
+
+        DiscordOAuthStateCodec codec = new DiscordOAuthStateCodec.Builder().withSecret(SECRET).withMaxPayloadLength(4).build();
+        Assertions.assertTrue(codec.isValid(codec.issue(BINDING, "abcd"), BINDING));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.issue(BINDING, "abcde"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> codec.issue(""));
+    }
+}
@@ -0,0 +1,323 @@
+package dev.mayuna.discord.oauth.callback;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.mayuna.discord.oauth.DiscordApplication;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.oauth.DiscordOAuthStateCodec;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DiscordOAuthCallbackServerTest {
+
+    private static final String TOKEN_RESPONSE = "{\"access_token\":\"access\",\"token_type\":\"Bearer\",\"expires_in\":604800,\"refresh_token\":\"refresh\",\"scope\":\"identify\"}";
+    private static final String ERROR_RESPONSE = "{\"error\":\"invalid_grant\",\"error_description\":\"Invalid code\"}";
+    private static final String SERVER_ERROR_RESPONSE = "{\"message\":\"503: Service Unavailable\",\"code\":0}";
+
+    private final HttpClient httpClient = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+    private final RecordingListener listener = new RecordingListener();
+
+    private HttpServer tokenEndpoint;
+    private volatile CountDownLatch tokenEndpointLatch;
+    private DiscordOAuth discordOAuth;
+    private DiscordOAuthCallbackServer callbackServer;
+
+    @BeforeEach
+    public void start() throws IOException {
+        tokenEndpoint = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        tokenEndpoint.setExecutor(Executors.newCachedThreadPool());
+        tokenEndpoint.createContext("/oauth2/token", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            CountDownLatch latch = tokenEndpointLatch;
+
+            if (latch != null) {
+                try {
+                    latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+            }
+
+            boolean valid = body.contains("code=valid");
+            boolean unavailable = body.contains("code=unavailable");
+            byte[] response = (valid ? TOKEN_RESPONSE : unavailable ? SERVER_ERROR_RESPONSE : ERROR_RESPONSE).getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(valid ? 200 : unavailable ? 503 : 400, response.length);
+
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        });
+        tokenEndpoint.start();
+
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withApiUrl("http://localhost:" + tokenEndpoint.getAddress().getPort())
+                .withClientId("1")
+                .withClientSecret("secret")
+                .withRedirectUrl("http://localhost:8080/discord/callback")
+                .build();
+
+        discordOAuth = new DiscordOAuth(application);
+    }
+
+    @AfterEach
+    public void stop() {
+        if (callbackServer != null) {
+            callbackServer.close();
+        }
+
+        tokenEndpoint.stop(0);
+    }
+
+    @Test
+    public void testBuilderDefaults() {
+        DiscordOAuthCallbackServer server = new DiscordOAuthCallbackServer.Builder()
+                .withDiscordOAuth(discordOAuth)
+                .withListener(listener)
+                .build();
+
+        Assertions.assertEquals("/discord/callback", server.getPath());
+        Assertions.assertEquals(8080, server.getAddress().getPort());
+        Assertions.assertEquals(DiscordOAuthCallbackServer.DEFAULT_MAX_PENDING_EXCHANGES, server.getMaxPendingExchanges());
+        Assertions.assertThrows(IllegalStateException.class, server::getPort);
+        server.close();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordOAuthCallbackServer.Builder().withListener(listener).build());
+    }
+
+    @Test
+    public void testAuthorized() throws Exception {
+        startCallbackServer(new DiscordOAuthCallbackServer.Builder());
+
+        HttpResponse<String> response = redirect("code=valid&state=some%20state");
+
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals("some state", listener.state.get());
+        Assertions.assertEquals("access", listener.tokens.get("some state").getAccessToken());
+    }
+
+    @Test
+    public void testSuccessAndFailureRedirects() throws Exception {
+        startCallbackServer(new DiscordOAuthCallbackServer.Builder()
+                                    .withSuccessRedirectUrl("https://example.com/welcome")
+                                    .withFailureRedirectUrl("https://example.com/error"));
+
+        HttpResponse<String> success = redirect("code=valid&state=1");
+        HttpResponse<String> failure = redirect("code=invalid&state=2");
+
+        Assertions.assertEquals(302, success.statusCode());
+        Assertions.assertEquals("https://example.com/welcome", success.headers().firstValue("Location").orElse(null));
+        Assertions.assertEquals(302, failure.statusCode());
+        Assertions.assertEquals("https://example.com/error", failure.headers().firstValue("Location").orElse(null));
+    }
+
+    @Test
+    public void testDiscordError() throws Exception {
+        startCallbackServer(new DiscordOAuthCallbackServer.Builder());
+
+        HttpResponse<String> response = redirect("code=invalid&state=1");
+
+        Assertions.assertEquals(400, response.statusCode());
+        Assertions.assertEquals("1", listener.state.get());
+        Assertions.assertNotNull(listener.errorResponse.get());
+        Assertions.assertEquals("invalid_grant", listener.errorResponse.get().getError());
+    }
+
+    @Test
+    public void testDiscordServerError() throws Exception {
+        startCallbackServer(new DiscordOAuthCallbackServer.Builder());
+
+        HttpResponse<String> response = redirect("code=unavailable&state=1");
+
+        Assertions.assertEquals(400, response.statusCode());
+        Assertions.assertTrue(listener.tokens.isEmpty());
+        Assertions.assertNotNull(listener.errorResponse.get());
+        Assertions.assertEquals(503, listener.errorResponse.get().getStatusCode());
+    }
+
+    @Test
+    public void testAccessDenied() throws Exception {
+        startCallbackServer(new DiscordOAuthCallbackServer.Builder());
+
+        HttpResponse<String> response = redirect("error=access_denied&error_description=The+resource+owner+denied+the+request&state=1");
+
+        Assertions.assertEquals(400, response.statusCode());
+        Assertions.assertEquals("access_denied", listener.error.get());
+        Assertions.assertTrue(listener.tokens.isEmpty());
+    }
+
+    @Test
+    public void testInvalidState() throws Exception {
+        startCallbackServer(new DiscordOAuthCallbackServer.Builder().withStateValidator((state, exchange) -> "expected".equals(state)));
+
+        Assertions.assertEquals(400, redirect("code=valid&state=forged").statusCode());
+        Assertions.assertEquals(DiscordOAuthCallbackServer.INVALID_STATE_ERROR, listener.error.get());
+        Assertions.assertEquals(400, redirect("code=valid").statusCode());
+        Assertions.assertTrue(listener.tokens.isEmpty());
+
+        Assertions.assertEquals(200, redirect("code=valid&state=expected").statusCode());
+        Assertions.assertEquals(1, listener.tokens.size());
+    }
+
+    @Test
+    public void testStateBoundToCookie() throws Exception {
+        DiscordOAuthStateCodec stateCodec = new DiscordOAuthStateCodec.Builder().withSecret(new byte[DiscordOAuthStateCodec.MINIMUM_SECRET_LENGTH]).build();
+        startCallbackServer(new DiscordOAuthCallbackServer.Builder().withStateValidator(stateCodec.createStateValidator("discord_state")));
+
+        String binding = DiscordOAuthStateCodec.createBinding();
+        String state = stateCodec.issue(binding);
+
+        // State issued for another browser, e.g., by an attacker, or redirect without the cookie
+        Assertions.assertEquals(400, redirect("code=valid&state=" + state, "discord_state=" + DiscordOAuthStateCodec.createBinding()).statusCode());
+        Assertions.assertEquals(400, redirect("code=valid&state=" + state, null).statusCode());
+        Assertions.assertEquals(DiscordOAuthCallbackServer.INVALID_STATE_ERROR, listener.error.get());
+        Assertions.assertTrue(listener.tokens.isEmpty());
+
+        Assertions.assertEquals(200, redirect("code=valid&state=" + state, "theme=dark; discord_state=" + binding).statusCode());
+        Assertions.assertEquals(1, listener.tokens.size());
+    }
+
+    @Test
+    public void testMissingCode() throws Exception {
+        startCallbackServer(new DiscordOAuthCallbackServer.Builder());
+
+        Assertions.assertEquals(400, redirect("state=1").statusCode());
+        Assertions.assertEquals(400, redirect("").statusCode());
+        Assertions.assertNull(listener.state.get());
+    }
+
+    @Test
+    public void testOtherPathsAreRejected() throws Exception {
+        startCallbackServer(new DiscordOAuthCallbackServer.Builder());
+
+        for (String path : new String[]{"/discord/callbackfoo", "/discord/callback/x"}) {
+            URI uri = URI.create("http://localhost:" + callbackServer.getPort() + path + "?code=valid&state=1");
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+
+            Assertions.assertEquals(404, response.statusCode());
+        }
+
+        Assertions.assertNull(listener.state.get());
+        Assertions.assertTrue(listener.tokens.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentRedirects() throws Exception {
+        startCallbackServer(new DiscordOAuthCallbackServer.Builder());
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            responses.add(httpClient.sendAsync(createRedirect("code=valid&state=" + i), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            Assertions.assertEquals(200, response.get(30, TimeUnit.SECONDS).statusCode());
+        }
+
+        Assertions.assertEquals(500, listener.tokens.size());
+        Assertions.assertEquals(0, callbackServer.getPendingExchanges());
+    }
+
+    @Test
+    public void testMaxPendingExchanges() throws Exception {
+        tokenEndpointLatch = new CountDownLatch(1);
+        startCallbackServer(new DiscordOAuthCallbackServer.Builder().withMaxPendingExchanges(1));
+
+        CompletableFuture<HttpResponse<String>> pending = httpClient.sendAsync(createRedirect("code=valid&state=1"), HttpResponse.BodyHandlers.ofString());
+
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (callbackServer.getPendingExchanges() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        HttpResponse<String> rejected = redirect("code=valid&state=2");
+
+        Assertions.assertEquals(503, rejected.statusCode());
+        Assertions.assertTrue(rejected.headers().firstValue("Retry-After").isPresent());
+
+        tokenEndpointLatch.countDown();
+        Assertions.assertEquals(200, pending.get(10, TimeUnit.SECONDS).statusCode());
+    }
+
+    @Test
+    public void testGetQueryParameter() {
+        Assertions.assertEquals("abc", DiscordOAuthCallbackServer.getQueryParameter("code=abc&state=def", "code"));
+        Assertions.assertEquals("def", DiscordOAuthCallbackServer.getQueryParameter("code=abc&state=def", "state"));
+        Assertions.assertEquals("a b/c", DiscordOAuthCallbackServer.getQueryParameter("state=a+b%2Fc", "state"));
+        Assertions.assertEquals("", DiscordOAuthCallbackServer.getQueryParameter("code=&state=1", "code"));
+        Assertions.assertEquals("", DiscordOAuthCallbackServer.getQueryParameter("code", "code"));
+        Assertions.assertNull(DiscordOAuthCallbackServer.getQueryParameter("codes=abc", "code"));
+        Assertions.assertNull(DiscordOAuthCallbackServer.getQueryParameter("state=%zz", "state"));
+        Assertions.assertNull(DiscordOAuthCallbackServer.getQueryParameter(null, "code"));
+    }
+
+    private void startCallbackServer(DiscordOAuthCallbackServer.Builder builder) throws IOException {
+        callbackServer = builder.withDiscordOAuth(discordOAuth)
+                                .withListener(listener)
+                                .withAddress(new InetSocketAddress("localhost", 0))
+                                .build();
+        callbackServer.start();
+    }
+
+    private HttpResponse<String> redirect(String query) throws IOException, InterruptedException {
+        return httpClient.send(createRedirect(query), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> redirect(String query, String cookie) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(createRedirect(query).uri()).GET();
+
+        if (cookie != null) {
+            request.header("Cookie", cookie);
+        }
+
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest createRedirect(String query) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + callbackServer.getPort() + "/discord/callback?" + query)).GET().build();
+    }
+
+    private static class RecordingListener implements DiscordOAuthCallbackListener {
+
+        private final Map<String, DiscordAccessToken> tokens = new ConcurrentHashMap<>();
+        private final AtomicReference<String> state = new AtomicReference<>();
+        private final AtomicReference<String> error = new AtomicReference<>();
+        private final AtomicReference<DiscordAccessToken> errorResponse = new AtomicReference<>();
+
+        @Override
+        public void onAuthorized(@Nullable String state, @NotNull DiscordAccessToken token) {
+            this.state.set(state);
+            tokens.put(state, token);
+        }
+
+        @Override
+        public void onAuthorizationFailed(@Nullable String state, @Nullable String error, @Nullable DiscordAccessToken errorResponse, @Nullable Throwable throwable) {
+            this.state.set(state);
+            this.error.set(error);
+            this.errorResponse.set(errorResponse);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package dev.mayuna.discord.oauth.entities;
+
+import com.google.gson.Gson;
+import dev.mayuna.discord.http.DiscordGson;
+import dev.mayuna.discord.oauth.DiscordApplication;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+public class DiscordScopeSetTest {
+
+    @Test
+    public void testParse() {
+        DiscordScopeSet scopes = DiscordScopeSet.parse("identify guilds.join  some.new.scope identify");
+
+        Assertions.assertTrue(scopes.contains(DiscordScope.IDENTIFY));
+        Assertions.assertTrue(scopes.contains(DiscordScope.GUILDS_JOIN));
+        Assertions.assertFalse(scopes.contains(DiscordScope.GUILDS));
+        Assertions.assertTrue(scopes.contains("guilds.join"));
+        Assertions.assertTrue(scopes.contains("some.new.scope"));
+        Assertions.assertFalse(scopes.contains("other.scope"));
+        Assertions.assertEquals(3, scopes.size());
+        Assertions.assertEquals(EnumSet.of(DiscordScope.GUILDS_JOIN, DiscordScope.IDENTIFY), scopes.getKnownScopes());
+        Assertions.assertArrayEquals(new String[]{"some.new.scope"}, scopes.getUnknownScopes());
+        Assertions.assertEquals("guilds.join identify some.new.scope", scopes.toString());
+    }
+
+    @Test
+    public void testEmpty() {
+        Assertions.assertSame(DiscordScopeSet.EMPTY, DiscordScopeSet.parse(null));
+        Assertions.assertSame(DiscordScopeSet.EMPTY, DiscordScopeSet.parse(""));
+        Assertions.assertSame(DiscordScopeSet.EMPTY, DiscordScopeSet.parse(" "));
+        Assertions.assertSame(DiscordScopeSet.EMPTY, DiscordScopeSet.fromValues((String[]) null));
+        Assertions.assertTrue(DiscordScopeSet.EMPTY.isEmpty());
+        Assertions.assertEquals(0, DiscordScopeSet.EMPTY.toArray().length);
+    }
+
+    @Test
+    public void testContainsAll() {
+        DiscordScopeSet granted = DiscordScopeSet.parse("identify email some.new.scope");
+
+        Assertions.assertTrue(granted.containsAll(DiscordScopeSet.of(DiscordScope.IDENTIFY, DiscordScope.EMAIL)));
+        Assertions.assertTrue(granted.containsAll(DiscordScopeSet.fromValues("identify", "some.new.scope")));
+        Assertions.assertTrue(granted.containsAll(DiscordScopeSet.EMPTY));
+        Assertions.assertFalse(granted.containsAll(DiscordScopeSet.of(DiscordScope.IDENTIFY, DiscordScope.GUILDS)));
+        Assertions.assertFalse(granted.containsAll(DiscordScopeSet.fromValues("identify", "other.scope")));
+
+        Assertions.assertTrue(granted.containsAny(DiscordScopeSet.of(DiscordScope.GUILDS, DiscordScope.EMAIL)));
+        Assertions.assertFalse(granted.containsAny(DiscordScopeSet.of(DiscordScope.GUILDS)));
+    }
+
+    @Test
+    public void testEquals() {
+        DiscordScopeSet first = DiscordScopeSet.parse("identify a b");
+        DiscordScopeSet second = DiscordScopeSet.parse("b a identify");
+
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(first.hashCode(), second.hashCode());
+        Assertions.assertNotEquals(first, DiscordScopeSet.parse("identify a"));
+        Assertions.assertNotEquals(first, DiscordScopeSet.parse("identify a c"));
+    }
+
+    @Test
+    public void testFromValue() {
+        for (DiscordScope scope : DiscordScope.values()) {
+            Assertions.assertSame(scope, DiscordScope.fromValue(scope.getValue()));
+        }
+
+        Assertions.assertNull(DiscordScope.fromValue("some.new.scope"));
+    }
+
+    @Test
+    public void testAccessToken() {
+        String json = "{\"access_token\":\"token\",\"token_type\":\"Bearer\",\"expires_in\":604800,\"refresh_token\":\"refresh\",\"scope\":\"identify guilds\"}";
+
+        for (Gson gson : new Gson[]{DiscordGson.INSTANCE, new Gson()}) {
+            DiscordAccessToken token = gson.fromJson(json, DiscordAccessToken.class);
+
+            Assertions.assertTrue(token.hasScope(DiscordScope.IDENTIFY));
+            Assertions.assertFalse(token.hasScope(DiscordScope.EMAIL));
+            Assertions.assertTrue(token.hasAllScopes(DiscordScopeSet.of(DiscordScope.IDENTIFY, DiscordScope.GUILDS)));
+            Assertions.assertSame(token.getScopeSet(), token.getScopeSet());
+        }
+
+        Assertions.assertTrue(new DiscordAccessToken().getScopeSet().isEmpty());
+    }
+
+    @Test
+    public void testApplicationScopes() {
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withClientId("1")
+                .withClientSecret("secret")
+                .withRedirectUrl("http://localhost")
+                .withScopes(DiscordScope.IDENTIFY, DiscordScope.GUILDS)
+                .build();
+
+        Assertions.assertArrayEquals(new String[]{"identify", "guilds"}, application.getScopes());
+        Assertions.assertTrue(DiscordScopeSet.parse("guilds identify email").containsAll(application.getScopeSet()));
+        Assertions.assertFalse(DiscordScopeSet.parse("identify").containsAll(application.getScopeSet()));
+    }
+}
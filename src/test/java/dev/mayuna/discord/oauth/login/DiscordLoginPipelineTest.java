@@ -0,0 +1,177 @@
+package dev.mayuna.discord.oauth.login;
+
+import dev.mayuna.discord.oauth.DiscordApplication;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.testing.DiscordStandInFaults;
+import dev.mayuna.discord.testing.DiscordStandInServer;
+import dev.mayuna.discord.testing.LatencyDistribution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class DiscordLoginPipelineTest {
+
+    private DiscordStandInServer server;
+    private DiscordLoginPipeline pipeline;
+
+    @AfterEach
+    public void stop() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private void start(DiscordStandInFaults faults, Duration deadline) throws IOException {
+        server = new DiscordStandInServer.Builder().withFaults(faults).build();
+        server.start();
+
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withApiUrl(server.getUrl())
+                .withClientId("1")
+                .withClientSecret("secret")
+                .withRedirectUrl("https://example.com/discord/callback")
+                .build();
+
+        pipeline = new DiscordLoginPipeline(new DiscordOAuth(application), deadline);
+    }
+
+    @Test
+    public void testLogin() throws Exception {
+        start(DiscordStandInFaults.NONE, Duration.ofSeconds(10));
+
+        DiscordLogin login = pipeline.login(server.createCode(42)).get(10, TimeUnit.SECONDS);
+
+        Assertions.assertEquals("42", login.getUser().getId());
+        Assertions.assertNotNull(login.getToken().getAccessToken());
+        Assertions.assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void testInvalidCode() throws Exception {
+        start(DiscordStandInFaults.NONE, null);
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> pipeline.login("invalid").get(10, TimeUnit.SECONDS));
+        DiscordLoginException loginException = Assertions.assertInstanceOf(DiscordLoginException.class, exception.getCause());
+
+        Assertions.assertEquals(DiscordLoginException.Stage.TOKEN_EXCHANGE, loginException.getStage());
+        Assertions.assertEquals("invalid_request", loginException.getErrorResponse().getError());
+        Assertions.assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testServerErrorFailsTokenExchange() throws Exception {
+        start(new DiscordStandInFaults.Builder().withServerErrors(1).build(), null);
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> pipeline.login(server.createCode(42)).get(10, TimeUnit.SECONDS));
+        DiscordLoginException loginException = Assertions.assertInstanceOf(DiscordLoginException.class, exception.getCause());
+
+        // 5xx body has no error field, the user must not be fetched with a missing access token
+        Assertions.assertEquals(DiscordLoginException.Stage.TOKEN_EXCHANGE, loginException.getStage());
+        Assertions.assertEquals(5, loginException.getErrorResponse().getStatusCode() / 100);
+        Assertions.assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testDeadlineCoversWholeLogin() throws Exception {
+        // Each request alone fits into the deadline, both do not
+        start(new DiscordStandInFaults.Builder().withLatency(LatencyDistribution.fixed(Duration.ofMillis(150))).build(), Duration.ofMillis(250));
+
+        CompletableFuture<DiscordLogin> login = pipeline.login(server.createCode(1));
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> login.get(10, TimeUnit.SECONDS));
+
+        Assertions.assertInstanceOf(TimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    public void testUserIsNotFetchedAfterDeadline() throws Exception {
+        start(new DiscordStandInFaults.Builder().withLatency(LatencyDistribution.fixed(Duration.ofMillis(150))).build(), Duration.ofMillis(50));
+
+        CompletableFuture<DiscordLogin> login = pipeline.login(server.createCode(1));
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> login.get(10, TimeUnit.SECONDS));
+
+        Assertions.assertInstanceOf(TimeoutException.class, exception.getCause());
+
+        // Exchange completes after the deadline
+        Thread.sleep(300);
+        Assertions.assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testPublisher() throws Exception {
+        start(DiscordStandInFaults.NONE, null);
+
+        Flow.Publisher<DiscordLogin> publisher = pipeline.publishLogin(server.createCode(7));
+        CompletableFuture<DiscordLogin> received = new CompletableFuture<>();
+        CompletableFuture<Boolean> completed = new CompletableFuture<>();
+
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                // Nothing is sent before the request
+                Assertions.assertEquals(0, server.getRequestCount());
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(DiscordLogin item) {
+                received.complete(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                received.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.complete(true);
+            }
+        });
+
+        Assertions.assertEquals("7", received.get(10, TimeUnit.SECONDS).getUser().getId());
+        Assertions.assertTrue(completed.get(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Throwable> secondSubscriberError = new CompletableFuture<>();
+
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(DiscordLogin item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                secondSubscriberError.complete(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        Assertions.assertInstanceOf(IllegalStateException.class, secondSubscriberError.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testInvalidDeadline() {
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withClientId("1")
+                .withClientSecret("secret")
+                .withRedirectUrl("https://example.com/discord/callback")
+                .build();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new DiscordLoginPipeline(new DiscordOAuth(application), Duration.ZERO));
+    }
+}
@@ -0,0 +1,257 @@
+package dev.mayuna.discord.oauth.refresh;
+
+import dev.mayuna.discord.http.DiscordHttpClientConfig;
+import dev.mayuna.discord.http.resilience.DiscordRetryPolicy;
+import dev.mayuna.discord.oauth.DiscordApplication;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import dev.mayuna.discord.oauth.server.DiscordOAuthServerMock;
+import dev.mayuna.discord.oauth.store.InMemoryDiscordTokenStore;
+import dev.mayuna.discord.testing.DiscordStandInFaults;
+import dev.mayuna.discord.testing.DiscordStandInServer;
+import dev.mayuna.discord.testing.LatencyDistribution;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class DiscordTokenRefreshSchedulerTest {
+
+    private static final String clientId = new Random().nextLong() + "";
+    private static final String clientSecret = UUID.randomUUID().toString().replace("-", "");
+    private static final String redirectUrl = "https://localhost:8080";
+    private static final String code = UUID.randomUUID().toString().replace("-", "");
+
+    private static DiscordOAuthServerMock serverMock;
+    private static DiscordOAuth discordOAuth;
+
+    @BeforeAll
+    public static void prepare() {
+        serverMock = new DiscordOAuthServerMock(clientId, clientSecret, code, redirectUrl, "identify");
+        serverMock.start();
+
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withApiUrl(serverMock.getUrl())
+                .withClientId(clientId)
+                .withClientSecret(clientSecret)
+                .withRedirectUrl(redirectUrl)
+                .withScopes("identify")
+                .build();
+
+        discordOAuth = new DiscordOAuth(application);
+    }
+
+    @AfterAll
+    public static void stop() {
+        serverMock.stop();
+    }
+
+    @Test
+    public void testBuilder() {
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordTokenRefreshScheduler.Builder().build());
+        Assertions.assertThrows(NullPointerException.class, () -> new DiscordTokenRefreshScheduler.Builder().withDiscordOAuth(null));
+
+        DiscordTokenRefreshScheduler.Builder builder = new DiscordTokenRefreshScheduler.Builder();
+        Assertions.assertEquals(DiscordTokenRefreshScheduler.DEFAULT_REFRESH_MARGIN, builder.getRefreshMargin());
+        Assertions.assertEquals(DiscordTokenRefreshScheduler.DEFAULT_MAX_CONCURRENT_REFRESHES, builder.getMaxConcurrentRefreshes());
+
+        builder.withDiscordOAuth(discordOAuth).withListener((userId, newToken) -> {}).withMaxConcurrentRefreshes(0);
+        Assertions.assertThrows(IllegalArgumentException.class, builder::build);
+    }
+
+    @Test
+    public void testRefreshBeforeExpiry() throws Exception {
+        DiscordAccessToken token = discordOAuth.fetchAccessToken(code).sendAsync().join();
+        InMemoryDiscordTokenStore tokenStore = new InMemoryDiscordTokenStore();
+        CompletableFuture<DiscordAccessToken> refreshed = new CompletableFuture<>();
+
+        // Margin is longer than the token's lifetime, so the token is refreshed right away
+        try (DiscordTokenRefreshScheduler scheduler = new DiscordTokenRefreshScheduler.Builder()
+                .withDiscordOAuth(discordOAuth)
+                .withTokenStore(tokenStore)
+                .withRefreshMargin(Duration.ofSeconds(token.getExpiresInSeconds() + 60))
+                .withJitter(Duration.ZERO)
+                .withTickDuration(Duration.ofMillis(10))
+                .withListener(new DiscordTokenRefreshListener() {
+                    @Override
+                    public void onTokenRefreshed(long userId, @NotNull DiscordAccessToken newToken) {
+                        refreshed.complete(newToken);
+                    }
+
+                    @Override
+                    public void onTokenRefreshFailed(long userId, @NotNull DiscordAccessToken previousToken, @Nullable DiscordAccessToken errorResponse, @Nullable Throwable throwable) {
+                        refreshed.completeExceptionally(throwable != null ? throwable : new IllegalStateException(errorResponse.getError()));
+                    }
+                })
+                .build()) {
+
+            scheduler.schedule(1L, token);
+            Assertions.assertEquals(1, scheduler.getScheduledCount());
+
+            DiscordAccessToken newToken = refreshed.get(10, TimeUnit.SECONDS);
+
+            Assertions.assertNotEquals(token.getRefreshToken(), newToken.getRefreshToken());
+            Assertions.assertSame(newToken, tokenStore.get(1L));
+
+            Assertions.assertTrue(scheduler.cancel(1L));
+            Assertions.assertFalse(scheduler.cancel(1L));
+        }
+    }
+
+    @Test
+    public void testFailedRefresh() throws Exception {
+        DiscordAccessToken token = discordOAuth.fetchAccessToken(code).sendAsync().join();
+        CompletableFuture<DiscordAccessToken> failed = new CompletableFuture<>();
+
+        // Makes the token's refresh token invalid
+        discordOAuth.refreshAccessToken(token.getRefreshToken()).sendAsync().join();
+
+        try (DiscordTokenRefreshScheduler scheduler = new DiscordTokenRefreshScheduler.Builder()
+                .withDiscordOAuth(discordOAuth)
+                .withRefreshMargin(Duration.ofSeconds(token.getExpiresInSeconds() + 60))
+                .withTickDuration(Duration.ofMillis(10))
+                .withListener(new DiscordTokenRefreshListener() {
+                    @Override
+                    public void onTokenRefreshed(long userId, @NotNull DiscordAccessToken newToken) {
+                        failed.completeExceptionally(new IllegalStateException("Refresh should have failed"));
+                    }
+
+                    @Override
+                    public void onTokenRefreshFailed(long userId, @NotNull DiscordAccessToken previousToken, @Nullable DiscordAccessToken errorResponse, @Nullable Throwable throwable) {
+                        failed.complete(errorResponse);
+                    }
+                })
+                .build()) {
+
+            scheduler.schedule(1L, token);
+
+            DiscordAccessToken errorResponse = failed.get(10, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(errorResponse);
+            Assertions.assertNotNull(errorResponse.getError());
+            Assertions.assertEquals(0, scheduler.getScheduledCount());
+        }
+    }
+
+    @Test
+    public void testServerErrorKeepsStoredToken() throws Exception {
+        DiscordStandInServer standInServer = new DiscordStandInServer.Builder()
+                .withClientId(clientId)
+                .withClientSecret(clientSecret)
+                .withRedirectUrl(redirectUrl)
+                .withFaults(new DiscordStandInFaults.Builder().withServerErrors(1).build())
+                .build();
+        standInServer.start();
+
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withApiUrl(standInServer.getUrl())
+                .withClientId(clientId)
+                .withClientSecret(clientSecret)
+                .withRedirectUrl(redirectUrl)
+                .withHttpClientConfig(new DiscordHttpClientConfig.Builder().withRetryPolicy(new DiscordRetryPolicy.Builder().withMaxRetries(0).build()).build())
+                .build();
+
+        DiscordAccessToken token = discordOAuth.fetchAccessToken(code).sendAsync().join();
+        InMemoryDiscordTokenStore tokenStore = new InMemoryDiscordTokenStore();
+        CompletableFuture<DiscordAccessToken> failed = new CompletableFuture<>();
+        tokenStore.store(1L, token);
+
+        try (DiscordTokenRefreshScheduler scheduler = new DiscordTokenRefreshScheduler.Builder()
+                .withDiscordOAuth(new DiscordOAuth(application))
+                .withTokenStore(tokenStore)
+                .withRefreshMargin(Duration.ofSeconds(token.getExpiresInSeconds() + 60))
+                .withTickDuration(Duration.ofMillis(10))
+                .withListener(new DiscordTokenRefreshListener() {
+                    @Override
+                    public void onTokenRefreshed(long userId, @NotNull DiscordAccessToken newToken) {
+                        failed.completeExceptionally(new IllegalStateException("Refresh should have failed"));
+                    }
+
+                    @Override
+                    public void onTokenRefreshFailed(long userId, @NotNull DiscordAccessToken previousToken, @Nullable DiscordAccessToken errorResponse, @Nullable Throwable throwable) {
+                        failed.complete(errorResponse);
+                    }
+                })
+                .build()) {
+
+            scheduler.schedule(1L, token);
+
+            DiscordAccessToken errorResponse = failed.get(10, TimeUnit.SECONDS);
+
+            Assertions.assertNotNull(errorResponse);
+            Assertions.assertEquals(5, errorResponse.getStatusCode() / 100);
+            Assertions.assertSame(token, tokenStore.get(1L));
+            Assertions.assertEquals(0, scheduler.getScheduledCount());
+        } finally {
+            standInServer.stop();
+        }
+    }
+
+    @Test
+    public void testCancelDuringRefreshDoesNotStoreToken() throws Exception {
+        DiscordStandInServer standInServer = new DiscordStandInServer.Builder()
+                .withClientId(clientId)
+                .withClientSecret(clientSecret)
+                .withRedirectUrl(redirectUrl)
+                .withFaults(new DiscordStandInFaults.Builder().withLatency(LatencyDistribution.fixed(Duration.ofMillis(500))).build())
+                .build();
+        standInServer.start();
+
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withApiUrl(standInServer.getUrl())
+                .withClientId(clientId)
+                .withClientSecret(clientSecret)
+                .withRedirectUrl(redirectUrl)
+                .build();
+        DiscordOAuth standInOAuth = new DiscordOAuth(application);
+
+        DiscordAccessToken token = standInOAuth.fetchAccessToken(standInServer.createCode(1L)).sendAsync().join();
+        InMemoryDiscordTokenStore tokenStore = new InMemoryDiscordTokenStore();
+        CompletableFuture<DiscordAccessToken> refreshed = new CompletableFuture<>();
+
+        try (DiscordTokenRefreshScheduler scheduler = new DiscordTokenRefreshScheduler.Builder()
+                .withDiscordOAuth(standInOAuth)
+                .withTokenStore(tokenStore)
+                .withRefreshMargin(Duration.ofSeconds(token.getExpiresInSeconds() + 60))
+                .withTickDuration(Duration.ofMillis(10))
+                .withListener(new DiscordTokenRefreshListener() {
+                    @Override
+                    public void onTokenRefreshed(long userId, @NotNull DiscordAccessToken newToken) {
+                        refreshed.complete(newToken);
+                    }
+
+                    @Override
+                    public void onTokenRefreshFailed(long userId, @NotNull DiscordAccessToken previousToken, @Nullable DiscordAccessToken errorResponse, @Nullable Throwable throwable) {
+                        refreshed.completeExceptionally(new IllegalStateException("Refresh should have succeeded", throwable));
+                    }
+                })
+                .build()) {
+
+            scheduler.schedule(1L, token);
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (scheduler.getRunningRefreshes() == 0) {
+                Assertions.assertTrue(System.currentTimeMillis() < deadline, "Refresh did not start");
+                Thread.sleep(5);
+            }
+
+            // User logs out while the refresh is in flight
+            Assertions.assertTrue(scheduler.cancel(1L));
+            tokenStore.remove(1L);
+
+            Assertions.assertTrue(refreshed.get(10, TimeUnit.SECONDS).isSuccessful());
+            Assertions.assertNull(tokenStore.get(1L));
+            Assertions.assertEquals(0, scheduler.getScheduledCount());
+        } finally {
+            standInServer.stop();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package dev.mayuna.discord.oauth.revoke;
+
+import dev.mayuna.discord.api.DiscordApiResponse;
+import dev.mayuna.discord.http.resilience.DiscordRetryPolicy;
+import dev.mayuna.discord.oauth.DiscordApplication;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.testing.DiscordStandInFaults;
+import dev.mayuna.discord.testing.DiscordStandInServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+public class DiscordTokenRevocationQueueTest {
+
+    private static final String CLIENT_ID = "1";
+    private static final String CLIENT_SECRET = "secret";
+    private static final String REDIRECT_URL = "https://example.com/discord/callback";
+    private static final DiscordRetryPolicy RETRY_POLICY = new DiscordRetryPolicy.Builder()
+            .withMaxRetries(20)
+            .withInitialBackoff(Duration.ofMillis(1))
+            .withMaxBackoff(Duration.ofMillis(10))
+            .build();
+
+    private Path directory;
+    private DiscordStandInServer server;
+    private DiscordOAuth discordOAuth;
+    private DiscordTokenRevocationQueue queue;
+
+    @BeforeEach
+    public void prepare() throws IOException {
+        directory = Files.createTempDirectory("discord-token-revocation-queue");
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        if (queue != null) {
+            queue.close();
+        }
+
+        if (server != null) {
+            server.stop();
+        }
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private void start(DiscordStandInServer.Builder builder) throws IOException {
+        server = builder.withClientId(CLIENT_ID).withClientSecret(CLIENT_SECRET).withRedirectUrl(REDIRECT_URL).build();
+        server.start();
+
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withApiUrl(server.getUrl())
+                .withClientId(CLIENT_ID)
+                .withClientSecret(CLIENT_SECRET)
+                .withRedirectUrl(REDIRECT_URL)
+                .build();
+
+        discordOAuth = new DiscordOAuth(application);
+    }
+
+    private DiscordTokenRevocationQueue.Builder createQueueBuilder() {
+        return new DiscordTokenRevocationQueue.Builder()
+                .withDiscordOAuth(discordOAuth)
+                .withPath(directory.resolve("revocations.log"))
+                .withRetryPolicy(RETRY_POLICY);
+    }
+
+    private List<String> issueAccessTokens(int count) {
+        List<String> accessTokens = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            accessTokens.add(discordOAuth.fetchAccessToken(server.createCode(i)).send().getAccessToken());
+        }
+
+        return accessTokens;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "Condition was not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testBulkSubmit() throws Exception {
+        start(new DiscordStandInServer.Builder());
+        List<String> accessTokens = issueAccessTokens(2000);
+        AtomicInteger revoked = new AtomicInteger();
+
+        queue = createQueueBuilder().withListener(new DiscordTokenRevocationListener() {
+            @Override
+            public void onTokenRevoked(String token) {
+                revoked.incrementAndGet();
+            }
+        }).build();
+
+        queue.submitAll(accessTokens);
+
+        await(() -> queue.getPendingCount() == 0);
+        Assertions.assertEquals(0, server.getActiveAccessTokenCount());
+        Assertions.assertEquals(2000, revoked.get());
+        Assertions.assertTrue(queue.getRunningRevocations() <= DiscordTokenRevocationQueue.DEFAULT_MAX_CONCURRENT_REVOCATIONS);
+
+        // Completed records were compacted away
+        Assertions.assertTrue(queue.getLogSize() < 64 * 1024, "Log size " + queue.getLogSize());
+    }
+
+    @Test
+    public void testPendingTokensAreRevokedAfterReopening() throws Exception {
+        start(new DiscordStandInServer.Builder());
+        List<String> accessTokens = issueAccessTokens(3);
+        server.stop();
+
+        // Server is down, so nothing gets revoked
+        queue = createQueueBuilder().withRetryPolicy(new DiscordRetryPolicy.Builder().withMaxRetries(0).build()).build();
+        queue.submitAll(accessTokens);
+        queue.close();
+
+        DiscordStandInServer stoppedServer = server;
+        server = null;
+
+        Assertions.assertEquals(3, stoppedServer.getActiveAccessTokenCount());
+
+        // Same port is not guaranteed, so the tokens are revoked by a new server knowing them
+        start(new DiscordStandInServer.Builder());
+        List<String> newAccessTokens = issueAccessTokens(2);
+        AtomicInteger revoked = new AtomicInteger();
+
+        queue = createQueueBuilder().withListener(new DiscordTokenRevocationListener() {
+            @Override
+            public void onTokenRevoked(String token) {
+                revoked.incrementAndGet();
+            }
+        }).build();
+        queue.submitAll(newAccessTokens);
+
+        await(() -> queue.getPendingCount() == 0);
+        Assertions.assertEquals(5, revoked.get());
+        Assertions.assertEquals(0, server.getActiveAccessTokenCount());
+    }
+
+    @Test
+    public void testServerErrorsAreRetried() throws Exception {
+        start(new DiscordStandInServer.Builder().withSeed(1).withFaults(new DiscordStandInFaults.Builder().withServerErrors(0.5).build()));
+        List<String> accessTokens = issueAccessTokensDespiteFaults(20);
+        AtomicInteger retries = new AtomicInteger();
+
+        queue = createQueueBuilder().withListener(new DiscordTokenRevocationListener() {
+            @Override
+            public void onTokenRevocationFailed(String token, DiscordApiResponse errorResponse, Throwable throwable, boolean willRetry) {
+                Assertions.assertTrue(willRetry);
+                Assertions.assertEquals(5, errorResponse.getStatusCode() / 100);
+                retries.incrementAndGet();
+            }
+        }).build();
+
+        queue.submitAll(accessTokens);
+
+        await(() -> queue.getPendingCount() == 0);
+        Assertions.assertEquals(0, server.getActiveAccessTokenCount());
+        Assertions.assertTrue(retries.get() > 0);
+    }
+
+    @Test
+    public void testTornRecordIsIgnored() throws Exception {
+        start(new DiscordStandInServer.Builder());
+        Path path = directory.resolve("revocations.log");
+        server.stop();
+
+        queue = createQueueBuilder().withRetryPolicy(new DiscordRetryPolicy.Builder().withMaxRetries(0).build()).build();
+        queue.submit("first");
+        queue.submit("second");
+        queue.close();
+        queue = null;
+
+        long size = Files.size(path);
+
+        // Crash in the middle of writing the second record, followed by garbage, so the record fails the checksum
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+            channel.write(ByteBuffer.wrap(new byte[32]), size - 3);
+        }
+
+        queue = createQueueBuilder().withRetryPolicy(new DiscordRetryPolicy.Builder().withMaxRetries(0).build()).build();
+        long secondRecordSize = 8 + 1 + 8 + "second".length();
+
+        Assertions.assertEquals(1, queue.getPendingCount());
+        Assertions.assertEquals(size - secondRecordSize, Files.size(path));
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        start(new DiscordStandInServer.Builder());
+        Path path = directory.resolve("revocations.log");
+        List<String> tokens = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            tokens.add("revoked-" + i);
+        }
+
+        queue = createQueueBuilder().withRetryPolicy(new DiscordRetryPolicy.Builder().withMaxRetries(0).build()).build();
+        queue.submitAll(tokens);
+
+        await(() -> queue.getPendingCount() == 0);
+        server.stop();
+
+        // Server is down, so these stay pending
+        queue.submit("first");
+        queue.submit("second");
+        await(() -> queue.getRunningRevocations() == 0);
+
+        long recordsSize = 2 * (8 + 1 + 8) + "first".length() + "second".length();
+        Assertions.assertTrue(queue.getLogSize() > 8 + recordsSize);
+
+        queue.compact();
+
+        Assertions.assertEquals(8 + recordsSize, queue.getLogSize());
+        Assertions.assertEquals(8 + recordsSize, Files.size(path));
+        Assertions.assertFalse(Files.exists(directory.resolve("revocations.log.compact")));
+
+        // Compacted log is used for appending
+        queue.submit("third");
+        queue.close();
+
+        queue = createQueueBuilder().withRetryPolicy(new DiscordRetryPolicy.Builder().withMaxRetries(0).build()).build();
+
+        Assertions.assertEquals(3, queue.getPendingCount());
+    }
+
+    @Test
+    public void testBackgroundCompaction() throws Exception {
+        start(new DiscordStandInServer.Builder());
+        List<String> tokens = new ArrayList<>();
+
+        // Unknown tokens are accepted, roughly 200 KiB of records with the completions
+        for (int i = 0; i < 3000; i++) {
+            tokens.add(String.format("background-compaction-token-%05d", i));
+        }
+
+        queue = createQueueBuilder().withCompactionThreshold(0.25).build();
+        queue.submitAll(tokens);
+
+        await(() -> queue.getPendingCount() == 0);
+        await(() -> queue.getLogSize() < 64 * 1024);
+        await(() -> !Files.exists(directory.resolve("revocations.log.compact")));
+
+        queue.close();
+        queue = createQueueBuilder().build();
+
+        Assertions.assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    public void testInterruptedThreadDoesNotCloseLog() throws Exception {
+        start(new DiscordStandInServer.Builder());
+        server.stop();
+
+        queue = createQueueBuilder().withRetryPolicy(new DiscordRetryPolicy.Builder().withMaxRetries(0).build()).build();
+
+        try {
+            Thread.currentThread().interrupt();
+            queue.submit("first");
+            queue.flush();
+
+            // Interrupt is kept for the caller
+            Assertions.assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+
+        queue.submit("second");
+        queue.flush();
+        queue.close();
+
+        queue = createQueueBuilder().withRetryPolicy(new DiscordRetryPolicy.Builder().withMaxRetries(0).build()).build();
+
+        Assertions.assertEquals(2, queue.getPendingCount());
+    }
+
+    @Test
+    public void testInvalidLogIsRejected() throws Exception {
+        start(new DiscordStandInServer.Builder());
+        Files.write(directory.resolve("revocations.log"), "not a log file".getBytes());
+
+        Assertions.assertThrows(IOException.class, () -> createQueueBuilder().build());
+    }
+
+    @Test
+    public void testInvalidArguments() throws Exception {
+        start(new DiscordStandInServer.Builder());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordTokenRevocationQueue.Builder().build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> createQueueBuilder().withCompactionThreshold(1).build());
+
+        queue = createQueueBuilder().build();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> queue.submit(""));
+        Assertions.assertEquals(0, queue.getPendingCount());
+
+        queue.close();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> queue.submit("token"));
+    }
+
+    private List<String> issueAccessTokensDespiteFaults(int count) {
+        List<String> accessTokens = new ArrayList<>(count);
+
+        for (int i = 0; accessTokens.size() < count; i++) {
+            String accessToken = discordOAuth.fetchAccessToken(server.createCode(i)).send().getAccessToken();
+
+            if (accessToken != null) {
+                accessTokens.add(accessToken);
+            }
+        }
+
+        return accessTokens;
+    }
+}
@@ -5,6 +5,8 @@ import io.javalin.Javalin;
 import io.javalin.http.Context;
 import lombok.Getter;
 
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Random;
 import java.util.UUID;
 
@@ -91,7 +93,7 @@ public class DiscordOAuthServerMock {
                 String[] bodyPartParts = bodyPart.split("=");
 
                 String key = bodyPartParts[0];
-                String value = bodyPartParts[1];
+                String value = URLDecoder.decode(bodyPartParts[1], StandardCharsets.UTF_8);
 
                 switch (key) {
                     case "client_id":
@@ -206,7 +208,7 @@ public class DiscordOAuthServerMock {
                 String[] bodyPartParts = bodyPart.split("=");
 
                 String key = bodyPartParts[0];
-                String value = bodyPartParts[1];
+                String value = URLDecoder.decode(bodyPartParts[1], StandardCharsets.UTF_8);
 
                 switch (key) {
                     case "client_id":
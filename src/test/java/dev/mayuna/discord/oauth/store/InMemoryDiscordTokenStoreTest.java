@@ -0,0 +1,103 @@
+package dev.mayuna.discord.oauth.store;
+
+import dev.mayuna.discord.Utils;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InMemoryDiscordTokenStoreTest {
+
+    @Test
+    public void testStoreAndGet() {
+        InMemoryDiscordTokenStore store = new InMemoryDiscordTokenStore();
+        DiscordAccessToken token = createToken(System.currentTimeMillis(), 60);
+
+        store.store(677516608778928129L, token);
+
+        Assertions.assertSame(token, store.get(677516608778928129L));
+        Assertions.assertNull(store.get(1L));
+        Assertions.assertEquals(1, store.size());
+
+        Assertions.assertSame(token, store.remove(677516608778928129L));
+        Assertions.assertNull(store.get(677516608778928129L));
+        Assertions.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testExpiredTokenIsNotReturned() {
+        InMemoryDiscordTokenStore store = new InMemoryDiscordTokenStore();
+
+        store.store(1L, createToken(System.currentTimeMillis() - 2000, 1));
+
+        Assertions.assertNull(store.get(1L));
+        Assertions.assertEquals(0, store.size());
+        Assertions.assertEquals(1, store.getExpirationCount());
+    }
+
+    @Test
+    public void testPurgeExpired() {
+        InMemoryDiscordTokenStore store = new InMemoryDiscordTokenStore(100, 1);
+
+        store.store(1L, createToken(System.currentTimeMillis(), 60));
+        store.store(2L, createToken(System.currentTimeMillis(), 60));
+        Utils.setField(store.get(1L), "expiresInSeconds", 0L);
+
+        store.purgeExpired();
+
+        Assertions.assertEquals(1, store.size());
+        Assertions.assertNotNull(store.get(2L));
+    }
+
+    @Test
+    public void testSizeBoundEvictsLeastRecentlyUsed() {
+        InMemoryDiscordTokenStore store = new InMemoryDiscordTokenStore(3, 1);
+        List<DiscordAccessToken> tokens = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            tokens.add(createToken(System.currentTimeMillis(), 60));
+            store.store(i, tokens.get(i));
+        }
+
+        // Touch the first one, so the second one is the least recently used
+        store.get(0);
+        store.store(3, createToken(System.currentTimeMillis(), 60));
+
+        Assertions.assertEquals(3, store.size());
+        Assertions.assertSame(tokens.get(0), store.get(0));
+        Assertions.assertNull(store.get(1));
+        Assertions.assertEquals(1, store.getEvictionCount());
+    }
+
+    @Test
+    public void testClear() {
+        InMemoryDiscordTokenStore store = new InMemoryDiscordTokenStore();
+
+        for (int i = 0; i < 1000; i++) {
+            store.store(i, createToken(System.currentTimeMillis(), 60));
+        }
+
+        Assertions.assertEquals(1000, store.size());
+        store.clear();
+        Assertions.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testNulls() {
+        InMemoryDiscordTokenStore store = new InMemoryDiscordTokenStore();
+
+        Assertions.assertThrows(NullPointerException.class, () -> store.store(1L, null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new InMemoryDiscordTokenStore(0));
+    }
+
+    private static DiscordAccessToken createToken(long fetchedAt, long expiresInSeconds) {
+        DiscordAccessToken token = new DiscordAccessToken();
+
+        Utils.setField(token, "fetchedAt", fetchedAt);
+        Utils.setField(token, "expiresInSeconds", expiresInSeconds);
+
+        return token;
+    }
+}
@@ -0,0 +1,229 @@
+package dev.mayuna.discord.oauth.store;
+
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class MappedDiscordTokenStoreTest {
+
+    private Path directory;
+    private Path path;
+
+    @BeforeEach
+    public void prepare() throws IOException {
+        directory = Files.createTempDirectory("discord-token-store");
+        path = directory.resolve("tokens.log");
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testStoreAndGet() throws IOException {
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path)) {
+            DiscordAccessToken token = createToken("access_token", 60);
+
+            store.store(677516608778928129L, token);
+
+            DiscordAccessToken storedToken = store.get(677516608778928129L);
+            Assertions.assertNotNull(storedToken);
+            Assertions.assertEquals(token.getFetchedAt(), storedToken.getFetchedAt());
+            Assertions.assertEquals("access_token", storedToken.getAccessToken());
+            Assertions.assertEquals("Bearer", storedToken.getTokenType());
+            Assertions.assertEquals(60, storedToken.getExpiresInSeconds());
+            Assertions.assertEquals("refresh_token", storedToken.getRefreshToken());
+            Assertions.assertArrayEquals(new String[]{"identify", "guilds"}, storedToken.getScopes());
+            Assertions.assertNull(store.get(1L));
+            Assertions.assertEquals(1, store.size());
+
+            Assertions.assertEquals("access_token", store.remove(677516608778928129L).getAccessToken());
+            Assertions.assertNull(store.get(677516608778928129L));
+            Assertions.assertNull(store.remove(677516608778928129L));
+            Assertions.assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    public void testNullFieldsAndExpiredToken() throws IOException {
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path)) {
+            store.store(1L, new DiscordAccessToken(System.currentTimeMillis(), "access_token", null, 60, null, null));
+            store.store(2L, new DiscordAccessToken(System.currentTimeMillis() - 2000, "access_token", null, 1, null, null));
+
+            Assertions.assertNull(store.get(1L).getRefreshToken());
+            Assertions.assertNull(store.get(2L));
+        }
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path, 4096, Duration.ofMillis(10), 0.5)) {
+            for (int i = 0; i < 200; i++) {
+                store.store(i, createToken("access_token_" + i, 60));
+            }
+
+            store.store(5, createToken("replaced", 60));
+            store.remove(6);
+        }
+
+        // Region size is read from the file
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path)) {
+            Assertions.assertEquals(199, store.size());
+            Assertions.assertEquals("access_token_0", store.get(0).getAccessToken());
+            Assertions.assertEquals("access_token_199", store.get(199).getAccessToken());
+            Assertions.assertEquals("replaced", store.get(5).getAccessToken());
+            Assertions.assertNull(store.get(6));
+
+            store.clear();
+        }
+
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path)) {
+            Assertions.assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    public void testTornRecordIsDropped() throws IOException {
+        long logSize;
+
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path)) {
+            store.store(1L, createToken("first", 60));
+            store.store(2L, createToken("second", 60));
+            logSize = store.getLogSize();
+        }
+
+        // Corrupt the last byte of the second record
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(logSize - 1);
+            int lastByte = file.read();
+            file.seek(logSize - 1);
+            file.write(lastByte ^ 0xFF);
+        }
+
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path)) {
+            Assertions.assertEquals(1, store.size());
+            Assertions.assertEquals("first", store.get(1L).getAccessToken());
+            Assertions.assertNull(store.get(2L));
+
+            store.store(3L, createToken("third", 60));
+        }
+
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path)) {
+            Assertions.assertEquals(2, store.size());
+            Assertions.assertEquals("third", store.get(3L).getAccessToken());
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path)) {
+            for (int i = 0; i < 1000; i++) {
+                store.store(i % 10, createToken("access_token_" + i, 60));
+            }
+
+            store.store(10, new DiscordAccessToken(System.currentTimeMillis() - 2000, "expired", null, 1, null, null));
+
+            long logSize = store.getLogSize();
+            store.compact();
+
+            Assertions.assertTrue(store.getLogSize() < logSize / 50);
+            Assertions.assertEquals(10, store.size());
+            Assertions.assertEquals("access_token_999", store.get(9).getAccessToken());
+
+            store.store(11, createToken("after_compaction", 60));
+        }
+
+        Assertions.assertFalse(Files.exists(directory.resolve("tokens.log.compact")));
+
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path)) {
+            Assertions.assertEquals(11, store.size());
+            Assertions.assertEquals("access_token_990", store.get(0).getAccessToken());
+            Assertions.assertEquals("after_compaction", store.get(11).getAccessToken());
+        }
+    }
+
+    @Test
+    public void testBackgroundCompaction() throws IOException, InterruptedException {
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path, 4096, Duration.ofMillis(10), 0.5)) {
+            for (int i = 0; i < 10_000; i++) {
+                store.store(1L, createToken("access_token_" + i, 60));
+            }
+
+            long deadline = System.currentTimeMillis() + 5000;
+
+            while (store.getLogSize() > 4096 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            Assertions.assertTrue(store.getLogSize() <= 4096);
+            Assertions.assertEquals("access_token_9999", store.get(1L).getAccessToken());
+        }
+    }
+
+    @Test
+    public void testInterruptedThreadMapsNewRegions() throws IOException {
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path, 4096, Duration.ofMillis(10), 0.5)) {
+            try {
+                Thread.currentThread().interrupt();
+
+                // Crosses several regions, each mapped by the interrupted thread
+                for (int i = 0; i < 200; i++) {
+                    store.store(i, createToken("access_token_" + i, 60));
+                }
+
+                // Interrupt is kept for the caller
+                Assertions.assertTrue(Thread.currentThread().isInterrupted());
+            } finally {
+                Thread.interrupted();
+            }
+
+            Assertions.assertTrue(store.getLogSize() > 3 * 4096);
+
+            for (int i = 200; i < 400; i++) {
+                store.store(i, createToken("access_token_" + i, 60));
+            }
+        }
+
+        try (MappedDiscordTokenStore store = new MappedDiscordTokenStore(path)) {
+            Assertions.assertEquals(400, store.size());
+            Assertions.assertEquals("access_token_399", store.get(399).getAccessToken());
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() throws IOException {
+        Files.write(path, "not a token store log".getBytes());
+
+        Assertions.assertThrows(IOException.class, () -> new MappedDiscordTokenStore(path));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MappedDiscordTokenStore(path, 1024, Duration.ofMillis(10), 0.5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MappedDiscordTokenStore(path, 4096, Duration.ZERO, 0.5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new MappedDiscordTokenStore(path, 4096, Duration.ofMillis(10), 1));
+    }
+
+    @Test
+    public void testClosedStore() throws IOException {
+        MappedDiscordTokenStore store = new MappedDiscordTokenStore(path);
+        store.close();
+        store.close();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> store.get(1L));
+        Assertions.assertThrows(IllegalStateException.class, () -> store.store(1L, createToken("access_token", 60)));
+    }
+
+    private static DiscordAccessToken createToken(String accessToken, long expiresInSeconds) {
+        return new DiscordAccessToken(System.currentTimeMillis(), accessToken, "Bearer", expiresInSeconds, "refresh_token", "identify guilds");
+    }
+}
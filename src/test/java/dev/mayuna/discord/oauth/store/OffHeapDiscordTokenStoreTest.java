@@ -0,0 +1,132 @@
+package dev.mayuna.discord.oauth.store;
+
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class OffHeapDiscordTokenStoreTest {
+
+    @Test
+    public void testStoreAndGet() {
+        OffHeapDiscordTokenStore store = new OffHeapDiscordTokenStore();
+
+        store.store(677516608778928129L, createToken("access_token", 60));
+
+        DiscordAccessToken token = store.get(677516608778928129L);
+        Assertions.assertNotNull(token);
+        Assertions.assertEquals("access_token", token.getAccessToken());
+        Assertions.assertEquals("Bearer", token.getTokenType());
+        Assertions.assertEquals("refresh_token", token.getRefreshToken());
+        Assertions.assertArrayEquals(new String[]{"identify", "guilds"}, token.getScopes());
+        Assertions.assertNull(store.get(1L));
+        Assertions.assertEquals(1, store.size());
+
+        Assertions.assertEquals("access_token", store.remove(677516608778928129L).getAccessToken());
+        Assertions.assertNull(store.get(677516608778928129L));
+        Assertions.assertNull(store.remove(677516608778928129L));
+        Assertions.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void testReadIntoView() {
+        OffHeapDiscordTokenStore store = new OffHeapDiscordTokenStore();
+        DiscordTokenView view = new DiscordTokenView();
+        DiscordAccessToken token = createToken("access_token", 60);
+
+        store.store(1L, token);
+        store.store(2L, new DiscordAccessToken(System.currentTimeMillis(), "\u010Dau", null, 60, null, null));
+
+        Assertions.assertTrue(store.read(1L, view));
+        Assertions.assertEquals(1L, view.getUserId());
+        Assertions.assertEquals(token.getFetchedAt(), view.getFetchedAt());
+        Assertions.assertEquals(token.getExpiresAt(), view.getExpiresAt());
+        Assertions.assertEquals("access_token", view.getAccessToken());
+        Assertions.assertEquals("identify guilds", view.getScope());
+
+        // View keeps its copy after the token is replaced
+        store.store(1L, createToken("replaced", 60));
+        Assertions.assertEquals("access_token", view.getAccessToken());
+
+        Assertions.assertTrue(store.read(2L, view));
+        Assertions.assertEquals("\u010Dau", view.getAccessToken());
+        Assertions.assertNull(view.getTokenType());
+        Assertions.assertNull(view.getRefreshToken());
+        Assertions.assertEquals("\u010Dau", view.toAccessToken().getAccessToken());
+
+        Assertions.assertFalse(store.read(3L, view));
+    }
+
+    @Test
+    public void testExpiredTokens() {
+        OffHeapDiscordTokenStore store = new OffHeapDiscordTokenStore();
+
+        store.store(1L, createToken("access_token", 60));
+        store.store(2L, new DiscordAccessToken(System.currentTimeMillis() - 2000, "expired", null, 1, null, null));
+
+        Assertions.assertNull(store.get(2L));
+        Assertions.assertFalse(store.read(2L, new DiscordTokenView()));
+        Assertions.assertEquals(2, store.size());
+
+        store.purgeExpired();
+
+        Assertions.assertEquals(1, store.size());
+        Assertions.assertNotNull(store.get(1L));
+    }
+
+    @Test
+    public void testSlotsAreReused() {
+        OffHeapDiscordTokenStore store = new OffHeapDiscordTokenStore(10_000);
+
+        for (int i = 0; i < 10_000; i++) {
+            store.store(i, createToken("access_token_" + i, 60));
+        }
+
+        long offHeapBytes = store.getOffHeapBytes();
+
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 10_000; i++) {
+                store.remove(i);
+                store.store(i + 10_000, createToken("access_token_" + i, 60));
+                store.store(i, createToken("access_token_" + i, 60));
+                store.remove(i + 10_000);
+            }
+        }
+
+        Assertions.assertEquals(10_000, store.size());
+        Assertions.assertTrue(store.getOffHeapBytes() <= offHeapBytes + 1024 * 1024);
+        Assertions.assertEquals("access_token_1234", store.get(1234).getAccessToken());
+    }
+
+    @Test
+    public void testGrowingToken() {
+        OffHeapDiscordTokenStore store = new OffHeapDiscordTokenStore();
+
+        store.store(1L, createToken("a", 60));
+        store.store(2L, createToken("b", 60));
+        store.store(1L, createToken("a".repeat(1000), 60));
+
+        Assertions.assertEquals("a".repeat(1000), store.get(1L).getAccessToken());
+        Assertions.assertEquals("b", store.get(2L).getAccessToken());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> store.store(3L, createToken("a".repeat(5000), 60)));
+    }
+
+    @Test
+    public void testClear() {
+        OffHeapDiscordTokenStore store = new OffHeapDiscordTokenStore();
+
+        for (int i = 0; i < 1000; i++) {
+            store.store(i, createToken("access_token_" + i, 60));
+        }
+
+        Assertions.assertTrue(store.getOffHeapBytes() > 0);
+        store.clear();
+
+        Assertions.assertEquals(0, store.size());
+        Assertions.assertEquals(0, store.getOffHeapBytes());
+        Assertions.assertNull(store.get(0));
+    }
+
+    private static DiscordAccessToken createToken(String accessToken, long expiresInSeconds) {
+        return new DiscordAccessToken(System.currentTimeMillis(), accessToken, "Bearer", expiresInSeconds, "refresh_token", "identify guilds");
+    }
+}
@@ -0,0 +1,232 @@
+package dev.mayuna.discord.testing;
+
+import dev.mayuna.discord.api.DiscordApi;
+import dev.mayuna.discord.api.entities.DiscordUser;
+import dev.mayuna.discord.http.DiscordHttpClientConfig;
+import dev.mayuna.discord.http.resilience.DiscordRetryPolicy;
+import dev.mayuna.discord.oauth.DiscordApplication;
+import dev.mayuna.discord.oauth.DiscordOAuth;
+import dev.mayuna.discord.oauth.entities.DiscordAccessToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class DiscordStandInServerTest {
+
+    private static final String CLIENT_ID = "1234567890123456789";
+    private static final String CLIENT_SECRET = "secret";
+    private static final String REDIRECT_URL = "https://example.com/discord/callback";
+
+    private DiscordStandInServer server;
+    private DiscordOAuth discordOAuth;
+    private DiscordApi discordApi;
+
+    @AfterEach
+    public void stop() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private void start(DiscordStandInServer.Builder builder, DiscordHttpClientConfig httpClientConfig) throws IOException {
+        server = builder.withClientId(CLIENT_ID).withClientSecret(CLIENT_SECRET).withRedirectUrl(REDIRECT_URL).build();
+        server.start();
+
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withApiUrl(server.getUrl())
+                .withClientId(CLIENT_ID)
+                .withClientSecret(CLIENT_SECRET)
+                .withRedirectUrl(REDIRECT_URL)
+                .withHttpClientConfig(httpClientConfig)
+                .build();
+
+        discordOAuth = new DiscordOAuth(application);
+        discordApi = new DiscordApi(application.getApiUrl(), application.getHttpClient());
+    }
+
+    private void start(DiscordStandInServer.Builder builder) throws IOException {
+        start(builder, new DiscordHttpClientConfig.Builder().build());
+    }
+
+    @Test
+    public void testLoginFlowOfManyUsers() throws IOException {
+        start(new DiscordStandInServer.Builder());
+
+        for (long userId = 1; userId <= 3; userId++) {
+            String code = server.createCode(userId);
+            DiscordAccessToken token = discordOAuth.fetchAccessToken(code).send();
+
+            Assertions.assertNull(token.getError());
+            Assertions.assertEquals(String.valueOf(userId), discordApi.fetchUser(token.getAccessToken()).send().getId());
+
+            // Codes are single-use
+            Assertions.assertEquals("invalid_request", discordOAuth.fetchAccessToken(code).send().getError());
+        }
+
+        Assertions.assertEquals(3, server.getActiveAccessTokenCount());
+        Assertions.assertEquals(3, server.getRejectedRequestCount());
+    }
+
+    @Test
+    public void testRefreshRotatesAndRevokeInvalidatesTokens() throws IOException {
+        start(new DiscordStandInServer.Builder());
+
+        DiscordAccessToken token = discordOAuth.fetchAccessToken(server.createCode(42)).send();
+        DiscordAccessToken refreshedToken = discordOAuth.refreshAccessToken(token.getRefreshToken()).send();
+
+        Assertions.assertNull(refreshedToken.getError());
+        Assertions.assertNotEquals(token.getAccessToken(), refreshedToken.getAccessToken());
+        Assertions.assertNull(discordApi.fetchUser(token.getAccessToken()).send().getId());
+        Assertions.assertEquals("invalid_request", discordOAuth.refreshAccessToken(token.getRefreshToken()).send().getError());
+        Assertions.assertEquals("42", discordApi.fetchUser(refreshedToken.getAccessToken()).send().getId());
+
+        Assertions.assertNull(discordOAuth.revokeTokens(refreshedToken.getAccessToken()).send().getError());
+        Assertions.assertNull(discordApi.fetchUser(refreshedToken.getAccessToken()).send().getId());
+        Assertions.assertEquals(0, server.getActiveAccessTokenCount());
+    }
+
+    @Test
+    public void testInvalidClientIsRejected() throws IOException {
+        start(new DiscordStandInServer.Builder());
+
+        DiscordApplication application = new DiscordApplication.Builder()
+                .withApiUrl(server.getUrl())
+                .withClientId(CLIENT_ID)
+                .withClientSecret("wrong")
+                .withRedirectUrl(REDIRECT_URL)
+                .build();
+
+        Assertions.assertEquals("invalid_request", new DiscordOAuth(application).fetchAccessToken(server.createCode(1)).send().getError());
+    }
+
+    @Test
+    public void testPermissiveServerReturnsCannedResponses() throws IOException {
+        start(new DiscordStandInServer.Builder().withPermissive(true));
+
+        DiscordAccessToken token = discordOAuth.fetchAccessToken("any").send();
+
+        Assertions.assertEquals("6qrZcUqja7812RVdnEKjpzOL4CvHBFG", token.getAccessToken());
+        Assertions.assertEquals("80351110224678912", discordApi.fetchUser("any").send().getId());
+        Assertions.assertEquals(0, server.getActiveAccessTokenCount());
+    }
+
+    @Test
+    public void testRateLimitedRequestsAreSentAfterReset() throws Exception {
+        start(new DiscordStandInServer.Builder().withRateLimit(2, Duration.ofMillis(200)));
+
+        String accessToken = discordOAuth.fetchAccessToken(server.createCode(7)).send().getAccessToken();
+        List<CompletableFuture<DiscordUser>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 6; i++) {
+            futures.add(discordApi.fetchUser(accessToken).sendAsync());
+        }
+
+        for (CompletableFuture<DiscordUser> future : futures) {
+            Assertions.assertEquals("7", future.get(10, TimeUnit.SECONDS).getId());
+        }
+    }
+
+    @Test
+    public void testInjectedTooManyRequestsAreRetried() throws IOException {
+        start(new DiscordStandInServer.Builder()
+                      .withPermissive(true)
+                      .withThreads(1)
+                      .withSeed(1)
+                      .withFaults(new DiscordStandInFaults.Builder().withTooManyRequests(0.3, Duration.ofMillis(20)).build()));
+
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertNotNull(discordApi.fetchUser("token").send().getId());
+        }
+
+        Assertions.assertTrue(server.getFaultCount(DiscordStandInServer.Fault.TOO_MANY_REQUESTS) > 0);
+        Assertions.assertEquals(20 + server.getFaultCount(DiscordStandInServer.Fault.TOO_MANY_REQUESTS), server.getRequestCount());
+    }
+
+    @Test
+    public void testServerErrorsAreRetriedByRetryPolicy() throws IOException {
+        DiscordRetryPolicy retryPolicy = new DiscordRetryPolicy.Builder()
+                .withMaxRetries(20)
+                .withInitialBackoff(Duration.ofMillis(1))
+                .withMaxBackoff(Duration.ofMillis(5))
+                .build();
+
+        start(new DiscordStandInServer.Builder()
+                      .withPermissive(true)
+                      .withThreads(1)
+                      .withSeed(2)
+                      .withFaults(new DiscordStandInFaults.Builder().withServerErrors(0.5).build()),
+              new DiscordHttpClientConfig.Builder().withRetryPolicy(retryPolicy).build());
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertNull(discordOAuth.revokeTokens("token").send().getError());
+        }
+
+        Assertions.assertTrue(server.getFaultCount(DiscordStandInServer.Fault.SERVER_ERROR) > 0);
+    }
+
+    @Test
+    public void testConnectionReset() throws IOException {
+        start(new DiscordStandInServer.Builder().withPermissive(true).withFaults(new DiscordStandInFaults.Builder().withConnectionResets(1).build()));
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> discordOAuth.revokeTokens("token").sendAsync().get(10, TimeUnit.SECONDS));
+
+        Assertions.assertInstanceOf(IOException.class, exception.getCause());
+        Assertions.assertTrue(server.getFaultCount(DiscordStandInServer.Fault.CONNECTION_RESET) > 0);
+    }
+
+    @Test
+    public void testLatencyAndSlowBody() throws IOException {
+        start(new DiscordStandInServer.Builder()
+                      .withPermissive(true)
+                      .withFaults(new DiscordStandInFaults.Builder()
+                                          .withLatency(LatencyDistribution.fixed(Duration.ofMillis(100)))
+                                          .withSlowBodies(1, 128, Duration.ofMillis(20))
+                                          .build()));
+
+        long startNanos = System.nanoTime();
+        DiscordUser user = discordApi.fetchUser("token").send();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        int chunks = (DiscordStandInServer.USER_RESPONSE.length() + 127) / 128;
+
+        Assertions.assertEquals("80351110224678912", user.getId());
+        Assertions.assertTrue(elapsedMillis >= 100 + chunks * 20L, "Elapsed " + elapsedMillis + " ms");
+        Assertions.assertEquals(1, server.getFaultCount(DiscordStandInServer.Fault.SLOW_BODY));
+    }
+
+    @Test
+    public void testFaultRatesAreValidated() {
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordStandInFaults.Builder().withServerErrors(1.5).build());
+        Assertions.assertThrows(IllegalStateException.class, () -> new DiscordStandInFaults.Builder().withServerErrors(0.6).withConnectionResets(0.6).build());
+    }
+
+    @Test
+    public void testLatencyDistributions() {
+        Random random = new Random(3);
+        LatencyDistribution uniform = LatencyDistribution.uniform(Duration.ofMillis(10), Duration.ofMillis(20));
+        LatencyDistribution logNormal = LatencyDistribution.logNormal(Duration.ofMillis(10), Duration.ofMillis(100));
+        long[] samples = new long[10000];
+
+        for (int i = 0; i < samples.length; i++) {
+            long sample = uniform.sampleNanos(random);
+            Assertions.assertTrue(sample >= 10_000_000 && sample <= 20_000_000);
+            samples[i] = logNormal.sampleNanos(random);
+        }
+
+        Arrays.sort(samples);
+
+        // Within 20% of the configured percentiles
+        Assertions.assertEquals(10_000_000, samples[samples.length / 2], 2_000_000);
+        Assertions.assertEquals(100_000_000, samples[samples.length * 99 / 100], 20_000_000);
+    }
+}
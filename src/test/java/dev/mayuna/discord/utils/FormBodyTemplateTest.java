@@ -0,0 +1,74 @@
+package dev.mayuna.discord.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+public class FormBodyTemplateTest {
+
+    private final FormBodyTemplate template = new FormBodyTemplate(new String[]{
+            "client_id", "1234",
+            "redirect_uri", "https://localhost:8080"
+    }, "code");
+
+    @Test
+    public void testCreateBody() {
+        Assertions.assertEquals("client_id=1234&redirect_uri=https%3A%2F%2Flocalhost%3A8080&code=abc", template.createBody("abc"));
+        Assertions.assertEquals("client_id=1234&redirect_uri=https%3A%2F%2Flocalhost%3A8080&code=a%26b", template.createBody("a&b"));
+    }
+
+    @Test
+    public void testCreateBodyPublisher() {
+        HttpRequest.BodyPublisher bodyPublisher = template.createBodyPublisher("a&b");
+        String expected = template.createBody("a&b");
+
+        Assertions.assertEquals(expected.length(), bodyPublisher.contentLength());
+        Assertions.assertEquals(expected, readBody(bodyPublisher));
+
+        // Publisher can be subscribed to repeatedly, e.g., when the request is retried
+        Assertions.assertEquals(expected, readBody(bodyPublisher));
+    }
+
+    @Test
+    public void testInvalidParameters() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new FormBodyTemplate(new String[]{"client_id"}, "code"));
+        Assertions.assertThrows(NullPointerException.class, () -> new FormBodyTemplate(null, "code"));
+    }
+
+    private static String readBody(HttpRequest.BodyPublisher bodyPublisher) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CompletableFuture<String> future = new CompletableFuture<>();
+
+        bodyPublisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] bytes = new byte[item.remaining()];
+                item.get(bytes);
+                outputStream.writeBytes(bytes);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(outputStream.toString(StandardCharsets.US_ASCII));
+            }
+        });
+
+        return future.join();
+    }
+}
@@ -0,0 +1,86 @@
+package dev.mayuna.discord.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class HierarchicalTimingWheelTest {
+
+    @Test
+    public void testTimeoutsExpireInOrder() throws InterruptedException {
+        try (HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(5, 2, 3, "test-wheel")) {
+            List<Integer> expired = new CopyOnWriteArrayList<>();
+            CountDownLatch latch = new CountDownLatch(3);
+            long now = System.currentTimeMillis();
+
+            // With 4 slots per level, these land in the first, second and third level
+            wheel.schedule(now + 250, () -> { expired.add(3); latch.countDown(); });
+            wheel.schedule(now + 10, () -> { expired.add(1); latch.countDown(); });
+            wheel.schedule(now + 60, () -> { expired.add(2); latch.countDown(); });
+
+            Assertions.assertEquals(3, wheel.getPendingTimeouts());
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(List.of(1, 2, 3), expired);
+            Assertions.assertEquals(0, wheel.getPendingTimeouts());
+        }
+    }
+
+    @Test
+    public void testTimeoutIsNotRunBeforeDeadline() throws InterruptedException {
+        try (HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(5, 2, 2, "test-wheel")) {
+            CountDownLatch latch = new CountDownLatch(1);
+            long deadline = System.currentTimeMillis() + 200;
+            long[] expiredAt = new long[1];
+
+            // Further than the wheel covers (4 * 4 * 5 ms), so it is parked in the overflow first
+            wheel.schedule(deadline, () -> { expiredAt[0] = System.currentTimeMillis(); latch.countDown(); });
+
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(expiredAt[0] >= deadline - wheel.getTickMillis());
+        }
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        try (HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(5, 4, 2, "test-wheel")) {
+            CountDownLatch latch = new CountDownLatch(1);
+            long now = System.currentTimeMillis();
+
+            HierarchicalTimingWheel.Timeout cancelled = wheel.schedule(now + 20, () -> Assertions.fail("Cancelled timeout was run"));
+            HierarchicalTimingWheel.Timeout expired = wheel.schedule(now + 100, latch::countDown);
+
+            Assertions.assertTrue(cancelled.cancel());
+            Assertions.assertFalse(cancelled.cancel());
+            Assertions.assertTrue(cancelled.isCancelled());
+
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(expired.isExpired());
+            Assertions.assertFalse(expired.cancel());
+            Assertions.assertEquals(0, wheel.getPendingTimeouts());
+        }
+    }
+
+    @Test
+    public void testPastDeadline() throws InterruptedException {
+        try (HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(5, 4, 2, "test-wheel")) {
+            CountDownLatch latch = new CountDownLatch(100);
+
+            for (int i = 0; i < 100; i++) {
+                wheel.schedule(0, latch::countDown);
+            }
+
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel(0, 4, 2, "test-wheel"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel(1, 0, 2, "test-wheel"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel(1, 32, 2, "test-wheel"));
+    }
+}
@@ -0,0 +1,88 @@
+package dev.mayuna.discord.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongLongHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        LongLongHashMap map = new LongLongHashMap();
+
+        Assertions.assertEquals(-1, map.put(677516608778928129L, 10, -1));
+        Assertions.assertEquals(10, map.put(677516608778928129L, 20, -1));
+        Assertions.assertEquals(20, map.get(677516608778928129L, -1));
+        Assertions.assertEquals(-1, map.get(1, -1));
+        Assertions.assertEquals(1, map.size());
+
+        Assertions.assertEquals(20, map.remove(677516608778928129L, -1));
+        Assertions.assertEquals(-1, map.remove(677516608778928129L, -1));
+        Assertions.assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testZeroKey() {
+        LongLongHashMap map = new LongLongHashMap();
+
+        map.put(0, 5, -1);
+        map.put(16, 6, -1);
+
+        Assertions.assertEquals(5, map.get(0, -1));
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals(5, map.remove(0, -1));
+        Assertions.assertEquals(-1, map.get(0, -1));
+        Assertions.assertEquals(6, map.get(16, -1));
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // Small key range, so removals often shift clusters back
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5000);
+
+            if (random.nextInt(3) == 0) {
+                Long removed = expected.remove(key);
+                Assertions.assertEquals(removed != null ? removed : -1, map.remove(key, -1));
+            } else {
+                Long previous = expected.put(key, (long) i);
+                Assertions.assertEquals(previous != null ? previous : -1, map.put(key, i, -1));
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), map.size());
+
+        for (long key = 0; key < 5000; key++) {
+            Assertions.assertEquals((long) expected.getOrDefault(key, -1L), map.get(key, -1));
+        }
+
+        Map<Long, Long> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        Assertions.assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testClear() {
+        LongLongHashMap map = new LongLongHashMap(1000);
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i, -1);
+        }
+
+        map.clear();
+
+        Assertions.assertEquals(0, map.size());
+        Assertions.assertEquals(-1, map.get(0, -1));
+        Assertions.assertEquals(-1, map.get(500, -1));
+
+        map.put(500, 1, -1);
+        Assertions.assertEquals(1, map.get(500, -1));
+    }
+}
@@ -0,0 +1,43 @@
+package dev.mayuna.discord.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class PercentEncodingTest {
+
+    @Test
+    public void testUnreservedCharactersAreKept() {
+        String value = "abcXYZ019-._~";
+
+        Assertions.assertEquals(value, PercentEncoding.encode(value));
+        Assertions.assertEquals(value.length(), PercentEncoding.encodedLength(value));
+    }
+
+    @Test
+    public void testReservedCharactersAreEncoded() {
+        Assertions.assertEquals("https%3A%2F%2Flocalhost%3A8080%2Fcallback%3Fa%3Db%26c", PercentEncoding.encode("https://localhost:8080/callback?a=b&c"));
+        Assertions.assertEquals("identify%20guilds%2Bemail", PercentEncoding.encode("identify guilds+email"));
+    }
+
+    @Test
+    public void testNonAsciiCharactersAreEncodedAsUtf8() {
+        Assertions.assertEquals("%C5%BElu%C5%A5ou%C4%8Dk%C3%BD%20k%C5%AF%C5%88", PercentEncoding.encode("\u017Elu\u0165ou\u010Dk\u00FD k\u016F\u0148"));
+        Assertions.assertEquals("%F0%9F%98%80", PercentEncoding.encode("\uD83D\uDE00"));
+    }
+
+    @Test
+    public void testEncodeIntoArray() {
+        String[] values = new String[]{"token123", "a b&c", "\uD83D\uDE00x"};
+
+        for (String value : values) {
+            byte[] target = new byte[PercentEncoding.encodedLength(value) + 2];
+            int end = PercentEncoding.encode(value, target, 1);
+
+            Assertions.assertEquals(target.length - 1, end);
+            Assertions.assertEquals(PercentEncoding.encode(value), new String(target, 1, end - 1, StandardCharsets.US_ASCII));
+            Assertions.assertArrayEquals(PercentEncoding.encodeToBytes(value), PercentEncoding.encode(value).getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+}
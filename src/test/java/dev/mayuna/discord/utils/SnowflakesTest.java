@@ -0,0 +1,41 @@
+package dev.mayuna.discord.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SnowflakesTest {
+
+    // Example from Discord's documentation
+    private static final long SNOWFLAKE = 175928847299117063L;
+
+    @Test
+    public void testParse() {
+        Assertions.assertEquals(SNOWFLAKE, Snowflakes.parse("175928847299117063"));
+        Assertions.assertEquals(SNOWFLAKE, Snowflakes.parse(new StringBuilder("175928847299117063")));
+        Assertions.assertEquals(Long.MAX_VALUE, Snowflakes.parse(String.valueOf(Long.MAX_VALUE)));
+
+        Assertions.assertThrows(NumberFormatException.class, () -> Snowflakes.parse(""));
+        Assertions.assertThrows(NumberFormatException.class, () -> Snowflakes.parse("-1"));
+        Assertions.assertThrows(NumberFormatException.class, () -> Snowflakes.parse("17592884729911706a"));
+        Assertions.assertThrows(NumberFormatException.class, () -> Snowflakes.parse("9223372036854775808"));
+        Assertions.assertThrows(NumberFormatException.class, () -> Snowflakes.parse("99999999999999999999"));
+    }
+
+    @Test
+    public void testParts() {
+        Assertions.assertEquals(1462015105796L, Snowflakes.getCreatedAt(SNOWFLAKE));
+        Assertions.assertEquals(1, Snowflakes.getWorkerId(SNOWFLAKE));
+        Assertions.assertEquals(0, Snowflakes.getProcessId(SNOWFLAKE));
+        Assertions.assertEquals(7, Snowflakes.getIncrement(SNOWFLAKE));
+    }
+
+    @Test
+    public void testFromCreatedAt() {
+        long snowflake = Snowflakes.fromCreatedAt(1462015105796L);
+
+        Assertions.assertEquals(1462015105796L, Snowflakes.getCreatedAt(snowflake));
+        Assertions.assertTrue(snowflake <= SNOWFLAKE);
+        Assertions.assertEquals(0, Snowflakes.fromCreatedAt(Snowflakes.DISCORD_EPOCH));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Snowflakes.fromCreatedAt(Snowflakes.DISCORD_EPOCH - 1));
+    }
+}
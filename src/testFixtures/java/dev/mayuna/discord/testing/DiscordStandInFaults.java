@@ -0,0 +1,157 @@
+package dev.mayuna.discord.testing;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Faults injected by {@link DiscordStandInServer}. Each request gets the added latency and then, with the given probabilities, at most one of the
+ * faults: {@code 429 Too Many Requests} with Discord's rate limit headers and body, {@code 5xx} server error, connection closed without a response,
+ * or a body sent slowly in small chunks.
+ */
+@Getter
+public class DiscordStandInFaults {
+
+    /**
+     * No faults, responses are sent immediately.
+     */
+    public static final DiscordStandInFaults NONE = new Builder().build();
+
+    private final LatencyDistribution latency;
+    private final double tooManyRequestsRate;
+    private final Duration retryAfter;
+    private final double serverErrorRate;
+    private final double connectionResetRate;
+    private final double slowBodyRate;
+    private final int slowBodyChunkSize;
+    private final Duration slowBodyChunkDelay;
+
+    private DiscordStandInFaults(Builder builder) {
+        this.latency = builder.latency;
+        this.tooManyRequestsRate = builder.tooManyRequestsRate;
+        this.retryAfter = builder.retryAfter;
+        this.serverErrorRate = builder.serverErrorRate;
+        this.connectionResetRate = builder.connectionResetRate;
+        this.slowBodyRate = builder.slowBodyRate;
+        this.slowBodyChunkSize = builder.slowBodyChunkSize;
+        this.slowBodyChunkDelay = builder.slowBodyChunkDelay;
+    }
+
+    /**
+     * Builder for {@link DiscordStandInFaults}.
+     */
+    @Getter
+    public static class Builder {
+
+        private LatencyDistribution latency = LatencyDistribution.NONE;
+        private double tooManyRequestsRate;
+        private Duration retryAfter = Duration.ofSeconds(1);
+        private double serverErrorRate;
+        private double connectionResetRate;
+        private double slowBodyRate;
+        private int slowBodyChunkSize = 16;
+        private Duration slowBodyChunkDelay = Duration.ofMillis(50);
+
+        /**
+         * Creates new {@link DiscordStandInFaults.Builder} instance without any faults.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Sets the latency added before each response.
+         *
+         * @param latency Nonnull latency distribution.
+         *
+         * @return The DiscordStandInFaults.Builder instance.
+         */
+        public @NotNull Builder withLatency(@NonNull LatencyDistribution latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Sets the probability of responding with {@code 429 Too Many Requests}.
+         *
+         * @param tooManyRequestsRate Probability, 0 to 1.
+         * @param retryAfter          Nonnull time sent in {@code Retry-After}.
+         *
+         * @return The DiscordStandInFaults.Builder instance.
+         */
+        public @NotNull Builder withTooManyRequests(double tooManyRequestsRate, @NonNull Duration retryAfter) {
+            this.tooManyRequestsRate = tooManyRequestsRate;
+            this.retryAfter = retryAfter;
+            return this;
+        }
+
+        /**
+         * Sets the probability of responding with {@code 500}, {@code 502} or {@code 503}.
+         *
+         * @param serverErrorRate Probability, 0 to 1.
+         *
+         * @return The DiscordStandInFaults.Builder instance.
+         */
+        public @NotNull Builder withServerErrors(double serverErrorRate) {
+            this.serverErrorRate = serverErrorRate;
+            return this;
+        }
+
+        /**
+         * Sets the probability of closing the connection without a response.
+         *
+         * @param connectionResetRate Probability, 0 to 1.
+         *
+         * @return The DiscordStandInFaults.Builder instance.
+         */
+        public @NotNull Builder withConnectionResets(double connectionResetRate) {
+            this.connectionResetRate = connectionResetRate;
+            return this;
+        }
+
+        /**
+         * Sets the probability of sending the body slowly, in chunks with a delay between them.
+         *
+         * @param slowBodyRate Probability, 0 to 1.
+         * @param chunkSize    Size of the chunks in bytes.
+         * @param chunkDelay   Nonnull delay before each chunk.
+         *
+         * @return The DiscordStandInFaults.Builder instance.
+         */
+        public @NotNull Builder withSlowBodies(double slowBodyRate, int chunkSize, @NonNull Duration chunkDelay) {
+            this.slowBodyRate = slowBodyRate;
+            this.slowBodyChunkSize = chunkSize;
+            this.slowBodyChunkDelay = chunkDelay;
+            return this;
+        }
+
+        /**
+         * Builds the DiscordStandInFaults instance.
+         *
+         * @return The DiscordStandInFaults instance.
+         */
+        public @NotNull DiscordStandInFaults build() {
+            double[] rates = {tooManyRequestsRate, serverErrorRate, connectionResetRate, slowBodyRate};
+            double sum = 0;
+
+            for (double rate : rates) {
+                if (rate < 0 || rate > 1) {
+                    throw new IllegalStateException("Rates must be between 0 and 1.");
+                }
+
+                sum += rate;
+            }
+
+            if (sum > 1) {
+                throw new IllegalStateException("Sum of the rates must not be more than 1.");
+            }
+
+            if (slowBodyChunkSize <= 0) {
+                throw new IllegalStateException("Slow body chunk size must be positive.");
+            }
+
+            return new DiscordStandInFaults(this);
+        }
+    }
+}
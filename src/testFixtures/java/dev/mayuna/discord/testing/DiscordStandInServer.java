@@ -0,0 +1,823 @@
+package dev.mayuna.discord.testing;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Getter;
+import lombok.NonNull;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in of Discord's {@code /oauth2/token}, {@code /oauth2/token/revoke}, {@code /users/@me} and {@code /users/@me/guilds} endpoints
+ * for tests, benchmarks and load tests.<br>By default, the server behaves like Discord for any number of users: codes created by
+ * {@link #createCode(long)} are exchanged once, refresh tokens are rotated, revoked tokens stop working, {@code /users/@me} returns the token's user
+ * and {@code /users/@me/guilds} pages through the guilds set by {@link #setGuilds(long, long...)}. In permissive mode, it checks only that
+ * the requests carry the grant type, client credentials, token or authorization header and answers with the same canned responses, so its cost per
+ * request stays constant.<br>{@link DiscordStandInFaults} adds latency and injects {@code 429 Too Many Requests} with Discord's rate limit headers,
+ * {@code 5xx} server errors, connection resets and slow bodies; {@link Builder#withRateLimit(int, Duration)} enforces a per-route and per-user rate
+ * limit. Delays are scheduled, no thread sleeps, so thousands of delayed responses need only a few threads. Its threads are named
+ * {@link #THREAD_NAME_PREFIX}, so load tests can exclude them when measuring the client's allocations.
+ * <p>
+ * The JDK HTTP server writes the response headers and body separately, so without {@code sun.net.httpserver.nodelay=true} Nagle's algorithm delays
+ * each response by tens of milliseconds. The server sets the property if it is not set, which takes effect only if no other JDK HTTP server was
+ * created in the JVM before.
+ */
+public class DiscordStandInServer {
+
+    public static final String THREAD_NAME_PREFIX = "discord-stand-in-";
+
+    public static final String ACCESS_TOKEN_RESPONSE = "{\"access_token\":\"6qrZcUqja7812RVdnEKjpzOL4CvHBFG\",\"token_type\":\"Bearer\",\"expires_in\":604800,"
+            + "\"refresh_token\":\"D43f5y0ahjqew82jZ4NViEr2YafMKhue\",\"scope\":\"identify guilds\"}";
+
+    public static final String USER_RESPONSE = "{\"id\":\"80351110224678912\",\"username\":\"Nelly\",\"discriminator\":\"1337\",\"global_name\":\"Nelly\","
+            + "\"avatar\":\"8342729096ea3675442027381ff50dfe\",\"verified\":true,\"email\":\"nelly@discord.com\",\"flags\":64,\"banner\":\"06c16474723fe537c283b8efa61a30c8\","
+            + "\"accent_color\":16711680,\"premium_type\":1,\"public_flags\":64,\"locale\":\"en-US\",\"mfa_enabled\":true}";
+
+    public static final String GUILDS_RESPONSE = "[{\"id\":\"80351110224678912\",\"name\":\"1337 Krew\",\"icon\":\"8342729096ea3675442027381ff50dfe\","
+            + "\"banner\":null,\"owner\":true,\"permissions\":\"36953089\",\"features\":[\"COMMUNITY\",\"NEWS\"]}]";
+
+    public static final String UNAUTHORIZED_RESPONSE = "{\"message\":\"401: Unauthorized\",\"code\":0}";
+
+    public static final long ACCESS_TOKEN_EXPIRES_IN = 604800;
+    public static final int MAX_GUILD_PAGE_SIZE = 200;
+
+    private static final String INVALID_REQUEST_RESPONSE = "{\"error\":\"invalid_request\",\"error_description\":\"Invalid request\"}";
+    private static final int[] SERVER_ERROR_STATUS_CODES = {500, 502, 503};
+
+    static {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final @Getter @Nullable String clientId;
+    private final @Getter @Nullable String clientSecret;
+    private final @Getter @Nullable String redirectUrl;
+    private final @Getter @NotNull String scope;
+    private final @Getter boolean permissive;
+    private final @Getter @NotNull DiscordStandInFaults faults;
+    private final @Getter int rateLimit;
+    private final @Getter @NotNull Duration rateLimitResetAfter;
+
+    private final HttpServer httpServer;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Random random;
+    private final AtomicLong tokenCounter = new AtomicLong();
+
+    private final Map<String, Long> codes = new ConcurrentHashMap<>();
+    private final Map<String, Grant> accessTokens = new ConcurrentHashMap<>();
+    private final Map<String, Grant> refreshTokens = new ConcurrentHashMap<>();
+    private final Map<String, RateLimitBucket> rateLimitBuckets = new ConcurrentHashMap<>();
+    private final Map<Long, long[]> guilds = new ConcurrentHashMap<>();
+
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder rejectedRequestCount = new LongAdder();
+    private final LongAdder rateLimitedRequestCount = new LongAdder();
+    private final LongAdder[] faultCounts = new LongAdder[Fault.values().length];
+
+    private DiscordStandInServer(Builder builder) throws IOException {
+        this.clientId = builder.clientId;
+        this.clientSecret = builder.clientSecret;
+        this.redirectUrl = builder.redirectUrl;
+        this.scope = builder.scope;
+        this.permissive = builder.permissive;
+        this.faults = builder.faults;
+        this.rateLimit = builder.rateLimit;
+        this.rateLimitResetAfter = builder.rateLimitResetAfter;
+        this.random = builder.seed != null ? new Random(builder.seed) : new Random();
+
+        for (int i = 0; i < faultCounts.length; i++) {
+            faultCounts[i] = new LongAdder();
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        // Handles the requests and sends the delayed responses
+        this.executor = new ScheduledThreadPoolExecutor(builder.threads, runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+
+        // Large backlog, so thousands of concurrent connections are not refused
+        this.httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/oauth2/token/revoke", exchange -> handle(exchange, Endpoint.REVOKE));
+        httpServer.createContext("/oauth2/token", exchange -> handle(exchange, Endpoint.TOKEN));
+        httpServer.createContext("/users/@me/guilds", exchange -> handle(exchange, Endpoint.GUILDS));
+        httpServer.createContext("/users/@me", exchange -> handle(exchange, Endpoint.USER));
+    }
+
+    /**
+     * Creates a new permissive DiscordStandInServer without faults, see {@link Builder#withPermissive(boolean)}.
+     *
+     * @param threads Number of threads handling the requests.
+     *
+     * @return The server, not yet started.
+     *
+     * @throws IOException If the server could not be bound.
+     */
+    public static @NotNull DiscordStandInServer permissive(int threads) throws IOException {
+        return new Builder().withPermissive(true).withThreads(threads).build();
+    }
+
+    /**
+     * Gets the URL of the server, to be used as {@code DiscordApplication.Builder#withApiUrl(String)}.
+     *
+     * @return The URL of the server.
+     */
+    public @NotNull String getUrl() {
+        return "http://localhost:" + httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Starts the server.
+     */
+    public void start() {
+        httpServer.start();
+    }
+
+    /**
+     * Stops the server. Delayed responses which were not sent yet are dropped.
+     */
+    public void stop() {
+        httpServer.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates a single-use authorization code for the user, as if the user authorized the application.
+     *
+     * @param userId User's snowflake ID, returned by {@code /users/@me}.
+     *
+     * @return The code.
+     */
+    public @NotNull String createCode(long userId) {
+        String code = nextToken("code");
+        codes.put(code, userId);
+        return code;
+    }
+
+    /**
+     * Sets the guilds the user is member of, returned by {@code /users/@me/guilds}.
+     *
+     * @param userId   User's snowflake ID.
+     * @param guildIds Nonnull guild IDs. The array is copied.
+     */
+    public void setGuilds(long userId, @NonNull long... guildIds) {
+        long[] sortedGuildIds = guildIds.clone();
+        Arrays.sort(sortedGuildIds);
+        guilds.put(userId, sortedGuildIds);
+    }
+
+    /**
+     * Gets the number of access tokens which were issued and were neither refreshed nor revoked.
+     *
+     * @return Number of access tokens.
+     */
+    public int getActiveAccessTokenCount() {
+        return accessTokens.size();
+    }
+
+    /**
+     * Gets the number of received requests, including the rate limited ones and the ones with injected faults.
+     *
+     * @return Number of requests.
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * Gets the number of requests answered with an error by the endpoints, e.g., with an unknown code or token.
+     *
+     * @return Number of rejected requests.
+     */
+    public long getRejectedRequestCount() {
+        return rejectedRequestCount.sum();
+    }
+
+    /**
+     * Gets the number of requests answered with {@code 429 Too Many Requests} because they exceeded the rate limit. Injected 429s are counted by
+     * {@link #getFaultCount(Fault)}.
+     *
+     * @return Number of rate limited requests.
+     */
+    public long getRateLimitedRequestCount() {
+        return rateLimitedRequestCount.sum();
+    }
+
+    /**
+     * Gets the number of injected faults of the type.
+     *
+     * @param fault Nonnull fault type.
+     *
+     * @return Number of faults.
+     */
+    public long getFaultCount(@NonNull Fault fault) {
+        return faultCounts[fault.ordinal()].sum();
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        String body = readBody(exchange);
+        requestCount.increment();
+
+        long delayNanos = faults.getLatency().sampleNanos(random);
+        Fault fault = sampleFault();
+
+        if (fault != null) {
+            faultCounts[fault.ordinal()].increment();
+        }
+
+        if (fault == Fault.CONNECTION_RESET) {
+            // Closing the exchange before sending the headers closes the connection
+            schedule(exchange::close, delayNanos);
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        // Query of the GET endpoints, form body of the POST ones
+        String query = exchange.getRequestURI().getRawQuery();
+        Map<String, String> parameters = parseForm(endpoint == Endpoint.GUILDS ? (query != null ? query : "") : body);
+
+        if (rateLimit > 0 && !acquireRateLimit(exchange, endpoint, parameters)) {
+            rateLimitedRequestCount.increment();
+            send(exchange, 429, rateLimitedBody(exchange.getResponseHeaders().getFirst("Retry-After")), false, delayNanos);
+            return;
+        }
+
+        if (fault == Fault.TOO_MANY_REQUESTS) {
+            String retryAfter = formatSeconds(faults.getRetryAfter().toMillis());
+            exchange.getResponseHeaders().set("Retry-After", retryAfter);
+            exchange.getResponseHeaders().set("X-RateLimit-Scope", "user");
+            send(exchange, 429, rateLimitedBody(retryAfter), false, delayNanos);
+            return;
+        }
+
+        if (fault == Fault.SERVER_ERROR) {
+            int statusCode = SERVER_ERROR_STATUS_CODES[random.nextInt(SERVER_ERROR_STATUS_CODES.length)];
+            send(exchange, statusCode, "{\"message\":\"" + statusCode + ": Server Error\",\"code\":0}", false, delayNanos);
+            return;
+        }
+
+        String responseBody;
+
+        switch (endpoint) {
+            case TOKEN:
+                responseBody = handleToken(parameters);
+                break;
+            case REVOKE:
+                responseBody = handleRevoke(parameters);
+                break;
+            case GUILDS:
+                responseBody = handleGuilds(exchange.getRequestHeaders().getFirst("Authorization"), parameters);
+                break;
+            default:
+                responseBody = handleUser(exchange.getRequestHeaders().getFirst("Authorization"));
+                break;
+        }
+
+        if (responseBody == null) {
+            rejectedRequestCount.increment();
+            boolean userEndpoint = endpoint == Endpoint.USER || endpoint == Endpoint.GUILDS;
+            send(exchange, userEndpoint ? 401 : 400, userEndpoint ? UNAUTHORIZED_RESPONSE : INVALID_REQUEST_RESPONSE, false, delayNanos);
+            return;
+        }
+
+        send(exchange, 200, responseBody, fault == Fault.SLOW_BODY, delayNanos);
+    }
+
+    /**
+     * @return The response's body, or null if the request is invalid.
+     */
+    private @Nullable String handleToken(Map<String, String> parameters) {
+        if (!isClientAuthenticated(parameters)) {
+            return null;
+        }
+
+        String grantType = parameters.get("grant_type");
+
+        if ("authorization_code".equals(grantType)) {
+            String code = parameters.get("code");
+
+            if (code == null || redirectUrl != null && !redirectUrl.equals(parameters.get("redirect_uri"))) {
+                return null;
+            }
+
+            if (permissive) {
+                return ACCESS_TOKEN_RESPONSE;
+            }
+
+            Long userId = codes.remove(code);
+            return userId != null ? issueTokens(userId) : null;
+        }
+
+        if ("refresh_token".equals(grantType)) {
+            String refreshToken = parameters.get("refresh_token");
+
+            if (refreshToken == null) {
+                return null;
+            }
+
+            if (permissive) {
+                return ACCESS_TOKEN_RESPONSE;
+            }
+
+            // Refresh tokens are rotated, the old ones stop working
+            Grant grant = refreshTokens.remove(refreshToken);
+
+            if (grant == null) {
+                return null;
+            }
+
+            accessTokens.remove(grant.accessToken);
+            return issueTokens(grant.userId);
+        }
+
+        return null;
+    }
+
+    private @Nullable String handleRevoke(Map<String, String> parameters) {
+        String token = parameters.get("token");
+
+        if (token == null || !isClientAuthenticated(parameters)) {
+            return null;
+        }
+
+        if (!permissive) {
+            // Revokes both tokens of the grant, unknown tokens are ignored like Discord does
+            Grant grant = accessTokens.get(token);
+
+            if (grant == null) {
+                grant = refreshTokens.get(token);
+            }
+
+            if (grant != null) {
+                accessTokens.remove(grant.accessToken);
+                refreshTokens.remove(grant.refreshToken);
+            }
+        }
+
+        return "{}";
+    }
+
+    private @Nullable String handleUser(@Nullable String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+
+        if (permissive) {
+            return USER_RESPONSE;
+        }
+
+        Grant grant = accessTokens.get(authorization.substring("Bearer ".length()));
+
+        if (grant == null) {
+            return null;
+        }
+
+        long userId = grant.userId;
+
+        return "{\"id\":\"" + userId + "\",\"username\":\"user" + userId + "\",\"discriminator\":\"0\",\"global_name\":\"User " + userId + "\","
+                + "\"avatar\":null,\"verified\":true,\"email\":\"user" + userId + "@example.com\",\"flags\":0,\"premium_type\":0,\"public_flags\":0,"
+                + "\"locale\":\"en-US\",\"mfa_enabled\":false}";
+    }
+
+    private @Nullable String handleGuilds(@Nullable String authorization, Map<String, String> parameters) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+
+        if (permissive) {
+            return GUILDS_RESPONSE;
+        }
+
+        Grant grant = accessTokens.get(authorization.substring("Bearer ".length()));
+
+        if (grant == null) {
+            return null;
+        }
+
+        long[] guildIds = guilds.getOrDefault(grant.userId, new long[0]);
+        int limit;
+        long before;
+        long after;
+
+        try {
+            limit = Integer.parseInt(parameters.getOrDefault("limit", String.valueOf(MAX_GUILD_PAGE_SIZE)));
+            before = Long.parseLong(parameters.getOrDefault("before", String.valueOf(Long.MAX_VALUE)));
+            after = Long.parseLong(parameters.getOrDefault("after", "0"));
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+
+        if (limit < 1 || limit > MAX_GUILD_PAGE_SIZE) {
+            return null;
+        }
+
+        // Guilds right after "after", or right before "before" when only it is set, in ascending order like Discord
+        int start = lowerBound(guildIds, after + 1);
+        int end = lowerBound(guildIds, before);
+
+        if (parameters.containsKey("before") && !parameters.containsKey("after")) {
+            start = Math.max(start, end - limit);
+        } else {
+            end = Math.min(end, start + limit);
+        }
+
+        StringBuilder builder = new StringBuilder("[");
+
+        for (int i = start; i < end; i++) {
+            builder.append(i > start ? "," : "").append("{\"id\":\"").append(guildIds[i]).append("\",\"name\":\"Guild ").append(guildIds[i])
+                   .append("\",\"icon\":null,\"banner\":null,\"owner\":false,\"permissions\":\"104189505\",\"features\":[]}");
+        }
+
+        return builder.append(']').toString();
+    }
+
+    private boolean isClientAuthenticated(Map<String, String> parameters) {
+        String requestClientId = parameters.get("client_id");
+        String requestClientSecret = parameters.get("client_secret");
+
+        return requestClientId != null && requestClientSecret != null
+                && (clientId == null || clientId.equals(requestClientId))
+                && (clientSecret == null || clientSecret.equals(requestClientSecret));
+    }
+
+    private String issueTokens(long userId) {
+        Grant grant = new Grant(userId, nextToken("access"), nextToken("refresh"));
+
+        accessTokens.put(grant.accessToken, grant);
+        refreshTokens.put(grant.refreshToken, grant);
+
+        return "{\"access_token\":\"" + grant.accessToken + "\",\"token_type\":\"Bearer\",\"expires_in\":" + ACCESS_TOKEN_EXPIRES_IN + ","
+                + "\"refresh_token\":\"" + grant.refreshToken + "\",\"scope\":\"" + scope + "\"}";
+    }
+
+    private String nextToken(String prefix) {
+        return prefix + Long.toString(tokenCounter.incrementAndGet(), 36) + Long.toHexString(random.nextLong());
+    }
+
+    private @Nullable Fault sampleFault() {
+        if (faults == DiscordStandInFaults.NONE) {
+            return null;
+        }
+
+        double sample = random.nextDouble();
+
+        if ((sample -= faults.getTooManyRequestsRate()) < 0) {
+            return Fault.TOO_MANY_REQUESTS;
+        }
+
+        if ((sample -= faults.getServerErrorRate()) < 0) {
+            return Fault.SERVER_ERROR;
+        }
+
+        if ((sample -= faults.getConnectionResetRate()) < 0) {
+            return Fault.CONNECTION_RESET;
+        }
+
+        if (sample - faults.getSlowBodyRate() < 0) {
+            return Fault.SLOW_BODY;
+        }
+
+        return null;
+    }
+
+    /**
+     * Counts the request in its bucket and sets the rate limit headers, like Discord does.
+     *
+     * @return True if the request is within the rate limit, false if it should be answered with 429.
+     */
+    private boolean acquireRateLimit(HttpExchange exchange, Endpoint endpoint, Map<String, String> parameters) {
+        // Per route and user, or per route and client for the token endpoints
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        String key = endpoint.name() + " " + (authorization != null ? authorization : parameters.getOrDefault("client_id", ""));
+        RateLimitBucket bucket = rateLimitBuckets.computeIfAbsent(key, ignored -> new RateLimitBucket());
+
+        long now = System.currentTimeMillis();
+        long resetAt;
+        int remaining;
+
+        synchronized (bucket) {
+            if (now >= bucket.resetAt) {
+                bucket.resetAt = now + rateLimitResetAfter.toMillis();
+                bucket.used = 0;
+            }
+
+            resetAt = bucket.resetAt;
+            remaining = rateLimit - ++bucket.used;
+        }
+
+        String resetAfter = formatSeconds(resetAt - now);
+
+        exchange.getResponseHeaders().set("X-RateLimit-Limit", String.valueOf(rateLimit));
+        exchange.getResponseHeaders().set("X-RateLimit-Remaining", String.valueOf(Math.max(0, remaining)));
+        exchange.getResponseHeaders().set("X-RateLimit-Reset", formatSeconds(resetAt));
+        exchange.getResponseHeaders().set("X-RateLimit-Reset-After", resetAfter);
+        exchange.getResponseHeaders().set("X-RateLimit-Bucket", Integer.toHexString(endpoint.name().hashCode()));
+
+        if (remaining < 0) {
+            exchange.getResponseHeaders().set("Retry-After", resetAfter);
+            exchange.getResponseHeaders().set("X-RateLimit-Scope", "user");
+            return false;
+        }
+
+        return true;
+    }
+
+    private void send(HttpExchange exchange, int statusCode, String body, boolean slow, long delayNanos) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+
+        schedule(() -> {
+            try {
+                exchange.sendResponseHeaders(statusCode, bytes.length);
+
+                if (slow) {
+                    writeChunk(exchange, bytes, 0);
+                    return;
+                }
+
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(bytes);
+                }
+            } catch (IOException exception) {
+                // Client went away
+                exchange.close();
+            }
+        }, delayNanos);
+    }
+
+    private void writeChunk(HttpExchange exchange, byte[] bytes, int offset) {
+        schedule(() -> {
+            try {
+                OutputStream outputStream = exchange.getResponseBody();
+                int length = Math.min(faults.getSlowBodyChunkSize(), bytes.length - offset);
+
+                outputStream.write(bytes, offset, length);
+                outputStream.flush();
+
+                if (offset + length < bytes.length) {
+                    writeChunk(exchange, bytes, offset + length);
+                } else {
+                    outputStream.close();
+                }
+            } catch (IOException exception) {
+                exchange.close();
+            }
+        }, faults.getSlowBodyChunkDelay().toNanos());
+    }
+
+    private void schedule(Runnable runnable, long delayNanos) {
+        if (delayNanos <= 0) {
+            runnable.run();
+        } else {
+            executor.schedule(runnable, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static int lowerBound(long[] sortedValues, long value) {
+        int index = Arrays.binarySearch(sortedValues, value);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static String rateLimitedBody(String retryAfter) {
+        return "{\"message\":\"You are being rate limited.\",\"retry_after\":" + retryAfter + ",\"global\":false}";
+    }
+
+    private static String formatSeconds(long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream inputStream = exchange.getRequestBody()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> parameters = new HashMap<>();
+
+        for (String pair : body.split("&")) {
+            int separator = pair.indexOf('=');
+
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                               URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+
+        return parameters;
+    }
+
+    /**
+     * Faults injected by {@link DiscordStandInServer}, see {@link DiscordStandInFaults}.
+     */
+    public enum Fault {
+        TOO_MANY_REQUESTS,
+        SERVER_ERROR,
+        CONNECTION_RESET,
+        SLOW_BODY
+    }
+
+    private enum Endpoint {
+        TOKEN,
+        REVOKE,
+        USER,
+        GUILDS
+    }
+
+    private static final class Grant {
+
+        private final long userId;
+        private final String accessToken;
+        private final String refreshToken;
+
+        private Grant(long userId, String accessToken, String refreshToken) {
+            this.userId = userId;
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+    }
+
+    private static final class RateLimitBucket {
+
+        private long resetAt;
+        private int used;
+    }
+
+    /**
+     * Builder for {@link DiscordStandInServer}.
+     */
+    @Getter
+    public static class Builder {
+
+        private String clientId;
+        private String clientSecret;
+        private String redirectUrl;
+        private String scope = "identify guilds";
+        private boolean permissive;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private DiscordStandInFaults faults = DiscordStandInFaults.NONE;
+        private int rateLimit;
+        private Duration rateLimitResetAfter = Duration.ofSeconds(1);
+        private Long seed;
+
+        /**
+         * Creates new {@link DiscordStandInServer.Builder} instance.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Sets the client ID which the token requests must carry. By default, any client ID is accepted.
+         *
+         * @param clientId Nonnull client ID.
+         *
+         * @return The DiscordStandInServer.Builder instance.
+         */
+        public @NotNull Builder withClientId(@NonNull String clientId) {
+            this.clientId = clientId;
+            return this;
+        }
+
+        /**
+         * Sets the client secret which the token requests must carry. By default, any client secret is accepted.
+         *
+         * @param clientSecret Nonnull client secret.
+         *
+         * @return The DiscordStandInServer.Builder instance.
+         */
+        public @NotNull Builder withClientSecret(@NonNull String clientSecret) {
+            this.clientSecret = clientSecret;
+            return this;
+        }
+
+        /**
+         * Sets the redirect URL which the code exchanges must carry. By default, any redirect URL is accepted.
+         *
+         * @param redirectUrl Nonnull redirect URL.
+         *
+         * @return The DiscordStandInServer.Builder instance.
+         */
+        public @NotNull Builder withRedirectUrl(@NonNull String redirectUrl) {
+            this.redirectUrl = redirectUrl;
+            return this;
+        }
+
+        /**
+         * Sets the scope of the issued tokens.
+         *
+         * @param scope Nonnull space-separated scopes.
+         *
+         * @return The DiscordStandInServer.Builder instance.
+         */
+        public @NotNull Builder withScope(@NonNull String scope) {
+            this.scope = scope;
+            return this;
+        }
+
+        /**
+         * Sets if the server accepts any code and token and answers with {@link #ACCESS_TOKEN_RESPONSE} and {@link #USER_RESPONSE}, keeping no
+         * state. Useful for benchmarks, where the server's cost per request should stay constant.
+         *
+         * @param permissive Permissive.
+         *
+         * @return The DiscordStandInServer.Builder instance.
+         */
+        public @NotNull Builder withPermissive(boolean permissive) {
+            this.permissive = permissive;
+            return this;
+        }
+
+        /**
+         * Sets the number of threads handling the requests and sending the delayed responses. Defaults to the number of processors.
+         *
+         * @param threads Number of threads.
+         *
+         * @return The DiscordStandInServer.Builder instance.
+         */
+        public @NotNull Builder withThreads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Sets the injected faults.
+         *
+         * @param faults Nonnull faults.
+         *
+         * @return The DiscordStandInServer.Builder instance.
+         */
+        public @NotNull Builder withFaults(@NonNull DiscordStandInFaults faults) {
+            this.faults = faults;
+            return this;
+        }
+
+        /**
+         * Sets the rate limit of each route per user, or per client for the token endpoints. Requests exceeding it are answered with
+         * {@code 429 Too Many Requests}. All responses carry the {@code X-RateLimit-*} headers. By default, there is no rate limit.
+         *
+         * @param rateLimit  Number of requests per window, or 0 for no rate limit.
+         * @param resetAfter Nonnull length of the window.
+         *
+         * @return The DiscordStandInServer.Builder instance.
+         */
+        public @NotNull Builder withRateLimit(int rateLimit, @NonNull Duration resetAfter) {
+            this.rateLimit = rateLimit;
+            this.rateLimitResetAfter = resetAfter;
+            return this;
+        }
+
+        /**
+         * Sets the seed of the random sampling the latencies and faults, so a single-threaded run is reproducible.
+         *
+         * @param seed Seed.
+         *
+         * @return The DiscordStandInServer.Builder instance.
+         */
+        public @NotNull Builder withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Builds the DiscordStandInServer instance, bound to a free port on the loopback interface.
+         *
+         * @return The DiscordStandInServer instance, not yet started.
+         *
+         * @throws IOException If the server could not be bound.
+         */
+        public @NotNull DiscordStandInServer build() throws IOException {
+            if (threads <= 0) {
+                throw new IllegalStateException("Threads must be positive.");
+            }
+
+            if (rateLimit < 0 || rateLimitResetAfter.isNegative() || rateLimitResetAfter.isZero()) {
+                throw new IllegalStateException("Rate limit must not be negative and its reset after must be positive.");
+            }
+
+            return new DiscordStandInServer(this);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package dev.mayuna.discord.testing;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Distribution of the latency added by {@link DiscordStandInServer} before it responds.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * No added latency.
+     */
+    LatencyDistribution NONE = random -> 0;
+
+    /**
+     * Samples the latency.
+     *
+     * @param random Random to sample with, so runs with the same seed are reproducible.
+     *
+     * @return The latency in nanoseconds.
+     */
+    long sampleNanos(Random random);
+
+    /**
+     * Creates a distribution always giving the same latency.
+     *
+     * @param latency Latency.
+     *
+     * @return The distribution.
+     */
+    static LatencyDistribution fixed(Duration latency) {
+        long nanos = latency.toNanos();
+        return random -> nanos;
+    }
+
+    /**
+     * Creates a distribution giving latencies uniformly distributed between the minimum and the maximum.
+     *
+     * @param min Minimum latency.
+     * @param max Maximum latency.
+     *
+     * @return The distribution.
+     */
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long rangeNanos = max.toNanos() - minNanos;
+
+        if (rangeNanos < 0) {
+            throw new IllegalArgumentException("Maximum must not be less than minimum.");
+        }
+
+        return random -> minNanos + (long) (random.nextDouble() * rangeNanos);
+    }
+
+    /**
+     * Creates a distribution giving exponentially distributed latencies, e.g., waiting in a queue.
+     *
+     * @param mean Mean latency.
+     *
+     * @return The distribution.
+     */
+    static LatencyDistribution exponential(Duration mean) {
+        double meanNanos = mean.toNanos();
+        return random -> (long) (-meanNanos * Math.log(1 - random.nextDouble()));
+    }
+
+    /**
+     * Creates a distribution giving log-normally distributed latencies, which resemble latencies of real services: most responses are close to the
+     * median, but the tail is long.
+     *
+     * @param median Median latency.
+     * @param p99    99th percentile of the latency, at least the median.
+     *
+     * @return The distribution.
+     */
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        if (p99.compareTo(median) < 0 || median.isNegative() || median.isZero()) {
+            throw new IllegalArgumentException("Median must be positive and 99th percentile must not be less than median.");
+        }
+
+        double mu = Math.log(median.toNanos());
+        // 2.326 is the 99th percentile of the standard normal distribution
+        double sigma = (Math.log(p99.toNanos()) - mu) / 2.326;
+
+        return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+}